@@ -0,0 +1,103 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.benchmark;
+
+import com.google.common.base.Ticker;
+import com.xemantic.githubusers.logic.model.SearchResult;
+import com.xemantic.githubusers.logic.model.SimpleSearchResult;
+import com.xemantic.githubusers.logic.model.User;
+import com.xemantic.githubusers.logic.service.CachingUserService;
+import io.reactivex.Single;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of the {@link CachingUserService} shared by many
+ * threads, with skewed query popularity, depending on the number of stripes.
+ * Run with {@code -t} to compare scaling with the number of threads.
+ *
+ * @author morisil
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+public class CachingUserServiceBenchmark {
+
+  private static final SearchResult PAGE = new SimpleSearchResult(
+      1000, false, Collections.nCopies(30, (User) null)
+  );
+
+  @Param({"1", "16"})
+  public int stripes;
+
+  private CachingUserService service;
+
+  @Setup
+  public void setUp() {
+    service = new CachingUserService(
+        (query, page, perPage) -> Single.just(PAGE),
+        10000,
+        1,
+        TimeUnit.HOURS,
+        Ticker.systemTicker(),
+        stripes
+    );
+  }
+
+  @State(Scope.Thread)
+  public static class Queries {
+
+    private final SplittableRandom random = new SplittableRandom();
+
+    String next() {
+      // popularity of queries roughly following power law
+      int rank = (int) Math.floor(Math.pow(2, random.nextDouble() * 16));
+      return "query" + rank;
+    }
+
+  }
+
+  @Benchmark
+  public SearchResult find(Queries queries) {
+    return service.find(queries.next(), 1, 30).blockingGet();
+  }
+
+}
@@ -0,0 +1,84 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.benchmark;
+
+import com.xemantic.ankh.shared.presenter.Presenter;
+import io.reactivex.Observable;
+import io.reactivex.subjects.PublishSubject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the {@link Presenter#start()} and {@link Presenter#stop()} cycle
+ * of the presenter registering many observables.
+ *
+ * @author morisil
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PresenterBenchmark {
+
+  @Param({"1", "10", "100"})
+  public int observableCount;
+
+  private Presenter presenter;
+
+  @Setup
+  public void setUp() {
+    presenter = new ManyObservablesPresenter(observableCount);
+  }
+
+  @Benchmark
+  public Presenter startAndStop() {
+    presenter.start();
+    presenter.stop();
+    return presenter;
+  }
+
+  private static class ManyObservablesPresenter extends Presenter {
+
+    ManyObservablesPresenter(int observableCount) {
+      for (int i = 0; i < observableCount; i++) {
+        PublishSubject<Object> subject = PublishSubject.create();
+        register(subject.map(Object::toString));
+      }
+    }
+
+  }
+
+}
@@ -0,0 +1,170 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.benchmark;
+
+import com.xemantic.ankh.shared.event.Trigger;
+import com.xemantic.githubusers.logic.event.UserQueryEvent;
+import com.xemantic.githubusers.logic.model.SearchResult;
+import com.xemantic.githubusers.logic.model.SimpleSearchResult;
+import com.xemantic.githubusers.logic.model.SimpleUser;
+import com.xemantic.githubusers.logic.model.User;
+import com.xemantic.githubusers.logic.service.UserService;
+import com.xemantic.githubusers.logic.user.UserListPresenter;
+import com.xemantic.githubusers.logic.user.UserListView;
+import com.xemantic.githubusers.logic.user.UserPresenterFactory;
+import com.xemantic.githubusers.logic.user.UserView;
+import io.reactivex.Observable;
+import io.reactivex.Single;
+import io.reactivex.schedulers.TestScheduler;
+import io.reactivex.subjects.PublishSubject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.xemantic.ankh.shared.event.Trigger.noTriggers;
+
+/**
+ * Measures the {@link UserListPresenter} pipeline end to end, from the
+ * {@link UserQueryEvent} to the {@link UserListView#add(UserView)},
+ * with an in-memory {@link UserService}. Each invocation switches the
+ * query, therefore the view is cleared and the whole first page is displayed
+ * again with the pooled {@link com.xemantic.githubusers.logic.user.UserPresenter}s.
+ *
+ * @author morisil
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserListPresenterBenchmark {
+
+  private static final String[] QUERIES = {"foo", "bar"};
+
+  @Param({"30", "100"})
+  public int pageSize;
+
+  private final PublishSubject<UserQueryEvent> userQuery$ = PublishSubject.create();
+
+  private final CountingUserListView view = new CountingUserListView();
+
+  // chunks are emitted when the page is full, time passes between queries
+  private final TestScheduler scheduler = new TestScheduler();
+
+  private UserListPresenter presenter;
+
+  private int queryIndex = 0;
+
+  @Setup
+  public void setUp() {
+    presenter = new UserListPresenter(
+        view,
+        userQuery$,
+        new InMemoryUserService(pageSize),
+        new UserPresenterFactory(NoOpUserView::new, () -> event -> {}),
+        pageSize,
+        1000,
+        0,
+        0,
+        scheduler
+    );
+    presenter.start();
+  }
+
+  @TearDown
+  public void tearDown() {
+    presenter.stop();
+  }
+
+  @Benchmark
+  public int query() {
+    userQuery$.onNext(new UserQueryEvent(QUERIES[queryIndex++ & 1]));
+    scheduler.advanceTimeBy(1, TimeUnit.SECONDS); // runs pending chunk windows
+    return view.addedCount;
+  }
+
+  private static class InMemoryUserService implements UserService {
+
+    private final Single<SearchResult> result;
+
+    InMemoryUserService(int pageSize) {
+      List<User> users = new ArrayList<>(pageSize);
+      for (int i = 0; i < pageSize; i++) {
+        users.add(new SimpleUser(
+            "user" + i,
+            "https://avatars.githubusercontent.com/u/" + i,
+            "https://github.com/user" + i
+        ));
+      }
+      result = Single.just(new SimpleSearchResult(10000, false, users));
+    }
+
+    @Override
+    public Single<SearchResult> find(String query, int page, int perPage) {
+      return result;
+    }
+
+  }
+
+  private static class CountingUserListView implements UserListView {
+
+    private int addedCount = 0;
+
+    @Override
+    public void add(UserView userView) {
+      addedCount++;
+    }
+
+    @Override
+    public void clear() {
+      addedCount = 0;
+    }
+
+    @Override
+    public Observable<Trigger> loadMoreIntent$() {
+      return noTriggers();
+    }
+
+    @Override
+    public void enableLoadMore(boolean enabled) {}
+
+    @Override
+    public void loadingFirstPage(boolean loading) {}
+
+  }
+
+}
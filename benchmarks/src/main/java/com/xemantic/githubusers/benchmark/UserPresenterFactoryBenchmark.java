@@ -0,0 +1,77 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.benchmark;
+
+import com.xemantic.githubusers.logic.model.SimpleUser;
+import com.xemantic.githubusers.logic.model.User;
+import com.xemantic.githubusers.logic.user.UserPresenter;
+import com.xemantic.githubusers.logic.user.UserPresenterFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link UserPresenterFactory#create(User)}, which happens
+ * for each displayed user unless the presenter is reused from the pool.
+ *
+ * @author morisil
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserPresenterFactoryBenchmark {
+
+  private final UserPresenterFactory factory = new UserPresenterFactory(
+      NoOpUserView::new, () -> event -> {}
+  );
+
+  private final User user = new SimpleUser(
+      "morisil",
+      "https://avatars.githubusercontent.com/u/1",
+      "https://github.com/morisil"
+  );
+
+  @Benchmark
+  public UserPresenter create() {
+    return factory.create(user);
+  }
+
+  @Benchmark
+  public UserPresenter createAndStart() {
+    UserPresenter presenter = factory.create(user);
+    presenter.start();
+    return presenter;
+  }
+
+}
@@ -0,0 +1,163 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.jvm.driver;
+
+import com.xemantic.ankh.shared.driver.RecordLog;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * {@link RecordLog} stored in a text file, one record per line, with line
+ * breaks and backslashes within records escaped. Each record is appended
+ * with a single write. The last line not terminated by the line break
+ * is considered torn: it is skipped when reading, and truncated before
+ * appending the first record. Compaction writes the records to the
+ * temporary file first, which then atomically replaces the log.
+ * <p>
+ * Failures of the file system are thrown as {@link UncheckedIOException}.
+ * </p>
+ *
+ * @author morisil
+ */
+public class FileRecordLog implements RecordLog {
+
+  private final Path file;
+
+  private boolean tailChecked = false;
+
+  /**
+   * Creates the log.
+   *
+   * @param file the file of the log, created on the first append if it does not exist.
+   */
+  public FileRecordLog(Path file) {
+    this.file = Objects.requireNonNull(file);
+  }
+
+  @Override
+  public synchronized void append(String record) {
+    try {
+      if (!tailChecked) {
+        truncateTornTail();
+        tailChecked = true;
+      }
+      Files.write(
+          file,
+          (escape(record) + '\n').getBytes(StandardCharsets.UTF_8),
+          StandardOpenOption.CREATE,
+          StandardOpenOption.APPEND
+      );
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public synchronized List<String> readAll() {
+    if (!Files.exists(file)) {
+      return new ArrayList<>();
+    }
+    try {
+      String content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+      List<String> records = new ArrayList<>();
+      int start = 0;
+      int end;
+      while ((end = content.indexOf('\n', start)) != -1) {
+        records.add(unescape(content.substring(start, end)));
+        start = end + 1;
+      }
+      return records;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public synchronized void replaceAll(List<String> records) {
+    StringBuilder content = new StringBuilder();
+    for (String record : records) {
+      content.append(escape(record)).append('\n');
+    }
+    Path parent = file.toAbsolutePath().getParent();
+    try {
+      Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+      try {
+        Files.write(temp, content.toString().getBytes(StandardCharsets.UTF_8));
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      } finally {
+        Files.deleteIfExists(temp);
+      }
+      tailChecked = true;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /*
+   * Otherwise the next record would continue the torn line and get lost as well.
+   */
+  private void truncateTornTail() throws IOException {
+    if (!Files.exists(file)) {
+      return;
+    }
+    byte[] content = Files.readAllBytes(file);
+    int end = content.length;
+    while ((end > 0) && (content[end - 1] != '\n')) {
+      end--;
+    }
+    if (end < content.length) {
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+        channel.truncate(end);
+      }
+    }
+  }
+
+  private static String escape(String record) {
+    return record.replace("\\", "\\\\").replace("\n", "\\n");
+  }
+
+  private static String unescape(String line) {
+    StringBuilder record = new StringBuilder(line.length());
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if ((c == '\\') && (i + 1 < line.length())) {
+        char next = line.charAt(++i);
+        record.append((next == 'n') ? '\n' : next);
+      } else {
+        record.append(c);
+      }
+    }
+    return record.toString();
+  }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.jvm.jfr;
+
+import com.xemantic.ankh.shared.trace.Span;
+import com.xemantic.ankh.shared.trace.Tracer;
+
+/**
+ * {@link Tracer} emitting the spans as Java Flight Recorder events,
+ * so that query latency can be correlated with GC and thread activity
+ * in a single recording. Known spans are mapped to typed events in the
+ * {@code GitHub Users} category, while any other span is recorded as
+ * the generic {@link SpanEvent}.
+ * <p>
+ * When no recording is running, or the event is disabled in
+ * the recording settings, the {@link Tracer#noOp()} span is returned,
+ * so the cost of tracing is limited to allocating the event.
+ * </p>
+ *
+ * @author morisil
+ */
+public class JfrTracer implements Tracer {
+
+  private static final Span NO_OP_SPAN = Tracer.noOp().begin("");
+
+  @Override
+  public Span begin(String name) {
+    TraceEvent event = newEvent(name);
+    if (!event.isEnabled()) {
+      return NO_OP_SPAN;
+    }
+    event.begin();
+    return new JfrSpan(event);
+  }
+
+  private static TraceEvent newEvent(String name) {
+    switch (name) {
+      case "userQuery":
+        return new UserQueryPublishedEvent();
+      case "userService.request":
+        return new SearchRequestEvent();
+      case "userList.pageRendered":
+        return new PageRenderedEvent();
+      case "presenter.retry":
+        return new RetryEvent();
+      case "error":
+        return new ErrorEvent();
+      default:
+        return new SpanEvent(name);
+    }
+  }
+
+  private static final class JfrSpan implements Span {
+
+    private final TraceEvent event;
+
+    private JfrSpan(TraceEvent event) {
+      this.event = event;
+    }
+
+    @Override
+    public Span set(String key, String value) {
+      event.set(key, value);
+      return this;
+    }
+
+    @Override
+    public Span set(String key, long value) {
+      event.set(key, value);
+      return this;
+    }
+
+    @Override
+    public void end() {
+      event.commit(); // will also end the event and check the threshold
+    }
+
+  }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.jvm.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event spanning the rendering of received page of users.
+ *
+ * @author morisil
+ */
+@Name("com.xemantic.githubusers.PageRendered")
+@Label("Page Rendered")
+@Description("Page of users displayed on the list")
+final class PageRenderedEvent extends TraceEvent {
+
+  @Label("Query")
+  String query;
+
+  @Label("Page")
+  int page;
+
+  @Label("Users")
+  int users;
+
+  @Override
+  void set(String key, String value) {
+    if ("query".equals(key)) query = value;
+  }
+
+  @Override
+  void set(String key, long value) {
+    switch (key) {
+      case "page":
+        page = (int) value;
+        break;
+      case "users":
+        users = (int) value;
+        break;
+      default:
+    }
+  }
+
+}
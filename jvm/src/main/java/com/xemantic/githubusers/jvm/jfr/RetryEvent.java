@@ -0,0 +1,66 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.jvm.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event of the presenter resubscribing after an error.
+ *
+ * @author morisil
+ */
+@Name("com.xemantic.githubusers.Retry")
+@Label("Retry")
+@Description("Presenter resubscribed according to its retry policy")
+final class RetryEvent extends TraceEvent {
+
+  @Label("Presenter")
+  String presenter;
+
+  @Label("Attempt")
+  int attempt;
+
+  @Label("Error")
+  String error;
+
+  @Override
+  void set(String key, String value) {
+    switch (key) {
+      case "presenter":
+        presenter = value;
+        break;
+      case "error":
+        error = value;
+        break;
+      default:
+    }
+  }
+
+  @Override
+  void set(String key, long value) {
+    if ("attempt".equals(key)) attempt = (int) value;
+  }
+
+}
@@ -0,0 +1,78 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.jvm.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event spanning the request for the page of search results,
+ * until the response arrives, fails, or the request is cancelled.
+ *
+ * @author morisil
+ */
+@Name("com.xemantic.githubusers.SearchRequest")
+@Label("Search Request")
+@Description("Request for the page of users found by the query")
+final class SearchRequestEvent extends TraceEvent {
+
+  @Label("Query")
+  String query;
+
+  @Label("Page")
+  int page;
+
+  @Label("Page Size")
+  int size;
+
+  @Label("Outcome")
+  String outcome;
+
+  @Override
+  void set(String key, String value) {
+    switch (key) {
+      case "query":
+        query = value;
+        break;
+      case "outcome":
+        outcome = value;
+        break;
+      default:
+    }
+  }
+
+  @Override
+  void set(String key, long value) {
+    switch (key) {
+      case "page":
+        page = (int) value;
+        break;
+      case "size":
+        size = (int) value;
+        break;
+      default:
+    }
+  }
+
+}
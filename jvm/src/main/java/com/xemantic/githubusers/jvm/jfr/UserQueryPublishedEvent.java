@@ -0,0 +1,47 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.jvm.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event of the published {@link com.xemantic.githubusers.logic.event.UserQueryEvent}.
+ *
+ * @author morisil
+ */
+@Name("com.xemantic.githubusers.UserQueryPublished")
+@Label("User Query Published")
+@Description("User query published for searching")
+final class UserQueryPublishedEvent extends TraceEvent {
+
+  @Label("Query")
+  String query;
+
+  @Override
+  void set(String key, String value) {
+    if ("query".equals(key)) query = value;
+  }
+
+}
@@ -0,0 +1,65 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.jvm.service;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Measures bytes allocated by the current thread, if supported by the JVM.
+ *
+ * @author morisil
+ */
+public final class AllocationMeter {
+
+  private static final com.sun.management.ThreadMXBean THREAD_BEAN = getThreadBean();
+
+  private AllocationMeter() { /* util class, non-instantiable */ }
+
+  public static boolean isSupported() {
+    return THREAD_BEAN != null;
+  }
+
+  /**
+   * Returns the number of bytes allocated so far by the current thread.
+   *
+   * @return allocated bytes, or {@code 0} if not supported.
+   */
+  public static long allocatedBytes() {
+    return (THREAD_BEAN != null)
+        ? THREAD_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId())
+        : 0;
+  }
+
+  private static com.sun.management.ThreadMXBean getThreadBean() {
+    ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (bean instanceof com.sun.management.ThreadMXBean) {
+      com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+      if (sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled()) {
+        return sunBean;
+      }
+    }
+    return null;
+  }
+
+}
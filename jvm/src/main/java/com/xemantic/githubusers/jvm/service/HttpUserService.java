@@ -0,0 +1,416 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.jvm.service;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingInputStream;
+import com.xemantic.githubusers.logic.model.CacheValidator;
+import com.xemantic.githubusers.logic.model.RateLimit;
+import com.xemantic.githubusers.logic.model.SearchResult;
+import com.xemantic.githubusers.logic.model.SearchResultStream;
+import com.xemantic.githubusers.logic.model.User;
+import com.xemantic.githubusers.logic.service.RateLimitExceededException;
+import com.xemantic.githubusers.logic.service.StreamingUserService;
+import io.reactivex.Flowable;
+import io.reactivex.Scheduler;
+import io.reactivex.Single;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * {@link StreamingUserService} calling
+ * <a href="https://developer.github.com/v3/search/#search-users">GitHub API</a>
+ * over HTTP.
+ * <p>
+ * Connections are pooled and kept alive by the JDK {@link HttpURLConnection}
+ * implementation, as long as the response is read till the end and closed,
+ * which this service always does. The response is negotiated to be gzipped,
+ * and decoded as a stream, straight into compact {@link User} instances.
+ * </p>
+ * <p>
+ * Bytes received over the wire, bytes decoded and bytes allocated while
+ * decoding are measured for each page.
+ * </p>
+ * <p>
+ * Received {@code ETag} and {@code Last-Modified} headers are provided as
+ * {@link CacheValidator}, and sent back by
+ * {@link #findIfModified(String, int, int, SearchResult)} as
+ * {@code If-None-Match} and {@code If-Modified-Since} headers.
+ * </p>
+ *
+ * @author morisil
+ */
+public class HttpUserService implements StreamingUserService {
+
+  public static final String GITHUB_API_URL = "https://api.github.com";
+
+  private static final String MEDIA_TYPE = "application/vnd.github.v3+json";
+
+  private final String apiUrl;
+
+  private final int timeout;
+
+  private final Scheduler scheduler;
+
+  private final AtomicLong pageCount = new AtomicLong();
+
+  private final AtomicLong notModifiedCount = new AtomicLong();
+
+  private final AtomicLong bytesReceived = new AtomicLong();
+
+  private final AtomicLong bytesDecoded = new AtomicLong();
+
+  private final AtomicLong bytesAllocated = new AtomicLong();
+
+  /**
+   * Creates the service.
+   *
+   * @param apiUrl the GitHub API URL, usually {@link #GITHUB_API_URL}.
+   * @param timeout the connect and read timeout in milliseconds.
+   * @param scheduler the scheduler to perform blocking IO on.
+   */
+  public HttpUserService(String apiUrl, int timeout, Scheduler scheduler) {
+    this.apiUrl = Objects.requireNonNull(apiUrl);
+    this.timeout = timeout;
+    this.scheduler = Objects.requireNonNull(scheduler);
+  }
+
+  @Override
+  public Single<SearchResult> find(String query, int page, int perPage) {
+    return Single.fromCallable(() -> {
+      try (Exchange exchange = open(query, page, perPage, null)) {
+        return exchange.decode();
+      }
+    }).subscribeOn(scheduler);
+  }
+
+  @Override
+  public Single<SearchResult> findIfModified(String query, int page, int perPage, SearchResult cached) {
+    CacheValidator validator = cached.getValidator();
+    if ((validator == null) || !validator.isConditional()) {
+      return find(query, page, perPage);
+    }
+    return Single.fromCallable(() -> {
+      try (Exchange exchange = open(query, page, perPage, validator)) {
+        if (exchange == null) {
+          notModifiedCount.incrementAndGet();
+          return cached;
+        }
+        return exchange.decode();
+      }
+    }).subscribeOn(scheduler);
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The connection stays open until the users are consumed, therefore the
+   * {@link SearchResultStream#getItems()} has to be subscribed exactly once.
+   * If the returned {@code Single} is disposed before the stream is delivered,
+   * the connection is closed right away.
+   * </p>
+   */
+  @Override
+  public Single<SearchResultStream> findStream(String query, int page, int perPage) {
+    return Single.defer(() -> {
+      AtomicBoolean delivered = new AtomicBoolean();
+      return Single.<SearchResultStream>create(emitter -> {
+        Exchange exchange = open(query, page, perPage, null);
+        emitter.setCancellable(() -> {
+          if (!delivered.get()) {
+            exchange.close();
+          }
+        });
+        try {
+          exchange.readHead();
+        } catch (IOException | RuntimeException e) {
+          exchange.close();
+          throw e;
+        }
+        emitter.onSuccess(exchange.toStream());
+      }).doOnSuccess(stream -> delivered.set(true));
+    }).subscribeOn(scheduler);
+  }
+
+  public long getPageCount() {
+    return pageCount.get();
+  }
+
+  /**
+   * Returns the number of conditional requests answered with
+   * {@code 304 Not Modified}. These are not counted as pages.
+   *
+   * @return the not modified count.
+   */
+  public long getNotModifiedCount() {
+    return notModifiedCount.get();
+  }
+
+  public long getBytesReceived() {
+    return bytesReceived.get();
+  }
+
+  public long getBytesDecoded() {
+    return bytesDecoded.get();
+  }
+
+  /**
+   * Returns the number of bytes allocated while decoding the responses.
+   *
+   * @return allocated bytes, or {@code 0} if the JVM cannot measure it.
+   */
+  public long getBytesAllocated() {
+    return bytesAllocated.get();
+  }
+
+  public long getBytesReceivedPerPage() {
+    return perPage(bytesReceived);
+  }
+
+  public long getBytesDecodedPerPage() {
+    return perPage(bytesDecoded);
+  }
+
+  public long getBytesAllocatedPerPage() {
+    return perPage(bytesAllocated);
+  }
+
+  private long perPage(AtomicLong bytes) {
+    long pages = pageCount.get();
+    return (pages == 0) ? 0 : bytes.get() / pages;
+  }
+
+  /*
+   * Returns null if validator is provided and the page was not modified.
+   */
+  private Exchange open(
+      String query,
+      int page,
+      int perPage,
+      CacheValidator validator
+  ) throws IOException {
+    URL url = new URL(
+        apiUrl + "/search/users"
+            + "?q=" + URLEncoder.encode(query, "UTF-8")
+            + "&page=" + page
+            + "&per_page=" + perPage
+    );
+    HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+    connection.setConnectTimeout(timeout);
+    connection.setReadTimeout(timeout);
+    connection.setRequestProperty("Accept", MEDIA_TYPE);
+    connection.setRequestProperty("Accept-Encoding", "gzip");
+    connection.setRequestProperty("User-Agent", "github-users");
+    if (validator != null) {
+      if (validator.getETag() != null) {
+        connection.setRequestProperty("If-None-Match", validator.getETag());
+      }
+      if (validator.getLastModified() != null) {
+        connection.setRequestProperty("If-Modified-Since", validator.getLastModified());
+      }
+    }
+    long fetchTime = System.currentTimeMillis();
+    int status = connection.getResponseCode();
+    RateLimit rateLimit = readRateLimit(connection);
+    if ((status == HttpURLConnection.HTTP_NOT_MODIFIED) && (validator != null)) {
+      drain(connection.getInputStream());
+      return null;
+    }
+    if (status != HttpURLConnection.HTTP_OK) {
+      drain(connection.getErrorStream());
+      if ((status == HttpURLConnection.HTTP_FORBIDDEN)
+          && (rateLimit != null)
+          && (rateLimit.getRemaining() == 0)) {
+        throw new RateLimitExceededException(rateLimit.getResetTime());
+      }
+      throw new IOException("GitHub API responded with HTTP status: " + status);
+    }
+    return new Exchange(connection, rateLimit, readValidator(connection, fetchTime));
+  }
+
+  private static RateLimit readRateLimit(HttpURLConnection connection) {
+    String limit = connection.getHeaderField("X-RateLimit-Limit");
+    String remaining = connection.getHeaderField("X-RateLimit-Remaining");
+    String reset = connection.getHeaderField("X-RateLimit-Reset");
+    if ((limit == null) || (remaining == null) || (reset == null)) {
+      return null;
+    }
+    try {
+      return new RateLimit(
+          Integer.parseInt(limit),
+          Integer.parseInt(remaining),
+          Long.parseLong(reset) * 1000 // GitHub provides epoch seconds
+      );
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  private static CacheValidator readValidator(HttpURLConnection connection, long fetchTime) {
+    String eTag = connection.getHeaderField("ETag");
+    String lastModified = connection.getHeaderField("Last-Modified");
+    return ((eTag != null) || (lastModified != null))
+        ? new CacheValidator(eTag, lastModified, fetchTime)
+        : null;
+  }
+
+  /*
+   * Reading error stream till the end allows the connection to be reused.
+   */
+  private static void drain(InputStream stream) throws IOException {
+    if (stream != null) {
+      try (InputStream in = stream) {
+        ByteStreams.exhaust(in);
+      }
+    }
+  }
+
+  /**
+   * Single request-response exchange, measuring itself.
+   */
+  private class Exchange implements Closeable {
+
+    private final RateLimit rateLimit;
+
+    private final CacheValidator validator;
+
+    private final CountingInputStream wireStream;
+
+    private final CountingInputStream decodedStream;
+
+    private final SearchResultDecoder decoder;
+
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private long allocated = 0;
+
+    private Exchange(
+        HttpURLConnection connection,
+        RateLimit rateLimit,
+        CacheValidator validator
+    ) throws IOException {
+      this.rateLimit = rateLimit;
+      this.validator = validator;
+      wireStream = new CountingInputStream(connection.getInputStream());
+      InputStream in = "gzip".equalsIgnoreCase(connection.getContentEncoding())
+          ? new GZIPInputStream(wireStream)
+          : wireStream;
+      decodedStream = new CountingInputStream(in);
+      decoder = new SearchResultDecoder(
+          new InputStreamReader(decodedStream, StandardCharsets.UTF_8)
+      );
+    }
+
+    private SearchResult decode() throws IOException {
+      long start = AllocationMeter.allocatedBytes();
+      try {
+        SearchResult result = decoder.decode(rateLimit, validator);
+        finish();
+        return result;
+      } finally {
+        allocated += AllocationMeter.allocatedBytes() - start;
+      }
+    }
+
+    private void readHead() throws IOException {
+      long start = AllocationMeter.allocatedBytes();
+      try {
+        decoder.readHead();
+      } finally {
+        allocated += AllocationMeter.allocatedBytes() - start;
+      }
+    }
+
+    private User nextUser() throws IOException {
+      long start = AllocationMeter.allocatedBytes();
+      try {
+        return decoder.nextUser();
+      } finally {
+        allocated += AllocationMeter.allocatedBytes() - start;
+      }
+    }
+
+    private SearchResultStream toStream() {
+      AtomicBoolean subscribed = new AtomicBoolean();
+      Flowable<User> items = Flowable.<User, Exchange>generate(
+          () -> {
+            if (subscribed.getAndSet(true)) {
+              throw new IllegalStateException("Users can be streamed only once");
+            }
+            return this;
+          },
+          (exchange, emitter) -> {
+            User user = exchange.nextUser();
+            if (user != null) {
+              emitter.onNext(user);
+            } else {
+              exchange.finish();
+              emitter.onComplete();
+            }
+          },
+          Exchange::close
+      ).subscribeOn(scheduler);
+      return new SearchResultStream(
+          decoder.getTotalCount(), decoder.isIncompleteResult(), items, rateLimit, validator
+      );
+    }
+
+    /*
+     * Reads fully decoded response till the end, including the gzip trailer
+     * and the last chunk, which might not be received yet. Otherwise closing
+     * the stream would also close the connection instead of keeping it alive.
+     */
+    private void finish() throws IOException {
+      ByteStreams.exhaust(decodedStream);
+      ByteStreams.exhaust(wireStream);
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (closed.getAndSet(true)) {
+        return;
+      }
+      try {
+        decodedStream.close();
+      } finally {
+        pageCount.incrementAndGet();
+        bytesReceived.addAndGet(wireStream.getCount());
+        bytesDecoded.addAndGet(decodedStream.getCount());
+        bytesAllocated.addAndGet(allocated);
+      }
+    }
+
+  }
+
+}
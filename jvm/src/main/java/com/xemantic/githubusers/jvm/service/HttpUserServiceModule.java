@@ -0,0 +1,61 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.jvm.service;
+
+import com.xemantic.githubusers.logic.service.UserService;
+import dagger.Module;
+import dagger.Provides;
+import io.reactivex.schedulers.Schedulers;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+/**
+ * Provides the {@link HttpUserService} as the
+ * {@code @Named("gitHubUserService") UserService} expected by the
+ * {@link com.xemantic.githubusers.logic.service.UserServiceModule}.
+ * The API URL is taken from {@code @Named("gitHubApiUrl") String},
+ * while timeout from {@code @Named("gitHubApiTimeoutMillis") int}.
+ *
+ * @author morisil
+ */
+@Module
+public class HttpUserServiceModule {
+
+  @Provides
+  @Singleton
+  static HttpUserService httpUserService(
+      @Named("gitHubApiUrl") String apiUrl,
+      @Named("gitHubApiTimeoutMillis") int timeout
+  ) {
+    return new HttpUserService(apiUrl, timeout, Schedulers.io());
+  }
+
+  @Provides
+  @Singleton
+  @Named("gitHubUserService")
+  static UserService gitHubUserService(HttpUserService service) {
+    return service;
+  }
+
+}
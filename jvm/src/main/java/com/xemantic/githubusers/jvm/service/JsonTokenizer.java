@@ -0,0 +1,341 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.jvm.service;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Minimal pull tokenizer of JSON documents. Reads directly from the
+ * {@link Reader} into own buffer, and allocates only the values which are
+ * actually requested - names are matched in place and skipped values are
+ * never materialized.
+ * <p>
+ * Note: the tokenizer is lenient when it comes to commas separating
+ * values, which is fine for decoding responses of trusted API.
+ * </p>
+ *
+ * @author morisil
+ */
+final class JsonTokenizer {
+
+  private static final int BUFFER_SIZE = 8192;
+
+  private final Reader reader;
+
+  private final char[] buffer = new char[BUFFER_SIZE];
+
+  private int pos = 0;
+
+  private int limit = 0;
+
+  private long offset = 0;
+
+  private char[] scratch = new char[64];
+
+  private int scratchLength;
+
+  JsonTokenizer(Reader reader) {
+    this.reader = reader;
+  }
+
+  void beginObject() throws IOException {
+    expect('{');
+  }
+
+  void endObject() throws IOException {
+    expect('}');
+  }
+
+  void beginArray() throws IOException {
+    expect('[');
+  }
+
+  void endArray() throws IOException {
+    expect(']');
+  }
+
+  /**
+   * Checks if current object or array has more elements.
+   *
+   * @return {@code true} if there is next element, {@code false} otherwise.
+   * @throws IOException if the input cannot be read.
+   */
+  boolean hasNext() throws IOException {
+    int c = peekSignificant();
+    return (c != '}') && (c != ']');
+  }
+
+  /**
+   * Reads the name of the next object member and matches it against
+   * expected names without allocating a {@code String}.
+   *
+   * @param names the expected names.
+   * @return the index of matching name, or {@code -1} if the name is not expected.
+   * @throws IOException if the input cannot be read or is malformed.
+   */
+  int nextName(String[] names) throws IOException {
+    expect('"');
+    readStringToScratch();
+    expect(':');
+    for (int i = 0; i < names.length; i++) {
+      if (scratchEquals(names[i])) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  String nextString() throws IOException {
+    if (peekSignificant() == 'n') {
+      readLiteral("null");
+      return null;
+    }
+    expect('"');
+    readStringToScratch();
+    return new String(scratch, 0, scratchLength);
+  }
+
+  int nextInt() throws IOException {
+    int c = peekSignificant();
+    boolean negative = (c == '-');
+    if (negative) {
+      read();
+    }
+    long value = 0;
+    int digits = 0;
+    while (isDigit(peek())) {
+      value = (value * 10) + (read() - '0');
+      if (value > Integer.MAX_VALUE) {
+        throw malformed("number out of int range");
+      }
+      digits++;
+    }
+    if (digits == 0) {
+      throw malformed("number expected");
+    }
+    return (int) (negative ? -value : value);
+  }
+
+  boolean nextBoolean() throws IOException {
+    int c = peekSignificant();
+    if (c == 't') {
+      readLiteral("true");
+      return true;
+    }
+    if (c == 'f') {
+      readLiteral("false");
+      return false;
+    }
+    throw malformed("boolean expected");
+  }
+
+  /**
+   * Skips the next value, including nested objects and arrays.
+   *
+   * @throws IOException if the input cannot be read or is malformed.
+   */
+  void skipValue() throws IOException {
+    int depth = 0;
+    do {
+      int c = peekSignificant();
+      switch (c) {
+        case '{':
+        case '[':
+          read();
+          depth++;
+          break;
+        case '}':
+        case ']':
+          read();
+          depth--;
+          break;
+        case '"':
+          read();
+          skipString();
+          if ((depth > 0) && (peekSignificant() == ':')) {
+            read(); // member name skipped, the value follows
+          }
+          break;
+        default:
+          skipLiteral();
+      }
+    } while (depth > 0);
+  }
+
+  private void expect(char expected) throws IOException {
+    if (peekSignificant() != expected) {
+      throw malformed("'" + expected + "' expected");
+    }
+    read();
+  }
+
+  /*
+   * Skips whitespaces and commas, returns next char without consuming it.
+   */
+  private int peekSignificant() throws IOException {
+    while (true) {
+      int c = peek();
+      if ((c == ' ') || (c == '\n') || (c == '\r') || (c == '\t') || (c == ',')) {
+        read();
+      } else if (c == -1) {
+        throw new EOFException("Unexpected end of JSON at position " + offset);
+      } else {
+        return c;
+      }
+    }
+  }
+
+  private int peek() throws IOException {
+    if ((pos == limit) && !fill()) {
+      return -1;
+    }
+    return buffer[pos];
+  }
+
+  private int read() throws IOException {
+    if ((pos == limit) && !fill()) {
+      throw new EOFException("Unexpected end of JSON at position " + offset);
+    }
+    offset++;
+    return buffer[pos++];
+  }
+
+  private boolean fill() throws IOException {
+    int count = reader.read(buffer, 0, buffer.length);
+    if (count <= 0) {
+      return false;
+    }
+    pos = 0;
+    limit = count;
+    return true;
+  }
+
+  private void readStringToScratch() throws IOException {
+    scratchLength = 0;
+    while (true) {
+      int c = read();
+      if (c == '"') {
+        return;
+      }
+      if (c == '\\') {
+        c = readEscaped();
+      }
+      if (scratchLength == scratch.length) {
+        scratch = Arrays.copyOf(scratch, scratch.length * 2);
+      }
+      scratch[scratchLength++] = (char) c;
+    }
+  }
+
+  private void skipString() throws IOException {
+    while (true) {
+      int c = read();
+      if (c == '"') {
+        return;
+      }
+      if (c == '\\') {
+        readEscaped();
+      }
+    }
+  }
+
+  private int readEscaped() throws IOException {
+    int c = read();
+    switch (c) {
+      case '"':
+      case '\\':
+      case '/':
+        return c;
+      case 'b':
+        return '\b';
+      case 'f':
+        return '\f';
+      case 'n':
+        return '\n';
+      case 'r':
+        return '\r';
+      case 't':
+        return '\t';
+      case 'u':
+        int code = 0;
+        for (int i = 0; i < 4; i++) {
+          int digit = Character.digit(read(), 16);
+          if (digit == -1) {
+            throw malformed("invalid unicode escape");
+          }
+          code = (code << 4) + digit;
+        }
+        return code;
+      default:
+        throw malformed("invalid escape sequence");
+    }
+  }
+
+  private void readLiteral(String literal) throws IOException {
+    for (int i = 0; i < literal.length(); i++) {
+      if (read() != literal.charAt(i)) {
+        throw malformed(literal + " expected");
+      }
+    }
+  }
+
+  private void skipLiteral() throws IOException {
+    int length = 0;
+    while (true) {
+      int c = peek();
+      if ((c == -1) || (c == ',') || (c == '}') || (c == ']')
+          || (c == ' ') || (c == '\n') || (c == '\r') || (c == '\t')) {
+        break;
+      }
+      read();
+      length++;
+    }
+    if (length == 0) {
+      throw malformed("value expected");
+    }
+  }
+
+  private boolean scratchEquals(String name) {
+    if (name.length() != scratchLength) {
+      return false;
+    }
+    for (int i = 0; i < scratchLength; i++) {
+      if (scratch[i] != name.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isDigit(int c) {
+    return (c >= '0') && (c <= '9');
+  }
+
+  private IOException malformed(String message) {
+    return new IOException("Malformed JSON, " + message + " at position " + offset);
+  }
+
+}
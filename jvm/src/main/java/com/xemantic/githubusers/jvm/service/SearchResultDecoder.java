@@ -0,0 +1,208 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.jvm.service;
+
+import com.xemantic.githubusers.logic.model.CacheValidator;
+import com.xemantic.githubusers.logic.model.RateLimit;
+import com.xemantic.githubusers.logic.model.SearchResult;
+import com.xemantic.githubusers.logic.model.SimpleSearchResult;
+import com.xemantic.githubusers.logic.model.SimpleUser;
+import com.xemantic.githubusers.logic.model.User;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes the user search response straight into {@link SimpleUser}s,
+ * without building intermediate JSON tree. Fields not used by the app
+ * are skipped without being materialized.
+ * <p>
+ * The decoder is meant to be used in 2 steps: {@link #readHead()} decodes
+ * the metadata preceding the user list, then {@link #nextUser()} decodes
+ * the users one by one. If the response lists items before the metadata,
+ * they will be buffered by the first step.
+ * </p>
+ *
+ * @author morisil
+ */
+final class SearchResultDecoder {
+
+  private static final String[] RESULT_FIELDS = {
+      "total_count", "incomplete_results", "items"
+  };
+
+  private static final int TOTAL_COUNT = 0;
+
+  private static final int INCOMPLETE_RESULTS = 1;
+
+  private static final int ITEMS = 2;
+
+  private static final String[] USER_FIELDS = {
+      "login", "avatar_url", "html_url"
+  };
+
+  private static final int LOGIN = 0;
+
+  private static final int AVATAR_URL = 1;
+
+  private static final int HTML_URL = 2;
+
+  private static final String GITHUB_URL = "https://github.com/";
+
+  private final JsonTokenizer tokenizer;
+
+  private int totalCount = 0;
+
+  private boolean incompleteResult = false;
+
+  private boolean streamingItems = false;
+
+  private List<User> bufferedItems;
+
+  private int bufferedIndex = 0;
+
+  SearchResultDecoder(Reader reader) {
+    tokenizer = new JsonTokenizer(reader);
+  }
+
+  /**
+   * Decodes whole response.
+   *
+   * @param rateLimit the rate limit to attach to the result.
+   * @param validator the validator to attach to the result.
+   * @return the search result.
+   * @throws IOException if the response cannot be read or is malformed.
+   */
+  SearchResult decode(RateLimit rateLimit, CacheValidator validator) throws IOException {
+    readHead();
+    List<User> items = new ArrayList<>();
+    User user;
+    while ((user = nextUser()) != null) {
+      items.add(user);
+    }
+    return new SimpleSearchResult(totalCount, incompleteResult, items, rateLimit, validator);
+  }
+
+  void readHead() throws IOException {
+    boolean totalCountRead = false;
+    boolean incompleteResultRead = false;
+    tokenizer.beginObject();
+    while (tokenizer.hasNext()) {
+      switch (tokenizer.nextName(RESULT_FIELDS)) {
+        case TOTAL_COUNT:
+          totalCount = tokenizer.nextInt();
+          totalCountRead = true;
+          break;
+        case INCOMPLETE_RESULTS:
+          incompleteResult = tokenizer.nextBoolean();
+          incompleteResultRead = true;
+          break;
+        case ITEMS:
+          tokenizer.beginArray();
+          if (totalCountRead && incompleteResultRead) {
+            streamingItems = true;
+            return;
+          }
+          bufferedItems = new ArrayList<>();
+          while (tokenizer.hasNext()) {
+            bufferedItems.add(readUser());
+          }
+          tokenizer.endArray();
+          break;
+        default:
+          tokenizer.skipValue();
+      }
+    }
+    tokenizer.endObject();
+  }
+
+  int getTotalCount() {
+    return totalCount;
+  }
+
+  boolean isIncompleteResult() {
+    return incompleteResult;
+  }
+
+  /**
+   * Decodes next user.
+   *
+   * @return the user or {@code null} if there are no more users.
+   * @throws IOException if the response cannot be read or is malformed.
+   */
+  User nextUser() throws IOException {
+    if (bufferedItems != null) {
+      return (bufferedIndex < bufferedItems.size())
+          ? bufferedItems.get(bufferedIndex++)
+          : null;
+    }
+    if (!streamingItems) {
+      return null;
+    }
+    if (tokenizer.hasNext()) {
+      return readUser();
+    }
+    streamingItems = false;
+    tokenizer.endArray();
+    while (tokenizer.hasNext()) {
+      tokenizer.nextName(RESULT_FIELDS);
+      tokenizer.skipValue();
+    }
+    tokenizer.endObject();
+    return null;
+  }
+
+  private User readUser() throws IOException {
+    String login = null;
+    String avatarUrl = null;
+    String htmlUrl = null;
+    tokenizer.beginObject();
+    while (tokenizer.hasNext()) {
+      switch (tokenizer.nextName(USER_FIELDS)) {
+        case LOGIN:
+          login = tokenizer.nextString();
+          break;
+        case AVATAR_URL:
+          avatarUrl = tokenizer.nextString();
+          break;
+        case HTML_URL:
+          htmlUrl = tokenizer.nextString();
+          break;
+        default:
+          tokenizer.skipValue();
+      }
+    }
+    tokenizer.endObject();
+    if ((login == null) || (avatarUrl == null)) {
+      throw new IOException("Malformed user, login and avatar_url are required");
+    }
+    return new SimpleUser(
+        login,
+        avatarUrl,
+        (htmlUrl != null) ? htmlUrl : GITHUB_URL + login
+    );
+  }
+
+}
@@ -0,0 +1,130 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.jvm.session;
+
+import com.xemantic.ankh.shared.event.Trigger;
+import com.xemantic.githubusers.logic.model.User;
+import com.xemantic.githubusers.logic.user.UserListView;
+import com.xemantic.githubusers.logic.user.UserView;
+import io.reactivex.Observable;
+import io.reactivex.subjects.PublishSubject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * {@link UserListView} keeping the displayed rows in memory. The presenter
+ * is expected to call the view only from the tasks of the {@link Session},
+ * the calls made from any other thread are counted. The view is thread safe,
+ * as the {@link Session} reads it from any thread.
+ *
+ * @author morisil
+ */
+public class HeadlessUserListView implements UserListView {
+
+  private final List<UserView> userViews = new ArrayList<>();
+
+  private final PublishSubject<Trigger> loadMoreIntent = PublishSubject.create();
+
+  private final Runnable onRender;
+
+  private final BooleanSupplier onSessionThread;
+
+  private final AtomicLong foreignThreadCallCount = new AtomicLong();
+
+  private boolean loadMoreEnabled;
+
+  HeadlessUserListView(Runnable onRender, BooleanSupplier onSessionThread) {
+    this.onRender = onRender;
+    this.onSessionThread = onSessionThread;
+  }
+
+  @Override
+  public void add(UserView userView) {
+    checkThread();
+    synchronized (this) {
+      userViews.add(userView);
+    }
+    onRender.run();
+  }
+
+  @Override
+  public void addAll(List<UserView> userViews) {
+    checkThread();
+    synchronized (this) {
+      this.userViews.addAll(userViews);
+    }
+    onRender.run();
+  }
+
+  @Override
+  public synchronized void clear() {
+    checkThread();
+    userViews.clear();
+  }
+
+  @Override
+  public Observable<Trigger> loadMoreIntent$() {
+    return loadMoreIntent;
+  }
+
+  @Override
+  public synchronized void enableLoadMore(boolean enabled) {
+    checkThread();
+    loadMoreEnabled = enabled;
+  }
+
+  @Override
+  public void loadingFirstPage(boolean loading) {
+    checkThread(); // nothing to gray out
+  }
+
+  synchronized boolean isLoadMoreEnabled() {
+    return loadMoreEnabled;
+  }
+
+  synchronized List<User> getUsers() {
+    List<User> users = new ArrayList<>(userViews.size());
+    for (UserView userView : userViews) {
+      users.add(((HeadlessUserView) userView).getUser());
+    }
+    return users;
+  }
+
+  void loadMore() {
+    Trigger.fire(loadMoreIntent);
+  }
+
+  long getForeignThreadCallCount() {
+    return foreignThreadCallCount.get();
+  }
+
+  private void checkThread() {
+    if (!onSessionThread.getAsBoolean()) {
+      foreignThreadCallCount.incrementAndGet();
+    }
+  }
+
+}
@@ -0,0 +1,47 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.jvm.session;
+
+import com.xemantic.githubusers.logic.user.UserQueryView;
+import io.reactivex.Observable;
+import io.reactivex.subjects.PublishSubject;
+
+/**
+ * {@link UserQueryView} receiving the query input from the {@link Session}.
+ *
+ * @author morisil
+ */
+public class HeadlessUserQueryView implements UserQueryView {
+
+  private final PublishSubject<String> queryInput = PublishSubject.create();
+
+  @Override
+  public Observable<String> queryInput$() {
+    return queryInput;
+  }
+
+  void type(String query) {
+    queryInput.onNext(query);
+  }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.jvm.session;
+
+import com.xemantic.githubusers.jvm.service.AllocationMeter;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Executes the tasks of one {@link Session} one at a time, in submission
+ * order, on the executor shared by all the sessions. After
+ * {@value #BATCH_SIZE} tasks the remaining ones are resubmitted to the shared
+ * executor, so that a busy session cannot starve the others. Bytes allocated
+ * while running the tasks are accumulated, if measurable on the current thread.
+ * <p>
+ * At most one thread runs the tasks at any time, see {@link #isRunningTasks()}.
+ * </p>
+ *
+ * @author morisil
+ */
+final class SerialExecutor implements Executor {
+
+  static final int BATCH_SIZE = 16;
+
+  private final Executor executor;
+
+  private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+  private final AtomicInteger pending = new AtomicInteger();
+
+  private final LongAdder allocatedBytes = new LongAdder();
+
+  private final AtomicReference<Thread> runner = new AtomicReference<>();
+
+  SerialExecutor(Executor executor) {
+    this.executor = executor;
+  }
+
+  @Override
+  public void execute(Runnable task) {
+    tasks.offer(task);
+    if (pending.getAndIncrement() == 0) {
+      executor.execute(this::drain);
+    }
+  }
+
+  long getAllocatedBytes() {
+    return allocatedBytes.sum();
+  }
+
+  /**
+   * Checks if the current thread is running the tasks of this executor.
+   *
+   * @return {@code true} if called from a task, {@code false} otherwise.
+   */
+  boolean isRunningTasks() {
+    return runner.get() == Thread.currentThread();
+  }
+
+  private void drain() {
+    long start = AllocationMeter.allocatedBytes();
+    Thread thread = Thread.currentThread();
+    runner.set(thread);
+    try {
+      for (int i = 0; i < BATCH_SIZE; i++) {
+        run(tasks.poll());
+        if (pending.decrementAndGet() == 0) {
+          return;
+        }
+      }
+      executor.execute(this::drain);
+    } finally {
+      runner.compareAndSet(thread, null); // the next batch might be already running
+      long end = AllocationMeter.allocatedBytes();
+      if ((start > 0) && (end >= start)) { // not measurable on every thread
+        allocatedBytes.add(end - start);
+      }
+    }
+  }
+
+  private static void run(Runnable task) {
+    try {
+      task.run();
+    } catch (Throwable e) {
+      Thread thread = Thread.currentThread();
+      thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+    }
+  }
+
+}
@@ -0,0 +1,188 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.jvm.session;
+
+import com.xemantic.ankh.shared.presenter.Presenter;
+import com.xemantic.githubusers.logic.model.User;
+import io.reactivex.schedulers.Schedulers;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Headless user session hosted by the {@link SessionHost}. The session
+ * runs its own graph of presenters, created by the {@link SessionComponent},
+ * isolated from other sessions. The user input and all the scheduled work
+ * of presenters are executed serially on the shared executor.
+ * <p>
+ * The session measures its latency as the time from receiving the query
+ * to displaying the first user found, including the debounce time. Bytes
+ * allocated by the tasks run on the session's executor are also measured,
+ * while the work happening on the threads of the shared
+ * {@link com.xemantic.githubusers.logic.service.UserService} is not.
+ * </p>
+ *
+ * @author morisil
+ */
+public class Session {
+
+  private static final double LATENCY_SMOOTHING = 0.2;
+
+  private final String id;
+
+  private final SerialExecutor executor;
+
+  private final HeadlessUserQueryView queryView = new HeadlessUserQueryView();
+
+  private final HeadlessUserListView listView;
+
+  private final HeadlessSnackbarView snackbarView = new HeadlessSnackbarView();
+
+  private final List<Presenter> presenters;
+
+  private final AtomicLong queryStart = new AtomicLong(-1);
+
+  private final AtomicLong queryCount = new AtomicLong();
+
+  private long lastLatency = 0;
+
+  private double averageLatency = 0;
+
+  Session(String id, SessionComponent.Builder builder, Executor executor) {
+    this.id = id;
+    this.executor = new SerialExecutor(executor);
+    this.listView = new HeadlessUserListView(this::onRender, this.executor::isRunningTasks);
+    SessionComponent component = builder
+        .userQueryView(queryView)
+        .userListView(listView)
+        .snackbarView(snackbarView)
+        .scheduler(Schedulers.from(this.executor))
+        .build();
+    // the query presenter goes last, so that no query event can be missed
+    presenters = Arrays.asList(
+        component.snackbarPresenter(),
+        component.userListPresenter(),
+        component.userQueryPresenter()
+    );
+  }
+
+  void start() {
+    executor.execute(() -> presenters.forEach(Presenter::start));
+  }
+
+  void stop() {
+    executor.execute(() -> presenters.forEach(Presenter::stop));
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * Types the query, as if the user would type it in the search box.
+   *
+   * @param query the query.
+   */
+  public void query(String query) {
+    executor.execute(() -> {
+      queryCount.incrementAndGet();
+      queryStart.set(System.nanoTime());
+      queryView.type(query);
+    });
+  }
+
+  public void loadMore() {
+    executor.execute(listView::loadMore);
+  }
+
+  public List<User> getUsers() {
+    return listView.getUsers();
+  }
+
+  public boolean isLoadMoreEnabled() {
+    return listView.isLoadMoreEnabled();
+  }
+
+  /**
+   * Returns the number of calls to the user list view made outside of
+   * the session's tasks, which should never happen.
+   *
+   * @return the call count.
+   */
+  public long getForeignThreadCallCount() {
+    return listView.getForeignThreadCallCount();
+  }
+
+  /**
+   * Returns the last message shown on the snackbar.
+   *
+   * @return the message, or {@code null} if nothing was shown yet.
+   */
+  public String getSnackbarMessage() {
+    return snackbarView.getMessage();
+  }
+
+  public long getQueryCount() {
+    return queryCount.get();
+  }
+
+  public synchronized long getLastLatencyMillis() {
+    return lastLatency;
+  }
+
+  /**
+   * Returns the exponentially weighted average of the session latency.
+   *
+   * @return the average latency in milliseconds, or {@code 0} if nothing was measured yet.
+   */
+  public synchronized long getAverageLatencyMillis() {
+    return Math.round(averageLatency);
+  }
+
+  /**
+   * Returns the number of bytes allocated by the session's tasks so far.
+   *
+   * @return allocated bytes, or {@code 0} if not measurable on this JVM.
+   */
+  public long getAllocatedBytes() {
+    return executor.getAllocatedBytes();
+  }
+
+  private void onRender() {
+    long start = queryStart.getAndSet(-1);
+    if (start >= 0) {
+      record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+  }
+
+  private synchronized void record(long millis) {
+    averageLatency = (lastLatency == 0) && (averageLatency == 0)
+        ? millis
+        : averageLatency + LATENCY_SMOOTHING * (millis - averageLatency);
+    lastLatency = millis;
+  }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.jvm.session;
+
+import com.xemantic.ankh.shared.snackbar.SnackbarPresenter;
+import com.xemantic.ankh.shared.snackbar.SnackbarView;
+import com.xemantic.githubusers.logic.user.UserListPresenter;
+import com.xemantic.githubusers.logic.user.UserListView;
+import com.xemantic.githubusers.logic.user.UserQueryPresenter;
+import com.xemantic.githubusers.logic.user.UserQueryView;
+import dagger.BindsInstance;
+import dagger.Subcomponent;
+import io.reactivex.Scheduler;
+
+import javax.inject.Named;
+
+/**
+ * Presenter graph of one {@link Session}, with its own event channels,
+ * views and scheduler.
+ *
+ * @author morisil
+ * @see SessionHostModule
+ */
+@SessionScope
+@Subcomponent(modules = SessionModule.class)
+public interface SessionComponent {
+
+  UserQueryPresenter userQueryPresenter();
+
+  UserListPresenter userListPresenter();
+
+  SnackbarPresenter snackbarPresenter();
+
+  @Subcomponent.Builder
+  interface Builder {
+
+    @BindsInstance
+    Builder userQueryView(UserQueryView view);
+
+    @BindsInstance
+    Builder userListView(UserListView view);
+
+    @BindsInstance
+    Builder snackbarView(SnackbarView view);
+
+    @BindsInstance
+    Builder scheduler(@Named("sessionScheduler") Scheduler scheduler);
+
+    SessionComponent build();
+
+  }
+
+}
@@ -0,0 +1,180 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.jvm.session;
+
+import com.xemantic.githubusers.logic.service.CachePreWarmer;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.disposables.Disposables;
+
+import javax.inject.Provider;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hosts many isolated {@link Session}s in one JVM, e.g. for running
+ * the shared logic server-side. Each session gets its own presenter graph
+ * from the {@link SessionComponent}, while the
+ * {@link com.xemantic.githubusers.logic.service.UserService} and
+ * other singletons are shared.
+ * <p>
+ * All the sessions run on the provided executor, which can be
+ * a bounded event loop, like {@link java.util.concurrent.Executors#newFixedThreadPool(int)}
+ * with as many threads as cores, or a virtual thread per task executor
+ * on JVMs supporting it. The work of each session is serialized, so
+ * presenters never run concurrently within the session.
+ * </p>
+ * <p>
+ * The {@link CachePreWarmer}, if any, keeps the first pages of popular
+ * queries fresh for all the sessions, from the creation of the host
+ * until it is {@link #close() closed}.
+ * </p>
+ *
+ * @author morisil
+ * @see SessionHostModule
+ */
+public class SessionHost implements AutoCloseable {
+
+  private final Provider<SessionComponent.Builder> builders;
+
+  private final Executor executor;
+
+  private final int maxSessions;
+
+  private final ConcurrentMap<String, Session> sessions = new ConcurrentHashMap<>();
+
+  private final AtomicInteger sessionCount = new AtomicInteger();
+
+  private final Disposable preWarming;
+
+  /**
+   * Creates the session host.
+   *
+   * @param builders the provider of session component builders.
+   * @param executor the executor shared by all the sessions.
+   * @param maxSessions the maximal number of simultaneously open sessions.
+   * @param preWarmer the cache pre-warmer to start, or {@code null} if there is none.
+   */
+  public SessionHost(
+      Provider<SessionComponent.Builder> builders,
+      Executor executor,
+      int maxSessions,
+      CachePreWarmer preWarmer
+  ) {
+    this.builders = Objects.requireNonNull(builders);
+    this.executor = Objects.requireNonNull(executor);
+    this.maxSessions = maxSessions;
+    this.preWarming = (preWarmer != null) ? preWarmer.start() : Disposables.disposed();
+  }
+
+  /**
+   * Opens and starts new session.
+   *
+   * @param id the session id.
+   * @return the session.
+   * @throws IllegalStateException if the limit of sessions is reached.
+   * @throws IllegalArgumentException if the session of given id is already open.
+   */
+  public Session open(String id) {
+    if (sessionCount.incrementAndGet() > maxSessions) {
+      sessionCount.decrementAndGet();
+      throw new IllegalStateException("Session limit reached: " + maxSessions);
+    }
+    Session session = new Session(id, builders.get(), executor);
+    if (sessions.putIfAbsent(id, session) != null) {
+      sessionCount.decrementAndGet();
+      throw new IllegalArgumentException("Session already open: " + id);
+    }
+    session.start();
+    return session;
+  }
+
+  /**
+   * Returns the open session.
+   *
+   * @param id the session id.
+   * @return the session, or {@code null} if there is no such open session.
+   */
+  public Session get(String id) {
+    return sessions.get(id);
+  }
+
+  public void close(String id) {
+    Session session = sessions.remove(id);
+    if (session != null) {
+      sessionCount.decrementAndGet();
+      session.stop();
+    }
+  }
+
+  /**
+   * Closes all the open sessions and stops the cache pre-warmer.
+   */
+  @Override
+  public void close() {
+    preWarming.dispose();
+    for (String id : new ArrayList<>(sessions.keySet())) {
+      close(id);
+    }
+  }
+
+  public Collection<Session> getSessions() {
+    return sessions.values();
+  }
+
+  public int getSessionCount() {
+    return sessionCount.get();
+  }
+
+  /**
+   * Returns the average of the session latencies, across sessions
+   * which have already displayed the results of any query.
+   *
+   * @return the average latency in milliseconds, or {@code 0} if nothing was measured yet.
+   */
+  public long getAverageLatencyMillis() {
+    long sum = 0;
+    int count = 0;
+    for (Session session : sessions.values()) {
+      long latency = session.getAverageLatencyMillis();
+      if (latency > 0) {
+        sum += latency;
+        count++;
+      }
+    }
+    return (count > 0) ? sum / count : 0;
+  }
+
+  public long getAllocatedBytes() {
+    long bytes = 0;
+    for (Session session : sessions.values()) {
+      bytes += session.getAllocatedBytes();
+    }
+    return bytes;
+  }
+
+}
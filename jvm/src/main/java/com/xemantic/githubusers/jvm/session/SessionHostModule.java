@@ -0,0 +1,69 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.jvm.session;
+
+import com.xemantic.githubusers.logic.service.CachePreWarmer;
+import dagger.BindsOptionalOf;
+import dagger.Module;
+import dagger.Provides;
+
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+/**
+ * Provides the {@link SessionHost} running the {@link SessionComponent}s
+ * on the {@code @Named("sessionExecutor") Executor}, up to
+ * {@code @Named("sessionMaxCount") int} sessions. The parent component is
+ * expected to provide the shared bindings, like the
+ * {@link com.xemantic.githubusers.logic.service.UserService}, the
+ * {@link com.xemantic.githubusers.logic.service.QueryHeavyHitters} and the
+ * configuration of presenters, but not the event channels and the
+ * {@code @Named("userQueryScheduler")} and {@code @Named("userListScheduler")}
+ * schedulers, which are defined per session by the {@link SessionModule}.
+ * The {@link CachePreWarmer}, if bound by the parent component, e.g.
+ * with the {@link com.xemantic.githubusers.logic.service.UserServiceModule},
+ * is started with the host.
+ *
+ * @author morisil
+ */
+@Module(subcomponents = SessionComponent.class)
+public abstract class SessionHostModule {
+
+  @Provides
+  @Singleton
+  static SessionHost sessionHost(
+      Provider<SessionComponent.Builder> builders,
+      @Named("sessionExecutor") Executor executor,
+      @Named("sessionMaxCount") int maxSessions,
+      Optional<CachePreWarmer> preWarmer
+  ) {
+    return new SessionHost(builders, executor, maxSessions, preWarmer.orElse(null));
+  }
+
+  @BindsOptionalOf
+  abstract CachePreWarmer cachePreWarmer();
+
+}
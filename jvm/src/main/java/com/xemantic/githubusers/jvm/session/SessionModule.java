@@ -0,0 +1,150 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.jvm.session;
+
+import com.xemantic.ankh.shared.event.Sink;
+import com.xemantic.ankh.shared.event.SnackbarMessageEvent;
+import com.xemantic.githubusers.logic.event.UserQueryEvent;
+import com.xemantic.githubusers.logic.event.UserSelectedEvent;
+import com.xemantic.githubusers.logic.service.UserService;
+import com.xemantic.githubusers.logic.user.UserListPresenter;
+import com.xemantic.githubusers.logic.user.UserListView;
+import com.xemantic.githubusers.logic.user.UserPresenterFactory;
+import com.xemantic.githubusers.logic.user.UserView;
+import dagger.Binds;
+import dagger.MembersInjector;
+import dagger.Module;
+import dagger.Provides;
+import io.reactivex.Observable;
+import io.reactivex.Scheduler;
+import io.reactivex.subjects.PublishSubject;
+
+import javax.inject.Named;
+
+/**
+ * Defines the event channels of a {@link Session}, isolated from other
+ * sessions, as well as the {@code @Named("userQueryScheduler")} and
+ * {@code @Named("userListScheduler") Scheduler} running on the session's
+ * executor. Rows of the user list are displayed by {@link HeadlessUserView}s.
+ * <p>
+ * The {@link UserListPresenter} receives the results of the shared
+ * {@link UserService} through the {@link SessionUserService}, therefore
+ * all the view updates happen on the session's executor.
+ * </p>
+ *
+ * @author morisil
+ */
+@Module
+abstract class SessionModule {
+
+  @Provides
+  @SessionScope
+  static PublishSubject<UserQueryEvent> userQueryChannel() {
+    return PublishSubject.create();
+  }
+
+  @Provides
+  @SessionScope
+  static Sink<UserQueryEvent> userQuerySink(PublishSubject<UserQueryEvent> channel) {
+    return channel::onNext;
+  }
+
+  @Binds
+  @SessionScope
+  abstract Observable<UserQueryEvent> userQuery$(PublishSubject<UserQueryEvent> channel);
+
+  @Provides
+  @SessionScope
+  static PublishSubject<UserSelectedEvent> userSelectedChannel() {
+    return PublishSubject.create();
+  }
+
+  @Provides
+  @SessionScope
+  static Sink<UserSelectedEvent> userSelectedSink(PublishSubject<UserSelectedEvent> channel) {
+    return channel::onNext;
+  }
+
+  @Binds
+  @SessionScope
+  abstract Observable<UserSelectedEvent> userSelected$(PublishSubject<UserSelectedEvent> channel);
+
+  @Provides
+  @SessionScope
+  static PublishSubject<SnackbarMessageEvent> snackbarMessageChannel() {
+    return PublishSubject.create();
+  }
+
+  @Provides
+  @SessionScope
+  static Sink<SnackbarMessageEvent> snackbarMessageSink(PublishSubject<SnackbarMessageEvent> channel) {
+    return channel::onNext;
+  }
+
+  @Binds
+  @SessionScope
+  abstract Observable<SnackbarMessageEvent> snackbarMessage$(PublishSubject<SnackbarMessageEvent> channel);
+
+  @Binds
+  @Named("userQueryScheduler")
+  abstract Scheduler userQueryScheduler(@Named("sessionScheduler") Scheduler scheduler);
+
+  @Binds
+  @Named("userListScheduler")
+  abstract Scheduler userListScheduler(@Named("sessionScheduler") Scheduler scheduler);
+
+  @Provides
+  @SessionScope
+  static UserListPresenter userListPresenter(
+      UserListView view,
+      Observable<UserQueryEvent> userQuery$,
+      UserService userService,
+      UserPresenterFactory userPresenterFactory,
+      @Named("userListPageSize") int pageSize,
+      @Named("gitHubUserSearchLimit") int userSearchLimit,
+      @Named("userListPrefetchDistance") int prefetchDistance,
+      @Named("userListMaxPages") int maxPages,
+      @Named("sessionScheduler") Scheduler scheduler,
+      MembersInjector<UserListPresenter> injector
+  ) {
+    UserListPresenter presenter = new UserListPresenter(
+        view,
+        userQuery$,
+        new SessionUserService(userService, scheduler),
+        userPresenterFactory,
+        pageSize,
+        userSearchLimit,
+        prefetchDistance,
+        maxPages,
+        scheduler
+    );
+    injector.injectMembers(presenter);
+    return presenter;
+  }
+
+  @Provides
+  static UserView userView() {
+    return new HeadlessUserView();
+  }
+
+}
@@ -0,0 +1,83 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.jvm.session;
+
+import com.xemantic.githubusers.logic.model.SearchResult;
+import com.xemantic.githubusers.logic.model.SearchResultStream;
+import com.xemantic.githubusers.logic.service.RequestPriority;
+import com.xemantic.githubusers.logic.service.StreamingUserService;
+import com.xemantic.githubusers.logic.service.UserService;
+import io.reactivex.Scheduler;
+import io.reactivex.Single;
+
+import java.util.Objects;
+
+/**
+ * {@link UserService} of a {@link Session}, delivering the results of the
+ * shared service on the session's scheduler, so that the presenters
+ * of the session are never called from the threads of the shared service.
+ * The streamed users are delivered on the session's scheduler as well.
+ *
+ * @author morisil
+ */
+class SessionUserService implements StreamingUserService {
+
+  private final UserService userService;
+
+  private final Scheduler scheduler;
+
+  SessionUserService(UserService userService, Scheduler scheduler) {
+    this.userService = Objects.requireNonNull(userService);
+    this.scheduler = Objects.requireNonNull(scheduler);
+  }
+
+  @Override
+  public Single<SearchResult> find(String query, int page, int perPage) {
+    return userService.find(query, page, perPage).observeOn(scheduler);
+  }
+
+  @Override
+  public Single<SearchResult> find(String query, int page, int perPage, RequestPriority priority) {
+    return userService.find(query, page, perPage, priority).observeOn(scheduler);
+  }
+
+  @Override
+  public Single<SearchResult> findIfModified(String query, int page, int perPage, SearchResult cached) {
+    return userService.findIfModified(query, page, perPage, cached).observeOn(scheduler);
+  }
+
+  @Override
+  public Single<SearchResultStream> findStream(String query, int page, int perPage) {
+    if (!(userService instanceof StreamingUserService)) {
+      return find(query, page, perPage).map(SearchResultStream::of);
+    }
+    return ((StreamingUserService) userService).findStream(query, page, perPage)
+        .observeOn(scheduler)
+        .map(stream -> new SearchResultStream(
+            stream.getTotalCount(),
+            stream.isIncompleteResult(),
+            stream.getItems().observeOn(scheduler)
+        ));
+  }
+
+}
@@ -0,0 +1,272 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.jvm.synthetic;
+
+import com.xemantic.githubusers.logic.model.SimpleUser;
+import com.xemantic.githubusers.logic.model.User;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Generated set of unique GitHub like logins, searchable by substring.
+ * Logins are kept sorted and packed into a single byte array, therefore
+ * millions of users take only tens of megabytes, prefix matches are found
+ * with binary search, and the substring scan is cache friendly.
+ *
+ * @author morisil
+ */
+public class SyntheticUserDataset {
+
+  /** GitHub API limit of available search results. */
+  public static final int SEARCH_LIMIT = 1000;
+
+  private static final String[] SYLLABLES = {
+      "a", "an", "ar", "ba", "bo", "ca", "chi", "da", "de", "di", "el", "en",
+      "fa", "fi", "ga", "go", "ha", "hi", "in", "ja", "jo", "ka", "ki", "ko",
+      "la", "li", "lu", "ma", "me", "mi", "mo", "na", "ne", "ni", "no", "nus",
+      "o", "pa", "pe", "ra", "ri", "ro", "sa", "se", "sil", "ta", "te", "to",
+      "tor", "u", "va", "val", "vi", "wa", "xe", "ya", "yo", "za", "zi", "ds"
+  };
+
+  private final byte[] logins;
+
+  private final int[] offsets; // offsets[i] is the start of login i, offsets[size] the end
+
+  /**
+   * Generates the dataset.
+   *
+   * @param size the number of users.
+   * @param seed the seed, the same seed always generates the same dataset.
+   */
+  public SyntheticUserDataset(int size, long seed) {
+    String[] generated = generate(size, new Random(seed));
+    offsets = new int[size + 1];
+    int length = 0;
+    for (int i = 0; i < size; i++) {
+      offsets[i] = length;
+      length += generated[i].length();
+    }
+    offsets[size] = length;
+    logins = new byte[length];
+    for (int i = 0; i < size; i++) {
+      byte[] login = generated[i].getBytes(StandardCharsets.US_ASCII);
+      System.arraycopy(login, 0, logins, offsets[i], login.length);
+    }
+  }
+
+  public int size() {
+    return offsets.length - 1;
+  }
+
+  public String getLogin(int index) {
+    return new String(logins, offsets[index], offsets[index + 1] - offsets[index], StandardCharsets.US_ASCII);
+  }
+
+  public User getUser(int index) {
+    String login = getLogin(index);
+    return new SimpleUser(
+        login,
+        "https://avatars.githubusercontent.com/u/" + (index + 1) + "?v=4",
+        "https://github.com/" + login
+    );
+  }
+
+  /**
+   * Searches logins containing given term. Logins starting with the term
+   * come first (the exact match, if any, is the first one), followed by
+   * other matching logins in alphabetical order. Only the first
+   * {@value #SEARCH_LIMIT} matches are kept, while all are counted.
+   * Like GitHub giving up on long running search, only {@code scanLimit}
+   * logins are scanned for matches not starting with the term,
+   * in which case the result is marked as incomplete.
+   *
+   * @param term the lower case search term.
+   * @param scanLimit the maximal number of logins to scan, or {@code 0} if unlimited.
+   * @return the matches.
+   */
+  public Matches search(String term, int scanLimit) {
+    byte[] pattern = term.getBytes(StandardCharsets.US_ASCII);
+    int first = lowerBound(pattern);
+    int last = first; // exclusive
+    while ((last < size()) && startsWith(last, pattern)) {
+      last++;
+    }
+    int[] indices = new int[SEARCH_LIMIT];
+    int count = 0;
+    for (int i = first; (i < last) && (count < SEARCH_LIMIT); i++) {
+      indices[count++] = i;
+    }
+    int totalCount = last - first;
+    boolean incomplete = false;
+    for (int j = 0; j < size() - (last - first); j++) {
+      int i = (j < first) ? j : j + (last - first); // skipping prefix matches
+      if ((scanLimit > 0) && (j == scanLimit)) {
+        incomplete = true;
+        break;
+      }
+      if (contains(i, pattern)) {
+        if (count < SEARCH_LIMIT) {
+          indices[count++] = i;
+        }
+        totalCount++;
+      }
+    }
+    return new Matches(Arrays.copyOf(indices, count), totalCount, incomplete);
+  }
+
+  /**
+   * Result of the {@link #search(String, int)}.
+   */
+  public static final class Matches {
+
+    private final int[] indices;
+
+    private final int totalCount;
+
+    private final boolean incomplete;
+
+    private Matches(int[] indices, int totalCount, boolean incomplete) {
+      this.indices = indices;
+      this.totalCount = totalCount;
+      this.incomplete = incomplete;
+    }
+
+    /**
+     * Returns the user indices of at most {@value #SEARCH_LIMIT} best matches.
+     *
+     * @return the indices.
+     */
+    public int[] getIndices() {
+      return indices;
+    }
+
+    public int getTotalCount() {
+      return totalCount;
+    }
+
+    public boolean isIncomplete() {
+      return incomplete;
+    }
+
+  }
+
+  private int lowerBound(byte[] pattern) {
+    int low = 0;
+    int high = size();
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (compare(middle, pattern) < 0) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  private int compare(int index, byte[] pattern) {
+    int start = offsets[index];
+    int length = offsets[index + 1] - start;
+    int common = Math.min(length, pattern.length);
+    for (int i = 0; i < common; i++) {
+      int difference = logins[start + i] - pattern[i];
+      if (difference != 0) {
+        return difference;
+      }
+    }
+    return length - pattern.length;
+  }
+
+  private boolean startsWith(int index, byte[] pattern) {
+    return ((offsets[index + 1] - offsets[index]) >= pattern.length)
+        && regionMatches(offsets[index], pattern);
+  }
+
+  private boolean contains(int index, byte[] pattern) {
+    int last = offsets[index + 1] - pattern.length;
+    for (int start = offsets[index]; start <= last; start++) {
+      if (regionMatches(start, pattern)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean regionMatches(int start, byte[] pattern) {
+    for (int i = 0; i < pattern.length; i++) {
+      if (logins[start + i] != pattern[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static String[] generate(int size, Random random) {
+    String[] generated = new String[0];
+    boolean numbered = false;
+    while (generated.length < size) {
+      String[] added = new String[size - generated.length];
+      for (int i = 0; i < added.length; i++) {
+        added[i] = newLogin(random, numbered);
+      }
+      Arrays.sort(added);
+      generated = mergeUnique(generated, added);
+      numbered = true; // short logins are likely taken already
+    }
+    return generated;
+  }
+
+  private static String[] mergeUnique(String[] sorted, String[] added) {
+    String[] merged = new String[sorted.length + added.length];
+    int count = 0;
+    int i = 0;
+    int j = 0;
+    while ((i < sorted.length) || (j < added.length)) {
+      String next = ((j == added.length) || ((i < sorted.length) && (sorted[i].compareTo(added[j]) <= 0)))
+          ? sorted[i++]
+          : added[j++];
+      if ((count == 0) || !next.equals(merged[count - 1])) {
+        merged[count++] = next;
+      }
+    }
+    return Arrays.copyOf(merged, count);
+  }
+
+  private static String newLogin(Random random, boolean numbered) {
+    StringBuilder builder = new StringBuilder();
+    int syllables = 2 + random.nextInt(3);
+    for (int i = 0; i < syllables; i++) {
+      if ((i > 0) && (random.nextInt(12) == 0)) {
+        builder.append('-');
+      }
+      builder.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+    }
+    if (numbered || (random.nextInt(3) == 0)) {
+      builder.append(random.nextInt(10000));
+    }
+    return builder.toString();
+  }
+
+}
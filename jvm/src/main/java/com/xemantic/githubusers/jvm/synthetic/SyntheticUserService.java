@@ -0,0 +1,219 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.jvm.synthetic;
+
+import com.xemantic.githubusers.logic.model.RateLimit;
+import com.xemantic.githubusers.logic.model.SearchResult;
+import com.xemantic.githubusers.logic.model.SimpleSearchResult;
+import com.xemantic.githubusers.logic.model.User;
+import com.xemantic.githubusers.logic.service.RateLimitExceededException;
+import com.xemantic.githubusers.logic.service.UserService;
+import io.reactivex.Scheduler;
+import io.reactivex.Single;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link UserService} standing in for the GitHub search API in load and
+ * latency experiments, backed by the {@link SyntheticUserDataset}.
+ * It follows the semantics of the real API:
+ * <ul>
+ *   <li>logins containing the first search term are found, qualifiers
+ *   like {@code in:login} are ignored,</li>
+ *   <li>{@code total_count} counts all the matches, while only the first
+ *   {@value SyntheticUserDataset#SEARCH_LIMIT} are available
+ *   (further pages fail with HTTP status {@code 422}),</li>
+ *   <li>{@code incomplete_results} is set when the search gives up scanning
+ *   after {@code scanLimit} logins,</li>
+ *   <li>at most 100 users are returned per page,</li>
+ *   <li>the rate limit is applied in fixed time windows, requests exceeding
+ *   it fail with {@link RateLimitExceededException}.</li>
+ * </ul>
+ * The response latency follows log-normal distribution, which is
+ * characteristic for the long tail of network latencies, and randomly chosen
+ * requests fail with HTTP status {@code 502} at given error rate.
+ *
+ * @author morisil
+ */
+public class SyntheticUserService implements UserService {
+
+  private static final int MAX_PER_PAGE = 100;
+
+  private static final int CACHED_SEARCHES = 64;
+
+  private final SyntheticUserDataset dataset;
+
+  private final int scanLimit;
+
+  private final long medianLatency;
+
+  private final double latencySigma;
+
+  private final double errorRate;
+
+  private final int rateLimit;
+
+  private final long rateLimitWindow;
+
+  private final Random random;
+
+  private final Scheduler scheduler;
+
+  private final Map<String, SyntheticUserDataset.Matches> searches =
+      new LinkedHashMap<String, SyntheticUserDataset.Matches>(CACHED_SEARCHES, .75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, SyntheticUserDataset.Matches> eldest) {
+          return size() > CACHED_SEARCHES;
+        }
+      };
+
+  private long windowResetTime = 0;
+
+  private int remaining = 0;
+
+  private long requestCount = 0;
+
+  private long failureCount = 0;
+
+  private long rateLimitedCount = 0;
+
+  /**
+   * Creates the service.
+   *
+   * @param dataset the users to search.
+   * @param scanLimit the maximal number of logins scanned per search, or {@code 0} if unlimited.
+   * @param medianLatency the median response latency in milliseconds.
+   * @param latencySigma the shape of the latency distribution, {@code 0} for constant latency.
+   * @param errorRate the probability of request failure, between {@code 0} and {@code 1}.
+   * @param rateLimit the number of requests permitted in the time window, or {@code 0} if unlimited.
+   * @param rateLimitWindow the rate limit time window in milliseconds.
+   * @param random the source of randomness, seeded for repeatable experiments.
+   * @param scheduler the scheduler to measure time and delay responses on.
+   */
+  public SyntheticUserService(
+      SyntheticUserDataset dataset,
+      int scanLimit,
+      long medianLatency,
+      double latencySigma,
+      double errorRate,
+      int rateLimit,
+      long rateLimitWindow,
+      Random random,
+      Scheduler scheduler
+  ) {
+    this.dataset = Objects.requireNonNull(dataset);
+    this.scanLimit = scanLimit;
+    this.medianLatency = medianLatency;
+    this.latencySigma = latencySigma;
+    this.errorRate = errorRate;
+    this.rateLimit = rateLimit;
+    this.rateLimitWindow = rateLimitWindow;
+    this.random = Objects.requireNonNull(random);
+    this.scheduler = Objects.requireNonNull(scheduler);
+  }
+
+  @Override
+  public Single<SearchResult> find(String query, int page, int perPage) {
+    return Single.defer(() -> {
+      Single<SearchResult> response = respond(query, page, perPage);
+      long latency = nextLatency();
+      return (latency > 0)
+          ? Single.timer(latency, TimeUnit.MILLISECONDS, scheduler).flatMap(tick -> response)
+          : response;
+    });
+  }
+
+  public synchronized long getRequestCount() {
+    return requestCount;
+  }
+
+  public synchronized long getFailureCount() {
+    return failureCount;
+  }
+
+  public synchronized long getRateLimitedCount() {
+    return rateLimitedCount;
+  }
+
+  private synchronized Single<SearchResult> respond(String query, int page, int perPage) {
+    requestCount++;
+    RateLimit limit = null;
+    if (rateLimit > 0) {
+      long now = scheduler.now(TimeUnit.MILLISECONDS);
+      if (now >= windowResetTime) {
+        windowResetTime = ((now / rateLimitWindow) + 1) * rateLimitWindow;
+        remaining = rateLimit;
+      }
+      if (remaining == 0) {
+        rateLimitedCount++;
+        return Single.error(new RateLimitExceededException(windowResetTime));
+      }
+      limit = new RateLimit(rateLimit, --remaining, windowResetTime);
+    }
+    if (random.nextDouble() < errorRate) {
+      failureCount++;
+      return Single.error(new IOException("GitHub API responded with HTTP status: 502"));
+    }
+    String term = firstTerm(query);
+    int size = Math.min(perPage, MAX_PER_PAGE);
+    int start = (page - 1) * size;
+    if ((term == null) || (page < 1) || (size < 1) || (start >= SyntheticUserDataset.SEARCH_LIMIT)) {
+      return Single.error(new IOException("GitHub API responded with HTTP status: 422"));
+    }
+    SyntheticUserDataset.Matches matches = searches.get(term);
+    if (matches == null) {
+      matches = dataset.search(term, scanLimit);
+      searches.put(term, matches);
+    }
+    int[] indices = matches.getIndices();
+    List<User> users = new ArrayList<>(size);
+    for (int i = start; (i < indices.length) && (i < start + size); i++) {
+      users.add(dataset.getUser(indices[i]));
+    }
+    return Single.just(new SimpleSearchResult(
+        matches.getTotalCount(), matches.isIncomplete(), users, limit, null
+    ));
+  }
+
+  private synchronized long nextLatency() {
+    return Math.round(medianLatency * Math.exp(latencySigma * random.nextGaussian()));
+  }
+
+  private static String firstTerm(String query) {
+    for (String term : query.trim().toLowerCase(Locale.ROOT).split("\\s+")) {
+      if (!term.isEmpty() && (term.indexOf(':') == -1)) {
+        return term;
+      }
+    }
+    return null;
+  }
+
+}
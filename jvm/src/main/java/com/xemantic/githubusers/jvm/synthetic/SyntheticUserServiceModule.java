@@ -0,0 +1,93 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.jvm.synthetic;
+
+import com.xemantic.githubusers.logic.service.UserService;
+import dagger.Module;
+import dagger.Provides;
+import io.reactivex.schedulers.Schedulers;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Provides the {@link SyntheticUserService} as the
+ * {@code @Named("gitHubUserService") UserService} expected by the
+ * {@link com.xemantic.githubusers.logic.service.UserServiceModule},
+ * replacing the {@link com.xemantic.githubusers.jvm.service.HttpUserServiceModule}
+ * in offline load tests. The dataset is generated from
+ * {@code @Named("syntheticUserCount") int} and {@code @Named("syntheticSeed") long},
+ * while the behavior is configured with {@code @Named("syntheticScanLimit") int},
+ * {@code @Named("syntheticMedianLatencyMillis") long},
+ * {@code @Named("syntheticLatencySigma") double},
+ * {@code @Named("syntheticErrorRate") double} and the same
+ * {@code @Named("gitHubSearchRateLimit") int} per minute as expected from GitHub.
+ *
+ * @author morisil
+ */
+@Module
+public class SyntheticUserServiceModule {
+
+  @Provides
+  @Singleton
+  static SyntheticUserDataset syntheticUserDataset(
+      @Named("syntheticUserCount") int userCount,
+      @Named("syntheticSeed") long seed
+  ) {
+    return new SyntheticUserDataset(userCount, seed);
+  }
+
+  @Provides
+  @Singleton
+  static SyntheticUserService syntheticUserService(
+      SyntheticUserDataset dataset,
+      @Named("syntheticScanLimit") int scanLimit,
+      @Named("syntheticMedianLatencyMillis") long medianLatency,
+      @Named("syntheticLatencySigma") double latencySigma,
+      @Named("syntheticErrorRate") double errorRate,
+      @Named("gitHubSearchRateLimit") int rateLimit,
+      @Named("syntheticSeed") long seed
+  ) {
+    return new SyntheticUserService(
+        dataset,
+        scanLimit,
+        medianLatency,
+        latencySigma,
+        errorRate,
+        rateLimit,
+        TimeUnit.MINUTES.toMillis(1),
+        new Random(seed),
+        Schedulers.computation()
+    );
+  }
+
+  @Provides
+  @Singleton
+  @Named("gitHubUserService")
+  static UserService gitHubUserService(SyntheticUserService service) {
+    return service;
+  }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.jvm.driver;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test of the {@link FileRecordLog}.
+ *
+ * @author morisil
+ */
+public class FileRecordLogTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void readAll_noFile_shouldReturnNoRecords() {
+    // given
+    FileRecordLog log = new FileRecordLog(folder.getRoot().toPath().resolve("log"));
+
+    // when
+    List<String> records = log.readAll();
+
+    // then
+    assertThat(records).isEmpty();
+  }
+
+  @Test
+  public void readAll_recordsAppendedByPreviousInstance_shouldReturnThemInOrder() {
+    // given
+    Path file = folder.getRoot().toPath().resolve("log");
+    FileRecordLog previous = new FileRecordLog(file);
+    previous.append("foo");
+    previous.append("multi\nline\\n");
+    previous.append("");
+
+    // when
+    FileRecordLog log = new FileRecordLog(file);
+
+    // then
+    assertThat(log.readAll()).containsExactly("foo", "multi\nline\\n", "");
+  }
+
+  @Test
+  public void append_afterTornRecord_shouldSkipTornRecordAndKeepNewOne() throws IOException {
+    // given
+    Path file = folder.getRoot().toPath().resolve("log");
+    new FileRecordLog(file).append("foo");
+    Files.write(file, "ba".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+    FileRecordLog log = new FileRecordLog(file);
+    assertThat(log.readAll()).containsExactly("foo");
+
+    // when
+    log.append("bar");
+
+    // then
+    assertThat(new FileRecordLog(file).readAll()).containsExactly("foo", "bar");
+  }
+
+  @Test
+  public void replaceAll_records_shouldReplaceContentOfTheLog() throws IOException {
+    // given
+    Path file = folder.getRoot().toPath().resolve("log");
+    FileRecordLog log = new FileRecordLog(file);
+    log.append("foo");
+    log.append("bar");
+
+    // when
+    log.replaceAll(Arrays.asList("baz", "qux"));
+    log.append("quux");
+
+    // then
+    assertThat(new FileRecordLog(file).readAll()).containsExactly("baz", "qux", "quux");
+    try (Stream<Path> files = Files.list(folder.getRoot().toPath())) {
+      assertThat(files).containsExactly(file); // no temporary file left
+    }
+  }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.jvm.jfr;
+
+import com.xemantic.ankh.shared.trace.Tracer;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Test of the {@link JfrTracer}.
+ *
+ * @author morisil
+ */
+public class JfrTracerTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private final JfrTracer tracer = new JfrTracer();
+
+  @Test
+  public void begin_noRecording_shouldReturnNoOpSpan() {
+    // when
+    Object span = tracer.begin("userService.request");
+
+    // then
+    assertThat(span).isSameAs(Tracer.noOp().begin("userService.request"));
+  }
+
+  @Test
+  public void end_searchRequestDuringRecording_shouldRecordTypedEvent() throws IOException {
+    // given
+    List<RecordedEvent> events;
+    try (Recording recording = new Recording()) {
+      recording.enable(SearchRequestEvent.class);
+      recording.start();
+
+      // when
+      tracer.begin("userService.request")
+          .set("query", "foo")
+          .set("page", 2)
+          .set("size", 100)
+          .set("outcome", "success")
+          .end();
+
+      recording.stop();
+      events = dump(recording);
+    }
+
+    // then
+    assertThat(events)
+        .extracting(
+            event -> event.getEventType().getName(),
+            event -> event.getString("query"),
+            event -> event.getInt("page"),
+            event -> event.getInt("size"),
+            event -> event.getString("outcome")
+        )
+        .containsExactly(
+            tuple("com.xemantic.githubusers.SearchRequest", "foo", 2, 100, "success")
+        );
+  }
+
+  @Test
+  public void end_unknownSpanDuringRecording_shouldRecordGenericSpanEvent() throws IOException {
+    // given
+    List<RecordedEvent> events;
+    try (Recording recording = new Recording()) {
+      recording.enable(SpanEvent.class);
+      recording.start();
+
+      // when
+      tracer.begin("foo").set("bar", "buzz").set("qux", 42).end();
+
+      recording.stop();
+      events = dump(recording);
+    }
+
+    // then
+    assertThat(events)
+        .extracting(
+            event -> event.getString("name"),
+            event -> event.getString("attributes")
+        )
+        .containsExactly(tuple("foo", "bar=buzz, qux=42"));
+  }
+
+  private List<RecordedEvent> dump(Recording recording) throws IOException {
+    Path file = folder.newFile("recording.jfr").toPath();
+    recording.dump(file);
+    return RecordingFile.readAllEvents(file);
+  }
+
+}
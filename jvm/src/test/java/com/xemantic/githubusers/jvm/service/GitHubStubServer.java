@@ -0,0 +1,179 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.jvm.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Local stand-in of the GitHub user search API. Users are generated
+ * from the query, like {@code query-1}, {@code query-2}, etc.
+ *
+ * @author morisil
+ */
+public class GitHubStubServer implements Closeable {
+
+  public static final String LAST_MODIFIED = "Mon, 01 Jan 2018 00:00:00 GMT";
+
+  private final HttpServer server;
+
+  private final List<String> requestUris = new CopyOnWriteArrayList<>();
+
+  private final List<Integer> remotePorts = new CopyOnWriteArrayList<>();
+
+  private volatile int totalCount = 1000;
+
+  private volatile int status = 200;
+
+  private volatile int rateLimitRemaining = 9;
+
+  private volatile long rateLimitReset = 1500000000;
+
+  private volatile Runnable onRequest = () -> {};
+
+  public GitHubStubServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/search/users", this::handle);
+    server.start();
+  }
+
+  public String getUrl() {
+    return "http://127.0.0.1:" + server.getAddress().getPort();
+  }
+
+  public List<String> getRequestUris() {
+    return requestUris;
+  }
+
+  public List<Integer> getRemotePorts() {
+    return remotePorts;
+  }
+
+  public void setTotalCount(int totalCount) {
+    this.totalCount = totalCount;
+  }
+
+  public void setStatus(int status) {
+    this.status = status;
+  }
+
+  public void setRateLimit(int remaining, long resetEpochSeconds) {
+    this.rateLimitRemaining = remaining;
+    this.rateLimitReset = resetEpochSeconds;
+  }
+
+  /**
+   * Sets the action to run on each request before the response is sent.
+   *
+   * @param onRequest the action.
+   */
+  public void setOnRequest(Runnable onRequest) {
+    this.onRequest = onRequest;
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    onRequest.run();
+    requestUris.add(exchange.getRequestURI().toString());
+    remotePorts.add(exchange.getRemoteAddress().getPort());
+    exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+    exchange.getResponseHeaders().add("X-RateLimit-Limit", "10");
+    exchange.getResponseHeaders().add("X-RateLimit-Remaining", String.valueOf(rateLimitRemaining));
+    exchange.getResponseHeaders().add("X-RateLimit-Reset", String.valueOf(rateLimitReset));
+    String body = (status == 200)
+        ? searchResponse(exchange.getRequestURI().getQuery())
+        : "{\"message\":\"API rate limit exceeded\"}";
+    if (status == 200) {
+      String eTag = "\"" + Integer.toHexString(body.hashCode()) + "\"";
+      exchange.getResponseHeaders().add("ETag", eTag);
+      exchange.getResponseHeaders().add("Last-Modified", LAST_MODIFIED);
+      if (eTag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+        exchange.sendResponseHeaders(304, -1);
+        exchange.close();
+        return;
+      }
+    }
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+    if ((acceptEncoding != null) && acceptEncoding.contains("gzip")) {
+      exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+      exchange.sendResponseHeaders(status, 0);
+      try (OutputStream out = new GZIPOutputStream(exchange.getResponseBody())) {
+        out.write(bytes);
+      }
+    } else {
+      exchange.sendResponseHeaders(status, bytes.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(bytes);
+      }
+    }
+  }
+
+  private String searchResponse(String queryString) {
+    String query = "";
+    int page = 1;
+    int perPage = 30;
+    for (String param : queryString.split("&")) {
+      String[] pair = param.split("=", 2);
+      switch (pair[0]) {
+        case "q": query = pair[1]; break;
+        case "page": page = Integer.parseInt(pair[1]); break;
+        case "per_page": perPage = Integer.parseInt(pair[1]); break;
+        default: // ignore
+      }
+    }
+    int first = (page - 1) * perPage;
+    int last = Math.min(first + perPage, totalCount);
+    StringBuilder json = new StringBuilder()
+        .append("{\"total_count\":").append(totalCount)
+        .append(",\"incomplete_results\":false,\"items\":[");
+    for (int i = first; i < last; i++) {
+      String login = query + "-" + (i + 1);
+      if (i > first) {
+        json.append(',');
+      }
+      json.append("{\"login\":\"").append(login).append('"')
+          .append(",\"id\":").append(i + 1)
+          .append(",\"avatar_url\":\"https://avatars.githubusercontent.com/u/").append(i + 1).append("?v=4\"")
+          .append(",\"gravatar_id\":\"\"")
+          .append(",\"url\":\"https://api.github.com/users/").append(login).append('"')
+          .append(",\"html_url\":\"https://github.com/").append(login).append('"')
+          .append(",\"type\":\"User\",\"site_admin\":false,\"score\":1.0}");
+    }
+    return json.append("]}").toString();
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+  }
+
+}
@@ -0,0 +1,274 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.jvm.service;
+
+import com.xemantic.githubusers.logic.model.CacheValidator;
+import com.xemantic.githubusers.logic.model.RateLimit;
+import com.xemantic.githubusers.logic.model.SearchResult;
+import com.xemantic.githubusers.logic.model.SearchResultStream;
+import com.xemantic.githubusers.logic.model.User;
+import com.xemantic.githubusers.logic.service.RateLimitExceededException;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.schedulers.Schedulers;
+import io.reactivex.subscribers.TestSubscriber;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test of the {@link HttpUserService}.
+ *
+ * @author morisil
+ */
+public class HttpUserServiceTest {
+
+  private GitHubStubServer server;
+
+  private HttpUserService service;
+
+  @Before
+  public void setUp() throws IOException {
+    server = new GitHubStubServer();
+    service = new HttpUserService(server.getUrl(), 5000, Schedulers.trampoline());
+  }
+
+  @After
+  public void tearDown() {
+    server.close();
+  }
+
+  @Test
+  public void find_page_shouldDecodeUsers() {
+    // when
+    SearchResult result = service.find("foo", 2, 3).blockingGet();
+
+    // then
+    assertThat(server.getRequestUris()).containsExactly("/search/users?q=foo&page=2&per_page=3");
+    assertThat(result.getTotalCount()).isEqualTo(1000);
+    assertThat(result.isIncompleteResult()).isFalse();
+    assertThat(result.getItems()).hasSize(3);
+    User user = result.getItems().get(0);
+    assertThat(user.getLogin()).isEqualTo("foo-4");
+    assertThat(user.getAvatarUrl()).isEqualTo("https://avatars.githubusercontent.com/u/4?v=4");
+    assertThat(user.getHtmlUrl()).isEqualTo("https://github.com/foo-4");
+    assertThat(result.getItems()).extracting(User::getLogin).containsExactly("foo-4", "foo-5", "foo-6");
+  }
+
+  @Test
+  public void find_queryWithSpecialCharacters_shouldEncodeQuery() {
+    // when
+    service.find("foo bar&", 1, 1).blockingGet();
+
+    // then
+    assertThat(server.getRequestUris()).containsExactly("/search/users?q=foo+bar%26&page=1&per_page=1");
+  }
+
+  @Test
+  public void find_pageWithRateLimitHeaders_shouldProvideRateLimit() {
+    // given
+    server.setRateLimit(7, 1500000000);
+
+    // when
+    SearchResult result = service.find("foo", 1, 1).blockingGet();
+
+    // then
+    assertThat(result.getRateLimit()).isEqualTo(new RateLimit(10, 7, 1500000000000L));
+  }
+
+  @Test
+  public void find_rateLimitExceeded_shouldFailWithRateLimitExceededException() {
+    // given
+    server.setStatus(403);
+    server.setRateLimit(0, 1500000000);
+
+    // when
+    Throwable error = service.find("foo", 1, 1).test().errors().get(0);
+
+    // then
+    assertThat(error).isInstanceOf(RateLimitExceededException.class);
+    assertThat(((RateLimitExceededException) error).getResetTime()).isEqualTo(1500000000000L);
+  }
+
+  @Test
+  public void find_serverError_shouldFailWithIOException() {
+    // given
+    server.setStatus(500);
+
+    // when
+    Throwable error = service.find("foo", 1, 1).test().errors().get(0);
+
+    // then
+    assertThat(error).isInstanceOf(IOException.class).hasMessage("GitHub API responded with HTTP status: 500");
+  }
+
+  @Test
+  public void find_subsequentPages_shouldReuseKeptAliveConnection() {
+    // when
+    service.find("foo", 1, 10).blockingGet();
+    service.find("foo", 2, 10).blockingGet();
+    service.find("bar", 1, 10).blockingGet();
+
+    // then
+    assertThat(server.getRemotePorts()).hasSize(3);
+    assertThat(server.getRemotePorts()).containsOnly(server.getRemotePorts().get(0));
+  }
+
+  @Test
+  public void find_gzipNegotiated_shouldReceiveLessBytesThanDecoded() {
+    // when
+    service.find("foo", 1, 100).blockingGet();
+
+    // then
+    assertThat(service.getPageCount()).isEqualTo(1);
+    assertThat(service.getBytesReceived()).isPositive();
+    assertThat(service.getBytesReceived()).isLessThan(service.getBytesDecoded() / 4);
+  }
+
+  @Test
+  public void find_multiplePages_shouldReportBytesAndAllocationsPerPage() {
+    // when
+    service.find("foo", 1, 100).blockingGet();
+    service.find("foo", 2, 100).blockingGet();
+
+    // then
+    assertThat(service.getPageCount()).isEqualTo(2);
+    assertThat(service.getBytesReceivedPerPage()).isEqualTo(service.getBytesReceived() / 2);
+    assertThat(service.getBytesDecodedPerPage()).isEqualTo(service.getBytesDecoded() / 2);
+    if (AllocationMeter.isSupported()) {
+      assertThat(service.getBytesAllocatedPerPage()).isPositive();
+    }
+  }
+
+  @Test
+  public void findStream_page_shouldProvideMetadataAndStreamUsers() {
+    // given
+    server.setTotalCount(42);
+
+    // when
+    SearchResultStream stream = service.findStream("foo", 1, 5).blockingGet();
+
+    // then
+    assertThat(stream.getTotalCount()).isEqualTo(42);
+    assertThat(stream.isIncompleteResult()).isFalse();
+    assertThat(service.getPageCount()).isEqualTo(0); // still streaming
+    TestSubscriber<User> subscriber = stream.getItems().test(2);
+    subscriber.assertValueCount(2);
+    subscriber.requestMore(10);
+    subscriber.assertValueCount(5);
+    subscriber.assertComplete();
+    assertThat(service.getPageCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void findStream_itemsSubscribedTwice_shouldFailSecondSubscription() {
+    // given
+    SearchResultStream stream = service.findStream("foo", 1, 5).blockingGet();
+    stream.getItems().test();
+
+    // when
+    TestSubscriber<User> subscriber = stream.getItems().test();
+
+    // then
+    subscriber.assertError(IllegalStateException.class);
+  }
+
+  @Test
+  public void findStream_itemsCancelled_shouldReleaseConnection() {
+    // given
+    SearchResultStream stream = service.findStream("foo", 1, 100).blockingGet();
+
+    // when
+    stream.getItems().take(1).test();
+
+    // then
+    assertThat(service.getPageCount()).isEqualTo(1);
+    service.find("foo", 2, 10).blockingGet();
+    assertThat(server.getRemotePorts()).hasSize(2);
+  }
+
+  @Test
+  public void findStream_disposedBeforeStreamDelivered_shouldReleaseConnection() {
+    // given
+    TestObserver<SearchResultStream> observer = new TestObserver<>();
+    server.setOnRequest(observer::dispose);
+
+    // when
+    service.findStream("foo", 1, 100).subscribe(observer);
+
+    // then
+    observer.assertNoValues();
+    assertThat(service.getPageCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void find_page_shouldProvideValidator() {
+    // given
+    long start = System.currentTimeMillis();
+
+    // when
+    SearchResult result = service.find("foo", 1, 10).blockingGet();
+
+    // then
+    CacheValidator validator = result.getValidator();
+    assertThat(validator).isNotNull();
+    assertThat(validator.getETag()).startsWith("\"");
+    assertThat(validator.getLastModified()).isEqualTo(GitHubStubServer.LAST_MODIFIED);
+    assertThat(validator.getFetchTime()).isGreaterThanOrEqualTo(start);
+  }
+
+  @Test
+  public void findIfModified_notModified_shouldReturnCachedResult() {
+    // given
+    SearchResult cached = service.find("foo", 1, 10).blockingGet();
+
+    // when
+    SearchResult result = service.findIfModified("foo", 1, 10, cached).blockingGet();
+
+    // then
+    assertThat(result).isSameAs(cached);
+    assertThat(service.getNotModifiedCount()).isEqualTo(1);
+    assertThat(service.getPageCount()).isEqualTo(1);
+    assertThat(server.getRemotePorts()).containsOnly(server.getRemotePorts().get(0));
+  }
+
+  @Test
+  public void findIfModified_modified_shouldReturnNewResult() {
+    // given
+    SearchResult cached = service.find("foo", 1, 10).blockingGet();
+    server.setTotalCount(2000);
+
+    // when
+    SearchResult result = service.findIfModified("foo", 1, 10, cached).blockingGet();
+
+    // then
+    assertThat(result).isNotSameAs(cached);
+    assertThat(result.getTotalCount()).isEqualTo(2000);
+    assertThat(result.getValidator().getETag()).isNotEqualTo(cached.getValidator().getETag());
+    assertThat(service.getNotModifiedCount()).isEqualTo(0);
+  }
+
+}
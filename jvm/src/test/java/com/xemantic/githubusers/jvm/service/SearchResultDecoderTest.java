@@ -0,0 +1,151 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.jvm.service;
+
+import com.xemantic.githubusers.logic.model.SearchResult;
+import com.xemantic.githubusers.logic.model.User;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test of the {@link SearchResultDecoder}.
+ *
+ * @author morisil
+ */
+public class SearchResultDecoderTest {
+
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  @Test
+  public void decode_resultWithUnknownFields_shouldSkipThem() throws IOException {
+    // given
+    String json = "{\n"
+        + "  \"total_count\": 2,\n"
+        + "  \"incomplete_results\": true,\n"
+        + "  \"items\": [\n"
+        + "    {\n"
+        + "      \"login\": \"foo\",\n"
+        + "      \"nested\": {\"a\": [1, {\"b\": \"}]\"}, null], \"c\": -1.5e3},\n"
+        + "      \"avatar_url\": \"https://avatars/foo\",\n"
+        + "      \"html_url\": \"https://github.com/foo\",\n"
+        + "      \"site_admin\": false\n"
+        + "    },\n"
+        + "    {\"login\": \"bar\", \"avatar_url\": \"https://avatars/bar\", \"html_url\": \"https://github.com/bar\"}\n"
+        + "  ],\n"
+        + "  \"trailing\": {\"x\": \"y\"}\n"
+        + "}";
+
+    // when
+    SearchResult result = decode(json);
+
+    // then
+    assertThat(result.getTotalCount()).isEqualTo(2);
+    assertThat(result.isIncompleteResult()).isTrue();
+    assertThat(result.getItems()).extracting(User::getLogin).containsExactly("foo", "bar");
+    assertThat(result.getItems()).extracting(User::getAvatarUrl)
+        .containsExactly("https://avatars/foo", "https://avatars/bar");
+  }
+
+  @Test
+  public void decode_escapedStrings_shouldUnescape() throws IOException {
+    // given
+    String json = "{\"total_count\":1,\"incomplete_results\":false,\"items\":["
+        + "{\"login\":\"f\\u00f3\\\"o\\\\\",\"avatar_url\":\"https:\\/\\/a\",\"html_url\":\"h\"}"
+        + "]}";
+
+    // when
+    SearchResult result = decode(json);
+
+    // then
+    User user = result.getItems().get(0);
+    assertThat(user.getLogin()).isEqualTo("fó\"o\\");
+    assertThat(user.getAvatarUrl()).isEqualTo("https://a");
+  }
+
+  @Test
+  public void decode_itemsPrecedingMetadata_shouldBufferItems() throws IOException {
+    // given
+    String json = "{\"items\":[{\"login\":\"foo\",\"avatar_url\":\"a\"}],"
+        + "\"incomplete_results\":false,\"total_count\":1}";
+
+    // when
+    SearchResult result = decode(json);
+
+    // then
+    assertThat(result.getTotalCount()).isEqualTo(1);
+    assertThat(result.getItems()).hasSize(1);
+    assertThat(result.getItems().get(0).getHtmlUrl()).isEqualTo("https://github.com/foo");
+  }
+
+  @Test
+  public void readHead_metadataPrecedingItems_shouldNotDecodeUsersYet() throws IOException {
+    // given
+    String json = "{\"total_count\":1,\"incomplete_results\":false,\"items\":[{]}";
+    SearchResultDecoder decoder = new SearchResultDecoder(new StringReader(json));
+
+    // when
+    decoder.readHead();
+
+    // then
+    assertThat(decoder.getTotalCount()).isEqualTo(1);
+    assertThat(decoder.isIncompleteResult()).isFalse();
+  }
+
+  @Test
+  public void decode_truncatedResponse_shouldFail() throws IOException {
+    // given
+    String json = "{\"total_count\":1,\"incomplete_results\":false,\"items\":[{\"login\":\"fo";
+    thrown.expect(IOException.class);
+    thrown.expectMessage("Unexpected end of JSON");
+
+    // when
+    decode(json);
+
+    // then should fail
+  }
+
+  @Test
+  public void decode_userWithoutLogin_shouldFail() throws IOException {
+    // given
+    String json = "{\"total_count\":1,\"incomplete_results\":false,\"items\":[{\"avatar_url\":\"a\"}]}";
+    thrown.expect(IOException.class);
+    thrown.expectMessage("Malformed user");
+
+    // when
+    decode(json);
+
+    // then should fail
+  }
+
+  private static SearchResult decode(String json) throws IOException {
+    return new SearchResultDecoder(new StringReader(json)).decode(null, null);
+  }
+
+}
@@ -0,0 +1,250 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.jvm.session;
+
+import com.google.common.base.Ticker;
+import com.xemantic.githubusers.logic.model.SimpleSearchResult;
+import com.xemantic.githubusers.logic.model.User;
+import com.xemantic.githubusers.logic.service.CachePreWarmer;
+import com.xemantic.githubusers.logic.service.CachingUserService;
+import com.xemantic.githubusers.logic.service.CoalescingUserService;
+import com.xemantic.githubusers.logic.service.QueryHeavyHitters;
+import com.xemantic.githubusers.logic.service.RateLimitedUserService;
+import com.xemantic.githubusers.logic.service.UserService;
+import io.reactivex.Single;
+import io.reactivex.schedulers.TestScheduler;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static com.xemantic.githubusers.jvm.session.TestHostComponent.TestHostModule.DATASET;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test of the {@link SessionHost}.
+ *
+ * @author morisil
+ */
+public class SessionHostTest {
+
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+  @After
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void query_manySessions_shouldDisplayUsersInEachSessionIndependently() throws InterruptedException {
+    // given
+    int sessionCount = 1000;
+    SessionHost host = newHost(sessionCount);
+    Session[] sessions = new Session[sessionCount];
+    String[] queries = new String[sessionCount];
+    for (int i = 0; i < sessionCount; i++) {
+      sessions[i] = host.open("session" + i);
+      queries[i] = DATASET.getLogin(i * 7);
+    }
+
+    // when
+    for (int i = 0; i < sessionCount; i++) {
+      sessions[i].query(queries[i]);
+    }
+
+    // then
+    await(() -> host.getSessions().stream().noneMatch(session -> session.getUsers().isEmpty()));
+    assertThat(host.getSessionCount()).isEqualTo(sessionCount);
+    for (int i = 0; i < sessionCount; i++) {
+      // exact match comes first
+      assertThat(sessions[i].getUsers().get(0).getLogin()).isEqualTo(queries[i]);
+      assertThat(sessions[i].getQueryCount()).isEqualTo(1);
+    }
+    assertThat(host.getAverageLatencyMillis()).isGreaterThanOrEqualTo(0);
+    host.close();
+    assertThat(host.getSessionCount()).isZero();
+  }
+
+  @Test
+  public void loadMore_afterFirstPage_shouldDisplayNextPageOnlyInThisSession() throws InterruptedException {
+    // given
+    SessionHost host = newHost(2);
+    Session foo = host.open("foo");
+    Session bar = host.open("bar");
+    foo.query("a");
+    bar.query("a");
+    await(() -> (foo.getUsers().size() == 10) && (bar.getUsers().size() == 10));
+    await(() -> foo.isLoadMoreEnabled() && bar.isLoadMoreEnabled());
+
+    // when
+    foo.loadMore();
+
+    // then
+    await(() -> foo.getUsers().size() == 20);
+    assertThat(bar.getUsers()).hasSize(10);
+    assertThat(foo.getUsers().subList(0, 10))
+        .extracting(User::getLogin)
+        .containsExactlyElementsOf(bar.getUsers().stream().map(User::getLogin).collect(Collectors.toList()));
+  }
+
+  @Test
+  public void query_userServiceWithLatency_shouldCallViewsOnlyFromSessionTasks() throws InterruptedException {
+    // given
+    int sessionCount = 20;
+    SessionHost host = newHost(sessionCount, 20);
+    Session[] sessions = new Session[sessionCount];
+    for (int i = 0; i < sessionCount; i++) {
+      sessions[i] = host.open("session" + i);
+    }
+
+    // when
+    for (int i = 0; i < sessionCount; i++) {
+      sessions[i].query("a");
+    }
+    await(() -> host.getSessions().stream().allMatch(Session::isLoadMoreEnabled));
+    for (Session session : sessions) {
+      session.loadMore();
+    }
+
+    // then
+    await(() -> host.getSessions().stream().allMatch(session -> session.getUsers().size() == 20));
+    for (Session session : sessions) {
+      assertThat(session.getForeignThreadCallCount()).isZero();
+    }
+  }
+
+  @Test
+  public void open_sessionLimitReached_shouldFail() {
+    // given
+    SessionHost host = newHost(1);
+    host.open("foo");
+    thrown.expect(IllegalStateException.class);
+    thrown.expectMessage("Session limit reached: 1");
+
+    // when
+    host.open("bar");
+
+    // then should fail
+  }
+
+  @Test
+  public void open_sessionAlreadyOpen_shouldFail() {
+    // given
+    SessionHost host = newHost(2);
+    host.open("foo");
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("Session already open: foo");
+
+    // when
+    host.open("foo");
+
+    // then should fail
+  }
+
+  @Test
+  public void close_openSession_shouldReleaseSlot() {
+    // given
+    SessionHost host = newHost(1);
+    host.open("foo");
+
+    // when
+    host.close("foo");
+
+    // then
+    assertThat(host.get("foo")).isNull();
+    assertThat(host.open("bar")).isNotNull();
+  }
+
+  @Test
+  public void close_cachePreWarmerProvided_shouldWarmCacheUntilClosed() {
+    // given
+    TestScheduler scheduler = new TestScheduler();
+    AtomicInteger requests = new AtomicInteger();
+    UserService userService = (query, page, perPage) -> {
+      requests.incrementAndGet();
+      return Single.just(new SimpleSearchResult(0, false, Collections.emptyList()));
+    };
+    RateLimitedUserService rateLimited =
+        new RateLimitedUserService(userService, 10, 1, TimeUnit.MINUTES, scheduler);
+    QueryHeavyHitters heavyHitters = new QueryHeavyHitters(1);
+    heavyHitters.record("foo");
+    CachePreWarmer preWarmer = new CachePreWarmer(
+        heavyHitters,
+        new CachingUserService(userService, 1000, 1, TimeUnit.SECONDS, new Ticker() {
+          @Override
+          public long read() {
+            return scheduler.now(TimeUnit.NANOSECONDS);
+          }
+        }),
+        new CoalescingUserService(rateLimited),
+        rateLimited,
+        10,
+        30,
+        TimeUnit.SECONDS,
+        scheduler
+    );
+    SessionHost host = new SessionHost(() -> null, executor, 1, preWarmer);
+    scheduler.advanceTimeBy(30, TimeUnit.SECONDS);
+    assertThat(requests.get()).isEqualTo(1);
+
+    // when
+    host.close();
+
+    // then
+    scheduler.advanceTimeBy(5, TimeUnit.MINUTES);
+    assertThat(requests.get()).isEqualTo(1);
+  }
+
+  private SessionHost newHost(int maxSessions) {
+    return newHost(maxSessions, 0);
+  }
+
+  private SessionHost newHost(int maxSessions, long latency) {
+    return DaggerTestHostComponent.builder()
+        .executor(executor)
+        .maxSessions(maxSessions)
+        .latency(latency)
+        .build()
+        .sessionHost();
+  }
+
+  private static void await(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+    while (!condition.getAsBoolean()) {
+      assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+      Thread.sleep(10);
+    }
+  }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.jvm.session;
+
+import com.xemantic.ankh.shared.metrics.MetricsModule;
+import com.xemantic.ankh.shared.retry.RetryPolicy;
+import com.xemantic.ankh.shared.trace.TracerModule;
+import com.xemantic.githubusers.jvm.synthetic.SyntheticUserDataset;
+import com.xemantic.githubusers.jvm.synthetic.SyntheticUserService;
+import com.xemantic.githubusers.logic.service.QueryHeavyHitters;
+import com.xemantic.githubusers.logic.service.UserService;
+import dagger.BindsInstance;
+import dagger.Component;
+import dagger.Module;
+import dagger.Provides;
+import io.reactivex.schedulers.Schedulers;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.util.Random;
+import java.util.concurrent.Executor;
+
+/**
+ * Component hosting sessions in the {@link SessionHostTest}.
+ *
+ * @author morisil
+ */
+@Singleton
+@Component(modules = {
+    SessionHostModule.class,
+    MetricsModule.class,
+    TracerModule.class,
+    TestHostComponent.TestHostModule.class
+})
+interface TestHostComponent {
+
+  SessionHost sessionHost();
+
+  @Component.Builder
+  interface Builder {
+
+    @BindsInstance
+    Builder executor(@Named("sessionExecutor") Executor executor);
+
+    @BindsInstance
+    Builder maxSessions(@Named("sessionMaxCount") int maxSessions);
+
+    @BindsInstance
+    Builder latency(@Named("testLatencyMillis") long latency);
+
+    TestHostComponent build();
+
+  }
+
+  @Module
+  abstract class TestHostModule {
+
+    static final SyntheticUserDataset DATASET = new SyntheticUserDataset(10000, 42);
+
+    @Provides
+    @Singleton
+    static UserService userService(@Named("testLatencyMillis") long latency) {
+      return new SyntheticUserService(
+          DATASET, 0, latency, 0, 0, Integer.MAX_VALUE, 60000, new Random(42), Schedulers.computation()
+      );
+    }
+
+    @Provides
+    @Singleton
+    static QueryHeavyHitters queryHeavyHitters() {
+      return new QueryHeavyHitters(10);
+    }
+
+    @Provides
+    static RetryPolicy retryPolicy() {
+      return RetryPolicy.always();
+    }
+
+    @Provides
+    @Named("userListPageSize")
+    static int userListPageSize() {
+      return 10;
+    }
+
+    @Provides
+    @Named("gitHubUserSearchLimit")
+    static int gitHubUserSearchLimit() {
+      return SyntheticUserDataset.SEARCH_LIMIT;
+    }
+
+    @Provides
+    @Named("userListPrefetchDistance")
+    static int userListPrefetchDistance() {
+      return 0;
+    }
+
+    @Provides
+    @Named("userListMaxPages")
+    static int userListMaxPages() {
+      return 0;
+    }
+
+    @Provides
+    @Named("userQueryMinDebounceMillis")
+    static int userQueryMinDebounceMillis() {
+      return 0;
+    }
+
+    @Provides
+    @Named("userQueryMaxDebounceMillis")
+    static int userQueryMaxDebounceMillis() {
+      return 0;
+    }
+
+  }
+
+}
@@ -0,0 +1,134 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.jvm.synthetic;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test of the {@link SyntheticUserDataset}.
+ *
+ * @author morisil
+ */
+public class SyntheticUserDatasetTest {
+
+  @Test
+  public void new_sizeAndSeed_shouldGenerateUniqueSortedLoginsRepeatably() {
+    // when
+    SyntheticUserDataset dataset = new SyntheticUserDataset(10000, 42);
+
+    // then
+    assertThat(dataset.size()).isEqualTo(10000);
+    for (int i = 1; i < dataset.size(); i++) {
+      assertThat(dataset.getLogin(i - 1).compareTo(dataset.getLogin(i))).isNegative();
+    }
+    SyntheticUserDataset same = new SyntheticUserDataset(10000, 42);
+    assertThat(same.getLogin(1234)).isEqualTo(dataset.getLogin(1234));
+    assertThat(dataset.getUser(0).getHtmlUrl()).isEqualTo("https://github.com/" + dataset.getLogin(0));
+  }
+
+  @Test
+  public void search_term_shouldReturnPrefixMatchesFirstAndCountAllSubstringMatches() {
+    // given
+    SyntheticUserDataset dataset = new SyntheticUserDataset(10000, 42);
+    String term = "tor";
+
+    // when
+    SyntheticUserDataset.Matches matches = dataset.search(term, 0);
+
+    // then
+    int expectedCount = 0;
+    List<String> expectedPrefixed = new ArrayList<>();
+    for (int i = 0; i < dataset.size(); i++) {
+      String login = dataset.getLogin(i);
+      if (login.contains(term)) expectedCount++;
+      if (login.startsWith(term)) expectedPrefixed.add(login);
+    }
+    assertThat(matches.getTotalCount()).isEqualTo(expectedCount);
+    assertThat(matches.isIncomplete()).isFalse();
+    List<String> found = new ArrayList<>();
+    for (int index : matches.getIndices()) {
+      found.add(dataset.getLogin(index));
+    }
+    assertThat(found).hasSize(Math.min(expectedCount, SyntheticUserDataset.SEARCH_LIMIT));
+    assertThat(found).allMatch(login -> login.contains(term));
+    assertThat(found.subList(0, expectedPrefixed.size())).isEqualTo(expectedPrefixed);
+  }
+
+  @Test
+  public void search_exactLogin_shouldReturnItFirst() {
+    // given
+    SyntheticUserDataset dataset = new SyntheticUserDataset(10000, 42);
+    String login = dataset.getLogin(5000);
+
+    // when
+    SyntheticUserDataset.Matches matches = dataset.search(login, 0);
+
+    // then
+    assertThat(matches.getIndices()[0]).isEqualTo(5000);
+  }
+
+  @Test
+  public void search_popularTerm_shouldKeepOnlyTheFirst1000Matches() {
+    // given
+    SyntheticUserDataset dataset = new SyntheticUserDataset(10000, 42);
+
+    // when
+    SyntheticUserDataset.Matches matches = dataset.search("a", 0);
+
+    // then
+    assertThat(matches.getTotalCount()).isGreaterThan(SyntheticUserDataset.SEARCH_LIMIT);
+    assertThat(matches.getIndices()).hasSize(SyntheticUserDataset.SEARCH_LIMIT);
+  }
+
+  @Test
+  public void search_scanLimitExceeded_shouldMarkResultAsIncomplete() {
+    // given
+    SyntheticUserDataset dataset = new SyntheticUserDataset(10000, 42);
+
+    // when
+    SyntheticUserDataset.Matches matches = dataset.search("zi", 100);
+
+    // then
+    assertThat(matches.isIncomplete()).isTrue();
+    assertThat(matches.getTotalCount()).isLessThan(dataset.search("zi", 0).getTotalCount());
+  }
+
+  @Test
+  public void search_termNotFound_shouldReturnNoMatches() {
+    // given
+    SyntheticUserDataset dataset = new SyntheticUserDataset(1000, 42);
+
+    // when
+    SyntheticUserDataset.Matches matches = dataset.search("qqq", 0);
+
+    // then
+    assertThat(matches.getTotalCount()).isEqualTo(0);
+    assertThat(matches.getIndices()).isEmpty();
+  }
+
+}
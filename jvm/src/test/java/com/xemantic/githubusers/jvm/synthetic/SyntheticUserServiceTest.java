@@ -0,0 +1,132 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.jvm.synthetic;
+
+import com.xemantic.githubusers.logic.model.SearchResult;
+import com.xemantic.githubusers.logic.service.RateLimitExceededException;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.schedulers.TestScheduler;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test of the {@link SyntheticUserService}.
+ *
+ * @author morisil
+ */
+public class SyntheticUserServiceTest {
+
+  private static final SyntheticUserDataset DATASET = new SyntheticUserDataset(10000, 42);
+
+  private final TestScheduler scheduler = new TestScheduler();
+
+  @Test
+  public void find_pages_shouldReturnConsecutiveMatches() {
+    // given
+    SyntheticUserService service = newService(0, 0, 0);
+    SyntheticUserDataset.Matches matches = DATASET.search("ka", 0);
+
+    // when
+    SearchResult page2 = service.find("KA in:login", 2, 30).blockingGet();
+
+    // then
+    assertThat(page2.getTotalCount()).isEqualTo(matches.getTotalCount());
+    assertThat(page2.isIncompleteResult()).isFalse();
+    assertThat(page2.getItems()).hasSize(30);
+    assertThat(page2.getItems().get(0).getLogin()).isEqualTo(DATASET.getLogin(matches.getIndices()[30]));
+    assertThat(page2.getRateLimit()).isNull();
+  }
+
+  @Test
+  public void find_beyondFirst1000Results_shouldFailWithValidationError() {
+    // given
+    SyntheticUserService service = newService(0, 0, 0);
+
+    // when
+    TestObserver<SearchResult> observer = service.find("a", 11, 100).test();
+
+    // then
+    observer.assertError(IOException.class);
+    observer.assertErrorMessage("GitHub API responded with HTTP status: 422");
+  }
+
+  @Test
+  public void find_latency_shouldRespondAfterTheLatency() {
+    // given
+    SyntheticUserService service = newService(200, 0, 0);
+
+    // when
+    TestObserver<SearchResult> observer = service.find("ka", 1, 10).test();
+
+    // then
+    scheduler.advanceTimeBy(199, TimeUnit.MILLISECONDS);
+    observer.assertNoValues();
+    scheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS);
+    observer.assertValueCount(1);
+  }
+
+  @Test
+  public void find_errorRate1_shouldAlwaysFail() {
+    // given
+    SyntheticUserService service = newService(0, 1, 0);
+
+    // when
+    TestObserver<SearchResult> observer = service.find("ka", 1, 10).test();
+
+    // then
+    observer.assertErrorMessage("GitHub API responded with HTTP status: 502");
+    assertThat(service.getFailureCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void find_rateLimitExceeded_shouldFailUntilWindowResets() {
+    // given
+    SyntheticUserService service = newService(0, 0, 2);
+
+    // when
+    SearchResult first = service.find("ka", 1, 10).blockingGet();
+    service.find("ka", 2, 10).blockingGet();
+    TestObserver<SearchResult> limited = service.find("ka", 3, 10).test();
+
+    // then
+    assertThat(first.getRateLimit().getRemaining()).isEqualTo(1);
+    assertThat(first.getRateLimit().getResetTime()).isEqualTo(60000);
+    limited.assertError(RateLimitExceededException.class);
+    assertThat(service.getRateLimitedCount()).isEqualTo(1);
+    scheduler.advanceTimeBy(1, TimeUnit.MINUTES);
+    service.find("ka", 3, 10).test().assertValueCount(1);
+    assertThat(service.getRequestCount()).isEqualTo(4);
+  }
+
+  private SyntheticUserService newService(long latency, double errorRate, int rateLimit) {
+    return new SyntheticUserService(
+        DATASET, 0, latency, 0, errorRate, rateLimit, 60000, new Random(42), scheduler
+    );
+  }
+
+}
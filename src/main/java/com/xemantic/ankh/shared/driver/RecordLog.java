@@ -0,0 +1,58 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.ankh.shared.driver;
+
+import java.util.List;
+
+/**
+ * Persistent, append-only log of text records. Implementation will be
+ * different for each platform, for example memory-mapped file on JVM and
+ * Android. The methods are synchronous, therefore the backing storage
+ * has to provide synchronous access as well.
+ * <p>
+ * Appending is not required to be atomic - the process might crash in the
+ * middle of writing. Record formats should therefore allow detection of
+ * a torn record, which can be then skipped when reading.
+ * </p>
+ *
+ * @author morisil
+ */
+public interface RecordLog {
+
+  void append(String record);
+
+  /**
+   * Reads all the records in the order they were appended.
+   *
+   * @return the records.
+   */
+  List<String> readAll();
+
+  /**
+   * Atomically replaces all the records in the log, used for compaction.
+   *
+   * @param records the new content of the log.
+   */
+  void replaceAll(List<String> records);
+
+}
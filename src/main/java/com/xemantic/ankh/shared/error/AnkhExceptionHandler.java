@@ -24,7 +24,9 @@ package com.xemantic.ankh.shared.error;
 
 import com.xemantic.ankh.shared.event.Sink;
 import com.xemantic.ankh.shared.event.SnackbarMessageEvent;
+import com.xemantic.ankh.shared.metrics.Metrics;
 import com.xemantic.ankh.shared.snackbar.SnackbarView;
+import com.xemantic.ankh.shared.trace.Tracer;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -37,6 +39,9 @@ import java.util.logging.Logger;
  * The handler will log the exception, check if there is a user friendly message
  * for the exception, and if so it will display it on the {@link SnackbarView}.
  * The logger can be configured to log thrown exception remotely.
+ * Exceptions are counted in {@link Metrics} as {@code errors}, and also
+ * by their type, like {@code errors.IOException}, and traced as
+ * the {@code error} span.
  *
  * @author morisil
  */
@@ -49,19 +54,33 @@ public class AnkhExceptionHandler implements Thread.UncaughtExceptionHandler {
 
   private final Sink<SnackbarMessageEvent> snackbarMessageSink;
 
+  private final Metrics metrics;
+
+  private final Tracer tracer;
+
   @Inject
   public AnkhExceptionHandler(
       Logger logger,
       ErrorMessageProvider errorMessageProvider,
-      Sink<SnackbarMessageEvent> snackbarMessageSink
+      Sink<SnackbarMessageEvent> snackbarMessageSink,
+      Metrics metrics,
+      Tracer tracer
   ) {
     this.logger = logger;
     this.snackbarMessageSink = snackbarMessageSink;
     this.errorMessageProvider = errorMessageProvider;
+    this.metrics = metrics;
+    this.tracer = tracer;
   }
 
   @Override
   public void uncaughtException(Thread thread, Throwable throwable) {
+    metrics.counter("errors").increment();
+    metrics.counter("errors." + throwable.getClass().getSimpleName()).increment();
+    tracer.begin("error")
+        .set("type", throwable.getClass().getName())
+        .set("message", throwable.getMessage())
+        .end();
     logger.log(Level.SEVERE, "Uncaught Exception", throwable);
     errorMessageProvider.getMessage(throwable)
         .map(SnackbarMessageEvent::new)
@@ -0,0 +1,70 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.ankh.shared.metrics;
+
+/**
+ * Lightweight metrics SPI. Platforms can provide an implementation reporting
+ * to their monitoring system, see {@link MetricsModule}. Implementations
+ * should return the same metric instance for the same name, and all the
+ * metrics have to be thread safe, as they are updated from any thread.
+ * Names are dot separated, like {@code userService.latency}.
+ *
+ * @author morisil
+ */
+public interface Metrics {
+
+  /**
+   * Returns the counter of events, e.g. requests.
+   *
+   * @param name the name of the counter.
+   * @return the counter.
+   */
+  Counter counter(String name);
+
+  /**
+   * Returns the histogram of values, e.g. latencies in milliseconds.
+   *
+   * @param name the name of the histogram.
+   * @return the histogram.
+   */
+  Histogram histogram(String name);
+
+  /**
+   * Registers the gauge which will be sampled by the implementation
+   * whenever it is reporting.
+   *
+   * @param name the name of the gauge.
+   * @param gauge the gauge.
+   */
+  void gauge(String name, Gauge gauge);
+
+  /**
+   * Returns the metrics ignoring all the measurements.
+   *
+   * @return the no-op metrics.
+   */
+  static Metrics noOp() {
+    return NoOpMetrics.INSTANCE;
+  }
+
+}
@@ -23,14 +23,19 @@
 package com.xemantic.ankh.shared.presenter;
 
 import com.xemantic.ankh.shared.error.Errors;
+import com.xemantic.ankh.shared.metrics.Metrics;
+import com.xemantic.ankh.shared.retry.RetryPolicy;
+import com.xemantic.ankh.shared.trace.Tracer;
 import io.reactivex.Observable;
 import io.reactivex.disposables.Disposable;
 import io.reactivex.functions.Action;
 import io.reactivex.internal.functions.Functions;
 
+import javax.inject.Inject;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Base presenter with shared presenter logic and state.
@@ -39,12 +44,22 @@ import java.util.List;
  */
 public abstract class Presenter {
 
+  private static final String START_COUNT = "presenter.start";
+
+  private static final String STOP_COUNT = "presenter.stop";
+
   private final List<Observable<?>> observables = new LinkedList<>();
 
   private final List<Disposable> subscriptions = new LinkedList<>();
 
   private Action onStart = Functions.EMPTY_ACTION;
 
+  private RetryPolicy retryPolicy = RetryPolicy.always();
+
+  private Metrics metrics = Metrics.noOp();
+
+  private Tracer tracer = Tracer.noOp();
+
   protected Presenter(Observable<?> ... observables) {
     this.observables.addAll(Arrays.asList(observables));
   }
@@ -57,7 +72,65 @@ public abstract class Presenter {
     this.onStart = onStart;
   }
 
+  /**
+   * Sets the policy of resubscribing to registered observables after an error.
+   * Each error is reported with {@link Errors#onError(Throwable)} regardless
+   * of the policy. If not set, the presenter will resubscribe immediately
+   * and unconditionally.
+   *
+   * @param retryPolicy the retry policy.
+   */
+  @Inject
+  public void setRetryPolicy(RetryPolicy retryPolicy) {
+    this.retryPolicy = Objects.requireNonNull(retryPolicy);
+  }
+
+  /**
+   * Returns the retry policy, which will also trace each resubscription
+   * as {@code presenter.retry} span if the {@link Tracer} is set.
+   *
+   * @return the retry policy.
+   */
+  protected RetryPolicy getRetryPolicy() {
+    return (tracer == Tracer.noOp())
+        ? retryPolicy
+        : new TracingRetryPolicy(retryPolicy, tracer, getClass().getSimpleName());
+  }
+
+  /**
+   * Sets the metrics to report to. The presenter counts its starts and stops
+   * as {@code presenter.start} and {@code presenter.stop},
+   * while subclasses might record their own metrics. If not set,
+   * {@link Metrics#noOp()} is used.
+   *
+   * @param metrics the metrics.
+   */
+  @Inject
+  public void setMetrics(Metrics metrics) {
+    this.metrics = Objects.requireNonNull(metrics);
+  }
+
+  protected Metrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Sets the tracer to report spans of work to. If not set,
+   * {@link Tracer#noOp()} is used.
+   *
+   * @param tracer the tracer.
+   */
+  @Inject
+  public void setTracer(Tracer tracer) {
+    this.tracer = Objects.requireNonNull(tracer);
+  }
+
+  protected Tracer getTracer() {
+    return tracer;
+  }
+
   public void start() {
+    metrics.counter(START_COUNT).increment();
     subscribeObservables();
     runOnStart();
   }
@@ -70,6 +143,7 @@ public abstract class Presenter {
    * {@code Activity} on Android platform.
    */
   public void stop() {
+    metrics.counter(STOP_COUNT).increment();
     for (Disposable subscription : subscriptions) {
       subscription.dispose();
     }
@@ -90,13 +164,13 @@ public abstract class Presenter {
     }
   }
 
-  private static Disposable subscribe(Observable<?> observable) {
-    return observable
-        .retry(throwable -> { // always retry, will cause unconditional resubscription
-          Errors.onError(throwable);
-          return true;
-        })
-        .subscribe();
+  private Disposable subscribe(Observable<?> observable) {
+    return getRetryPolicy()
+        .apply(observable.doOnError(Errors::onError))
+        .subscribe(
+            Functions.emptyConsumer(),
+            Functions.emptyConsumer() // the policy gave up, the error is already reported
+        );
   }
 
 }
@@ -0,0 +1,74 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.ankh.shared.presenter;
+
+import com.xemantic.ankh.shared.retry.RetryPolicy;
+import com.xemantic.ankh.shared.trace.Tracer;
+import io.reactivex.Observable;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * {@link RetryPolicy} decorator tracing each resubscription after
+ * an error as the {@code presenter.retry} span.
+ *
+ * @author morisil
+ */
+final class TracingRetryPolicy implements RetryPolicy {
+
+  static final String RETRY = "presenter.retry";
+
+  private final RetryPolicy retryPolicy;
+
+  private final Tracer tracer;
+
+  private final String presenter;
+
+  TracingRetryPolicy(RetryPolicy retryPolicy, Tracer tracer, String presenter) {
+    this.retryPolicy = retryPolicy;
+    this.tracer = tracer;
+    this.presenter = presenter;
+  }
+
+  @Override
+  public <T> Observable<T> apply(Observable<T> source) {
+    return Observable.defer(() -> {
+      // attempts are counted for each subscription separately
+      AtomicReference<Throwable> error = new AtomicReference<>();
+      AtomicInteger attempt = new AtomicInteger();
+      return retryPolicy.apply(Observable.defer(() -> {
+        Throwable previous = error.getAndSet(null);
+        if (previous != null) {
+          tracer.begin(RETRY)
+              .set("presenter", presenter)
+              .set("attempt", attempt.incrementAndGet())
+              .set("error", previous.getClass().getName())
+              .end();
+        }
+        return source.doOnError(error::set);
+      }));
+    });
+  }
+
+}
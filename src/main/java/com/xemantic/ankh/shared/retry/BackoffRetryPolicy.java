@@ -0,0 +1,119 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.ankh.shared.retry;
+
+import io.reactivex.Observable;
+import io.reactivex.Scheduler;
+
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Retry policy with exponential backoff and jitter. The delay before the
+ * {@code n}-th retry attempt is {@code initialDelay * 2^(n-1)}, limited
+ * by {@code maxDelay}, and then reduced by random fraction not bigger
+ * than {@code jitter}, so that many clients failing at the same moment
+ * will not retry all at once.
+ * <p>
+ * The attempt counter is reset whenever the source emits an item.
+ * </p>
+ *
+ * @author morisil
+ */
+public class BackoffRetryPolicy implements RetryPolicy {
+
+  private final long initialDelay;
+
+  private final long maxDelay;
+
+  private final double jitter;
+
+  private final int maxAttempts;
+
+  private final Random random;
+
+  private final Scheduler scheduler;
+
+  /**
+   * Creates the policy.
+   *
+   * @param initialDelay the delay before the first retry, in milliseconds.
+   * @param maxDelay the maximal delay between retries, in milliseconds.
+   * @param jitter the maximal fraction of the delay to be randomly subtracted, {@code 0..1}.
+   * @param maxAttempts the maximal number of subsequent retries, {@code 0} means no limit.
+   * @param random the source of randomness for the jitter.
+   * @param scheduler the scheduler to wait on.
+   */
+  public BackoffRetryPolicy(
+      long initialDelay,
+      long maxDelay,
+      double jitter,
+      int maxAttempts,
+      Random random,
+      Scheduler scheduler
+  ) {
+    if ((jitter < 0) || (jitter > 1)) {
+      throw new IllegalArgumentException("jitter must be within 0..1, but was: " + jitter);
+    }
+    this.initialDelay = initialDelay;
+    this.maxDelay = maxDelay;
+    this.jitter = jitter;
+    this.maxAttempts = maxAttempts;
+    this.random = Objects.requireNonNull(random);
+    this.scheduler = Objects.requireNonNull(scheduler);
+  }
+
+  @Override
+  public <T> Observable<T> apply(Observable<T> source) {
+    return Observable.defer(() -> {
+      AtomicInteger attempts = new AtomicInteger();
+      return source
+          .doOnNext(item -> attempts.set(0))
+          .retryWhen(errors -> errors.flatMap(error -> {
+            int attempt = attempts.incrementAndGet();
+            if ((maxAttempts > 0) && (attempt > maxAttempts)) {
+              return Observable.error(error); // gives up
+            }
+            return Observable.timer(getDelay(attempt), TimeUnit.MILLISECONDS, scheduler);
+          }));
+    });
+  }
+
+  /**
+   * Returns the delay before given retry attempt.
+   *
+   * @param attempt the attempt, starting from {@code 1}.
+   * @return the delay in milliseconds.
+   */
+  public long getDelay(int attempt) {
+    long delay = initialDelay;
+    for (int i = 1; (i < attempt) && (delay < maxDelay); i++) {
+      delay *= 2;
+    }
+    delay = Math.min(delay, maxDelay);
+    return Math.round(delay * (1 - (jitter * random.nextDouble())));
+  }
+
+}
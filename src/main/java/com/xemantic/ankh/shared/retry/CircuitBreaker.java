@@ -0,0 +1,111 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.ankh.shared.retry;
+
+import io.reactivex.Observable;
+import io.reactivex.Scheduler;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breaker shared by all the observables it is applied to. After
+ * {@code failureThreshold} subsequent failures the circuit opens, and no
+ * subscription (including resubscription by the decorated
+ * {@link RetryPolicy}) will happen until the {@code openDuration} passes.
+ * Then the circuit is half-open - the next failure will open it again,
+ * while the first emitted item will close it.
+ * <p>
+ * Contrary to the classic circuit breaker, subscriptions are postponed
+ * instead of failing fast, as presenter subscriptions should stay alive.
+ * </p>
+ *
+ * @author morisil
+ */
+public class CircuitBreaker implements RetryPolicy {
+
+  private final RetryPolicy retryPolicy;
+
+  private final int failureThreshold;
+
+  private final long openDuration;
+
+  private final Scheduler scheduler;
+
+  private int failures = 0;
+
+  private long openUntil = 0;
+
+  /**
+   * Creates the circuit breaker.
+   *
+   * @param retryPolicy the policy to resubscribe with.
+   * @param failureThreshold the number of subsequent failures opening the circuit.
+   * @param openDuration the time the circuit stays open, in milliseconds.
+   * @param scheduler the scheduler to wait on.
+   */
+  public CircuitBreaker(
+      RetryPolicy retryPolicy,
+      int failureThreshold,
+      long openDuration,
+      Scheduler scheduler
+  ) {
+    this.retryPolicy = Objects.requireNonNull(retryPolicy);
+    this.failureThreshold = failureThreshold;
+    this.openDuration = openDuration;
+    this.scheduler = Objects.requireNonNull(scheduler);
+  }
+
+  @Override
+  public <T> Observable<T> apply(Observable<T> source) {
+    return retryPolicy.apply(Observable.defer(() -> {
+      Observable<T> guarded = source
+          .doOnNext(item -> onSuccess())
+          .doOnError(error -> onFailure());
+      long wait = getRemainingOpenTime();
+      return (wait > 0)
+          ? guarded.delaySubscription(wait, TimeUnit.MILLISECONDS, scheduler)
+          : guarded;
+    }));
+  }
+
+  public synchronized boolean isOpen() {
+    return getRemainingOpenTime() > 0;
+  }
+
+  private synchronized long getRemainingOpenTime() {
+    return Math.max(0, openUntil - scheduler.now(TimeUnit.MILLISECONDS));
+  }
+
+  private synchronized void onSuccess() {
+    failures = 0;
+  }
+
+  private synchronized void onFailure() {
+    failures++;
+    if (failures >= failureThreshold) {
+      openUntil = scheduler.now(TimeUnit.MILLISECONDS) + openDuration;
+    }
+  }
+
+}
@@ -0,0 +1,61 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.ankh.shared.retry;
+
+import com.xemantic.ankh.shared.presenter.Presenter;
+import io.reactivex.Observable;
+
+/**
+ * Defines how an {@link Observable} should be resubscribed after an error.
+ * Used by the {@link Presenter} to keep its subscriptions alive.
+ *
+ * @author morisil
+ * @see BackoffRetryPolicy
+ * @see CircuitBreaker
+ */
+public interface RetryPolicy {
+
+  /**
+   * Applies this policy to the source observable.
+   *
+   * @param source the source which might fail.
+   * @param <T> the type of emitted items.
+   * @return the observable which will resubscribe to the source according to this policy.
+   */
+  <T> Observable<T> apply(Observable<T> source);
+
+  /**
+   * Returns the policy resubscribing immediately and unconditionally.
+   *
+   * @return the policy.
+   */
+  static RetryPolicy always() {
+    return new RetryPolicy() {
+      @Override
+      public <T> Observable<T> apply(Observable<T> source) {
+        return source.retry();
+      }
+    };
+  }
+
+}
@@ -0,0 +1,60 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.ankh.shared.retry;
+
+import dagger.Module;
+import dagger.Provides;
+import io.reactivex.Scheduler;
+
+import javax.inject.Named;
+import java.util.Random;
+
+/**
+ * Defines default {@link RetryPolicy}: exponential backoff from 1 second up
+ * to 1 minute with 50% jitter, guarded by the {@link CircuitBreaker} which
+ * opens for 1 minute after 5 subsequent failures. The
+ * {@code @Named("retryScheduler") Scheduler} has to be provided.
+ * <p>
+ * The policy is intentionally not scoped: each presenter gets its own
+ * circuit breaker, so the failures observed in one session, e.g. on
+ * the server hosting many of them, will never postpone the others.
+ * Components wanting to share the breaker between presenters, like
+ * the ones of a single session, can provide the policy in their own scope.
+ * </p>
+ *
+ * @author morisil
+ */
+@Module
+public abstract class RetryPolicyModule {
+
+  @Provides
+  static RetryPolicy retryPolicy(@Named("retryScheduler") Scheduler scheduler) {
+    return new CircuitBreaker(
+        new BackoffRetryPolicy(1000, 60000, 0.5, 0, new Random(), scheduler),
+        5,
+        60000,
+        scheduler
+    );
+  }
+
+}
@@ -0,0 +1,60 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.ankh.shared.trace;
+
+/**
+ * Default {@link Tracer} ignoring all the spans.
+ *
+ * @author morisil
+ */
+final class NoOpTracer implements Tracer {
+
+  static final Tracer INSTANCE = new NoOpTracer();
+
+  private static final Span SPAN = new Span() {
+
+    @Override
+    public Span set(String key, String value) {
+      return this;
+    }
+
+    @Override
+    public Span set(String key, long value) {
+      return this;
+    }
+
+    @Override
+    public void end() {
+      // ignored
+    }
+
+  };
+
+  private NoOpTracer() { /* singleton */ }
+
+  @Override
+  public Span begin(String name) {
+    return SPAN;
+  }
+
+}
@@ -0,0 +1,59 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.ankh.shared.trace;
+
+/**
+ * Lightweight tracing SPI for correlating the application work with
+ * the platform profiler, like Java Flight Recorder on the JVM. Platforms
+ * can provide an implementation, see {@link TracerModule}. Span names
+ * are dot separated, like {@code userService.request}.
+ * <p>
+ * Tracing should cost next to nothing when disabled, therefore
+ * implementations are expected to return a no-op {@link Span} from
+ * {@link #begin(String)} if the span is not going to be recorded.
+ * </p>
+ *
+ * @author morisil
+ */
+public interface Tracer {
+
+  /**
+   * Begins the span of work, which will be recorded when
+   * {@link Span#end()} is called. Instant events are spans
+   * ended right after they are begun.
+   *
+   * @param name the name of the span.
+   * @return the span.
+   */
+  Span begin(String name);
+
+  /**
+   * Returns the tracer ignoring all the spans.
+   *
+   * @return the no-op tracer.
+   */
+  static Tracer noOp() {
+    return NoOpTracer.INSTANCE;
+  }
+
+}
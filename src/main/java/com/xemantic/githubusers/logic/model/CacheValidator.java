@@ -0,0 +1,103 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.model;
+
+import java.util.Objects;
+
+/**
+ * Validator metadata of a received {@link SearchResult}, allowing
+ * <a href="https://developer.github.com/v3/#conditional-requests">conditional requests</a>.
+ * Usually obtained from {@code ETag} and {@code Last-Modified} HTTP headers
+ * of the response.
+ *
+ * @author morisil
+ */
+public final class CacheValidator {
+
+  private final String eTag;
+
+  private final String lastModified;
+
+  private final long fetchTime;
+
+  /**
+   * Creates validator.
+   *
+   * @param eTag the entity tag, or {@code null} if not provided.
+   * @param lastModified the last modification date as received, or {@code null} if not provided.
+   * @param fetchTime the time when the result was fetched, in milliseconds since epoch.
+   */
+  public CacheValidator(String eTag, String lastModified, long fetchTime) {
+    this.eTag = eTag;
+    this.lastModified = lastModified;
+    this.fetchTime = fetchTime;
+  }
+
+  public String getETag() {
+    return eTag;
+  }
+
+  public String getLastModified() {
+    return lastModified;
+  }
+
+  public long getFetchTime() {
+    return fetchTime;
+  }
+
+  /**
+   * Tells if the result can be revalidated with conditional request.
+   *
+   * @return {@code true} if either ETag or Last-Modified is known.
+   */
+  public boolean isConditional() {
+    return (eTag != null) || (lastModified != null);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof CacheValidator)) {
+      return false;
+    }
+    CacheValidator other = (CacheValidator) o;
+    return (
+        Objects.equals(eTag, other.eTag)
+            && Objects.equals(lastModified, other.lastModified)
+            && (fetchTime == other.fetchTime)
+    );
+  }
+
+  @Override
+  public int hashCode() {
+    return (31 * ((31 * Objects.hashCode(eTag)) + Objects.hashCode(lastModified))) + Long.hashCode(fetchTime);
+  }
+
+  @Override
+  public String toString() {
+    return "CacheValidator{eTag=" + eTag + ", lastModified=" + lastModified + ", fetchTime=" + fetchTime + "}";
+  }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.model;
+
+/**
+ * Rate limit status according to
+ * <a href="https://developer.github.com/v3/search/#rate-limit">GitHub API</a>.
+ * Usually obtained from {@code X-RateLimit-*} HTTP headers of the response.
+ *
+ * @author morisil
+ */
+public final class RateLimit {
+
+  private final int limit;
+
+  private final int remaining;
+
+  private final long resetTime;
+
+  /**
+   * Creates rate limit status.
+   *
+   * @param limit the maximum number of requests permitted in the time window.
+   * @param remaining the number of requests remaining in current time window.
+   * @param resetTime the time when current time window resets, in milliseconds since epoch.
+   */
+  public RateLimit(int limit, int remaining, long resetTime) {
+    this.limit = limit;
+    this.remaining = remaining;
+    this.resetTime = resetTime;
+  }
+
+  public int getLimit() {
+    return limit;
+  }
+
+  public int getRemaining() {
+    return remaining;
+  }
+
+  public long getResetTime() {
+    return resetTime;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof RateLimit)) {
+      return false;
+    }
+    RateLimit other = (RateLimit) o;
+    return (
+        (limit == other.limit)
+            && (remaining == other.remaining)
+            && (resetTime == other.resetTime)
+    );
+  }
+
+  @Override
+  public int hashCode() {
+    return (31 * ((31 * limit) + remaining)) + Long.hashCode(resetTime);
+  }
+
+  @Override
+  public String toString() {
+    return "RateLimit{limit=" + limit + ", remaining=" + remaining + ", resetTime=" + resetTime + "}";
+  }
+
+}
@@ -37,4 +37,24 @@ public interface SearchResult {
 
   List<User> getItems();
 
+  /**
+   * Returns rate limit status received together with this result.
+   *
+   * @return the rate limit, or {@code null} if not provided by the implementation.
+   */
+  default RateLimit getRateLimit() {
+    return null;
+  }
+
+  /**
+   * Returns validator metadata allowing to revalidate this result with
+   * conditional request.
+   *
+   * @return the validator, or {@code null} if not provided by the implementation.
+   * @see com.xemantic.githubusers.logic.service.UserService#findIfModified(String, int, int, SearchResult)
+   */
+  default CacheValidator getValidator() {
+    return null;
+  }
+
 }
@@ -0,0 +1,122 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.model;
+
+import io.reactivex.Flowable;
+
+import java.util.Objects;
+
+/**
+ * Streamed counterpart of the {@link SearchResult}. The metadata is available
+ * as soon as it is decoded from the beginning of the response, while the
+ * {@link User}s are emitted one by one, as they are decoded.
+ *
+ * @author morisil
+ */
+public final class SearchResultStream {
+
+  private final int totalCount;
+
+  private final boolean incompleteResult;
+
+  private final Flowable<User> items;
+
+  private final RateLimit rateLimit;
+
+  private final CacheValidator validator;
+
+  public SearchResultStream(int totalCount, boolean incompleteResult, Flowable<User> items) {
+    this(totalCount, incompleteResult, items, null, null);
+  }
+
+  public SearchResultStream(
+      int totalCount,
+      boolean incompleteResult,
+      Flowable<User> items,
+      RateLimit rateLimit,
+      CacheValidator validator
+  ) {
+    this.totalCount = totalCount;
+    this.incompleteResult = incompleteResult;
+    this.items = Objects.requireNonNull(items);
+    this.rateLimit = rateLimit;
+    this.validator = validator;
+  }
+
+  /**
+   * Exposes already received {@link SearchResult} as a stream.
+   *
+   * @param result the search result.
+   * @return the stream.
+   */
+  public static SearchResultStream of(SearchResult result) {
+    return new SearchResultStream(
+        result.getTotalCount(),
+        result.isIncompleteResult(),
+        Flowable.fromIterable(result.getItems()),
+        result.getRateLimit(),
+        result.getValidator()
+    );
+  }
+
+  public int getTotalCount() {
+    return totalCount;
+  }
+
+  public boolean isIncompleteResult() {
+    return incompleteResult;
+  }
+
+  /**
+   * Returns the users of this page. The {@link Flowable} honors backpressure,
+   * therefore implementations should decode the response only as fast as
+   * users are requested.
+   *
+   * @return the user stream.
+   */
+  public Flowable<User> getItems() {
+    return items;
+  }
+
+  /**
+   * Returns rate limit status received together with this result.
+   *
+   * @return the rate limit, or {@code null} if not provided by the implementation.
+   * @see SearchResult#getRateLimit()
+   */
+  public RateLimit getRateLimit() {
+    return rateLimit;
+  }
+
+  /**
+   * Returns validator metadata allowing to revalidate this result with
+   * conditional request, once it's received as a whole.
+   *
+   * @return the validator, or {@code null} if not provided by the implementation.
+   * @see SearchResult#getValidator()
+   */
+  public CacheValidator getValidator() {
+    return validator;
+  }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.model;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable {@link SearchResult} implementation used when the app logic has to
+ * materialize search results by itself, for example when reading them from cache.
+ *
+ * @author morisil
+ */
+public final class SimpleSearchResult implements SearchResult {
+
+  private final int totalCount;
+
+  private final boolean incompleteResult;
+
+  private final List<User> items;
+
+  private final RateLimit rateLimit;
+
+  private final CacheValidator validator;
+
+  public SimpleSearchResult(int totalCount, boolean incompleteResult, List<User> items) {
+    this(totalCount, incompleteResult, items, null, null);
+  }
+
+  public SimpleSearchResult(
+      int totalCount,
+      boolean incompleteResult,
+      List<User> items,
+      RateLimit rateLimit,
+      CacheValidator validator
+  ) {
+    this.totalCount = totalCount;
+    this.incompleteResult = incompleteResult;
+    this.items = Collections.unmodifiableList(Objects.requireNonNull(items));
+    this.rateLimit = rateLimit;
+    this.validator = validator;
+  }
+
+  @Override
+  public int getTotalCount() {
+    return totalCount;
+  }
+
+  @Override
+  public boolean isIncompleteResult() {
+    return incompleteResult;
+  }
+
+  @Override
+  public List<User> getItems() {
+    return items;
+  }
+
+  @Override
+  public RateLimit getRateLimit() {
+    return rateLimit;
+  }
+
+  @Override
+  public CacheValidator getValidator() {
+    return validator;
+  }
+
+}
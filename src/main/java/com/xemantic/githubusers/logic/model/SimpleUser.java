@@ -0,0 +1,67 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.model;
+
+import java.util.Objects;
+
+/**
+ * Immutable {@link User} implementation used when the app logic has to
+ * materialize users by itself, for example when reading them from cache.
+ *
+ * @author morisil
+ */
+public final class SimpleUser implements User {
+
+  private final String login;
+
+  private final String avatarUrl;
+
+  private final String htmlUrl;
+
+  public SimpleUser(String login, String avatarUrl, String htmlUrl) {
+    this.login = Objects.requireNonNull(login);
+    this.avatarUrl = Objects.requireNonNull(avatarUrl);
+    this.htmlUrl = Objects.requireNonNull(htmlUrl);
+  }
+
+  @Override
+  public String getLogin() {
+    return login;
+  }
+
+  @Override
+  public String getAvatarUrl() {
+    return avatarUrl;
+  }
+
+  @Override
+  public String getHtmlUrl() {
+    return htmlUrl;
+  }
+
+  @Override
+  public String toString() {
+    return "SimpleUser{login='" + login + "'}";
+  }
+
+}
@@ -0,0 +1,163 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.service;
+
+import com.xemantic.githubusers.logic.model.RateLimit;
+import io.reactivex.Observable;
+import io.reactivex.Scheduler;
+import io.reactivex.disposables.CompositeDisposable;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.internal.functions.Functions;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the first pages of the {@link QueryHeavyHitters#getTopQueries()}
+ * fresh in the {@link CachingUserService}, so that the users searching
+ * for popular queries get the first page instantly. Periodically each page
+ * which is not cached, or would expire before the next period, is requested
+ * with the {@link RequestPriority#PREFETCH} priority.
+ * <p>
+ * The rate limit budget is spent only in the quiet periods: when no request
+ * is queued by the {@link RateLimitedUserService}, and as long as more than
+ * half of the quota remains, leaving the rest for the users.
+ * </p>
+ * <p>
+ * Pages should be requested through the {@link CoalescingUserService},
+ * so that the user searching for the page being warmed shares the request.
+ * </p>
+ *
+ * @author morisil
+ */
+public class CachePreWarmer {
+
+  private final QueryHeavyHitters heavyHitters;
+
+  private final CachingUserService cache;
+
+  private final UserService userService;
+
+  private final RateLimitedUserService rateLimiter;
+
+  private final int perPage;
+
+  private final long period;
+
+  private final Scheduler scheduler;
+
+  private final Set<String> warming = new HashSet<>();
+
+  private RateLimit quota = null;
+
+  /**
+   * Creates the pre-warmer.
+   *
+   * @param heavyHitters the source of the top queries.
+   * @param cache the cache to keep warm.
+   * @param userService the service to request pages with.
+   * @param rateLimiter the service limiting the rate of requests made with
+   *                    {@code userService}.
+   * @param perPage the size of the first page, as requested from the cache
+   *                by the decorating services for the user list.
+   * @param period the period of refreshing, should be shorter than the time-to-live
+   *               of cached pages.
+   * @param unit the unit of {@code period}.
+   * @param scheduler the scheduler to refresh on.
+   */
+  public CachePreWarmer(
+      QueryHeavyHitters heavyHitters,
+      CachingUserService cache,
+      UserService userService,
+      RateLimitedUserService rateLimiter,
+      int perPage,
+      long period,
+      TimeUnit unit,
+      Scheduler scheduler
+  ) {
+    this.heavyHitters = Objects.requireNonNull(heavyHitters);
+    this.cache = Objects.requireNonNull(cache);
+    this.userService = Objects.requireNonNull(userService);
+    this.rateLimiter = Objects.requireNonNull(rateLimiter);
+    this.perPage = perPage;
+    this.period = unit.toMillis(period);
+    this.scheduler = Objects.requireNonNull(scheduler);
+  }
+
+  /**
+   * Starts periodic refreshing.
+   *
+   * @return the disposable stopping the refreshing. Requests already
+   *         in flight will still update the cache.
+   */
+  public Disposable start() {
+    return new CompositeDisposable(
+        rateLimiter.quota$().subscribe(this::onQuota),
+        Observable.interval(period, TimeUnit.MILLISECONDS, scheduler)
+            .subscribe(tick -> warm())
+    );
+  }
+
+  private synchronized void onQuota(RateLimit quota) {
+    this.quota = quota;
+  }
+
+  private void warm() {
+    for (String query : heavyHitters.getTopQueries()) {
+      if (!isQuiet()) {
+        return;
+      }
+      if (!cache.isCached(query, 1, perPage, period, TimeUnit.MILLISECONDS)
+          && startWarming(query)) {
+        userService.find(query, 1, perPage, RequestPriority.PREFETCH)
+            .doFinally(() -> stopWarming(query))
+            .subscribe(
+                result -> cache.put(query, 1, perPage, result),
+                Functions.emptyConsumer() // it's only a prefetch, the user request will try again
+            );
+      }
+    }
+  }
+
+  private boolean isQuiet() {
+    RateLimit current = getQuota();
+    return (current != null)
+        && (current.getRemaining() > (current.getLimit() / 2))
+        && (rateLimiter.getQueueSize() == 0);
+  }
+
+  private synchronized RateLimit getQuota() {
+    return quota;
+  }
+
+  private synchronized boolean startWarming(String query) {
+    return warming.add(query);
+  }
+
+  private synchronized void stopWarming(String query) {
+    warming.remove(query);
+  }
+
+}
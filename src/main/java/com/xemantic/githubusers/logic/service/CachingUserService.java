@@ -0,0 +1,184 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.service;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.CacheStats;
+import com.xemantic.githubusers.logic.model.SearchResult;
+import com.xemantic.githubusers.logic.model.SearchResultStream;
+import io.reactivex.Single;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link UserService} decorator keeping recently received {@link SearchResult}
+ * pages in memory. The cache is bounded by the total number of cached users,
+ * and each page expires after specified time-to-live. Failed requests are
+ * never cached.
+ * <p>
+ * As the service is a singleton, the cache is shared by all the sessions
+ * running in the process, see {@link SearchResultCache} for the striping
+ * allowing concurrent access and for the admission policy keeping popular
+ * pages cached, even if many one-off queries are made in the meantime.
+ * </p>
+ * <p>
+ * Missing pages are streamed, while being received to cache them.
+ * </p>
+ *
+ * @author morisil
+ */
+public class CachingUserService implements StreamingUserService {
+
+  private final UserService userService;
+
+  private final SearchResultCache cache;
+
+  /**
+   * Creates the caching service with single stripe, suitable for a single
+   * user, as the whole weight is managed by one eviction policy.
+   *
+   * @param userService the service to delegate cache misses to.
+   * @param maxUsers the maximal number of users kept in all the cached pages.
+   * @param ttl time-to-live of cached page.
+   * @param unit the unit of {@code ttl}.
+   * @param ticker the time source.
+   */
+  public CachingUserService(
+      UserService userService,
+      long maxUsers,
+      long ttl,
+      TimeUnit unit,
+      Ticker ticker
+  ) {
+    this(userService, maxUsers, ttl, unit, ticker, 1);
+  }
+
+  /**
+   * Creates the caching service.
+   *
+   * @param userService the service to delegate cache misses to.
+   * @param maxUsers the maximal number of users kept in all the cached pages.
+   * @param ttl time-to-live of cached page.
+   * @param unit the unit of {@code ttl}.
+   * @param ticker the time source.
+   * @param stripes the number of independently locked stripes, each one
+   *                having its share of {@code maxUsers}.
+   */
+  public CachingUserService(
+      UserService userService,
+      long maxUsers,
+      long ttl,
+      TimeUnit unit,
+      Ticker ticker,
+      int stripes
+  ) {
+    this.userService = Objects.requireNonNull(userService);
+    this.cache = new SearchResultCache(maxUsers, unit.toNanos(ttl), ticker, stripes);
+  }
+
+  @Override
+  public Single<SearchResult> find(String query, int page, int perPage) {
+    return find(
+        new SearchRequest(query, page, perPage),
+        Single.defer(() -> userService.find(query, page, perPage))
+    );
+  }
+
+  @Override
+  public Single<SearchResult> find(String query, int page, int perPage, RequestPriority priority) {
+    return find(
+        new SearchRequest(query, page, perPage),
+        Single.defer(() -> userService.find(query, page, perPage, priority))
+    );
+  }
+
+  @Override
+  public Single<SearchResultStream> findStream(String query, int page, int perPage) {
+    SearchRequest request = new SearchRequest(query, page, perPage);
+    return Single.defer(() -> {
+      SearchResult cached = cache.get(request);
+      if (cached != null) {
+        return Single.just(SearchResultStream.of(cached));
+      }
+      return SearchResultReceiver.findStream(userService, query, page, perPage)
+          .map(stream -> SearchResultReceiver.receive(stream, result -> cache.put(request, result)));
+    });
+  }
+
+  /**
+   * Puts the page into the cache, as if it was received from the decorated
+   * service, subject to the same admission policy.
+   *
+   * @param query the query.
+   * @param page the page number.
+   * @param perPage the page size.
+   * @param result the page.
+   */
+  public void put(String query, int page, int perPage, SearchResult result) {
+    cache.put(new SearchRequest(query, page, perPage), Objects.requireNonNull(result));
+  }
+
+  /**
+   * Checks if the page is cached and stays valid for at least specified time.
+   * The check is not counted in the {@link #getStats()}.
+   *
+   * @param query the query.
+   * @param page the page number.
+   * @param perPage the page size.
+   * @param minTtl the minimal remaining time-to-live.
+   * @param unit the unit of {@code minTtl}.
+   * @return {@code true} if the page is cached long enough, {@code false} otherwise.
+   */
+  public boolean isCached(String query, int page, int perPage, long minTtl, TimeUnit unit) {
+    long remaining = cache.getRemainingTtl(new SearchRequest(query, page, perPage));
+    return (remaining > 0) && (remaining >= unit.toNanos(minTtl));
+  }
+
+  /**
+   * Returns cache statistics, including hit, miss and eviction counts.
+   *
+   * @return the statistics snapshot.
+   */
+  public CacheStats getStats() {
+    return cache.getStats();
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  /*
+   * The upstream request has to be deferred, so that it's made only on a cache miss.
+   */
+  private Single<SearchResult> find(SearchRequest request, Single<SearchResult> upstream) {
+    return Single.defer(() -> {
+      SearchResult cached = cache.get(request);
+      if (cached != null) {
+        return Single.just(cached);
+      }
+      return upstream.doOnSuccess(result -> cache.put(request, result));
+    });
+  }
+
+}
@@ -0,0 +1,196 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.service;
+
+import com.xemantic.githubusers.logic.model.SearchResult;
+import com.xemantic.githubusers.logic.model.SearchResultStream;
+import io.reactivex.Single;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link UserService} decorator coalescing concurrent identical requests.
+ * While a request is in flight, every other call with the same parameters
+ * will share its outcome instead of issuing another request.
+ * <p>
+ * The shared request is reference counted - it will be cancelled only
+ * when all of its subscribers are disposed.
+ * </p>
+ * <p>
+ * Streamed request stays shared until all of its users are received,
+ * and its users are replayed to every call joining it, so that the calls
+ * of {@link #find(String, int, int)} will receive the whole result.
+ * </p>
+ *
+ * @author morisil
+ */
+public class CoalescingUserService implements StreamingUserService {
+
+  private final UserService userService;
+
+  private final Map<SearchRequest, SharedRequest> inFlight = new HashMap<>();
+
+  private final AtomicLong requestCount = new AtomicLong();
+
+  private final AtomicLong coalescedCount = new AtomicLong();
+
+  public CoalescingUserService(UserService userService) {
+    this.userService = Objects.requireNonNull(userService);
+  }
+
+  @Override
+  public Single<SearchResult> find(String query, int page, int perPage) {
+    return Single.defer(() -> join(new SearchRequest(query, page, perPage), null, false).result);
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Calls joining already pending request share its priority.
+   * </p>
+   */
+  @Override
+  public Single<SearchResult> find(String query, int page, int perPage, RequestPriority priority) {
+    Objects.requireNonNull(priority);
+    return Single.defer(() -> join(new SearchRequest(query, page, perPage), priority, false).result);
+  }
+
+  @Override
+  public Single<SearchResultStream> findStream(String query, int page, int perPage) {
+    return Single.defer(() -> join(new SearchRequest(query, page, perPage), null, true).stream);
+  }
+
+  /**
+   * Passes conditional request directly to the decorated service. Conditional
+   * requests are issued only by the cache layers above, which already avoid
+   * duplicates.
+   */
+  @Override
+  public Single<SearchResult> findIfModified(String query, int page, int perPage, SearchResult cached) {
+    return Single.defer(() -> {
+      requestCount.incrementAndGet();
+      return userService.findIfModified(query, page, perPage, cached);
+    });
+  }
+
+  /**
+   * Returns the number of requests actually passed to the decorated service.
+   *
+   * @return the request count.
+   */
+  public long getRequestCount() {
+    return requestCount.get();
+  }
+
+  /**
+   * Returns the number of calls which joined already pending request.
+   *
+   * @return the coalesced call count.
+   */
+  public long getCoalescedCount() {
+    return coalescedCount.get();
+  }
+
+  /*
+   * Null priority is derived by the decorated service.
+   */
+  private SharedRequest join(SearchRequest request, RequestPriority priority, boolean streamed) {
+    synchronized (inFlight) {
+      SharedRequest shared = inFlight.get(request);
+      if (shared != null) {
+        coalescedCount.incrementAndGet();
+      } else {
+        requestCount.incrementAndGet();
+        shared = streamed
+            ? new SharedRequest(request)
+            : new SharedRequest(request, priority);
+        inFlight.put(request, shared);
+      }
+      return shared;
+    }
+  }
+
+  private final class SharedRequest {
+
+    private final SearchRequest request;
+
+    private final Single<SearchResult> result;
+
+    private final Single<SearchResultStream> stream;
+
+    private volatile SearchResultStream received = null;
+
+    private SharedRequest(SearchRequest request, RequestPriority priority) {
+      this.request = request;
+      this.result = ((priority == null)
+          ? userService.find(request.getQuery(), request.getPage(), request.getPerPage())
+          : userService.find(request.getQuery(), request.getPage(), request.getPerPage(), priority))
+          .toObservable()
+          .doFinally(this::release) // complete, error or the last subscriber disposed
+          .replay(1) // late subscribers will still receive the result
+          .refCount()
+          .singleOrError();
+      this.stream = result.map(SearchResultStream::of);
+    }
+
+    private SharedRequest(SearchRequest request) {
+      this.request = request;
+      Single<SearchResultStream> requested = SearchResultReceiver.findStream(
+          userService, request.getQuery(), request.getPage(), request.getPerPage()
+      )
+          .map(stream -> {
+            // users are replayed to all the subscribers, the request is shared until received
+            received = SearchResultReceiver.receive(stream, whole -> release(), error -> release());
+            return received;
+          })
+          .toObservable()
+          .doOnError(error -> release())
+          .doOnDispose(() -> {
+            if (received == null) { // the last subscriber disposed before the stream
+              release();
+            }
+          })
+          .replay(1) // late subscribers will still receive the stream
+          .refCount()
+          .singleOrError();
+      this.stream = Single.defer(() -> {
+        SearchResultStream stream = received;
+        return (stream != null) ? Single.just(stream) : requested;
+      });
+      this.result = stream.flatMap(SearchResultReceiver::toResult);
+    }
+
+    private void release() {
+      synchronized (inFlight) {
+        if (inFlight.get(request) == this) {
+          inFlight.remove(request);
+        }
+      }
+    }
+
+  }
+
+}
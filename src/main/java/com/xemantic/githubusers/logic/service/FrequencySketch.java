@@ -0,0 +1,123 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.service;
+
+/**
+ * Approximate counter of key frequencies in a fixed amount of memory
+ * (Count-Min sketch). Each key is counted in 4 rows of counters, under
+ * a different hash in each row, and its frequency is estimated as the minimum
+ * of these counters, therefore it can be overestimated, but never
+ * underestimated. Counters saturate at the maximal count, {@value #MAX_COUNT}
+ * by default, and all of them are halved periodically, so that
+ * the frequencies reflect recent history.
+ * <p>
+ * Not thread safe, expected to be guarded by the owner.
+ * </p>
+ *
+ * @author morisil
+ */
+final class FrequencySketch {
+
+  static final int MAX_COUNT = 15;
+
+  private static final int ROWS = 4;
+
+  private static final int[] SEEDS = {
+      0x9E3779B1, 0x85EBCA77, 0xC2B2AE3D, 0x27D4EB2F
+  };
+
+  private final int[] counters;
+
+  private final int mask;
+
+  private final int sampleSize;
+
+  private final int maxCount;
+
+  private int additions = 0;
+
+  /**
+   * Creates the sketch with counters saturating at {@value #MAX_COUNT},
+   * which is enough for comparing frequencies.
+   *
+   * @param width the number of counters per row, rounded up to the power of 2.
+   */
+  FrequencySketch(int width) {
+    this(width, MAX_COUNT);
+  }
+
+  /**
+   * Creates the sketch.
+   *
+   * @param width the number of counters per row, rounded up to the power of 2.
+   * @param maxCount the maximal value of a counter.
+   */
+  FrequencySketch(int width, int maxCount) {
+    int size = 16;
+    while (size < width) {
+      size <<= 1;
+    }
+    counters = new int[ROWS * size];
+    mask = size - 1;
+    sampleSize = 10 * size;
+    this.maxCount = maxCount;
+  }
+
+  void increment(Object key) {
+    int hash = key.hashCode();
+    boolean added = false;
+    for (int row = 0; row < ROWS; row++) {
+      int index = indexOf(hash, row);
+      if (counters[index] < maxCount) {
+        counters[index]++;
+        added = true;
+      }
+    }
+    if (added && (++additions == sampleSize)) {
+      age();
+    }
+  }
+
+  int frequency(Object key) {
+    int hash = key.hashCode();
+    int frequency = maxCount;
+    for (int row = 0; row < ROWS; row++) {
+      frequency = Math.min(frequency, counters[indexOf(hash, row)]);
+    }
+    return frequency;
+  }
+
+  private int indexOf(int hash, int row) {
+    int h = hash * SEEDS[row];
+    h ^= (h >>> 16);
+    return (row * (mask + 1)) + (h & mask);
+  }
+
+  private void age() {
+    for (int i = 0; i < counters.length; i++) {
+      counters[i] >>>= 1;
+    }
+    additions /= 2;
+  }
+
+}
@@ -0,0 +1,118 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.service;
+
+import com.xemantic.ankh.shared.metrics.Counter;
+import com.xemantic.ankh.shared.metrics.Histogram;
+import com.xemantic.ankh.shared.metrics.Metrics;
+import com.xemantic.githubusers.logic.model.SearchResult;
+import com.xemantic.githubusers.logic.model.SearchResultStream;
+import io.reactivex.Scheduler;
+import io.reactivex.Single;
+
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link UserService} decorator recording the time of each successful
+ * request in {@link UserServiceLatency}. Requests are also reported to
+ * the {@link Metrics}: counted as {@code userService.request},
+ * {@code userService.success} and {@code userService.failure}, with
+ * the {@code userService.latency} histogram of successful ones and
+ * the {@code userService.averageLatency} gauge. Streamed requests
+ * are measured until the result stream is received, before its users.
+ *
+ * @author morisil
+ */
+public class LatencyMeasuringUserService implements StreamingUserService {
+
+  private final UserService userService;
+
+  private final UserServiceLatency latency;
+
+  private final Scheduler scheduler;
+
+  private final Counter requestCounter;
+
+  private final Counter successCounter;
+
+  private final Counter failureCounter;
+
+  private final Histogram latencyHistogram;
+
+  /**
+   * Creates the service.
+   *
+   * @param userService the measured service.
+   * @param latency the latency to record measurements in.
+   * @param metrics the metrics to report to.
+   * @param scheduler the scheduler used as a time source.
+   */
+  public LatencyMeasuringUserService(
+      UserService userService,
+      UserServiceLatency latency,
+      Metrics metrics,
+      Scheduler scheduler
+  ) {
+    this.userService = Objects.requireNonNull(userService);
+    this.latency = Objects.requireNonNull(latency);
+    this.scheduler = Objects.requireNonNull(scheduler);
+    requestCounter = metrics.counter("userService.request");
+    successCounter = metrics.counter("userService.success");
+    failureCounter = metrics.counter("userService.failure");
+    latencyHistogram = metrics.histogram("userService.latency");
+    metrics.gauge("userService.averageLatency", latency::getAverageMillis);
+  }
+
+  @Override
+  public Single<SearchResult> find(String query, int page, int perPage) {
+    return measure(() -> userService.find(query, page, perPage));
+  }
+
+  @Override
+  public Single<SearchResult> findIfModified(String query, int page, int perPage, SearchResult cached) {
+    return measure(() -> userService.findIfModified(query, page, perPage, cached));
+  }
+
+  @Override
+  public Single<SearchResultStream> findStream(String query, int page, int perPage) {
+    return measure(() -> SearchResultReceiver.findStream(userService, query, page, perPage));
+  }
+
+  private <T> Single<T> measure(Callable<Single<T>> request) {
+    return Single.defer(() -> {
+      requestCounter.increment();
+      long start = scheduler.now(TimeUnit.MILLISECONDS);
+      return request.call()
+          .doOnSuccess(result -> {
+            long millis = scheduler.now(TimeUnit.MILLISECONDS) - start;
+            latency.record(millis);
+            latencyHistogram.record(millis);
+            successCounter.increment();
+          })
+          .doOnError(throwable -> failureCounter.increment());
+    });
+  }
+
+}
@@ -0,0 +1,154 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.service;
+
+import com.google.common.base.Ticker;
+import com.xemantic.githubusers.logic.model.SearchResult;
+import com.xemantic.githubusers.logic.model.SearchResultStream;
+import com.xemantic.githubusers.logic.model.SimpleSearchResult;
+import io.reactivex.Single;
+
+import java.util.Collections;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link UserService} decorator remembering queries which found no users,
+ * typically typos or incomplete words typed before the debounce window
+ * passed. Such queries are answered at once with an empty result, without
+ * calling the decorated service, so that the {@code UserListPresenter}
+ * renders the empty state immediately, and no rate limit is spent.
+ * <p>
+ * Queries are remembered in their normalised form (see
+ * {@link SearchRequest#normalize()}), in the compact
+ * {@link NegativeResultCache} which expires them after specified
+ * time-to-live, as new users can match them later. Incomplete results
+ * (timed out on the GitHub side) are not remembered.
+ * </p>
+ *
+ * @author morisil
+ */
+public class NegativeCachingUserService implements StreamingUserService {
+
+  private static final SearchResult EMPTY_RESULT =
+      new SimpleSearchResult(0, false, Collections.emptyList());
+
+  private final UserService userService;
+
+  private final NegativeResultCache cache;
+
+  private final AtomicLong hitCount = new AtomicLong();
+
+  /**
+   * Creates the service.
+   *
+   * @param userService the decorated service.
+   * @param capacity the expected number of empty queries within the time-to-live.
+   * @param falsePositiveProbability the probability of answering non-empty query
+   *                                 as empty, when {@code capacity} is reached.
+   * @param ttl time-to-live of remembered query.
+   * @param unit the unit of {@code ttl}.
+   * @param ticker the time source.
+   */
+  public NegativeCachingUserService(
+      UserService userService,
+      int capacity,
+      double falsePositiveProbability,
+      long ttl,
+      TimeUnit unit,
+      Ticker ticker
+  ) {
+    this.userService = Objects.requireNonNull(userService);
+    this.cache = new NegativeResultCache(
+        capacity, falsePositiveProbability, unit.toNanos(ttl), ticker
+    );
+  }
+
+  @Override
+  public Single<SearchResult> find(String query, int page, int perPage) {
+    return Single.defer(() -> isKnownEmpty(query)
+        ? Single.just(EMPTY_RESULT)
+        : remember(query, userService.find(query, page, perPage))
+    );
+  }
+
+  @Override
+  public Single<SearchResult> find(String query, int page, int perPage, RequestPriority priority) {
+    return Single.defer(() -> isKnownEmpty(query)
+        ? Single.just(EMPTY_RESULT)
+        : remember(query, userService.find(query, page, perPage, priority))
+    );
+  }
+
+  @Override
+  public Single<SearchResult> findIfModified(String query, int page, int perPage, SearchResult cached) {
+    return Single.defer(() -> isKnownEmpty(query)
+        ? Single.just(EMPTY_RESULT)
+        : remember(query, userService.findIfModified(query, page, perPage, cached))
+    );
+  }
+
+  @Override
+  public Single<SearchResultStream> findStream(String query, int page, int perPage) {
+    return Single.defer(() -> isKnownEmpty(query)
+        ? Single.just(SearchResultStream.of(EMPTY_RESULT))
+        : SearchResultReceiver.findStream(userService, query, page, perPage)
+            .doOnSuccess(stream -> { // the count is known before the users
+              if ((stream.getTotalCount() == 0) && !stream.isIncompleteResult()) {
+                cache.add(SearchRequest.normalizeQuery(query));
+              }
+            })
+    );
+  }
+
+  /**
+   * Returns the number of requests answered without calling the decorated service.
+   *
+   * @return the hit count.
+   */
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  public void invalidateAll() {
+    cache.clear();
+  }
+
+  private boolean isKnownEmpty(String query) {
+    boolean known = cache.contains(SearchRequest.normalizeQuery(query));
+    if (known) {
+      hitCount.incrementAndGet();
+    }
+    return known;
+  }
+
+  private Single<SearchResult> remember(String query, Single<SearchResult> request) {
+    return request.doOnSuccess(result -> {
+      if ((result.getTotalCount() == 0) && !result.isIncompleteResult()) {
+        cache.add(SearchRequest.normalizeQuery(query));
+      }
+    });
+  }
+
+}
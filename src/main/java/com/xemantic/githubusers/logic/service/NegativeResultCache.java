@@ -0,0 +1,177 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.service;
+
+import com.google.common.base.Ticker;
+
+/**
+ * Compact set of queries known to have no results, kept in Bloom filters.
+ * Each query is hashed to several bits of the filter, and it's reported
+ * as known only if all of them are set, therefore a query which was never
+ * added can be reported with the false positive probability given on
+ * creation, while an added query is always reported until it expires.
+ * <p>
+ * Bloom filters cannot remove elements, so the expiration is implemented
+ * with 2 generations of filters: queries are added to the current one,
+ * and looked up in both. When the current generation gets older than half
+ * of the time-to-live, or gets full, it becomes the previous one, replacing
+ * the oldest. Queries are therefore remembered between half and the whole
+ * time-to-live.
+ * </p>
+ * <p>
+ * Thread safe.
+ * </p>
+ *
+ * @author morisil
+ */
+final class NegativeResultCache {
+
+  private final int capacity;
+
+  private final int bitCount;
+
+  private final int hashCount;
+
+  private final long generationNanos;
+
+  private final Ticker ticker;
+
+  private long[] current;
+
+  private long[] previous;
+
+  private int currentCount = 0;
+
+  private long currentStart;
+
+  /**
+   * Creates the cache.
+   *
+   * @param capacity the number of queries per generation.
+   * @param falsePositiveProbability the probability of reporting a query which
+   *                                 was never added, when the generation is full.
+   * @param ttlNanos time-to-live of a query, in nanoseconds.
+   * @param ticker the time source.
+   */
+  NegativeResultCache(
+      int capacity,
+      double falsePositiveProbability,
+      long ttlNanos,
+      Ticker ticker
+  ) {
+    this.capacity = capacity;
+    // optimal Bloom filter parameters
+    double ln2 = Math.log(2);
+    double bits = -capacity * Math.log(falsePositiveProbability) / (ln2 * ln2);
+    this.bitCount = (int) Math.max(64, Math.ceil(bits / 64) * 64);
+    this.hashCount = (int) Math.max(1, Math.round(bits / capacity * ln2));
+    this.generationNanos = ttlNanos / 2;
+    this.ticker = ticker;
+    this.current = new long[bitCount / 64];
+    this.previous = new long[bitCount / 64];
+    this.currentStart = ticker.read();
+  }
+
+  synchronized void add(String query) {
+    rotateIfNeeded();
+    if (currentCount == capacity) {
+      rotate();
+    }
+    int hash1 = query.hashCode();
+    int hash2 = secondHash(query);
+    for (int i = 0; i < hashCount; i++) {
+      int bit = indexOf(hash1, hash2, i);
+      current[bit >>> 6] |= (1L << bit);
+    }
+    currentCount++;
+  }
+
+  synchronized boolean contains(String query) {
+    rotateIfNeeded();
+    int hash1 = query.hashCode();
+    int hash2 = secondHash(query);
+    return contains(current, hash1, hash2) || contains(previous, hash1, hash2);
+  }
+
+  synchronized void clear() {
+    current = new long[bitCount / 64];
+    previous = new long[bitCount / 64];
+    currentCount = 0;
+    currentStart = ticker.read();
+  }
+
+  int getBitCount() {
+    return bitCount;
+  }
+
+  int getHashCount() {
+    return hashCount;
+  }
+
+  private boolean contains(long[] bits, int hash1, int hash2) {
+    for (int i = 0; i < hashCount; i++) {
+      int bit = indexOf(hash1, hash2, i);
+      if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void rotateIfNeeded() {
+    long elapsed = ticker.read() - currentStart;
+    if (elapsed >= 2 * generationNanos) { // both generations expired
+      clear();
+    } else if (elapsed >= generationNanos) {
+      rotate();
+    }
+  }
+
+  private void rotate() {
+    long[] oldest = previous;
+    previous = current;
+    current = oldest;
+    for (int i = 0; i < current.length; i++) {
+      current[i] = 0;
+    }
+    currentCount = 0;
+    currentStart = ticker.read();
+  }
+
+  // Kirsch-Mitzenmacher double hashing simulates independent hash functions
+  private int indexOf(int hash1, int hash2, int i) {
+    int combined = hash1 + (i * hash2);
+    return (combined & Integer.MAX_VALUE) % bitCount;
+  }
+
+  // FNV-1a, independent of String.hashCode()
+  private static int secondHash(String query) {
+    int hash = 0x811C9DC5;
+    for (int i = 0; i < query.length(); i++) {
+      hash ^= query.charAt(i);
+      hash *= 0x01000193;
+    }
+    return hash | 1; // never 0, which would give the same bit for each i
+  }
+
+}
@@ -0,0 +1,239 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.service;
+
+import com.google.common.base.Ticker;
+import com.xemantic.githubusers.logic.model.SearchResult;
+import com.xemantic.githubusers.logic.model.SearchResultStream;
+import com.xemantic.githubusers.logic.model.SimpleSearchResult;
+import com.xemantic.githubusers.logic.model.User;
+import io.reactivex.Single;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link UserService} decorator requesting large pages from the decorated
+ * service and slicing them locally into the pages of requested size.
+ * For example with UI page size of {@code 20}, one upstream page of
+ * {@code 100} users will serve 5 subsequent UI pages.
+ * <p>
+ * The upstream page size is the largest multiple of the requested page size
+ * not exceeding the maximum, so that each requested page is always contained
+ * in a single upstream page. Recently received upstream pages are buffered,
+ * up to the given number of pages, for the given time-to-live, so that
+ * the users paging through different queries at the same time do not
+ * evict each other's pages. If upstream page would reach beyond the search limit
+ * (GitHub API: "Only the first 1000 search results are available"), the page
+ * is requested as is.
+ * </p>
+ * <p>
+ * The slice of the upstream page which is not buffered is streamed, while
+ * the whole upstream page is being received to buffer it.
+ * </p>
+ *
+ * @author morisil
+ */
+public class PageSlicingUserService implements StreamingUserService {
+
+  private final UserService userService;
+
+  private final int maxUpstreamPageSize;
+
+  private final int userSearchLimit;
+
+  private final long ttl;
+
+  private final Ticker ticker;
+
+  private final Map<SearchRequest, BufferedPage> buffer;
+
+  /**
+   * Creates the service.
+   *
+   * @param userService the decorated service.
+   * @param maxUpstreamPageSize the maximal page size of the decorated service.
+   * @param userSearchLimit the maximal number of users available through search.
+   * @param maxBufferedPages the maximal number of buffered upstream pages,
+   *                         the least recently used are evicted first.
+   * @param ttl time-to-live of buffered page.
+   * @param unit the unit of {@code ttl}.
+   * @param ticker the time source.
+   */
+  public PageSlicingUserService(
+      UserService userService,
+      int maxUpstreamPageSize,
+      int userSearchLimit,
+      int maxBufferedPages,
+      long ttl,
+      TimeUnit unit,
+      Ticker ticker
+  ) {
+    this.userService = Objects.requireNonNull(userService);
+    this.maxUpstreamPageSize = maxUpstreamPageSize;
+    this.userSearchLimit = userSearchLimit;
+    this.ttl = unit.toNanos(ttl);
+    this.ticker = Objects.requireNonNull(ticker);
+    this.buffer = new LinkedHashMap<SearchRequest, BufferedPage>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<SearchRequest, BufferedPage> eldest) {
+        return size() > maxBufferedPages;
+      }
+    };
+  }
+
+  @Override
+  public Single<SearchResult> find(String query, int page, int perPage) {
+    return findSlice(query, page, perPage, null);
+  }
+
+  @Override
+  public Single<SearchResult> find(String query, int page, int perPage, RequestPriority priority) {
+    return findSlice(query, page, perPage, Objects.requireNonNull(priority));
+  }
+
+  @Override
+  public Single<SearchResultStream> findStream(String query, int page, int perPage) {
+    SearchRequest upstream = upstreamRequest(query, page, perPage);
+    if (upstream.getPerPage() == perPage) { // nothing to gain
+      return SearchResultReceiver.findStream(userService, query, page, perPage);
+    }
+    int sliceStart = ((page - 1) * perPage) % upstream.getPerPage();
+    return Single.defer(() -> {
+      SearchResult buffered = getBuffered(upstream);
+      if (buffered != null) {
+        return Single.just(SearchResultStream.of(slice(buffered, sliceStart, perPage)));
+      }
+      return SearchResultReceiver.findStream(
+          userService, upstream.getQuery(), upstream.getPage(), upstream.getPerPage()
+      )
+          .map(stream -> SearchResultReceiver.receive(
+              stream, received -> putBuffered(upstream, received)
+          ))
+          .map(received -> slice(received, sliceStart, perPage));
+    });
+  }
+
+  /*
+   * Null priority is derived by the decorated service.
+   */
+  private Single<SearchResult> findSlice(
+      String query,
+      int page,
+      int perPage,
+      RequestPriority priority
+  ) {
+    SearchRequest upstream = upstreamRequest(query, page, perPage);
+    if (upstream.getPerPage() == perPage) { // nothing to gain
+      return find(upstream, priority);
+    }
+    int sliceStart = ((page - 1) * perPage) % upstream.getPerPage();
+    return Single.defer(() -> {
+      SearchResult buffered = getBuffered(upstream);
+      Single<SearchResult> result = (buffered != null)
+          ? Single.just(buffered)
+          : find(upstream, priority).doOnSuccess(received -> putBuffered(upstream, received));
+      return result.map(received -> slice(received, sliceStart, perPage));
+    });
+  }
+
+  /**
+   * Returns the request which the decorated service will receive when
+   * the given page is requested.
+   *
+   * @param query the query.
+   * @param page the page.
+   * @param perPage the page size.
+   * @return the upstream request.
+   */
+  SearchRequest upstreamRequest(String query, int page, int perPage) {
+    int upstreamPerPage = (maxUpstreamPageSize / perPage) * perPage;
+    if (upstreamPerPage <= perPage) {
+      return new SearchRequest(query, page, perPage);
+    }
+    int upstreamPage = (((page - 1) * perPage) / upstreamPerPage) + 1;
+    if ((upstreamPage * upstreamPerPage) > userSearchLimit) {
+      return new SearchRequest(query, page, perPage);
+    }
+    return new SearchRequest(query, upstreamPage, upstreamPerPage);
+  }
+
+  private Single<SearchResult> find(SearchRequest request, RequestPriority priority) {
+    return (priority == null)
+        ? userService.find(request.getQuery(), request.getPage(), request.getPerPage())
+        : userService.find(request.getQuery(), request.getPage(), request.getPerPage(), priority);
+  }
+
+  private synchronized SearchResult getBuffered(SearchRequest request) {
+    BufferedPage page = buffer.get(request);
+    if (page == null) {
+      return null;
+    }
+    if (ticker.read() - page.bufferTime >= ttl) {
+      buffer.remove(request);
+      return null;
+    }
+    return page.result;
+  }
+
+  private synchronized void putBuffered(SearchRequest request, SearchResult result) {
+    buffer.put(request, new BufferedPage(result, ticker.read()));
+  }
+
+  private static SearchResult slice(SearchResult result, int start, int size) {
+    List<User> items = result.getItems();
+    int from = Math.min(start, items.size());
+    int to = Math.min(start + size, items.size());
+    return new SimpleSearchResult(
+        result.getTotalCount(),
+        result.isIncompleteResult(),
+        new ArrayList<>(items.subList(from, to))
+    );
+  }
+
+  private static SearchResultStream slice(SearchResultStream stream, int start, int size) {
+    return new SearchResultStream(
+        stream.getTotalCount(),
+        stream.isIncompleteResult(),
+        stream.getItems().skip(start).take(size)
+    );
+  }
+
+  private static final class BufferedPage {
+
+    private final SearchResult result;
+
+    private final long bufferTime;
+
+    private BufferedPage(SearchResult result, long bufferTime) {
+      this.result = result;
+      this.bufferTime = bufferTime;
+    }
+
+  }
+
+}
@@ -0,0 +1,324 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.service;
+
+import com.xemantic.ankh.shared.driver.RecordLog;
+import com.xemantic.githubusers.logic.model.CacheValidator;
+import com.xemantic.githubusers.logic.model.SearchResult;
+import com.xemantic.githubusers.logic.model.SearchResultStream;
+import com.xemantic.githubusers.logic.model.SimpleSearchResult;
+import io.reactivex.Scheduler;
+import io.reactivex.Single;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link UserService} decorator storing received {@link SearchResult} pages
+ * in a persistent {@link RecordLog}, so that they survive restart of the app.
+ * It is supposed to be the second tier cache, behind {@link CachingUserService}.
+ * <p>
+ * The log is read once, on first request, building in-memory index keyed by
+ * {@link SearchRequest#normalize() normalised} request. The index keeps up to
+ * the given number of the most recently used pages, and drops the pages
+ * which expired and cannot be revalidated. Each received page is appended
+ * as a new {@link SearchResultRecord}, superseding previous record of the
+ * same page. The log is compacted to the indexed pages, on load and while
+ * storing, whenever the number of records in the log exceeds twice
+ * the number of indexed pages.
+ * </p>
+ * <p>
+ * Expired pages having a {@link CacheValidator} are not discarded, but
+ * revalidated with {@link UserService#findIfModified(String, int, int, SearchResult)}.
+ * If not modified, the stored page is served again and its fetch time is renewed.
+ * </p>
+ * <p>
+ * The log is read and written on the given scheduler, never on the thread
+ * subscribing to the service or delivering the results. Records are written
+ * one after another, on a worker of the scheduler, without blocking the
+ * lookups of the index in the meantime.
+ * </p>
+ * <p>
+ * Only the pages which are not stored are streamed, while being received to store them.
+ * </p>
+ *
+ * @author morisil
+ */
+public class PersistentUserService implements StreamingUserService {
+
+  private final UserService userService;
+
+  private final RecordLog log;
+
+  private final long maxAge;
+
+  private final Scheduler scheduler;
+
+  private final Scheduler.Worker writer;
+
+  private final AtomicLong hitCount = new AtomicLong();
+
+  private final AtomicLong missCount = new AtomicLong();
+
+  private final AtomicLong notModifiedCount = new AtomicLong();
+
+  private final int maxPages;
+
+  private Map<SearchRequest, SearchResultRecord> index = null;
+
+  private int logSize = 0; // accessed only on the writer
+
+  /**
+   * Creates the service.
+   *
+   * @param userService the service to delegate cache misses to.
+   * @param log the log to store the records in.
+   * @param maxPages the maximal number of pages kept in the index.
+   * @param maxAge the maximal age of stored page to be still served.
+   * @param unit the unit of {@code maxAge}.
+   * @param scheduler the scheduler used as a time source and for reading and writing the log.
+   */
+  public PersistentUserService(
+      UserService userService,
+      RecordLog log,
+      int maxPages,
+      long maxAge,
+      TimeUnit unit,
+      Scheduler scheduler
+  ) {
+    this.userService = Objects.requireNonNull(userService);
+    this.log = Objects.requireNonNull(log);
+    this.maxPages = maxPages;
+    this.maxAge = unit.toMillis(maxAge);
+    this.scheduler = Objects.requireNonNull(scheduler);
+    this.writer = scheduler.createWorker();
+  }
+
+  @Override
+  public Single<SearchResult> find(String query, int page, int perPage) {
+    return find(query, page, perPage, Single.defer(() -> userService.find(query, page, perPage)));
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Note: revalidation of expired record is always requested with the
+   * priority derived from the page number.
+   * </p>
+   */
+  @Override
+  public Single<SearchResult> find(String query, int page, int perPage, RequestPriority priority) {
+    return find(
+        query,
+        page,
+        perPage,
+        Single.defer(() -> userService.find(query, page, perPage, priority))
+    );
+  }
+
+  @Override
+  public Single<SearchResultStream> findStream(String query, int page, int perPage) {
+    SearchRequest request = new SearchRequest(query, page, perPage).normalize();
+    return Single.defer(() -> {
+      SearchResultRecord record = lookup(request);
+      if (record != null) {
+        return serve(request, record, query, page, perPage).map(SearchResultStream::of);
+      }
+      missCount.incrementAndGet();
+      return SearchResultReceiver.findStream(userService, query, page, perPage)
+          .map(stream -> SearchResultReceiver.receive(stream, result -> store(request, result)));
+    }).subscribeOn(scheduler);
+  }
+
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  /**
+   * Returns the number of misses,
+   * including the ones {@link #getNotModifiedCount() revalidated}.
+   *
+   * @return the miss count.
+   */
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  /**
+   * Returns the number of expired pages which were revalidated as not modified.
+   *
+   * @return the not modified count.
+   */
+  public long getNotModifiedCount() {
+    return notModifiedCount.get();
+  }
+
+  private Single<SearchResult> find(
+      String query,
+      int page,
+      int perPage,
+      Single<SearchResult> upstream
+  ) {
+    SearchRequest request = new SearchRequest(query, page, perPage).normalize();
+    return Single.defer(() -> {
+      SearchResultRecord record = lookup(request);
+      if (record != null) {
+        return serve(request, record, query, page, perPage);
+      }
+      missCount.incrementAndGet();
+      return upstream.doOnSuccess(result -> store(request, result));
+    }).subscribeOn(scheduler);
+  }
+
+  private Single<SearchResult> serve(
+      SearchRequest request,
+      SearchResultRecord record,
+      String query,
+      int page,
+      int perPage
+  ) {
+    if (!isExpired(record)) {
+      hitCount.incrementAndGet();
+      return Single.just(record.getResult());
+    }
+    missCount.incrementAndGet();
+    // expired, but revalidable
+    SearchResult cached = record.getResult();
+    return userService.findIfModified(query, page, perPage, cached)
+        .map(result -> (result == cached) ? renew(cached) : result)
+        .doOnSuccess(result -> store(request, result));
+  }
+
+  private synchronized SearchResultRecord lookup(SearchRequest request) {
+    SearchResultRecord record = getIndex().get(request);
+    if ((record != null) && isExpired(record) && !isRevalidable(record)) {
+      index.remove(request);
+      return null;
+    }
+    return record;
+  }
+
+  private SearchResult renew(SearchResult cached) {
+    notModifiedCount.incrementAndGet();
+    CacheValidator validator = cached.getValidator();
+    return new SimpleSearchResult(
+        cached.getTotalCount(),
+        cached.isIncompleteResult(),
+        cached.getItems(),
+        cached.getRateLimit(),
+        new CacheValidator(validator.getETag(), validator.getLastModified(), now())
+    );
+  }
+
+  private synchronized void store(SearchRequest request, SearchResult result) {
+    SearchResultRecord record = new SearchResultRecord(request, result, now());
+    getIndex().put(request, record);
+    writer.schedule(() -> append(record));
+  }
+
+  // called only on the writer
+  private void append(SearchResultRecord record) {
+    log.append(record.encode());
+    logSize++;
+    compactIfObsolete();
+  }
+
+  private Map<SearchRequest, SearchResultRecord> getIndex() {
+    if (index == null) {
+      load();
+    }
+    return index;
+  }
+
+  private void load() {
+    Map<SearchRequest, SearchResultRecord> loaded = newIndex();
+    List<String> records = log.readAll();
+    for (String encoded : records) {
+      SearchResultRecord record = SearchResultRecord.decode(encoded);
+      if (record != null) { // torn records are skipped
+        loaded.put(record.getRequest(), record); // the latest record wins
+      }
+    }
+    Iterator<SearchResultRecord> iterator = loaded.values().iterator();
+    while (iterator.hasNext()) {
+      SearchResultRecord record = iterator.next();
+      if (isExpired(record) && !isRevalidable(record)) {
+        iterator.remove();
+      }
+    }
+    index = loaded;
+    writer.schedule(() -> {
+      logSize = records.size();
+      compactIfObsolete();
+    });
+  }
+
+  private Map<SearchRequest, SearchResultRecord> newIndex() {
+    return new LinkedHashMap<SearchRequest, SearchResultRecord>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<SearchRequest, SearchResultRecord> eldest) {
+        return size() > maxPages;
+      }
+    };
+  }
+
+  // called only on the writer
+  private void compactIfObsolete() {
+    List<String> encoded = encodeIndexIfObsolete(logSize);
+    if (encoded != null) {
+      log.replaceAll(encoded);
+      logSize = encoded.size();
+    }
+  }
+
+  private synchronized List<String> encodeIndexIfObsolete(int logSize) {
+    if (logSize <= (index.size() * 2)) {
+      return null;
+    }
+    List<String> encoded = new ArrayList<>(index.size());
+    for (SearchResultRecord record : index.values()) {
+      encoded.add(record.encode());
+    }
+    return encoded;
+  }
+
+  private boolean isExpired(SearchResultRecord record) {
+    return (now() - record.getFetchTime()) > maxAge;
+  }
+
+  private static boolean isRevalidable(SearchResultRecord record) {
+    CacheValidator validator = record.getResult().getValidator();
+    return (validator != null) && validator.isConditional();
+  }
+
+  private long now() {
+    return scheduler.now(TimeUnit.MILLISECONDS);
+  }
+
+}
@@ -0,0 +1,117 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tracks the most frequent user queries (heavy hitters) in bounded memory.
+ * Frequencies are estimated with the {@link FrequencySketch}, which
+ * periodically halves all the counts, so
+ * that the queries which were popular long time ago give way to the currently
+ * popular ones. Only the given number of queries having the highest estimate
+ * are kept as the top queries.
+ * <p>
+ * The instance is shared by all the users of the process, therefore
+ * it is thread safe.
+ * </p>
+ *
+ * @author morisil
+ * @see CachePreWarmer
+ * @see com.xemantic.githubusers.logic.user.UserQueryShaper
+ */
+public class QueryHeavyHitters {
+
+  private static final int SKETCH_WIDTH = 4096;
+
+  private final int count;
+
+  private final FrequencySketch sketch = new FrequencySketch(SKETCH_WIDTH, Integer.MAX_VALUE);
+
+  private final Set<String> topQueries = new LinkedHashSet<>();
+
+  /**
+   * Creates the tracker.
+   *
+   * @param count the number of top queries to keep.
+   */
+  public QueryHeavyHitters(int count) {
+    this.count = count;
+  }
+
+  /**
+   * Records the query.
+   *
+   * @param query the query.
+   */
+  public synchronized void record(String query) {
+    sketch.increment(query);
+    if (topQueries.contains(query) || (count == 0)) {
+      return;
+    }
+    if (topQueries.size() < count) {
+      topQueries.add(query);
+      return;
+    }
+    String least = null;
+    int leastFrequency = Integer.MAX_VALUE;
+    for (String topQuery : topQueries) {
+      int frequency = sketch.frequency(topQuery);
+      if (frequency < leastFrequency) {
+        least = topQuery;
+        leastFrequency = frequency;
+      }
+    }
+    if (sketch.frequency(query) > leastFrequency) {
+      topQueries.remove(least);
+      topQueries.add(query);
+    }
+  }
+
+  /**
+   * Returns the estimated number of times the query was recorded recently.
+   * The estimate might be higher than the actual count, but never lower.
+   *
+   * @param query the query.
+   * @return the estimated count.
+   */
+  public synchronized int estimate(String query) {
+    return sketch.frequency(query);
+  }
+
+  /**
+   * Returns the most frequent queries.
+   *
+   * @return the queries, the most frequent first.
+   */
+  public synchronized List<String> getTopQueries() {
+    List<String> queries = new ArrayList<>(topQueries);
+    queries.sort(Comparator.comparingInt(sketch::frequency).reversed());
+    return queries;
+  }
+
+}
@@ -0,0 +1,53 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.service;
+
+/**
+ * Signals that GitHub rejected the request because the rate limit was
+ * exceeded ({@code 403} response). {@link UserService} implementations
+ * should translate such a response into this exception.
+ *
+ * @author morisil
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  private final long resetTime;
+
+  /**
+   * Creates the exception.
+   *
+   * @param resetTime the time when the rate limit resets, in milliseconds
+   *                  since epoch, or {@code 0} if unknown.
+   */
+  public RateLimitExceededException(long resetTime) {
+    super("API rate limit exceeded");
+    this.resetTime = resetTime;
+  }
+
+  public long getResetTime() {
+    return resetTime;
+  }
+
+}
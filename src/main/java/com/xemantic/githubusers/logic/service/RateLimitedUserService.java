@@ -0,0 +1,379 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.service;
+
+import com.xemantic.githubusers.logic.model.RateLimit;
+import com.xemantic.githubusers.logic.model.SearchResult;
+import com.xemantic.githubusers.logic.model.SearchResultStream;
+import io.reactivex.Observable;
+import io.reactivex.Scheduler;
+import io.reactivex.Single;
+import io.reactivex.SingleEmitter;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.functions.Function;
+import io.reactivex.subjects.BehaviorSubject;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link UserService} decorator scheduling requests within the
+ * <a href="https://developer.github.com/v3/search/#rate-limit">GitHub search rate limit</a>.
+ * Requests are passed to the decorated service only when there is remaining quota,
+ * otherwise they are queued until the rate limit resets. Queued requests are
+ * executed according to their {@link RequestPriority}.
+ * <p>
+ * The quota is tracked locally and corrected with {@link SearchResult#getRateLimit()}
+ * of each response. When the decorated service still reports
+ * {@link RateLimitExceededException}, the request is queued again.
+ * </p>
+ * <p>
+ * Conditional requests answered with the cached result, which was not
+ * modified, give their quota back, as GitHub does not count them.
+ * </p>
+ * <p>
+ * Note: the state is guarded by this service, but the requests are passed
+ * to the decorated service, and the quota is published, only after
+ * releasing the lock, as results might be delivered synchronously to
+ * the code calling this service again.
+ * </p>
+ *
+ * @author morisil
+ */
+public class RateLimitedUserService implements StreamingUserService {
+
+  private final UserService userService;
+
+  private final long window;
+
+  private final Scheduler scheduler;
+
+  private final PriorityQueue<Task<?>> queue = new PriorityQueue<>(
+      Comparator.<Task<?>>comparingInt(task -> task.priority.ordinal())
+          .thenComparingLong(task -> task.sequence)
+  );
+
+  private final BehaviorSubject<RateLimit> quota$;
+
+  private int limit;
+
+  private int remaining;
+
+  private long resetTime;
+
+  private long sequence = 0;
+
+  private Disposable pendingDrain = null;
+
+  private boolean quotaChanged = false;
+
+  /**
+   * Creates the service.
+   *
+   * @param userService the rate limited service.
+   * @param limit the initial number of requests permitted within the time window.
+   * @param window the length of rate limit time window.
+   * @param unit the unit of {@code window}.
+   * @param scheduler the scheduler used as a time source and to execute queued requests.
+   */
+  public RateLimitedUserService(
+      UserService userService,
+      int limit,
+      long window,
+      TimeUnit unit,
+      Scheduler scheduler
+  ) {
+    this.userService = Objects.requireNonNull(userService);
+    this.window = unit.toMillis(window);
+    this.scheduler = Objects.requireNonNull(scheduler);
+    this.limit = limit;
+    this.remaining = limit;
+    this.resetTime = now() + this.window;
+    this.quota$ = BehaviorSubject.createDefault(currentQuota());
+  }
+
+  /**
+   * Finds users with {@link RequestPriority#FOREGROUND} priority for the first
+   * page, and {@link RequestPriority#LOAD_MORE} for subsequent pages.
+   */
+  @Override
+  public Single<SearchResult> find(String query, int page, int perPage) {
+    return find(query, page, perPage, derivePriority(page));
+  }
+
+  @Override
+  public Single<SearchResult> find(String query, int page, int perPage, RequestPriority priority) {
+    return schedule(
+        Objects.requireNonNull(priority),
+        Single.defer(() -> userService.find(query, page, perPage)),
+        null,
+        SearchResult::getRateLimit
+    );
+  }
+
+  @Override
+  public Single<SearchResult> findIfModified(String query, int page, int perPage, SearchResult cached) {
+    return schedule(
+        derivePriority(page),
+        Single.defer(() -> userService.findIfModified(query, page, perPage, cached)),
+        Objects.requireNonNull(cached),
+        SearchResult::getRateLimit
+    );
+  }
+
+  /**
+   * Streams users with the priority derived from the page number,
+   * like {@link #find(String, int, int)}.
+   */
+  @Override
+  public Single<SearchResultStream> findStream(String query, int page, int perPage) {
+    return schedule(
+        derivePriority(page),
+        Single.defer(() -> SearchResultReceiver.findStream(userService, query, page, perPage)),
+        null,
+        SearchResultStream::getRateLimit
+    );
+  }
+
+  /**
+   * Returns the stream of the quota state, emitting current state on subscription.
+   *
+   * @return the quota observable.
+   */
+  public Observable<RateLimit> quota$() {
+    return quota$;
+  }
+
+  /*
+   * The cached result is given only to conditional requests.
+   */
+  private <T> Single<T> schedule(
+      RequestPriority priority,
+      Single<T> request,
+      T cached,
+      Function<T, RateLimit> rateLimit
+  ) {
+    return Single.create(emitter -> {
+      Task<T> task = new Task<>(priority, request, cached, rateLimit, emitter);
+      emitter.setCancellable(() -> cancel(task));
+      enqueue(task);
+    });
+  }
+
+  public synchronized int getQueueSize() {
+    return queue.size();
+  }
+
+  private void enqueue(Task<?> task) {
+    synchronized (this) {
+      task.sequence = sequence++;
+      queue.add(task);
+    }
+    drain();
+  }
+
+  private synchronized void cancel(Task<?> task) {
+    queue.remove(task);
+    if (task.subscription != null) {
+      task.subscription.dispose();
+    }
+  }
+
+  private void drain() {
+    List<Task<?>> runnable = pollRunnable();
+    publishQuota();
+    for (Task<?> task : runnable) {
+      execute(task);
+    }
+  }
+
+  private synchronized List<Task<?>> pollRunnable() {
+    long now = now();
+    if (now >= resetTime) {
+      remaining = limit;
+      resetTime = now + window;
+      quotaChanged = true;
+    }
+    List<Task<?>> runnable = new ArrayList<>();
+    while ((remaining > 0) && !queue.isEmpty()) {
+      remaining--;
+      quotaChanged = true;
+      Task<?> task = queue.poll();
+      task.windowResetTime = resetTime;
+      runnable.add(task);
+    }
+    if (!queue.isEmpty() && (pendingDrain == null)) {
+      pendingDrain = scheduler.scheduleDirect(
+          this::scheduledDrain,
+          Math.max(0, resetTime - now),
+          TimeUnit.MILLISECONDS
+      );
+    }
+    return runnable;
+  }
+
+  private void scheduledDrain() {
+    synchronized (this) {
+      pendingDrain = null;
+    }
+    drain();
+  }
+
+  private <T> void execute(Task<T> task) {
+    Disposable subscription = task.request.subscribe(
+        result -> onSuccess(task, result),
+        error -> onError(task, error)
+    );
+    synchronized (this) {
+      if (task.emitter.isDisposed()) { // cancelled before subscribing
+        subscription.dispose();
+      } else if (task.subscription == null) { // unless already executed again after requeue
+        task.subscription = subscription;
+      }
+    }
+  }
+
+  private <T> void onSuccess(Task<T> task, T result) throws Exception {
+    if ((task.cached != null) && (result == task.cached)) { // not modified, the rate limit is outdated
+      refund(task);
+    } else {
+      RateLimit rateLimit = task.rateLimit.apply(result);
+      if (rateLimit != null) {
+        update(rateLimit);
+        publishQuota();
+      }
+    }
+    task.emitter.onSuccess(result);
+  }
+
+  private void onError(Task<?> task, Throwable error) {
+    if (error instanceof RateLimitExceededException) {
+      exceeded((RateLimitExceededException) error);
+      requeue(task);
+      drain();
+    } else {
+      task.emitter.onError(error);
+    }
+  }
+
+  private synchronized void update(RateLimit rateLimit) {
+    limit = rateLimit.getLimit();
+    // our own count already includes requests which might be still in flight
+    remaining = Math.min(remaining, rateLimit.getRemaining());
+    resetTime = rateLimit.getResetTime();
+    quotaChanged = true;
+  }
+
+  private void refund(Task<?> task) {
+    synchronized (this) {
+      if ((task.windowResetTime != resetTime) || (remaining >= limit)) {
+        return;
+      }
+      remaining++;
+      quotaChanged = true;
+    }
+    drain();
+  }
+
+  private synchronized void exceeded(RateLimitExceededException exception) {
+    remaining = 0;
+    long reset = exception.getResetTime();
+    resetTime = (reset > 0) ? reset : now() + window;
+    quotaChanged = true;
+  }
+
+  private synchronized void requeue(Task<?> task) {
+    task.subscription = null;
+    if (!task.emitter.isDisposed()) {
+      queue.add(task); // keeps original sequence
+    }
+  }
+
+  private void publishQuota() {
+    synchronized (quota$) { // keeps published states in order
+      RateLimit quota = pollChangedQuota();
+      if (quota != null) {
+        quota$.onNext(quota);
+      }
+    }
+  }
+
+  private synchronized RateLimit pollChangedQuota() {
+    if (!quotaChanged) {
+      return null;
+    }
+    quotaChanged = false;
+    return currentQuota();
+  }
+
+  private RateLimit currentQuota() {
+    return new RateLimit(limit, remaining, resetTime);
+  }
+
+  private long now() {
+    return scheduler.now(TimeUnit.MILLISECONDS);
+  }
+
+  private static RequestPriority derivePriority(int page) {
+    return (page == 1) ? RequestPriority.FOREGROUND : RequestPriority.LOAD_MORE;
+  }
+
+  private static final class Task<T> {
+
+    private final RequestPriority priority;
+
+    private final Single<T> request;
+
+    private final T cached;
+
+    private final Function<T, RateLimit> rateLimit;
+
+    private final SingleEmitter<T> emitter;
+
+    private long sequence;
+
+    private long windowResetTime;
+
+    private Disposable subscription;
+
+    private Task(
+        RequestPriority priority,
+        Single<T> request,
+        T cached,
+        Function<T, RateLimit> rateLimit,
+        SingleEmitter<T> emitter
+    ) {
+      this.priority = priority;
+      this.request = request;
+      this.cached = cached;
+      this.rateLimit = rateLimit;
+      this.emitter = emitter;
+    }
+
+  }
+
+}
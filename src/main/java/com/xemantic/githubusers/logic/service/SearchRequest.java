@@ -0,0 +1,107 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.service;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Parameters of a single {@link UserService#find(String, int, int)} call.
+ * Can be used as a key identifying search result page.
+ *
+ * @author morisil
+ */
+public final class SearchRequest {
+
+  private final String query;
+
+  private final int page;
+
+  private final int perPage;
+
+  public SearchRequest(String query, int page, int perPage) {
+    this.query = Objects.requireNonNull(query);
+    this.page = page;
+    this.perPage = perPage;
+  }
+
+  public String getQuery() {
+    return query;
+  }
+
+  public int getPage() {
+    return page;
+  }
+
+  public int getPerPage() {
+    return perPage;
+  }
+
+  /**
+   * Returns normalised form of this request, suitable as a key of persistent
+   * caches. GitHub user search is case insensitive and ignores surrounding
+   * whitespace, therefore such queries are equivalent.
+   *
+   * @return the normalised request.
+   */
+  public SearchRequest normalize() {
+    return new SearchRequest(normalizeQuery(query), page, perPage);
+  }
+
+  /**
+   * Returns normalised form of the query, see {@link #normalize()}.
+   *
+   * @param query the query.
+   * @return the normalised query.
+   */
+  public static String normalizeQuery(String query) {
+    return query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof SearchRequest)) {
+      return false;
+    }
+    SearchRequest other = (SearchRequest) o;
+    return (
+        (page == other.page)
+            && (perPage == other.perPage)
+            && query.equals(other.query)
+    );
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(query, page, perPage);
+  }
+
+  @Override
+  public String toString() {
+    return "SearchRequest{query='" + query + "', page=" + page + ", perPage=" + perPage + "}";
+  }
+
+}
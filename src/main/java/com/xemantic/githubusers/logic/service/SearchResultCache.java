@@ -0,0 +1,366 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.service;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.CacheStats;
+import com.xemantic.githubusers.logic.model.SearchResult;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrent cache of {@link SearchResult} pages bounded by the total weight,
+ * which is the number of users on cached pages. The cache is divided into
+ * stripes by the hash of the {@link SearchRequest}, each stripe having its own
+ * lock, its own share of the maximal weight and its own eviction policy,
+ * so that writers of different stripes never contend.
+ * <p>
+ * Reads never take the lock: pages are looked up in the concurrent map,
+ * while the accesses are recorded in the small ring buffer of the stripe,
+ * which is applied to the eviction policy by the next writer or by
+ * the reader filling the buffer. Under contention some accesses might be
+ * lost, which only affects the precision of the policy.
+ * </p>
+ * <p>
+ * The eviction policy is W-TinyLFU-like: new pages enter the small
+ * LRU window ({@value #WINDOW_PERCENT}% of the weight). A page leaving
+ * the window is admitted to the main LRU space only if it was requested
+ * more often than the main space victim it would replace, according to
+ * the {@link FrequencySketch}. This way one-off queries cannot flush the
+ * popular ones.
+ * </p>
+ *
+ * @author morisil
+ */
+final class SearchResultCache {
+
+  static final int WINDOW_PERCENT = 1;
+
+  private static final int READ_BUFFER_SIZE = 16; // power of 2
+
+  private final Map<SearchRequest, Node> nodes = new ConcurrentHashMap<>();
+
+  private final Stripe[] stripes;
+
+  private final long ttlNanos;
+
+  private final Ticker ticker;
+
+  /**
+   * Creates the cache.
+   *
+   * @param maxWeight the maximal number of users kept in all the cached pages.
+   * @param ttlNanos time-to-live of cached page, in nanoseconds.
+   * @param ticker the time source.
+   * @param stripeCount the number of stripes, rounded down to the power of 2,
+   *                    so that each stripe gets at least the expected share of the weight.
+   */
+  SearchResultCache(long maxWeight, long ttlNanos, Ticker ticker, int stripeCount) {
+    int count = 1;
+    while ((count << 1) <= stripeCount) {
+      count <<= 1;
+    }
+    stripes = new Stripe[count];
+    long stripeWeight = (maxWeight + count - 1) / count;
+    for (int i = 0; i < count; i++) {
+      stripes[i] = new Stripe(stripeWeight);
+    }
+    this.ttlNanos = ttlNanos;
+    this.ticker = ticker;
+  }
+
+  SearchResult get(SearchRequest request) {
+    Stripe stripe = stripeOf(request);
+    Node node = nodes.get(request);
+    if (node == null) {
+      stripe.misses.incrementAndGet();
+      return null;
+    }
+    if (ticker.read() - node.writeTime >= ttlNanos) {
+      stripe.misses.incrementAndGet();
+      stripe.expire(node);
+      return null;
+    }
+    stripe.hits.incrementAndGet();
+    stripe.recordRead(node);
+    return node.value;
+  }
+
+  /**
+   * Returns the time the cached page will still be valid, without recording
+   * neither the hit nor the miss.
+   *
+   * @param request the request of the page.
+   * @return the remaining time-to-live in nanoseconds, {@code 0} if the page is not cached.
+   */
+  long getRemainingTtl(SearchRequest request) {
+    Node node = nodes.get(request);
+    return (node == null)
+        ? 0
+        : Math.max(0, ttlNanos - (ticker.read() - node.writeTime));
+  }
+
+  void put(SearchRequest request, SearchResult result) {
+    stripeOf(request).put(
+        new Node(request, result, weigh(result), ticker.read())
+    );
+  }
+
+  void invalidateAll() {
+    for (Stripe stripe : stripes) {
+      stripe.clear();
+    }
+  }
+
+  /**
+   * Returns the total weight of cached pages.
+   *
+   * @return the number of cached users, plus the number of cached pages.
+   */
+  long getWeightedSize() {
+    long size = 0;
+    for (Stripe stripe : stripes) {
+      size += stripe.getWeight();
+    }
+    return size;
+  }
+
+  CacheStats getStats() {
+    long hits = 0;
+    long misses = 0;
+    long evictions = 0;
+    for (Stripe stripe : stripes) {
+      hits += stripe.hits.get();
+      misses += stripe.misses.get();
+      evictions += stripe.evictions.get();
+    }
+    return new CacheStats(hits, misses, 0, 0, 0, evictions);
+  }
+
+  private Stripe stripeOf(SearchRequest request) {
+    int hash = request.hashCode();
+    hash ^= (hash >>> 16);
+    return stripes[hash & (stripes.length - 1)];
+  }
+
+  // empty pages still occupy an entry, therefore + 1
+  private static int weigh(SearchResult result) {
+    return result.getItems().size() + 1;
+  }
+
+  private static final class Node {
+
+    private final SearchRequest key;
+
+    private final SearchResult value;
+
+    private final int weight;
+
+    private final long writeTime;
+
+    private volatile boolean removed = false;
+
+    private boolean inWindow = true;
+
+    private Node previous;
+
+    private Node next;
+
+    private Node(SearchRequest key, SearchResult value, int weight, long writeTime) {
+      this.key = key;
+      this.value = value;
+      this.weight = weight;
+      this.writeTime = writeTime;
+    }
+
+  }
+
+  /** Doubly linked list of nodes, the least recently used first. */
+  private static final class AccessOrder {
+
+    private Node head;
+
+    private Node tail;
+
+    private long weight;
+
+    private void add(Node node) {
+      node.previous = tail;
+      node.next = null;
+      if (tail == null) {
+        head = node;
+      } else {
+        tail.next = node;
+      }
+      tail = node;
+      weight += node.weight;
+    }
+
+    private void remove(Node node) {
+      if (node.previous == null) {
+        head = node.next;
+      } else {
+        node.previous.next = node.next;
+      }
+      if (node.next == null) {
+        tail = node.previous;
+      } else {
+        node.next.previous = node.previous;
+      }
+      node.previous = null;
+      node.next = null;
+      weight -= node.weight;
+    }
+
+    private void moveToTail(Node node) {
+      if (node != tail) {
+        remove(node);
+        add(node);
+      }
+    }
+
+  }
+
+  private final class Stripe {
+
+    private final Node[] readBuffer = new Node[READ_BUFFER_SIZE];
+
+    private final AtomicInteger readCount = new AtomicInteger();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final long maxWeight;
+
+    private final long maxWindowWeight;
+
+    private final FrequencySketch sketch;
+
+    private AccessOrder window = new AccessOrder();
+
+    private AccessOrder main = new AccessOrder();
+
+    private Stripe(long maxWeight) {
+      this.maxWeight = maxWeight;
+      this.maxWindowWeight = Math.max(1, maxWeight * WINDOW_PERCENT / 100);
+      // assuming pages of 10 users on average
+      this.sketch = new FrequencySketch((int) Math.min(maxWeight / 10, 1 << 16));
+    }
+
+    private void recordRead(Node node) {
+      int index = readCount.getAndIncrement() & (READ_BUFFER_SIZE - 1);
+      readBuffer[index] = node; // racy, a lost read only affects precision
+      if (index == READ_BUFFER_SIZE - 1) {
+        synchronized (this) {
+          drainReads();
+        }
+      }
+    }
+
+    private synchronized void put(Node node) {
+      drainReads();
+      sketch.increment(node.key);
+      Node existing = nodes.put(node.key, node);
+      if (existing != null) {
+        unlink(existing);
+      }
+      window.add(node);
+      while (window.weight > maxWindowWeight) {
+        Node candidate = window.head;
+        window.remove(candidate);
+        candidate.inWindow = false;
+        main.add(candidate);
+        admitOrEvict(candidate);
+      }
+      while ((window.weight + main.weight) > maxWeight) {
+        evict((main.head != null) ? main.head : window.head);
+      }
+    }
+
+    private void admitOrEvict(Node candidate) {
+      while (((window.weight + main.weight) > maxWeight) && !candidate.removed) {
+        Node victim = (main.head != candidate) ? main.head : candidate.next;
+        if ((victim == null)
+            || (sketch.frequency(candidate.key) <= sketch.frequency(victim.key))) {
+          evict(candidate);
+        } else {
+          evict(victim);
+        }
+      }
+    }
+
+    private synchronized void expire(Node node) {
+      if (!node.removed) {
+        unlink(node);
+        nodes.remove(node.key, node);
+      }
+    }
+
+    private synchronized void clear() {
+      for (AccessOrder order : new AccessOrder[] {window, main}) {
+        for (Node node = order.head; node != null; node = node.next) {
+          node.removed = true;
+          nodes.remove(node.key, node);
+        }
+      }
+      window = new AccessOrder();
+      main = new AccessOrder();
+    }
+
+    private synchronized long getWeight() {
+      return window.weight + main.weight;
+    }
+
+    private void evict(Node node) {
+      unlink(node);
+      nodes.remove(node.key, node);
+      evictions.incrementAndGet();
+    }
+
+    private void unlink(Node node) {
+      node.removed = true;
+      (node.inWindow ? window : main).remove(node);
+    }
+
+    private void drainReads() {
+      for (int i = 0; i < READ_BUFFER_SIZE; i++) {
+        Node node = readBuffer[i];
+        if (node != null) {
+          readBuffer[i] = null;
+          if (!node.removed) {
+            sketch.increment(node.key);
+            (node.inWindow ? window : main).moveToTail(node);
+          }
+        }
+      }
+    }
+
+  }
+
+}
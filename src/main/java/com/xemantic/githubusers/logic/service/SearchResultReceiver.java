@@ -0,0 +1,128 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.service;
+
+import com.xemantic.githubusers.logic.model.SearchResult;
+import com.xemantic.githubusers.logic.model.SearchResultStream;
+import com.xemantic.githubusers.logic.model.SimpleSearchResult;
+import com.xemantic.githubusers.logic.model.User;
+import io.reactivex.Flowable;
+import io.reactivex.Single;
+import io.reactivex.flowables.ConnectableFlowable;
+import io.reactivex.functions.Consumer;
+import io.reactivex.internal.functions.Functions;
+
+/**
+ * Lets the {@link UserService} decorators stream the users further, as
+ * {@link StreamingUserService}s, while still receiving whole pages
+ * to cache, persist or slice them.
+ *
+ * @author morisil
+ */
+final class SearchResultReceiver {
+
+  private SearchResultReceiver() { /* util class, non-instantiable */ }
+
+  /**
+   * Finds the result stream with the {@code userService}, or its whole
+   * result exposed as a stream, if the service does not stream.
+   *
+   * @param userService the user service.
+   * @param query the query.
+   * @param page the page number, starting from {@code 1}.
+   * @param perPage the page size.
+   * @return the result stream.
+   */
+  static Single<SearchResultStream> findStream(
+      UserService userService,
+      String query,
+      int page,
+      int perPage
+  ) {
+    return (userService instanceof StreamingUserService)
+        ? ((StreamingUserService) userService).findStream(query, page, perPage)
+        : userService.find(query, page, perPage).map(SearchResultStream::of);
+  }
+
+  /**
+   * Receives all the users of the {@code stream} at once, regardless of
+   * its subscribers, and passes them as a whole result to the
+   * {@code onReceived}. The returned stream replays the users, as they
+   * are received, to any number of subscribers. Errors are passed only
+   * to these subscribers.
+   *
+   * @param stream the stream to receive.
+   * @param onReceived the consumer of the whole result.
+   * @return the stream of received users.
+   */
+  static SearchResultStream receive(SearchResultStream stream, Consumer<SearchResult> onReceived) {
+    return receive(stream, onReceived, Functions.emptyConsumer());
+  }
+
+  /**
+   * Receives the {@code stream} like {@link #receive(SearchResultStream, Consumer)},
+   * also passing the error to the {@code onError}.
+   *
+   * @param stream the stream to receive.
+   * @param onReceived the consumer of the whole result.
+   * @param onError the consumer of the error.
+   * @return the stream of received users.
+   */
+  static SearchResultStream receive(
+      SearchResultStream stream,
+      Consumer<SearchResult> onReceived,
+      Consumer<Throwable> onError
+  ) {
+    ConnectableFlowable<User> items = stream.getItems().replay();
+    toResult(stream, items).subscribe(onReceived, onError);
+    items.connect();
+    return new SearchResultStream(
+        stream.getTotalCount(),
+        stream.isIncompleteResult(),
+        items,
+        stream.getRateLimit(),
+        stream.getValidator()
+    );
+  }
+
+  /**
+   * Collects all the users of the {@code stream} into the whole result.
+   *
+   * @param stream the stream.
+   * @return the result.
+   */
+  static Single<SearchResult> toResult(SearchResultStream stream) {
+    return toResult(stream, stream.getItems());
+  }
+
+  private static Single<SearchResult> toResult(SearchResultStream stream, Flowable<User> items) {
+    return items.toList().map(users -> new SimpleSearchResult(
+        stream.getTotalCount(),
+        stream.isIncompleteResult(),
+        users,
+        stream.getRateLimit(),
+        stream.getValidator()
+    ));
+  }
+
+}
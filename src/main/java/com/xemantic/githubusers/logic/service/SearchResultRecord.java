@@ -0,0 +1,195 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.service;
+
+import com.xemantic.githubusers.logic.model.CacheValidator;
+import com.xemantic.githubusers.logic.model.SearchResult;
+import com.xemantic.githubusers.logic.model.SimpleSearchResult;
+import com.xemantic.githubusers.logic.model.SimpleUser;
+import com.xemantic.githubusers.logic.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Search result page stored in a record, together with request parameters,
+ * fetch time and {@link CacheValidator} fields, if any.
+ * <p>
+ * The record format is a sequence of length-prefixed fields
+ * ({@code <length>:<chars>}) followed by {@code #<checksum>} of all the
+ * preceding characters. Torn or otherwise corrupted records fail the
+ * checksum verification. The user's {@code html_url} is stored as an empty
+ * field when it can be derived from the login, as it is usually the case.
+ * Missing validator fields are stored as empty fields as well. Records of
+ * an unknown version are skipped.
+ * </p>
+ *
+ * @author morisil
+ */
+final class SearchResultRecord {
+
+  private static final String VERSION = "1";
+
+  private static final String GITHUB_URL = "https://github.com/";
+
+  private final SearchRequest request;
+
+  private final SearchResult result;
+
+  private final long fetchTime;
+
+  SearchResultRecord(SearchRequest request, SearchResult result, long fetchTime) {
+    this.request = request;
+    this.result = result;
+    this.fetchTime = fetchTime;
+  }
+
+  SearchRequest getRequest() {
+    return request;
+  }
+
+  SearchResult getResult() {
+    return result;
+  }
+
+  long getFetchTime() {
+    return fetchTime;
+  }
+
+  String encode() {
+    StringBuilder builder = new StringBuilder();
+    field(builder, VERSION);
+    field(builder, request.getQuery());
+    field(builder, request.getPage());
+    field(builder, request.getPerPage());
+    field(builder, Long.toString(fetchTime));
+    CacheValidator validator = result.getValidator();
+    field(builder, ((validator != null) && (validator.getETag() != null)) ? validator.getETag() : "");
+    field(builder, ((validator != null) && (validator.getLastModified() != null)) ? validator.getLastModified() : "");
+    field(builder, result.getTotalCount());
+    field(builder, result.isIncompleteResult() ? "1" : "0");
+    List<User> items = result.getItems();
+    field(builder, items.size());
+    for (User user : items) {
+      String login = user.getLogin();
+      String htmlUrl = user.getHtmlUrl();
+      field(builder, login);
+      field(builder, user.getAvatarUrl());
+      field(builder, (GITHUB_URL + login).equals(htmlUrl) ? "" : htmlUrl);
+    }
+    String body = builder.toString();
+    return body + '#' + Integer.toHexString(body.hashCode());
+  }
+
+  /**
+   * Decodes the record.
+   *
+   * @param record the encoded record.
+   * @return the decoded record, or {@code null} if the record is corrupted.
+   */
+  static SearchResultRecord decode(String record) {
+    int checksumStart = record.lastIndexOf('#');
+    if (checksumStart == -1) {
+      return null;
+    }
+    String body = record.substring(0, checksumStart);
+    String checksum = record.substring(checksumStart + 1);
+    if (!Integer.toHexString(body.hashCode()).equals(checksum)) {
+      return null;
+    }
+    try {
+      return new Reader(body).read();
+    } catch (RuntimeException e) { // valid checksum but unknown format
+      return null;
+    }
+  }
+
+  private static void field(StringBuilder builder, int value) {
+    field(builder, Integer.toString(value));
+  }
+
+  private static void field(StringBuilder builder, String value) {
+    builder.append(value.length()).append(':').append(value);
+  }
+
+  private static final class Reader {
+
+    private final String body;
+
+    private int position = 0;
+
+    private Reader(String body) {
+      this.body = body;
+    }
+
+    private SearchResultRecord read() {
+      if (!VERSION.equals(next())) {
+        return null;
+      }
+      SearchRequest request = new SearchRequest(next(), nextInt(), nextInt());
+      long fetchTime = Long.parseLong(next());
+      String eTag = next();
+      String lastModified = next();
+      CacheValidator validator = (eTag.isEmpty() && lastModified.isEmpty())
+          ? null
+          : new CacheValidator(
+              eTag.isEmpty() ? null : eTag,
+              lastModified.isEmpty() ? null : lastModified,
+              fetchTime
+          );
+      int totalCount = nextInt();
+      boolean incomplete = "1".equals(next());
+      int count = nextInt();
+      List<User> items = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        String login = next();
+        String avatarUrl = next();
+        String htmlUrl = next();
+        items.add(new SimpleUser(
+            login,
+            avatarUrl,
+            htmlUrl.isEmpty() ? GITHUB_URL + login : htmlUrl
+        ));
+      }
+      return new SearchResultRecord(
+          request,
+          new SimpleSearchResult(totalCount, incomplete, items, null, validator),
+          fetchTime
+      );
+    }
+
+    private String next() {
+      int separator = body.indexOf(':', position);
+      int length = Integer.parseInt(body.substring(position, separator));
+      int start = separator + 1;
+      position = start + length;
+      return body.substring(start, position);
+    }
+
+    private int nextInt() {
+      return Integer.parseInt(next());
+    }
+
+  }
+
+}
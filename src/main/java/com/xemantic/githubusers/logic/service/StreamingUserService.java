@@ -0,0 +1,56 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.service;
+
+import com.xemantic.githubusers.logic.model.SearchResultStream;
+import io.reactivex.Single;
+
+/**
+ * {@link UserService} capable of streaming users while they are
+ * decoded from the response. If the {@link UserService} provided to the
+ * {@code UserListPresenter} implements this interface, the first user
+ * will be displayed before the whole page is received.
+ * <p>
+ * Note: the decorators chained by the {@link UserServiceModule} stream
+ * the users of the requests which reach the platform implementation,
+ * while receiving the whole page to cache, coalesce, persist and slice it.
+ * Pages they already hold are streamed at once.
+ * </p>
+ *
+ * @author morisil
+ */
+public interface StreamingUserService extends UserService {
+
+  /**
+   * Finds users like {@link #find(String, int, int)}, but emits
+   * the result as soon as the metadata preceding the user list
+   * is received.
+   *
+   * @param query the query.
+   * @param page the page number, starting from {@code 1}.
+   * @param perPage the page size.
+   * @return the result stream.
+   */
+  Single<SearchResultStream> findStream(String query, int page, int perPage);
+
+}
@@ -34,4 +34,42 @@ public interface UserService {
 
   Single<SearchResult> find(String query, int page, int perPage);
 
+  /**
+   * Finds users like {@link #find(String, int, int)}, with explicit priority
+   * of the request. Without it, the services scheduling requests derive the
+   * priority from the page number.
+   * <p>
+   * The default implementation ignores the priority.
+   * </p>
+   *
+   * @param query the query.
+   * @param page the page number, starting from {@code 1}.
+   * @param perPage the page size.
+   * @param priority the priority of the request.
+   * @return the result.
+   */
+  default Single<SearchResult> find(String query, int page, int perPage, RequestPriority priority) {
+    return find(query, page, perPage);
+  }
+
+  /**
+   * Finds users like {@link #find(String, int, int)}, unless the page
+   * did not change since the {@code cached} result was received. The
+   * {@link SearchResult#getValidator()} of the {@code cached} result is used
+   * to make a conditional request, which, if answered with
+   * {@code 304 Not Modified}, saves bandwidth and rate limit.
+   * <p>
+   * The default implementation makes unconditional request.
+   * </p>
+   *
+   * @param query the query.
+   * @param page the page number, starting from {@code 1}.
+   * @param perPage the page size.
+   * @param cached the previously received result of the same request.
+   * @return the {@code cached} instance itself if not modified, the new result otherwise.
+   */
+  default Single<SearchResult> findIfModified(String query, int page, int perPage, SearchResult cached) {
+    return find(query, page, perPage);
+  }
+
 }
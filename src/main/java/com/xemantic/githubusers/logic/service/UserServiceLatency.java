@@ -0,0 +1,65 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.service;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Keeps track of observed {@link UserService} latency as exponentially
+ * weighted moving average, so that recent measurements matter most.
+ *
+ * @author morisil
+ * @see LatencyMeasuringUserService
+ */
+@Singleton
+public class UserServiceLatency {
+
+  private static final double WEIGHT_OF_NEW_SAMPLE = 0.2;
+
+  private double average = 0;
+
+  private boolean measured = false;
+
+  @Inject
+  public UserServiceLatency() { /* injectable */ }
+
+  public synchronized void record(long millis) {
+    if (measured) {
+      average += WEIGHT_OF_NEW_SAMPLE * (millis - average);
+    } else {
+      average = millis;
+      measured = true;
+    }
+  }
+
+  /**
+   * Returns average latency.
+   *
+   * @return the average latency in milliseconds, or {@code 0} if nothing was measured yet.
+   */
+  public synchronized long getAverageMillis() {
+    return Math.round(average);
+  }
+
+}
@@ -0,0 +1,224 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.service;
+
+import com.google.common.base.Ticker;
+import com.xemantic.ankh.shared.driver.RecordLog;
+import com.xemantic.ankh.shared.metrics.Metrics;
+import dagger.Binds;
+import dagger.BindsOptionalOf;
+import dagger.Module;
+import dagger.Provides;
+import io.reactivex.Scheduler;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Defines the {@link UserService} used by the app logic as a chain of
+ * decorators in front of the platform specific implementation, which
+ * should be provided as {@code @Named("gitHubUserService") UserService}.
+ * The {@code @Named("userServiceScheduler") Scheduler} is used for timing
+ * and delayed execution of requests. Received pages are persisted in the
+ * platform provided {@code @Named("userSearchLog") RecordLog}, read and
+ * written on the same scheduler. Requests
+ * are reported to the {@link Metrics}. The {@link CachePreWarmer} keeping
+ * the first pages of the {@link QueryHeavyHitters} fresh, in the shape
+ * requested for the {@code @Named("userListPageSize") int}, is provided,
+ * but it's up to the platform to start it. Queries
+ * which found no users are answered by the {@link NegativeCachingUserService}
+ * for the same time-to-live as cached pages. The decorated service is
+ * a {@link StreamingUserService}, streaming the users of missing pages if
+ * the platform service is streaming them as well.
+ * <p>
+ * The cache is not striped by default, which suits single user apps. Servers
+ * sharing the cache among concurrent sessions can provide the number of
+ * stripes as {@code @Named("userServiceCacheStripes") int}. The number is
+ * limited, so that each stripe can hold at least one page of the maximal size.
+ * </p>
+ *
+ * @author morisil
+ */
+@Module
+public abstract class UserServiceModule {
+
+  private static final int GITHUB_MAX_PAGE_SIZE = 100;
+
+  // users on the page, + 1 for the page itself
+  private static final int MAX_PAGE_WEIGHT = GITHUB_MAX_PAGE_SIZE + 1;
+
+  // up to 100 users each
+  private static final int STORE_MAX_PAGES = 1000;
+
+  private static final int PRE_WARMED_QUERIES = 20;
+
+  // upstream pages of the users paging at the same time
+  private static final int SLICED_PAGE_BUFFER = 16;
+
+  // 18KB per generation of the Bloom filter
+  private static final int EMPTY_QUERY_CAPACITY = 10000;
+
+  // wrongly showing no users should be rare
+  private static final double EMPTY_QUERY_FALSE_POSITIVE_PROBABILITY = 0.001;
+
+  @Provides
+  @Singleton
+  static LatencyMeasuringUserService latencyMeasuringUserService(
+      @Named("gitHubUserService") UserService userService,
+      UserServiceLatency latency,
+      Metrics metrics,
+      @Named("userServiceScheduler") Scheduler scheduler
+  ) {
+    return new LatencyMeasuringUserService(userService, latency, metrics, scheduler);
+  }
+
+  @Provides
+  @Singleton
+  static RateLimitedUserService rateLimitedUserService(
+      LatencyMeasuringUserService userService,
+      // unauthenticated search API allows 10 requests per minute
+      @Named("gitHubSearchRateLimit") int rateLimit,
+      @Named("userServiceScheduler") Scheduler scheduler
+  ) {
+    return new RateLimitedUserService(userService, rateLimit, 1, TimeUnit.MINUTES, scheduler);
+  }
+
+  @Provides
+  @Singleton
+  static CoalescingUserService coalescingUserService(
+      RateLimitedUserService userService
+  ) {
+    return new CoalescingUserService(userService);
+  }
+
+  @Provides
+  @Singleton
+  static PersistentUserService persistentUserService(
+      CoalescingUserService userService,
+      @Named("userSearchLog") RecordLog log,
+      @Named("userServiceStoreMaxAgeSeconds") int maxAgeSeconds,
+      @Named("userServiceScheduler") Scheduler scheduler
+  ) {
+    return new PersistentUserService(
+        userService, log, STORE_MAX_PAGES, maxAgeSeconds, TimeUnit.SECONDS, scheduler
+    );
+  }
+
+  @Provides
+  @Singleton
+  static CachingUserService cachingUserService(
+      PersistentUserService userService,
+      @Named("userServiceCacheMaxUsers") int maxUsers,
+      @Named("userServiceCacheTtlSeconds") int ttlSeconds,
+      @Named("userServiceCacheStripes") Optional<Integer> stripes
+  ) {
+    return new CachingUserService(
+        userService,
+        maxUsers,
+        ttlSeconds,
+        TimeUnit.SECONDS,
+        Ticker.systemTicker(),
+        cacheStripes(maxUsers, stripes.orElse(1))
+    );
+  }
+
+  @BindsOptionalOf
+  @Named("userServiceCacheStripes")
+  abstract Integer cacheStripes();
+
+  static int cacheStripes(long maxUsers, int stripes) {
+    return (int) Math.max(1, Math.min(stripes, maxUsers / MAX_PAGE_WEIGHT));
+  }
+
+  @Provides
+  @Singleton
+  static QueryHeavyHitters queryHeavyHitters() {
+    return new QueryHeavyHitters(PRE_WARMED_QUERIES);
+  }
+
+  @Provides
+  @Singleton
+  static CachePreWarmer cachePreWarmer(
+      QueryHeavyHitters heavyHitters,
+      CachingUserService cache,
+      CoalescingUserService userService,
+      RateLimitedUserService rateLimiter,
+      PageSlicingUserService pageSlicingUserService,
+      @Named("userListPageSize") int pageSize,
+      @Named("userServiceCacheTtlSeconds") int ttlSeconds,
+      @Named("userServiceScheduler") Scheduler scheduler
+  ) {
+    return new CachePreWarmer(
+        heavyHitters,
+        cache,
+        userService,
+        rateLimiter,
+        // the first page of the user list, as requested from the cache
+        pageSlicingUserService.upstreamRequest("", 1, pageSize).getPerPage(),
+        ttlSeconds * 1000L / 2,
+        TimeUnit.MILLISECONDS,
+        scheduler
+    );
+  }
+
+  @Provides
+  @Singleton
+  static PageSlicingUserService pageSlicingUserService(
+      CachingUserService userService,
+      @Named("gitHubUserSearchLimit") int userSearchLimit,
+      @Named("userServiceCacheTtlSeconds") int ttlSeconds
+  ) {
+    return new PageSlicingUserService(
+        userService,
+        GITHUB_MAX_PAGE_SIZE,
+        userSearchLimit,
+        SLICED_PAGE_BUFFER,
+        ttlSeconds,
+        TimeUnit.SECONDS,
+        Ticker.systemTicker()
+    );
+  }
+
+  @Provides
+  @Singleton
+  static NegativeCachingUserService negativeCachingUserService(
+      PageSlicingUserService userService,
+      @Named("userServiceCacheTtlSeconds") int ttlSeconds
+  ) {
+    return new NegativeCachingUserService(
+        userService,
+        EMPTY_QUERY_CAPACITY,
+        EMPTY_QUERY_FALSE_POSITIVE_PROBABILITY,
+        ttlSeconds,
+        TimeUnit.SECONDS,
+        Ticker.systemTicker()
+    );
+  }
+
+  @Binds
+  @Singleton
+  abstract UserService userService(NegativeCachingUserService service);
+
+}
@@ -0,0 +1,78 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.user;
+
+/**
+ * Range of list indices, both ends inclusive.
+ *
+ * @author morisil
+ */
+public final class IndexRange {
+
+  private final int first;
+
+  private final int last;
+
+  public IndexRange(int first, int last) {
+    if (first > last) {
+      throw new IllegalArgumentException("first: " + first + " > last: " + last);
+    }
+    this.first = first;
+    this.last = last;
+  }
+
+  public int getFirst() {
+    return first;
+  }
+
+  public int getLast() {
+    return last;
+  }
+
+  public boolean contains(int index) {
+    return (index >= first) && (index <= last);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof IndexRange)) {
+      return false;
+    }
+    IndexRange other = (IndexRange) o;
+    return (first == other.first) && (last == other.last);
+  }
+
+  @Override
+  public int hashCode() {
+    return (31 * first) + last;
+  }
+
+  @Override
+  public String toString() {
+    return "IndexRange{first=" + first + ", last=" + last + "}";
+  }
+
+}
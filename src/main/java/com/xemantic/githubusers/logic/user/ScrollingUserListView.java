@@ -0,0 +1,45 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.user;
+
+import io.reactivex.Observable;
+
+/**
+ * {@link UserListView} reporting which part of the list is currently visible.
+ * If the view implements this interface, the {@link UserListPresenter} will
+ * prefetch the next page as soon as the user scrolls close enough to the end
+ * of the list, so it can be displayed instantly on the load more intent.
+ *
+ * @author morisil
+ */
+public interface ScrollingUserListView extends UserListView {
+
+  /**
+   * Returns the stream of currently visible index ranges. There is no need
+   * to emit the initial range if only the beginning of the list is visible.
+   *
+   * @return the visible range observable.
+   */
+  Observable<IndexRange> visibleRange$();
+
+}
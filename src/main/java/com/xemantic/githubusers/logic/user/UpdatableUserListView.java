@@ -0,0 +1,57 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.user;
+
+/**
+ * {@link UserListView} supporting fine grained updates. If the view implements
+ * this interface, the {@link UserListPresenter} will not {@link #clear()}
+ * the list on the new query, but will update it with the minimal number
+ * of operations instead, keeping the rows of users present in both,
+ * the displayed list and the first page of new results, see
+ * {@link UserListUpdater}.
+ *
+ * @author morisil
+ */
+public interface UpdatableUserListView extends UserListView {
+
+  void insert(int index, UserView userView);
+
+  /**
+   * Removes the range of {@link UserView}s from the list at once.
+   *
+   * @param index the index of the first view to remove.
+   * @param count the number of subsequent views to remove.
+   */
+  void remove(int index, int count);
+
+  /**
+   * Moves the {@link UserView} within the list. The {@code to} index
+   * refers to the list without the moved view, like if it was removed first
+   * and then inserted again.
+   *
+   * @param from the index of the view to move.
+   * @param to the new index of the view.
+   */
+  void move(int from, int to);
+
+}
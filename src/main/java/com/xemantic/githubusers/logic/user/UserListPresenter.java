@@ -25,27 +25,120 @@ package com.xemantic.githubusers.logic.user;
 import com.xemantic.ankh.shared.error.Errors;
 import com.xemantic.ankh.shared.event.Trigger;
 import com.xemantic.ankh.shared.presenter.Presenter;
+import com.xemantic.ankh.shared.trace.Span;
 import com.xemantic.githubusers.logic.event.UserQueryEvent;
-import com.xemantic.githubusers.logic.model.SearchResult;
+import com.xemantic.githubusers.logic.model.SearchResultStream;
 import com.xemantic.githubusers.logic.model.User;
+import com.xemantic.githubusers.logic.service.RequestPriority;
+import com.xemantic.githubusers.logic.service.StreamingUserService;
 import com.xemantic.githubusers.logic.service.UserService;
+import io.reactivex.Flowable;
 import io.reactivex.Observable;
+import io.reactivex.Scheduler;
+import io.reactivex.Single;
+import io.reactivex.disposables.CompositeDisposable;
 
 import javax.inject.Inject;
 import javax.inject.Named;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Presenter of the {@link UserListView}.
+ * <p>
+ * If the view is a {@link WindowedUserListView}, the {@link UserPresenter}s
+ * are kept alive only within the visible range extended by one page
+ * on both sides, see {@link UserWindow}. In this case, with positive
+ * {@code @Named("userListMaxPages") int}, also the number of pages of users
+ * kept in memory is limited, regardless of the scroll depth. Evicted pages
+ * are requested again from the {@link UserService} when scrolled back to.
+ * </p>
+ * <p>
+ * {@link UserPresenter}s of cleared or scrolled away users are recycled
+ * through the {@link UserPresenterPool} holding up to 3 pages of them.
+ * </p>
+ * <p>
+ * Users are passed to the view in chunks with {@link UserListView#addAll(List)}.
+ * A chunk is the whole page if it is received at once, otherwise users
+ * streamed within the same {@value #CHUNK_WINDOW_MILLIS}ms (one frame) time
+ * slice, measured with {@code @Named("userListScheduler") Scheduler}.
+ * The chunk closed by the end of its time slice is passed to the view
+ * on this scheduler, therefore it must run on the thread of the view
+ * (the UI thread), which should also be the thread the {@link UserService}
+ * delivers results on.
+ * </p>
+ * <p>
+ * If the view is an {@link UpdatableUserListView} (and not windowed), the first
+ * page of the new query is received as a whole, and then displayed by updating
+ * already displayed users with the {@link UserListUpdater}, keeping the rows
+ * of the users present in both.
+ * </p>
+ * <p>
+ * If the view is a {@link ScrollingUserListView}, the next page is prefetched
+ * as soon as the visible range gets within
+ * {@code @Named("userListPrefetchDistance") int} users from the end of the list,
+ * with the {@link RequestPriority#PREFETCH} priority, and then displayed at once
+ * on the load more intent. Prefetched pages are
+ * counted, together with those discarded without being displayed, e.g.
+ * due to the query change.
+ * </p>
+ * <p>
+ * If the query extends the previously displayed one, while its first page
+ * is not received at once, the already displayed users matching the new query
+ * are displayed as provisional results in the meantime, see
+ * {@link UserListRefinement}. They are replaced by the actual first page when
+ * it arrives. Provisional results are counted in
+ * {@code userList.provisionalRender}.
+ * </p>
+ * <p>
+ * Received queries are counted in {@code userList.query}, while the time from
+ * the query to the first displayed user, and from receiving the page to
+ * displaying all of its users, are recorded in {@code userList.timeToFirstUser}
+ * and {@code userList.pageRender} histograms of the
+ * {@link com.xemantic.ankh.shared.metrics.Metrics}, in milliseconds.
+ * Each search request is also traced as the {@code userService.request}
+ * span, and each displayed page as the {@code userList.pageRendered} span.
+ * </p>
  *
  * @author morisil
  */
 public class UserListPresenter extends Presenter {
 
-  private final UserPresenterFactory userPresenterFactory;
+  private static final long CHUNK_WINDOW_MILLIS = 16;
 
-  private final List<UserPresenter> activeUserPresenters = new LinkedList<>();
+  private static final String QUERY_COUNT = "userList.query";
+
+  private static final String TIME_TO_FIRST_USER = "userList.timeToFirstUser";
+
+  private static final String PAGE_RENDER_TIME = "userList.pageRender";
+
+  private static final String SEARCH_REQUEST = "userService.request";
+
+  private static final String PAGE_RENDERED = "userList.pageRendered";
+
+  private static final String PROVISIONAL_RENDER = "userList.provisionalRender";
+
+  private final UserPresenterPool pool;
+
+  private final List<UserPresenter> activeUserPresenters = new ArrayList<>();
+
+  private final UserWindow window;
+
+  private final UserListUpdater updater;
+
+  private final UserListRefinement refinement;
+
+  private final Scheduler scheduler;
+
+  private volatile String displayedQuery;
+
+  private final AtomicLong prefetchedPageCount = new AtomicLong();
+
+  private final AtomicLong unusedPrefetchedPageCount = new AtomicLong();
 
   @Inject
   public UserListPresenter(
@@ -55,10 +148,32 @@ public class UserListPresenter extends Presenter {
       UserPresenterFactory userPresenterFactory,
       @Named("userListPageSize") int pageSize,
       // API docs: "Only the first 1000 search results are available"
-      @Named("gitHubUserSearchLimit") int userSearchLimit
+      @Named("gitHubUserSearchLimit") int userSearchLimit,
+      @Named("userListPrefetchDistance") int prefetchDistance,
+      @Named("userListMaxPages") int maxPages,
+      @Named("userListScheduler") Scheduler scheduler
   ) {
 
-    this.userPresenterFactory = userPresenterFactory;
+    this.scheduler = scheduler;
+    this.pool = new UserPresenterPool(userPresenterFactory, pageSize * 3);
+    this.refinement = new UserListRefinement(pageSize * 3);
+    this.window = (view instanceof WindowedUserListView)
+        ? new UserWindow(
+            (WindowedUserListView) view,
+            pool,
+            pageSize,
+            pageSize,
+            maxPages,
+            page -> find(userService, displayedQuery, page, pageSize, null)
+                .flatMap(result -> result.getItems().toList())
+        )
+        : null;
+    this.updater = ((window == null) && (view instanceof UpdatableUserListView))
+        ? new UserListUpdater((UpdatableUserListView) view, pool)
+        : null;
+    Observable<IndexRange> visibleRange$ = (view instanceof ScrollingUserListView)
+        ? ((ScrollingUserListView) view).visibleRange$()
+        : null;
 
     register(
         // task: transform stream of search queries into stream of users
@@ -67,82 +182,307 @@ public class UserListPresenter extends Presenter {
             .map(UserQueryEvent::getQuery)
             .filter(query -> !query.trim().isEmpty())  // kick out empty queries
             .switchMap(query -> {
+                  getMetrics().counter(QUERY_COUNT).increment();
+                  AtomicLong queryTime = new AtomicLong(scheduler.now(TimeUnit.MILLISECONDS));
                   Observable<Trigger> oneTime = Trigger.oneTime();
+                  AtomicBoolean morePages = new AtomicBoolean();
                   return Observable.range(1, Integer.MAX_VALUE) // paging
-                      .concatMap(page ->
-                          oneTime // it will always attempt to populate the first page on start
-                              .mergeWith(view.loadMoreIntent$())
-                              .take(1)
-                              .doOnNext(trigger -> {
-                                view.enableLoadMore(false);
-                                if (page == 1) view.loadingFirstPage(true);
-                                // On page 1 users from previous query will be still displayed
-                                // until response or errors happens. When loadingFirstPage = true,
-                                // the UserViews of shown users will be disabled (grayed out and
-                                // protected from receiving clicks).
-                              })
-                              .flatMapSingle(trigger -> userService.find(query, page, pageSize))
-                              .doOnNext(result -> {
-                                if (hasNext(page, result, pageSize, userSearchLimit)) {
-                                  view.enableLoadMore(true);
-                                }
-                                if (page == 1) clearOnFirstPage(view);
-                              })
-                              .retry(throwable -> {
-                                Errors.onError(throwable);
+                      .concatMap(page -> {
+                        // users already displayed, in case of error in the middle of the page
+                        AtomicInteger displayed = new AtomicInteger();
+                        AtomicBoolean failed = new AtomicBoolean();
+                        // the result or error of this page already received at least once
+                        AtomicBoolean settled = new AtomicBoolean();
+                        Observable<Trigger> loadIntent$ = oneTime // it will always attempt to populate the first page on start
+                            .mergeWith(view.loadMoreIntent$())
+                            .doOnSubscribe(disposable -> {
+                              // "load more" is enabled again when retry policy resubscribes
+                              if (failed.getAndSet(false)) view.enableLoadMore(true);
+                            })
+                            .take(1)
+                            .doOnNext(trigger -> {
+                              view.enableLoadMore(false);
+                              if (page == 1) view.loadingFirstPage(true);
+                              // On page 1 users from previous query will be still displayed
+                              // until response or errors happens. When loadingFirstPage = true,
+                              // the UserViews of shown users will be disabled (grayed out and
+                              // protected from receiving clicks).
+                            });
+                        Single<SearchResultStream> request = find(userService, query, page, pageSize, null);
+                        Observable<List<User>> page$ = getRetryPolicy().apply(
+                            ((visibleRange$ != null) && (page > 1)
+                                ? prefetching(
+                                    loadIntent$,
+                                    request,
+                                    find(userService, query, page, pageSize, RequestPriority.PREFETCH),
+                                    visibleRange$.filter(range -> morePages.get()
+                                        && (range.getLast() >= (page - 1) * pageSize - 1 - prefetchDistance)))
+                                : loadIntent$.flatMapSingle(trigger -> request))
+                            .doOnNext(result -> {
+                              settled.set(true);
+                              morePages.set(hasNext(page, result, pageSize, userSearchLimit));
+                              if (morePages.get()) {
                                 view.enableLoadMore(true);
-                                if (page == 1) clearOnFirstPage(view);
-                                return true;
-                              })
-                      );
+                              }
+                              if (page == 1) displayedQuery = query;
+                              if ((page == 1) && (updater == null)) clearOnFirstPage(view);
+                            })
+                            .concatMap(result -> {
+                              long received = scheduler.now(TimeUnit.MILLISECONDS);
+                              Span rendering = getTracer().begin(PAGE_RENDERED)
+                                  .set("query", query)
+                                  .set("page", page);
+                              return (((page == 1) && (updater != null))
+                                  ? updateFirstPage(view, query, result, displayed, queryTime)
+                                  : result.getItems()
+                                  .skip(displayed.get())
+                                  .buffer(CHUNK_WINDOW_MILLIS, TimeUnit.MILLISECONDS, scheduler, pageSize)
+                                  .filter(users -> !users.isEmpty())
+                                  .doOnNext(users -> {
+                                    displayed.addAndGet(users.size());
+                                    render(view, users, queryTime);
+                                    refinement.remember(query, users);
+                                  })
+                                  .toObservable())
+                                  .doOnComplete(() -> {
+                                    getMetrics().histogram(PAGE_RENDER_TIME).record(
+                                        scheduler.now(TimeUnit.MILLISECONDS) - received
+                                    );
+                                    rendering.set("users", displayed.get()).end();
+                                  });
+                            })
+                            .doOnError(throwable -> {
+                              Errors.onError(throwable);
+                              settled.set(true);
+                              failed.set(true);
+                              if (page == 1) {
+                                clearOnFirstPage(view);
+                                displayed.set(0);
+                              }
+                            })
+                        ); // the retry will wait for the next load more intent
+                        // refined outside of the retry, so that provisional users are rendered
+                        // only once per query, and cleared with the first error
+                        return (page == 1) ? refining(view, query, page$, settled) : page$;
+                      });
                 },
                 1 // one page to prefetch
             )
-            .flatMapIterable(SearchResult::getItems)
-            .doOnNext(user -> view.add(newUserView(user)))
     );
+    if (window != null) {
+      register(
+          ((WindowedUserListView) view).visibleRange$()
+              .doOnNext(window::setVisibleRange)
+      );
+    }
   }
 
   @Override
   public void stop() {
     super.stop();
-    clearActiveUserPresenters();
+    for (Presenter presenter : activeUserPresenters) {
+      presenter.stop();
+    }
+    activeUserPresenters.clear();
+    if (window != null) {
+      window.stop();
+    }
+    pool.clear();
+    refinement.clear();
+  }
+
+  public long getPrefetchedPageCount() {
+    return prefetchedPageCount.get();
+  }
+
+  public long getUnusedPrefetchedPageCount() {
+    return unusedPrefetchedPageCount.get();
+  }
+
+  /**
+   * Requests the page with the {@code prefetchRequest} as soon as the
+   * {@code nearEnd$} emits, buffering all the users, so they can be displayed
+   * at once on the load intent. If the load intent comes first, the page is
+   * just requested.
+   */
+  private Observable<SearchResultStream> prefetching(
+      Observable<Trigger> loadIntent$,
+      Single<SearchResultStream> request,
+      Single<SearchResultStream> prefetchRequest,
+      Observable<IndexRange> nearEnd$
+  ) {
+    return Observable.defer(() -> {
+      AtomicBoolean prefetched = new AtomicBoolean();
+      AtomicBoolean loaded = new AtomicBoolean();
+      CompositeDisposable connection = new CompositeDisposable();
+      Observable<SearchResultStream> prefetch$ = prefetchRequest
+          .flatMap(result -> result.getItems()
+              .toList()
+              .map(users -> new SearchResultStream(
+                  result.getTotalCount(),
+                  result.isIncompleteResult(),
+                  Flowable.fromIterable(users)
+              ))
+          )
+          .toObservable()
+          .replay(1)
+          .autoConnect(1, connection::add);
+      Observable<SearchResultStream> warmUp$ = nearEnd$
+          .filter(range -> !loaded.get())
+          .take(1)
+          .doOnNext(range -> {
+            prefetched.set(true);
+            prefetchedPageCount.incrementAndGet();
+          })
+          .flatMap(range -> prefetch$)
+          .ignoreElements()
+          .toObservable();
+      return loadIntent$
+          .doOnNext(trigger -> loaded.set(true))
+          .flatMapSingle(trigger -> prefetched.get() ? prefetch$.singleOrError() : request)
+          .publish(result$ -> result$.mergeWith(warmUp$.takeUntil(result$)))
+          .doFinally(() -> {
+            connection.dispose();
+            if (prefetched.get() && !loaded.get()) {
+              unusedPrefetchedPageCount.incrementAndGet();
+            }
+          });
+    });
+  }
+
+  /**
+   * Displays the provisional results of the {@link UserListRefinement}
+   * if the first page is not {@code settled} at once after subscribing
+   * to the {@code page$}.
+   */
+  private <T> Observable<T> refining(
+      UserListView view,
+      String query,
+      Observable<T> page$,
+      AtomicBoolean settled
+  ) {
+    return Observable.create(emitter -> {
+      emitter.setDisposable(page$.subscribe(emitter::onNext, emitter::onError, emitter::onComplete));
+      if (!emitter.isDisposed() && !settled.get()) {
+        List<User> provisional = refinement.refine(query);
+        if ((provisional != null) && !provisional.isEmpty()) {
+          getMetrics().counter(PROVISIONAL_RENDER).increment();
+          renderProvisional(view, provisional);
+        }
+      }
+    });
+  }
+
+  private void renderProvisional(UserListView view, List<User> users) {
+    if (updater != null) {
+      updater.update(activeUserPresenters, users);
+      return;
+    }
+    clearOnFirstPage(view);
+    if (window != null) {
+      window.addAll(users);
+    } else {
+      view.addAll(newUserViews(users));
+    }
+    view.loadingFirstPage(true); // still waiting for the actual results
+  }
+
+  private Observable<List<User>> updateFirstPage(
+      UserListView view,
+      String query,
+      SearchResultStream result,
+      AtomicInteger displayed,
+      AtomicLong queryTime
+  ) {
+    return result.getItems()
+        .toList()
+        .doOnSuccess(users -> {
+          view.loadingFirstPage(false);
+          updater.update(activeUserPresenters, users);
+          refinement.remember(query, users);
+          displayed.set(users.size());
+          if (!users.isEmpty()) onFirstUserRendered(queryTime);
+        })
+        .toCompletable()
+        .toObservable();
+  }
+
+  private void render(UserListView view, List<User> users, AtomicLong queryTime) {
+    if (window != null) {
+      window.addAll(users);
+    } else {
+      view.addAll(newUserViews(users));
+    }
+    onFirstUserRendered(queryTime);
+  }
+
+  private void onFirstUserRendered(AtomicLong queryTime) {
+    long start = queryTime.getAndSet(-1);
+    if (start >= 0) {
+      getMetrics().histogram(TIME_TO_FIRST_USER).record(
+          scheduler.now(TimeUnit.MILLISECONDS) - start
+      );
+    }
   }
 
   private void clearOnFirstPage(UserListView view) {
     view.loadingFirstPage(false);
     view.clear();
-    clearActiveUserPresenters();
-  }
-
-  private void clearActiveUserPresenters() {
-    for (Presenter presenter : activeUserPresenters) {
-      presenter.stop();
+    for (UserPresenter presenter : activeUserPresenters) {
+      pool.release(presenter);
     }
     activeUserPresenters.clear();
+    if (window != null) {
+      window.clear();
+    }
+  }
+
+  private Single<SearchResultStream> find(
+      UserService userService,
+      String query,
+      int page,
+      int pageSize,
+      RequestPriority priority // null if derived by the service
+  ) {
+    return Single.defer(() -> {
+      Span span = getTracer().begin(SEARCH_REQUEST)
+          .set("query", query)
+          .set("page", page)
+          .set("size", pageSize)
+          .set("outcome", "cancelled");
+      return ((priority != null) // prioritized pages are prefetched, not streamed
+          ? userService.find(query, page, pageSize, priority).map(SearchResultStream::of)
+          : (userService instanceof StreamingUserService)
+          ? ((StreamingUserService) userService).findStream(query, page, pageSize)
+          : userService.find(query, page, pageSize).map(SearchResultStream::of))
+          .doOnSuccess(result -> span.set("outcome", "success"))
+          .doOnError(throwable -> span.set("outcome", "error"))
+          .doFinally(span::end);
+    });
   }
 
   private static boolean hasNext(
       int page,
-      SearchResult result,
+      SearchResultStream result,
       int pageSize,
       int elementLimit
   ) {
-    int currentCount = (
-        ((page - 1) * pageSize)
-            + result.getItems().size()
-    );
+    // the actual item count is not known before the page is streamed
+    int currentCount = page * pageSize;
     return (
         (currentCount < result.getTotalCount())
             && (currentCount < elementLimit)
     );
   }
 
-  private UserView newUserView(User user) {
-    UserPresenter presenter = userPresenterFactory.create(user);
-    activeUserPresenters.add(presenter);
-    presenter.start();
-    return presenter.getView();
+  private List<UserView> newUserViews(List<User> users) {
+    List<UserView> userViews = new ArrayList<>(users.size());
+    for (User user : users) {
+      UserPresenter presenter = pool.acquire(user);
+      activeUserPresenters.add(presenter);
+      userViews.add(presenter.getView());
+    }
+    return userViews;
   }
 
 }
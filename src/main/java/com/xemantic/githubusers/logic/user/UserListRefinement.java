@@ -0,0 +1,127 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.user;
+
+import com.xemantic.githubusers.logic.model.User;
+import com.xemantic.githubusers.logic.service.SearchRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Refines locally the users displayed for the previous query, when the user
+ * keeps typing. If the new query extends the previous one, like
+ * {@code "linus"} extends {@code "linu"}, the users it will find are usually
+ * among those already found, therefore they can be shown before the actual
+ * results arrive. Only users having every term of the new query in their
+ * login are kept, as the other fields matched by GitHub search are not known.
+ * Queries with qualifiers, like {@code "location:poland"}, or quoted phrases
+ * are not refined.
+ * <p>
+ * Thread safe.
+ * </p>
+ *
+ * @author morisil
+ */
+class UserListRefinement {
+
+  private final int maxUsers;
+
+  private final List<User> users = new ArrayList<>();
+
+  private String query = null;
+
+  /**
+   * Creates the refinement.
+   *
+   * @param maxUsers the maximal number of displayed users to remember,
+   *                 the first ones are the most relevant.
+   */
+  UserListRefinement(int maxUsers) {
+    this.maxUsers = maxUsers;
+  }
+
+  /**
+   * Remembers the users displayed for the query. Users of the previous query
+   * are forgotten.
+   *
+   * @param query the query.
+   * @param displayed the users displayed, following the ones remembered so far.
+   */
+  synchronized void remember(String query, List<User> displayed) {
+    String normalized = SearchRequest.normalizeQuery(query);
+    if (!normalized.equals(this.query)) {
+      this.query = normalized;
+      users.clear();
+    }
+    for (int i = 0; (i < displayed.size()) && (users.size() < maxUsers); i++) {
+      users.add(displayed.get(i));
+    }
+  }
+
+  /**
+   * Returns the remembered users matching the query extending the remembered one.
+   *
+   * @param query the new query.
+   * @return the provisional users, or {@code null} if the query cannot be refined locally.
+   */
+  synchronized List<User> refine(String query) {
+    String normalized = SearchRequest.normalizeQuery(query);
+    if ((this.query == null)
+        || (normalized.length() <= this.query.length())
+        || !normalized.startsWith(this.query)
+        || (normalized.indexOf(':') >= 0)
+        || (normalized.indexOf('"') >= 0)) {
+      return null;
+    }
+    String[] terms = normalized.split(" ");
+    List<User> refined = new ArrayList<>();
+    for (User user : users) {
+      if (matches(user, terms)) {
+        refined.add(user);
+      }
+    }
+    return refined;
+  }
+
+  synchronized void clear() {
+    query = null;
+    users.clear();
+  }
+
+  private static boolean matches(User user, String[] terms) {
+    String login = user.getLogin();
+    if (login == null) {
+      return false;
+    }
+    String normalizedLogin = login.toLowerCase(Locale.ROOT);
+    for (String term : terms) {
+      if (!normalizedLogin.contains(term)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+}
@@ -0,0 +1,177 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.user;
+
+import com.xemantic.githubusers.logic.model.User;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Updates the {@link UpdatableUserListView} to display new list of users.
+ * Users are matched by login. The rows of users which are not present anymore
+ * are removed, each contiguous range of them at once, while the rows of users already displayed in the right order
+ * (the longest increasing subsequence of their new indices) stay untouched.
+ * All the other displayed users are moved, and the new ones inserted.
+ * If none of the displayed users is present in the new list, the view
+ * is just cleared.
+ *
+ * @author morisil
+ */
+class UserListUpdater {
+
+  private final UpdatableUserListView view;
+
+  private final UserPresenterPool pool;
+
+  UserListUpdater(UpdatableUserListView view, UserPresenterPool pool) {
+    this.view = view;
+    this.pool = pool;
+  }
+
+  /**
+   * Updates the view and the list of its presenters.
+   *
+   * @param rows the presenters of displayed users, in order, to be updated.
+   * @param users the users to display.
+   */
+  void update(List<UserPresenter> rows, List<User> users) {
+    Map<String, Integer> targets = new HashMap<>();
+    for (int i = 0; i < users.size(); i++) {
+      String login = users.get(i).getLogin();
+      if (!targets.containsKey(login)) {
+        targets.put(login, i);
+      }
+    }
+    Map<String, UserPresenter> survivors = new HashMap<>();
+    boolean[] removed = new boolean[rows.size()];
+    for (int i = 0; i < rows.size(); i++) {
+      String login = rows.get(i).getUser().getLogin();
+      if (targets.containsKey(login) && !survivors.containsKey(login)) {
+        survivors.put(login, rows.get(i));
+      } else {
+        removed[i] = true;
+      }
+    }
+    if (survivors.isEmpty()) {
+      replace(rows, users);
+      return;
+    }
+    for (int end = rows.size(); end > 0; end--) {
+      if (removed[end - 1]) {
+        int start = end - 1;
+        while ((start > 0) && removed[start - 1]) {
+          start--;
+        }
+        view.remove(start, end - start);
+        List<UserPresenter> range = rows.subList(start, end);
+        for (UserPresenter presenter : range) {
+          pool.release(presenter);
+        }
+        range.clear();
+        end = start + 1;
+      }
+    }
+    Set<UserPresenter> stable = longestIncreasingSubsequence(rows, targets);
+    UserPresenter previous = null;
+    for (int i = 0; i < users.size(); i++) {
+      User user = users.get(i);
+      UserPresenter presenter = (targets.get(user.getLogin()) == i)
+          ? survivors.get(user.getLogin())
+          : null; // duplicate login is displayed again
+      int position = (previous == null) ? 0 : rows.indexOf(previous) + 1;
+      if (presenter == null) {
+        presenter = pool.acquire(user);
+        rows.add(position, presenter);
+        view.insert(position, presenter.getView());
+      } else if (!stable.contains(presenter)) {
+        int from = rows.indexOf(presenter);
+        int to = (from < position) ? position - 1 : position;
+        if (from != to) {
+          rows.add(to, rows.remove(from));
+          view.move(from, to);
+        }
+      }
+      previous = presenter;
+    }
+  }
+
+  private void replace(List<UserPresenter> rows, List<User> users) {
+    view.clear();
+    for (UserPresenter presenter : rows) {
+      pool.release(presenter);
+    }
+    rows.clear();
+    List<UserView> userViews = new ArrayList<>(users.size());
+    for (User user : users) {
+      UserPresenter presenter = pool.acquire(user);
+      rows.add(presenter);
+      userViews.add(presenter.getView());
+    }
+    if (!userViews.isEmpty()) {
+      view.addAll(userViews);
+    }
+  }
+
+  private static Set<UserPresenter> longestIncreasingSubsequence(
+      List<UserPresenter> rows,
+      Map<String, Integer> targets
+  ) {
+    int size = rows.size();
+    int[] tails = new int[size]; // row index ending the subsequence of given length
+    int[] previous = new int[size];
+    int length = 0;
+    for (int i = 0; i < size; i++) {
+      int target = target(rows, i, targets);
+      int low = 0;
+      int high = length;
+      while (low < high) {
+        int middle = (low + high) >>> 1;
+        if (target(rows, tails[middle], targets) < target) {
+          low = middle + 1;
+        } else {
+          high = middle;
+        }
+      }
+      previous[i] = (low > 0) ? tails[low - 1] : -1;
+      tails[low] = i;
+      if (low == length) {
+        length++;
+      }
+    }
+    Set<UserPresenter> subsequence = new HashSet<>();
+    for (int i = (length > 0) ? tails[length - 1] : -1; i >= 0; i = previous[i]) {
+      subsequence.add(rows.get(i));
+    }
+    return subsequence;
+  }
+
+  private static int target(List<UserPresenter> rows, int index, Map<String, Integer> targets) {
+    return targets.get(rows.get(index).getUser().getLogin());
+  }
+
+}
@@ -25,6 +25,8 @@ package com.xemantic.githubusers.logic.user;
 import com.xemantic.ankh.shared.event.Trigger;
 import io.reactivex.Observable;
 
+import java.util.List;
+
 /**
  * Displays list of {@link UserView}s.
  *
@@ -34,6 +36,19 @@ public interface UserListView {
 
   void add(UserView userView);
 
+  /**
+   * Adds several {@link UserView}s at once, allowing the platform to
+   * update the layout only once. The default implementation adds them
+   * one by one.
+   *
+   * @param userViews the user views to add.
+   */
+  default void addAll(List<UserView> userViews) {
+    for (UserView userView : userViews) {
+      add(userView);
+    }
+  }
+
   void clear();
 
   Observable<Trigger> loadMoreIntent$();
@@ -29,6 +29,8 @@ import com.xemantic.ankh.shared.presenter.Presenter;
 import com.xemantic.githubusers.logic.event.UserSelectedEvent;
 import com.xemantic.githubusers.logic.model.User;
 
+import java.util.Objects;
+
 /**
  * Presenter of the {@link UserView}.
  *
@@ -38,23 +40,41 @@ public class UserPresenter extends Presenter {
 
   private final UserView view;
 
+  private User user;
+
   @AutoFactory(allowSubclasses = true) // testable with mockito
   public UserPresenter(
       @Provided UserView view,
       @Provided Sink<UserSelectedEvent> userSelectedSink,
       User user
   ) {
-    super(
+    this.view = view;
+    this.user = Objects.requireNonNull(user);
+    register(
         view.userSelection$()
-            .map(trigger -> new UserSelectedEvent(user))
+            .map(trigger -> new UserSelectedEvent(this.user))
             .doOnNext(userSelectedSink::publish)
     );
-    onStart(() -> view.displayUser(user));
-    this.view = view;
+    onStart(() -> view.displayUser(this.user));
+  }
+
+  /**
+   * Rebinds already started presenter to another user, reusing
+   * its view and subscriptions.
+   *
+   * @param user the user to display.
+   */
+  public void bind(User user) {
+    this.user = Objects.requireNonNull(user);
+    view.displayUser(user);
   }
 
   public UserView getView() {
     return view;
   }
 
+  public User getUser() {
+    return user;
+  }
+
 }
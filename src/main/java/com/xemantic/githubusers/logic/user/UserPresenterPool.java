@@ -0,0 +1,116 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.user;
+
+import com.xemantic.githubusers.logic.model.User;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Pool of started {@link UserPresenter}s. Released presenters stay started,
+ * and are {@link UserPresenter#bind(User) rebound} to another user when
+ * acquired again, reusing their views and subscriptions instead of
+ * allocating new ones for each displayed user.
+ *
+ * @author morisil
+ */
+class UserPresenterPool {
+
+  private final UserPresenterFactory userPresenterFactory;
+
+  private final int capacity;
+
+  private final Deque<UserPresenter> idlePresenters = new ArrayDeque<>();
+
+  private long createdCount = 0;
+
+  private long reusedCount = 0;
+
+  /**
+   * Creates the pool.
+   *
+   * @param userPresenterFactory the factory of new presenters.
+   * @param capacity the maximal number of idle presenters kept in the pool.
+   */
+  UserPresenterPool(UserPresenterFactory userPresenterFactory, int capacity) {
+    this.userPresenterFactory = userPresenterFactory;
+    this.capacity = capacity;
+  }
+
+  /**
+   * Provides started presenter displaying given user.
+   *
+   * @param user the user.
+   * @return the presenter.
+   */
+  UserPresenter acquire(User user) {
+    UserPresenter presenter = idlePresenters.pollLast();
+    if (presenter != null) {
+      reusedCount++;
+      presenter.bind(user);
+    } else {
+      createdCount++;
+      presenter = userPresenterFactory.create(user);
+      presenter.start();
+    }
+    return presenter;
+  }
+
+  /**
+   * Returns presenter to the pool. The presenter's view should not be
+   * displayed anymore. If the pool is full, the presenter is stopped.
+   *
+   * @param presenter the presenter.
+   */
+  void release(UserPresenter presenter) {
+    if (idlePresenters.size() < capacity) {
+      idlePresenters.addLast(presenter);
+    } else {
+      presenter.stop();
+    }
+  }
+
+  /**
+   * Stops all the idle presenters.
+   */
+  void clear() {
+    for (UserPresenter presenter : idlePresenters) {
+      presenter.stop();
+    }
+    idlePresenters.clear();
+  }
+
+  int getIdleCount() {
+    return idlePresenters.size();
+  }
+
+  long getCreatedCount() {
+    return createdCount;
+  }
+
+  long getReusedCount() {
+    return reusedCount;
+  }
+
+}
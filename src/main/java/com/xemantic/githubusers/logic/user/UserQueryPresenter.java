@@ -29,21 +29,28 @@ import com.xemantic.githubusers.logic.event.UserQueryEvent;
 import javax.inject.Inject;
 
 /**
- * Presenter of the {@link UserQueryView}.
+ * Presenter of the {@link UserQueryView}. Each published query is traced
+ * as the {@code userQuery} span.
  *
  * @author morisil
  */
 public class UserQueryPresenter extends Presenter {
 
+  private static final String USER_QUERY = "userQuery";
+
   @Inject
   public UserQueryPresenter(
       UserQueryView view,
-      Sink<UserQueryEvent> userQuerySink
+      Sink<UserQueryEvent> userQuerySink,
+      UserQueryShaper queryShaper
   ) {
-    super(
-        view.queryInput$().doOnNext(query ->
-            userQuerySink.publish(new UserQueryEvent(query))
-        )
+    register(
+        view.queryInput$()
+            .compose(queryShaper)
+            .doOnNext(query -> {
+              getTracer().begin(USER_QUERY).set("query", query).end();
+              userQuerySink.publish(new UserQueryEvent(query));
+            })
     );
   }
 
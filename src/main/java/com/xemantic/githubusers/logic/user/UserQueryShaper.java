@@ -0,0 +1,127 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.user;
+
+import com.xemantic.githubusers.logic.service.QueryHeavyHitters;
+import com.xemantic.githubusers.logic.service.SearchRequest;
+import com.xemantic.githubusers.logic.service.UserServiceLatency;
+import io.reactivex.Observable;
+import io.reactivex.ObservableSource;
+import io.reactivex.ObservableTransformer;
+import io.reactivex.Scheduler;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shapes the stream of raw query input before it becomes a search.
+ * The query is normalised like in the {@link SearchRequest#normalizeQuery(String)},
+ * repeated queries are dropped, and the rest is debounced. The debounce window
+ * follows half of the average {@link UserServiceLatency}, kept within
+ * configured bounds - the slower the service, the more it pays off to wait
+ * until the user stops typing. The max window of {@code 0} disables
+ * debouncing. Published queries are recorded in the {@link QueryHeavyHitters},
+ * so that the popular ones can be kept warm in the cache.
+ * <p>
+ * Note: queries are emitted on the supplied {@link Scheduler}, which
+ * should be the UI thread scheduler of given platform.
+ * </p>
+ *
+ * @author morisil
+ */
+public class UserQueryShaper implements ObservableTransformer<String, String> {
+
+  private final UserServiceLatency latency;
+
+  private final QueryHeavyHitters heavyHitters;
+
+  private final Scheduler scheduler;
+
+  private final long minDebounce;
+
+  private final long maxDebounce;
+
+  private final AtomicLong receivedCount = new AtomicLong();
+
+  private final AtomicLong publishedCount = new AtomicLong();
+
+  @Inject
+  public UserQueryShaper(
+      UserServiceLatency latency,
+      QueryHeavyHitters heavyHitters,
+      @Named("userQueryScheduler") Scheduler scheduler,
+      @Named("userQueryMinDebounceMillis") int minDebounce,
+      @Named("userQueryMaxDebounceMillis") int maxDebounce
+  ) {
+    this.latency = Objects.requireNonNull(latency);
+    this.heavyHitters = Objects.requireNonNull(heavyHitters);
+    this.scheduler = Objects.requireNonNull(scheduler);
+    this.minDebounce = minDebounce;
+    this.maxDebounce = maxDebounce;
+  }
+
+  @Override
+  public ObservableSource<String> apply(Observable<String> queryInput$) {
+    return queryInput$
+        .doOnNext(query -> receivedCount.incrementAndGet())
+        .map(SearchRequest::normalizeQuery)
+        .distinctUntilChanged()
+        .switchMap(this::debounce) // newer query cancels the pending one
+        .distinctUntilChanged() // typed and deleted again within the window
+        .doOnNext(this::publish);
+  }
+
+  /**
+   * Returns the number of queries which were not published thanks to the shaping,
+   * therefore the number of avoided search requests.
+   *
+   * @return the number of avoided requests.
+   */
+  public long getRequestsAvoided() {
+    return receivedCount.get() - publishedCount.get();
+  }
+
+  public long getDebounceWindowMillis() {
+    long window = latency.getAverageMillis() / 2;
+    return Math.min(maxDebounce, Math.max(minDebounce, window));
+  }
+
+  private void publish(String query) {
+    publishedCount.incrementAndGet();
+    if (!query.isEmpty()) {
+      heavyHitters.record(query);
+    }
+  }
+
+  private Observable<String> debounce(String query) {
+    long window = getDebounceWindowMillis();
+    Observable<String> query$ = Observable.just(query);
+    return (window <= 0)
+        ? query$
+        : query$.delay(window, TimeUnit.MILLISECONDS, scheduler);
+  }
+
+}
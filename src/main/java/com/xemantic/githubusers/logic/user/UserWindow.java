@@ -0,0 +1,273 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.user;
+
+import com.xemantic.ankh.shared.error.Errors;
+import com.xemantic.githubusers.logic.model.User;
+import io.reactivex.Single;
+import io.reactivex.disposables.Disposable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps {@link UserPresenter}s alive only for the users within visible
+ * range of the {@link WindowedUserListView} extended by the margin on both
+ * sides. Presenters leaving the window are stopped and released, therefore
+ * the number of live presenters does not depend on the number of loaded users.
+ * Released presenters are returned to the {@link UserPresenterPool}.
+ * <p>
+ * If {@code maxPages} is positive, also the number of pages of {@link User}s
+ * kept in memory is limited. When it is exceeded, the page most distant from
+ * the window is evicted, and it is loaded again with the {@link PageLoader}
+ * when the window reaches it, while the view displays placeholders.
+ * Pages within the window and the last page are never evicted. The page
+ * loaded again might differ, e.g. when the search results changed in the
+ * meantime. Its users are bound as loaded, while the rows beyond its size,
+ * if it got shorter, keep displaying placeholders.
+ * </p>
+ *
+ * @author morisil
+ */
+class UserWindow {
+
+  /**
+   * Loads the page of currently displayed users again.
+   */
+  interface PageLoader {
+
+    /**
+     * Loads the page.
+     *
+     * @param page the page number, starting with {@code 1}.
+     * @return the users of the page.
+     */
+    Single<List<User>> load(int page);
+
+  }
+
+  private final WindowedUserListView view;
+
+  private final UserPresenterPool pool;
+
+  private final int margin;
+
+  private final int pageSize;
+
+  private final int maxPages;
+
+  private final PageLoader pageLoader;
+
+  private final List<List<User>> pages = new ArrayList<>(); // null if evicted
+
+  private final Map<Integer, Disposable> loadingPages = new HashMap<>();
+
+  private final Map<Integer, UserPresenter> activePresenters = new HashMap<>();
+
+  private IndexRange visibleRange = new IndexRange(0, 0);
+
+  private int userCount = 0;
+
+  private int loadedPageCount = 0;
+
+  private long reloadedPageCount = 0;
+
+  UserWindow(
+      WindowedUserListView view,
+      UserPresenterPool pool,
+      int margin,
+      int pageSize,
+      int maxPages,
+      PageLoader pageLoader
+  ) {
+    this.view = view;
+    this.pool = pool;
+    this.margin = margin;
+    this.pageSize = pageSize;
+    this.maxPages = maxPages;
+    this.pageLoader = pageLoader;
+  }
+
+  void addAll(List<User> addedUsers) {
+    int start = userCount;
+    for (User user : addedUsers) {
+      int page = userCount / pageSize;
+      if (page == pages.size()) {
+        pages.add(new ArrayList<>(pageSize));
+        loadedPageCount++;
+      }
+      pages.get(page).add(user);
+      userCount++;
+    }
+    view.setUserCount(userCount);
+    for (int index = start; index < userCount; index++) {
+      if (isInWindow(index)) {
+        activate(index);
+      }
+    }
+    evictPages();
+  }
+
+  void setVisibleRange(IndexRange range) {
+    visibleRange = range;
+    Iterator<Map.Entry<Integer, UserPresenter>> iterator = activePresenters.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<Integer, UserPresenter> entry = iterator.next();
+      int index = entry.getKey();
+      if (!isInWindow(index)) {
+        iterator.remove();
+        view.unbind(index);
+        pool.release(entry.getValue());
+      }
+    }
+    int last = Math.min(range.getLast() + margin, userCount - 1);
+    for (int index = Math.max(0, range.getFirst() - margin); index <= last; index++) {
+      if (!activePresenters.containsKey(index)) {
+        activate(index);
+      }
+    }
+    evictPages();
+  }
+
+  /**
+   * Returns all the active presenters to the pool and forgets all the users.
+   * Supposed to be called when the view is cleared.
+   */
+  void clear() {
+    for (UserPresenter presenter : activePresenters.values()) {
+      pool.release(presenter);
+    }
+    activePresenters.clear();
+    cancelLoading();
+    pages.clear();
+    userCount = 0;
+    loadedPageCount = 0;
+  }
+
+  /**
+   * Stops all the active presenters.
+   */
+  void stop() {
+    for (UserPresenter presenter : activePresenters.values()) {
+      presenter.stop();
+    }
+    activePresenters.clear();
+    cancelLoading();
+  }
+
+  int getActivePresenterCount() {
+    return activePresenters.size();
+  }
+
+  int getLoadedPageCount() {
+    return loadedPageCount;
+  }
+
+  long getReloadedPageCount() {
+    return reloadedPageCount;
+  }
+
+  private boolean isInWindow(int index) {
+    return (index >= (visibleRange.getFirst() - margin))
+        && (index <= (visibleRange.getLast() + margin));
+  }
+
+  private void activate(int index) {
+    List<User> users = pages.get(index / pageSize);
+    if (users == null) {
+      load(index / pageSize);
+      return;
+    }
+    int offset = index % pageSize;
+    if (offset >= users.size()) {
+      return; // the page loaded again is shorter, the placeholder stays
+    }
+    UserPresenter presenter = pool.acquire(users.get(offset));
+    activePresenters.put(index, presenter);
+    view.bind(index, presenter.getView());
+  }
+
+  private void load(int page) {
+    if (loadingPages.containsKey(page)) {
+      return;
+    }
+    reloadedPageCount++;
+    Disposable disposable = pageLoader.load(page + 1).subscribe(
+        users -> {
+          loadingPages.remove(page);
+          pages.set(page, new ArrayList<>(users));
+          loadedPageCount++;
+          int last = Math.min((page + 1) * pageSize, userCount) - 1;
+          for (int index = page * pageSize; index <= last; index++) {
+            if (isInWindow(index) && !activePresenters.containsKey(index)) {
+              activate(index);
+            }
+          }
+          evictPages();
+        },
+        throwable -> {
+          loadingPages.remove(page); // will be loaded again when the window moves
+          Errors.onError(throwable);
+        }
+    );
+    if (!disposable.isDisposed()) { // not loaded synchronously
+      loadingPages.put(page, disposable);
+    }
+  }
+
+  private void evictPages() {
+    if (maxPages <= 0) {
+      return;
+    }
+    int firstInWindow = Math.max(0, visibleRange.getFirst() - margin) / pageSize;
+    int lastInWindow = Math.max(0, visibleRange.getLast() + margin) / pageSize;
+    int lastPage = pages.size() - 1;
+    while (loadedPageCount > maxPages) {
+      int evicted = -1;
+      int maxDistance = 0;
+      for (int page = 0; page < lastPage; page++) {
+        int distance = (page < firstInWindow) ? firstInWindow - page : page - lastInWindow;
+        if ((pages.get(page) != null) && (distance > maxDistance)) {
+          evicted = page;
+          maxDistance = distance;
+        }
+      }
+      if (evicted == -1) {
+        return; // everything left is within the window
+      }
+      pages.set(evicted, null);
+      loadedPageCount--;
+    }
+  }
+
+  private void cancelLoading() {
+    for (Disposable disposable : loadingPages.values()) {
+      disposable.dispose();
+    }
+    loadingPages.clear();
+  }
+
+}
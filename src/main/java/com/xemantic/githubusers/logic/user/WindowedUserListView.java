@@ -0,0 +1,55 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.user;
+
+/**
+ * {@link UserListView} virtualizing its content, like {@code RecyclerView}
+ * on Android or {@code UITableView} on iOS. If the view implements this
+ * interface, the {@link UserListPresenter} will keep {@link UserPresenter}s
+ * alive only for the users within {@link #visibleRange$() visible range}
+ * plus a margin, while {@link #add(UserView)} will not be called at all.
+ *
+ * @author morisil
+ */
+public interface WindowedUserListView extends ScrollingUserListView {
+
+  /**
+   * Sets the number of all the users in the list, including the ones which
+   * are not {@link #bind(int, UserView) bound}, and should be displayed
+   * as placeholders.
+   *
+   * @param count the user count.
+   */
+  void setUserCount(int count);
+
+  void bind(int index, UserView userView);
+
+  /**
+   * Releases the {@link UserView} previously bound at given index, which
+   * is no longer within the window.
+   *
+   * @param index the index.
+   */
+  void unbind(int index);
+
+}
@@ -24,6 +24,8 @@ package com.xemantic.ankh.shared.error;
 
 import com.xemantic.ankh.shared.event.Sink;
 import com.xemantic.ankh.shared.event.SnackbarMessageEvent;
+import com.xemantic.ankh.test.RecordingMetrics;
+import com.xemantic.ankh.test.RecordingTracer;
 import io.reactivex.Maybe;
 import org.junit.Rule;
 import org.junit.Test;
@@ -61,6 +63,10 @@ public class AnkhExceptionHandlerTest {
   @Mock
   private Sink<SnackbarMessageEvent> snackbarMessageSink;
 
+  private final RecordingMetrics metrics = new RecordingMetrics();
+
+  private final RecordingTracer tracer = new RecordingTracer();
+
   @Captor
   private ArgumentCaptor<SnackbarMessageEvent> snackbarMessageEventCaptor;
 
@@ -72,7 +78,9 @@ public class AnkhExceptionHandlerTest {
     AnkhExceptionHandler handler = new AnkhExceptionHandler(
         logger,
         errorMessageProvider,
-        snackbarMessageSink
+        snackbarMessageSink,
+        metrics,
+        tracer
     );
 
     // when
@@ -82,6 +90,11 @@ public class AnkhExceptionHandlerTest {
     verify(logger).log(Level.SEVERE, "Uncaught Exception", exception);
     verify(errorMessageProvider).getMessage(exception);
     assertThat(snackbarMessageEventCaptor.getAllValues()).isEmpty();
+    assertThat(metrics.getCount("errors")).isEqualTo(1);
+    assertThat(metrics.getCount("errors.Exception")).isEqualTo(1);
+    assertThat(tracer.getSpans("error"))
+        .extracting(span -> span.getAttributes().get("type"))
+        .containsExactly("java.lang.Exception");
     verifyNoMoreInteractions(
         errorMessageProvider,
         snackbarMessageSink
@@ -96,7 +109,9 @@ public class AnkhExceptionHandlerTest {
     AnkhExceptionHandler handler = new AnkhExceptionHandler(
         logger,
         errorMessageProvider,
-        snackbarMessageSink
+        snackbarMessageSink,
+        metrics,
+        tracer
     );
 
     // when
@@ -23,7 +23,10 @@
 package com.xemantic.ankh.shared.presenter;
 
 import com.xemantic.ankh.test.ExpectedUncaughtException;
+import com.xemantic.ankh.test.RecordingMetrics;
+import com.xemantic.ankh.shared.retry.BackoffRetryPolicy;
 import io.reactivex.functions.Consumer;
+import io.reactivex.schedulers.TestScheduler;
 import io.reactivex.subjects.PublishSubject;
 import org.junit.Rule;
 import org.junit.Test;
@@ -34,6 +37,10 @@ import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 import org.mockito.quality.Strictness;
 
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
 /**
@@ -221,4 +228,57 @@ public class PresenterTest {
     verifyNoMoreInteractions(consumer);
   }
 
+  @Test
+  public void start_errorWhileObservingEventsWithBackoffRetryPolicy_shouldResubscribeAfterDelay() throws Exception {
+    // given
+    PublishSubject<String> subject = PublishSubject.create();
+    class TestPresenter extends Presenter {
+      private TestPresenter() {
+        super(
+            subject
+                .doOnNext(value -> { if (value.equals("error")) { throw new Exception("bar"); } })
+                .doOnNext(consumer)
+        );
+      }
+    }
+    TestScheduler scheduler = new TestScheduler();
+    TestPresenter presenter = new TestPresenter();
+    presenter.setRetryPolicy(new BackoffRetryPolicy(1000, 1000, 0, 0, new Random(), scheduler));
+    presenter.start();
+    uncaughtThrown.expect(Exception.class);
+    uncaughtThrown.expectMessage("bar");
+
+    // when
+    subject.onNext("error");
+    subject.onNext("foo");
+    scheduler.advanceTimeBy(1000, TimeUnit.MILLISECONDS);
+    subject.onNext("buzz");
+
+    // then
+    verify(consumer).accept("buzz");
+    verifyNoMoreInteractions(consumer);
+  }
+
+  @Test
+  public void lifecycle_metricsSet_shouldCountStartsAndStops() {
+    // given
+    class TestPresenter extends Presenter {
+      private TestPresenter() {
+        super();
+      }
+    }
+    TestPresenter presenter = new TestPresenter();
+    RecordingMetrics metrics = new RecordingMetrics();
+    presenter.setMetrics(metrics);
+
+    // when
+    presenter.start();
+    presenter.stop();
+    presenter.start();
+
+    // then
+    assertThat(metrics.getCount("presenter.start")).isEqualTo(2);
+    assertThat(metrics.getCount("presenter.stop")).isEqualTo(1);
+  }
+
 }
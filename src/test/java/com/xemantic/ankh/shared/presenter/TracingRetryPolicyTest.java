@@ -0,0 +1,106 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.ankh.shared.presenter;
+
+import com.xemantic.ankh.shared.retry.RetryPolicy;
+import com.xemantic.ankh.test.RecordingTracer;
+import io.reactivex.Observable;
+import io.reactivex.observers.TestObserver;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Test of the {@link TracingRetryPolicy}.
+ *
+ * @author morisil
+ */
+public class TracingRetryPolicyTest {
+
+  private final RecordingTracer tracer = new RecordingTracer();
+
+  @Test
+  public void apply_sourceFailingTwice_shouldTraceEachRetry() {
+    // given
+    AtomicInteger subscriptions = new AtomicInteger();
+    Observable<String> source = Observable.defer(() ->
+        (subscriptions.incrementAndGet() <= 2)
+            ? Observable.error(new IllegalStateException())
+            : Observable.just("foo")
+    );
+    TracingRetryPolicy policy = new TracingRetryPolicy(RetryPolicy.always(), tracer, "FooPresenter");
+
+    // when
+    TestObserver<String> observer = policy.apply(source).test();
+
+    // then
+    observer.assertResult("foo");
+    assertThat(tracer.getSpans("presenter.retry"))
+        .extracting(RecordingTracer.RecordedSpan::getAttributes)
+        .extracting("presenter", "attempt", "error")
+        .containsExactly(
+            tuple("FooPresenter", 1L, "java.lang.IllegalStateException"),
+            tuple("FooPresenter", 2L, "java.lang.IllegalStateException")
+        );
+  }
+
+  @Test
+  public void apply_subscribedTwiceToSourceFailingOnce_shouldCountAttemptsForEachSubscription() {
+    // given
+    AtomicInteger subscriptions = new AtomicInteger();
+    Observable<String> source = Observable.defer(() ->
+        ((subscriptions.incrementAndGet() % 2) == 1)
+            ? Observable.error(new IllegalStateException())
+            : Observable.just("foo")
+    );
+    TracingRetryPolicy policy = new TracingRetryPolicy(RetryPolicy.always(), tracer, "FooPresenter");
+    Observable<String> retrying = policy.apply(source);
+
+    // when
+    retrying.test().assertResult("foo");
+    retrying.test().assertResult("foo");
+
+    // then
+    assertThat(tracer.getSpans("presenter.retry"))
+        .extracting(RecordingTracer.RecordedSpan::getAttributes)
+        .extracting("attempt")
+        .containsExactly(1L, 1L);
+  }
+
+  @Test
+  public void apply_sourceNotFailing_shouldNotTraceRetry() {
+    // given
+    TracingRetryPolicy policy = new TracingRetryPolicy(RetryPolicy.always(), tracer, "FooPresenter");
+
+    // when
+    TestObserver<String> observer = policy.apply(Observable.just("foo")).test();
+
+    // then
+    observer.assertResult("foo");
+    assertThat(tracer.getSpans("presenter.retry")).isEmpty();
+  }
+
+}
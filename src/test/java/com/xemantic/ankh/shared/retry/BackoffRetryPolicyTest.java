@@ -0,0 +1,154 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.ankh.shared.retry;
+
+import io.reactivex.Observable;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.schedulers.TestScheduler;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test of the {@link BackoffRetryPolicy}.
+ *
+ * @author morisil
+ */
+public class BackoffRetryPolicyTest {
+
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  private final TestScheduler scheduler = new TestScheduler();
+
+  @Test
+  public void getDelay_subsequentAttempts_shouldGrowExponentiallyUpToMaxDelay() {
+    // given
+    BackoffRetryPolicy policy = new BackoffRetryPolicy(100, 1000, 0, 0, new Random(), scheduler);
+
+    // when
+    long[] delays = {
+        policy.getDelay(1),
+        policy.getDelay(2),
+        policy.getDelay(3),
+        policy.getDelay(4),
+        policy.getDelay(5),
+        policy.getDelay(100)
+    };
+
+    // then
+    assertThat(delays).containsExactly(100, 200, 400, 800, 1000, 1000);
+  }
+
+  @Test
+  public void getDelay_withJitter_shouldReduceDelayByRandomFraction() {
+    // given
+    BackoffRetryPolicy policy = new BackoffRetryPolicy(1000, 1000, 0.5, 0, new Random(42), scheduler);
+
+    // when
+    long delay = policy.getDelay(1);
+
+    // then
+    assertThat(delay).isBetween(500L, 1000L);
+  }
+
+  @Test
+  public void new_invalidJitter_shouldFail() {
+    // given
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("jitter must be within 0..1, but was: 2.0");
+
+    // when
+    new BackoffRetryPolicy(100, 1000, 2, 0, new Random(), scheduler);
+
+    // then should fail
+  }
+
+  @Test
+  public void apply_failingSource_shouldResubscribeAfterDelays() {
+    // given
+    AtomicInteger subscriptions = new AtomicInteger();
+    Observable<String> source = Observable.defer(() -> {
+      subscriptions.incrementAndGet();
+      return Observable.error(new RuntimeException("foo"));
+    });
+    BackoffRetryPolicy policy = new BackoffRetryPolicy(100, 1000, 0, 0, new Random(), scheduler);
+
+    // when
+    policy.apply(source).test();
+
+    // then
+    assertThat(subscriptions.get()).isEqualTo(1);
+    scheduler.advanceTimeBy(99, TimeUnit.MILLISECONDS);
+    assertThat(subscriptions.get()).isEqualTo(1);
+    scheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS);
+    assertThat(subscriptions.get()).isEqualTo(2);
+    scheduler.advanceTimeBy(200, TimeUnit.MILLISECONDS);
+    assertThat(subscriptions.get()).isEqualTo(3);
+  }
+
+  @Test
+  public void apply_maxAttemptsExceeded_shouldGiveUpWithError() {
+    // given
+    AtomicInteger subscriptions = new AtomicInteger();
+    Observable<String> source = Observable.defer(() -> {
+      subscriptions.incrementAndGet();
+      return Observable.error(new RuntimeException("foo"));
+    });
+    BackoffRetryPolicy policy = new BackoffRetryPolicy(100, 1000, 0, 2, new Random(), scheduler);
+
+    // when
+    TestObserver<String> observer = policy.apply(source).test();
+    scheduler.advanceTimeBy(1, TimeUnit.MINUTES);
+
+    // then
+    assertThat(subscriptions.get()).isEqualTo(3);
+    observer.assertErrorMessage("foo");
+  }
+
+  @Test
+  public void apply_sourceEmittingItemBetweenFailures_shouldResetAttempts() {
+    // given
+    AtomicInteger subscriptions = new AtomicInteger();
+    Observable<String> source = Observable.defer(() -> {
+      subscriptions.incrementAndGet();
+      return Observable.just("bar").concatWith(Observable.error(new RuntimeException("foo")));
+    });
+    BackoffRetryPolicy policy = new BackoffRetryPolicy(100, 1000, 0, 1, new Random(), scheduler);
+
+    // when
+    TestObserver<String> observer = policy.apply(source).test();
+    scheduler.advanceTimeBy(1000, TimeUnit.MILLISECONDS);
+
+    // then
+    assertThat(subscriptions.get()).isEqualTo(11); // each time first delay
+    observer.assertNoErrors();
+  }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.ankh.shared.retry;
+
+import io.reactivex.Observable;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.schedulers.TestScheduler;
+import io.reactivex.subjects.PublishSubject;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test of the {@link CircuitBreaker}.
+ *
+ * @author morisil
+ */
+public class CircuitBreakerTest {
+
+  private final TestScheduler scheduler = new TestScheduler();
+
+  @Test
+  public void apply_failuresBelowThreshold_shouldResubscribeAccordingToRetryPolicy() {
+    // given
+    AtomicInteger subscriptions = new AtomicInteger();
+    Observable<String> source = Observable.defer(() ->
+        (subscriptions.incrementAndGet() < 3)
+            ? Observable.error(new RuntimeException("foo"))
+            : Observable.never()
+    );
+    CircuitBreaker breaker = new CircuitBreaker(RetryPolicy.always(), 3, 1000, scheduler);
+
+    // when
+    breaker.apply(source).test();
+
+    // then
+    assertThat(subscriptions.get()).isEqualTo(3);
+    assertThat(breaker.isOpen()).isFalse();
+  }
+
+  @Test
+  public void apply_failuresReachingThreshold_shouldOpenAndPostponeSubscription() {
+    // given
+    AtomicInteger subscriptions = new AtomicInteger();
+    Observable<String> source = Observable.defer(() -> {
+      subscriptions.incrementAndGet();
+      return Observable.error(new RuntimeException("foo"));
+    });
+    CircuitBreaker breaker = new CircuitBreaker(RetryPolicy.always(), 3, 1000, scheduler);
+
+    // when
+    breaker.apply(source).test();
+
+    // then
+    assertThat(breaker.isOpen()).isTrue();
+    assertThat(subscriptions.get()).isEqualTo(3);
+    scheduler.advanceTimeBy(999, TimeUnit.MILLISECONDS);
+    assertThat(subscriptions.get()).isEqualTo(3);
+    scheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS);
+    assertThat(subscriptions.get()).isEqualTo(4); // half-open attempt, fails and opens again
+    assertThat(breaker.isOpen()).isTrue();
+  }
+
+  @Test
+  public void apply_openCircuit_shouldPostponeSubscriptionOfOtherObservables() {
+    // given
+    CircuitBreaker breaker = new CircuitBreaker(RetryPolicy.always(), 1, 1000, scheduler);
+    PublishSubject<String> failing = PublishSubject.create();
+    breaker.apply(failing).test();
+    failing.onError(new RuntimeException("foo"));
+    PublishSubject<String> other = PublishSubject.create();
+
+    // when
+    breaker.apply(other).test();
+
+    // then
+    assertThat(other.hasObservers()).isFalse();
+    scheduler.advanceTimeBy(1000, TimeUnit.MILLISECONDS);
+    assertThat(other.hasObservers()).isTrue();
+  }
+
+  @Test
+  public void apply_itemEmittedWhenHalfOpen_shouldCloseCircuit() {
+    // given
+    AtomicInteger subscriptions = new AtomicInteger();
+    Observable<String> source = Observable.defer(() ->
+        (subscriptions.incrementAndGet() <= 2)
+            ? Observable.error(new RuntimeException("foo"))
+            : Observable.just("bar")
+    );
+    CircuitBreaker breaker = new CircuitBreaker(RetryPolicy.always(), 2, 1000, scheduler);
+    TestObserver<String> observer = breaker.apply(source).test();
+
+    // when
+    scheduler.advanceTimeBy(1000, TimeUnit.MILLISECONDS);
+
+    // then
+    observer.assertValue("bar");
+    assertThat(subscriptions.get()).isEqualTo(3);
+    assertThat(breaker.isOpen()).isFalse();
+  }
+
+}
@@ -0,0 +1,56 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.ankh.test;
+
+import com.xemantic.ankh.shared.driver.RecordLog;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link RecordLog} keeping the records in memory, for the test cases
+ * which need the log, but not the persistence.
+ *
+ * @author morisil
+ */
+public class MemoryRecordLog implements RecordLog {
+
+  private final List<String> records = new ArrayList<>();
+
+  @Override
+  public synchronized void append(String record) {
+    records.add(record);
+  }
+
+  @Override
+  public synchronized List<String> readAll() {
+    return new ArrayList<>(records);
+  }
+
+  @Override
+  public synchronized void replaceAll(List<String> records) {
+    this.records.clear();
+    this.records.addAll(records);
+  }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.ankh.test;
+
+import com.xemantic.ankh.shared.metrics.Counter;
+import com.xemantic.ankh.shared.metrics.Gauge;
+import com.xemantic.ankh.shared.metrics.Histogram;
+import com.xemantic.ankh.shared.metrics.Metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link Metrics} keeping all the measurements in memory, so that
+ * the test cases can check what was reported.
+ *
+ * @author morisil
+ */
+public class RecordingMetrics implements Metrics {
+
+  private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+  private final Map<String, List<Long>> histograms = new ConcurrentHashMap<>();
+
+  private final Map<String, Gauge> gauges = new ConcurrentHashMap<>();
+
+  @Override
+  public Counter counter(String name) {
+    AtomicLong counter = counters.computeIfAbsent(name, key -> new AtomicLong());
+    return counter::addAndGet;
+  }
+
+  @Override
+  public Histogram histogram(String name) {
+    List<Long> values = histograms.computeIfAbsent(
+        name, key -> Collections.synchronizedList(new ArrayList<>())
+    );
+    return values::add;
+  }
+
+  @Override
+  public void gauge(String name, Gauge gauge) {
+    gauges.put(name, gauge);
+  }
+
+  public long getCount(String name) {
+    AtomicLong counter = counters.get(name);
+    return (counter != null) ? counter.get() : 0;
+  }
+
+  public List<Long> getValues(String name) {
+    List<Long> values = histograms.get(name);
+    return (values != null) ? new ArrayList<>(values) : Collections.emptyList();
+  }
+
+  public long getGaugeValue(String name) {
+    Gauge gauge = gauges.get(name);
+    if (gauge == null) {
+      throw new IllegalArgumentException("No such gauge: " + name);
+    }
+    return gauge.getValue();
+  }
+
+}
@@ -0,0 +1,95 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.ankh.test;
+
+import com.xemantic.ankh.shared.trace.Span;
+import com.xemantic.ankh.shared.trace.Tracer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * {@link Tracer} keeping all the ended spans in memory, so that
+ * the test cases can check what was traced.
+ *
+ * @author morisil
+ */
+public class RecordingTracer implements Tracer {
+
+  private final List<RecordedSpan> spans = Collections.synchronizedList(new ArrayList<>());
+
+  @Override
+  public Span begin(String name) {
+    return new RecordedSpan(name);
+  }
+
+  public List<RecordedSpan> getSpans(String name) {
+    synchronized (spans) {
+      return spans.stream()
+          .filter(span -> span.getName().equals(name))
+          .collect(Collectors.toList());
+    }
+  }
+
+  public class RecordedSpan implements Span {
+
+    private final String name;
+
+    private final Map<String, Object> attributes = new LinkedHashMap<>();
+
+    private RecordedSpan(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public Span set(String key, String value) {
+      attributes.put(key, value);
+      return this;
+    }
+
+    @Override
+    public Span set(String key, long value) {
+      attributes.put(key, value);
+      return this;
+    }
+
+    @Override
+    public void end() {
+      spans.add(this);
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public Map<String, Object> getAttributes() {
+      return attributes;
+    }
+
+  }
+
+}
@@ -21,7 +21,10 @@
  */
 
 /**
- * The {@link com.xemantic.ankh.test.ExpectedUncaughtException} should be moved
+ * The {@link com.xemantic.ankh.test.ExpectedUncaughtException},
+ * {@link com.xemantic.ankh.test.RecordingMetrics},
+ * {@link com.xemantic.ankh.test.RecordingTracer} and
+ * {@link com.xemantic.ankh.test.MemoryRecordLog} should be moved
  * to separate module in the ankh project.
  *
  * @author morisil
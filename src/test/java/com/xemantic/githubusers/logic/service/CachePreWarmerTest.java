@@ -0,0 +1,208 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.service;
+
+import com.google.common.base.Ticker;
+import com.xemantic.githubusers.logic.model.SearchResult;
+import com.xemantic.githubusers.logic.model.SimpleSearchResult;
+import io.reactivex.Single;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.schedulers.TestScheduler;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.mockito.quality.Strictness;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+/**
+ * Test of the {@link CachePreWarmer}.
+ *
+ * @author morisil
+ */
+public class CachePreWarmerTest {
+
+  @Rule
+  public MockitoRule mockitoRule = MockitoJUnit.rule().strictness(Strictness.STRICT_STUBS);
+
+  @Mock
+  private UserService gitHubUserService;
+
+  @Mock
+  private UserService cachedUserService;
+
+  private final TestScheduler scheduler = new TestScheduler();
+
+  private final Ticker ticker = new Ticker() {
+    @Override
+    public long read() {
+      return scheduler.now(TimeUnit.NANOSECONDS);
+    }
+  };
+
+  private final QueryHeavyHitters heavyHitters = new QueryHeavyHitters(2);
+
+  @Test
+  public void start_periodPassed_shouldWarmFirstPagesOfTopQueries() {
+    // given
+    SearchResult result = searchResult();
+    given(gitHubUserService.find(anyString(), eq(1), eq(100))).willReturn(Single.just(result));
+    RateLimitedUserService rateLimited = rateLimited(10);
+    CachingUserService cache = cache();
+    CachePreWarmer warmer = preWarmer(rateLimited, cache);
+    heavyHitters.record("foo");
+    heavyHitters.record("foo");
+    heavyHitters.record("bar");
+    heavyHitters.record("baz"); // not frequent enough
+    warmer.start();
+
+    // when
+    scheduler.advanceTimeBy(30, TimeUnit.SECONDS);
+
+    // then
+    verify(gitHubUserService).find("foo", 1, 100);
+    verify(gitHubUserService).find("bar", 1, 100);
+    verifyNoMoreInteractions(gitHubUserService);
+    cache.find("foo", 1, 100).test().assertValue(result);
+    verifyZeroInteractions(cachedUserService);
+  }
+
+  @Test
+  public void start_pageStillFresh_shouldWarmOnlyBeforeExpiration() {
+    // given
+    given(gitHubUserService.find("foo", 1, 100)).willReturn(Single.just(searchResult()));
+    RateLimitedUserService rateLimited = rateLimited(10);
+    CachingUserService cache = cache();
+    CachePreWarmer warmer = preWarmer(rateLimited, cache);
+    heavyHitters.record("foo");
+    warmer.start();
+
+    // when
+    scheduler.advanceTimeBy(30, TimeUnit.SECONDS); // warmed
+    scheduler.advanceTimeBy(30, TimeUnit.SECONDS); // still valid for 30 seconds
+    scheduler.advanceTimeBy(30, TimeUnit.SECONDS); // expired
+
+    // then
+    verify(gitHubUserService, times(2)).find("foo", 1, 100);
+    verifyNoMoreInteractions(gitHubUserService);
+  }
+
+  @Test
+  public void start_halfOfQuotaUsed_shouldNotWarm() {
+    // given
+    given(gitHubUserService.find("bar", 1, 10)).willReturn(Single.just(searchResult()));
+    RateLimitedUserService rateLimited = rateLimited(2);
+    CachingUserService cache = cache();
+    CachePreWarmer warmer = preWarmer(rateLimited, cache);
+    heavyHitters.record("foo");
+    warmer.start();
+    rateLimited.find("bar", 1, 10).test().assertValueCount(1);
+
+    // when
+    scheduler.advanceTimeBy(30, TimeUnit.SECONDS);
+
+    // then
+    verify(gitHubUserService).find("bar", 1, 10);
+    verifyNoMoreInteractions(gitHubUserService);
+  }
+
+  @Test
+  public void start_requestsQueued_shouldNotWarm() {
+    // given
+    given(gitHubUserService.find(eq("bar"), anyInt(), eq(10))).willReturn(Single.never());
+    RateLimitedUserService rateLimited = new RateLimitedUserService(
+        gitHubUserService, 10, 10, TimeUnit.MINUTES, scheduler
+    );
+    CachingUserService cache = cache();
+    CachePreWarmer warmer = preWarmer(rateLimited, cache);
+    heavyHitters.record("foo");
+    warmer.start();
+    for (int page = 1; page <= 11; page++) { // last one queued
+      rateLimited.find("bar", page, 10).subscribe();
+    }
+    scheduler.advanceTimeBy(10, TimeUnit.SECONDS);
+    rateLimited.quota$().test().assertValue(quota -> quota.getRemaining() == 0);
+
+    // when
+    scheduler.advanceTimeBy(30, TimeUnit.SECONDS);
+
+    // then
+    verify(gitHubUserService, times(10)).find(eq("bar"), anyInt(), eq(10));
+    verifyNoMoreInteractions(gitHubUserService);
+  }
+
+  @Test
+  public void start_disposed_shouldNotWarm() {
+    // given
+    RateLimitedUserService rateLimited = rateLimited(10);
+    CachingUserService cache = cache();
+    CachePreWarmer warmer = preWarmer(rateLimited, cache);
+    heavyHitters.record("foo");
+    Disposable disposable = warmer.start();
+
+    // when
+    disposable.dispose();
+    scheduler.advanceTimeBy(30, TimeUnit.SECONDS);
+
+    // then
+    verifyZeroInteractions(gitHubUserService);
+  }
+
+  private RateLimitedUserService rateLimited(int limit) {
+    return new RateLimitedUserService(gitHubUserService, limit, 1, TimeUnit.MINUTES, scheduler);
+  }
+
+  private CachingUserService cache() {
+    return new CachingUserService(cachedUserService, 1000, 60, TimeUnit.SECONDS, ticker);
+  }
+
+  private CachePreWarmer preWarmer(RateLimitedUserService rateLimited, CachingUserService cache) {
+    return new CachePreWarmer(
+        heavyHitters,
+        cache,
+        new CoalescingUserService(rateLimited),
+        rateLimited,
+        100,
+        30,
+        TimeUnit.SECONDS,
+        scheduler
+    );
+  }
+
+  private static SearchResult searchResult() {
+    return new SimpleSearchResult(1, false, Collections.emptyList());
+  }
+
+}
@@ -0,0 +1,232 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.service;
+
+import com.google.common.base.Ticker;
+import com.xemantic.githubusers.logic.model.SearchResult;
+import com.xemantic.githubusers.logic.model.User;
+import io.reactivex.Single;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.mockito.quality.Strictness;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test of the {@link CachingUserService}.
+ *
+ * @author morisil
+ */
+public class CachingUserServiceTest {
+
+  @Rule
+  public MockitoRule mockitoRule = MockitoJUnit.rule().strictness(Strictness.STRICT_STUBS);
+
+  @Mock
+  private UserService userService;
+
+  private final AtomicLong nanos = new AtomicLong();
+
+  private final Ticker ticker = new Ticker() {
+    @Override
+    public long read() {
+      return nanos.get();
+    }
+  };
+
+  @Test
+  public void find_samePageRequestedTwice_shouldCallDelegateOnce() {
+    // given
+    SearchResult result = searchResult(1);
+    given(userService.find("foo", 1, 10)).willReturn(Single.just(result));
+    CachingUserService service = new CachingUserService(userService, 100, 1, TimeUnit.MINUTES, ticker);
+
+    // when
+    SearchResult result1 = service.find("foo", 1, 10).blockingGet();
+    SearchResult result2 = service.find("foo", 1, 10).blockingGet();
+
+    // then
+    assertThat(result1).isSameAs(result);
+    assertThat(result2).isSameAs(result);
+    verify(userService).find("foo", 1, 10);
+    verifyNoMoreInteractions(userService);
+    assertThat(service.getStats().hitCount()).isEqualTo(1);
+    assertThat(service.getStats().missCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void find_differentPages_shouldCallDelegateForEachPage() {
+    // given
+    SearchResult result = searchResult(1);
+    given(userService.find(eq("foo"), anyInt(), eq(10))).willReturn(Single.just(result));
+    CachingUserService service = new CachingUserService(userService, 100, 1, TimeUnit.MINUTES, ticker);
+
+    // when
+    service.find("foo", 1, 10).blockingGet();
+    service.find("foo", 2, 10).blockingGet();
+
+    // then
+    verify(userService).find("foo", 1, 10);
+    verify(userService).find("foo", 2, 10);
+    verifyNoMoreInteractions(userService);
+  }
+
+  @Test
+  public void find_afterTtl_shouldCallDelegateAgain() {
+    // given
+    SearchResult result = searchResult(1);
+    given(userService.find("foo", 1, 10)).willReturn(Single.just(result));
+    CachingUserService service = new CachingUserService(userService, 100, 1, TimeUnit.MINUTES, ticker);
+    service.find("foo", 1, 10).blockingGet();
+
+    // when
+    nanos.addAndGet(TimeUnit.MINUTES.toNanos(2));
+    service.find("foo", 1, 10).blockingGet();
+
+    // then
+    verify(userService, times(2)).find("foo", 1, 10);
+    verifyNoMoreInteractions(userService);
+  }
+
+  @Test
+  public void find_moreUsersThanMaxUsers_shouldEvictLessFrequentlyRequestedPage() {
+    // given
+    SearchResult result = searchResult(9);
+    given(userService.find(eq("foo"), anyInt(), eq(10))).willReturn(Single.just(result));
+    CachingUserService service = new CachingUserService(userService, 20, 1, TimeUnit.MINUTES, ticker);
+    service.find("foo", 1, 10).blockingGet();
+    service.find("foo", 2, 10).blockingGet();
+    service.find("foo", 2, 10).blockingGet(); // hit
+
+    // when
+    service.find("foo", 3, 10).blockingGet(); // not admitted, as requested once
+    service.find("foo", 3, 10).blockingGet(); // admitted, requested more often than page 1
+
+    // then
+    assertThat(service.getStats().evictionCount()).isEqualTo(2);
+    service.find("foo", 1, 10).blockingGet(); // evicted
+    service.find("foo", 2, 10).blockingGet(); // hit
+    service.find("foo", 3, 10).blockingGet(); // hit
+    verify(userService, times(2)).find("foo", 1, 10);
+    verify(userService).find("foo", 2, 10);
+    verify(userService, times(2)).find("foo", 3, 10);
+  }
+
+  @Test
+  public void find_oneOffPagesExceedingMaxUsers_shouldNotEvictFrequentlyRequestedPage() {
+    // given
+    SearchResult result = searchResult(9);
+    given(userService.find(anyString(), eq(1), eq(10))).willReturn(Single.just(result));
+    CachingUserService service = new CachingUserService(userService, 20, 1, TimeUnit.MINUTES, ticker);
+    service.find("foo", 1, 10).blockingGet();
+    service.find("foo", 1, 10).blockingGet(); // hit
+
+    // when
+    for (int i = 0; i < 10; i++) {
+      service.find("bar" + i, 1, 10).blockingGet();
+    }
+
+    // then
+    service.find("foo", 1, 10).blockingGet(); // still cached
+    verify(userService).find("foo", 1, 10);
+    assertThat(service.getStats().hitCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void find_errorFromDelegate_shouldNotCacheError() {
+    // given
+    SearchResult result = searchResult(1);
+    given(userService.find("foo", 1, 10))
+        .willReturn(Single.error(new RuntimeException("bar")))
+        .willReturn(Single.just(result));
+    CachingUserService service = new CachingUserService(userService, 100, 1, TimeUnit.MINUTES, ticker);
+    service.find("foo", 1, 10).test().assertErrorMessage("bar");
+
+    // when
+    service.find("foo", 1, 10).test().assertValueCount(1);
+
+    // then
+    verify(userService, times(2)).find("foo", 1, 10);
+    verifyNoMoreInteractions(userService);
+  }
+
+  @Test
+  public void find_cacheSizedForFewMaxSizePagesAndManyStripesRequested_shouldStillHit() {
+    // given
+    SearchResult result = searchResult(100);
+    given(userService.find("foo", 1, 100)).willReturn(Single.just(result));
+    int stripes = UserServiceModule.cacheStripes(300, 16);
+    CachingUserService service = new CachingUserService(
+        userService, 300, 1, TimeUnit.MINUTES, ticker, stripes
+    );
+    service.find("foo", 1, 100).blockingGet();
+
+    // when
+    SearchResult cached = service.find("foo", 1, 100).blockingGet();
+
+    // then
+    assertThat(stripes).isEqualTo(2);
+    assertThat(cached).isSameAs(result);
+    verify(userService).find("foo", 1, 100);
+    verifyNoMoreInteractions(userService);
+    assertThat(service.getStats().hitCount()).isEqualTo(1);
+    assertThat(service.getStats().evictionCount()).isZero();
+  }
+
+  @Test
+  public void isCached_pagePut_shouldBeCachedUntilRemainingTtlIsShorter() {
+    // given
+    CachingUserService service = new CachingUserService(userService, 100, 1, TimeUnit.MINUTES, ticker);
+    service.put("foo", 1, 10, searchResult(1));
+
+    // when
+    boolean cached = service.isCached("foo", 1, 10, 30, TimeUnit.SECONDS);
+    nanos.addAndGet(TimeUnit.SECONDS.toNanos(40));
+    boolean cachedLater = service.isCached("foo", 1, 10, 30, TimeUnit.SECONDS);
+
+    // then
+    assertThat(cached).isTrue();
+    assertThat(cachedLater).isFalse();
+    assertThat(service.isCached("bar", 1, 10, 0, TimeUnit.SECONDS)).isFalse();
+    assertThat(service.getStats().requestCount()).isZero();
+    service.find("foo", 1, 10).test().assertValueCount(1); // hit
+    verifyZeroInteractions(userService);
+  }
+
+  private static SearchResult searchResult(int userCount) {
+    SearchResult result = mock(SearchResult.class);
+    User user = mock(User.class);
+    given(result.getItems()).willReturn(Collections.nCopies(userCount, user));
+    return result;
+  }
+
+}
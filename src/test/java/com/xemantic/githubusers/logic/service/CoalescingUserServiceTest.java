@@ -0,0 +1,213 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.service;
+
+import com.xemantic.githubusers.logic.model.SearchResult;
+import com.xemantic.githubusers.logic.model.SearchResultStream;
+import com.xemantic.githubusers.logic.model.User;
+import io.reactivex.Single;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.processors.PublishProcessor;
+import io.reactivex.subjects.PublishSubject;
+import io.reactivex.subscribers.TestSubscriber;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.mockito.quality.Strictness;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test of the {@link CoalescingUserService}.
+ *
+ * @author morisil
+ */
+public class CoalescingUserServiceTest {
+
+  @Rule
+  public MockitoRule mockitoRule = MockitoJUnit.rule().strictness(Strictness.STRICT_STUBS);
+
+  @Mock
+  private UserService userService;
+
+  @Test
+  public void find_2concurrentIdenticalCalls_shouldShareOneRequest() {
+    // given
+    PublishSubject<SearchResult> response$ = PublishSubject.create();
+    given(userService.find("foo", 1, 10)).willReturn(response$.singleOrError());
+    CoalescingUserService service = new CoalescingUserService(userService);
+    SearchResult result = mock(SearchResult.class);
+
+    // when
+    TestObserver<SearchResult> observer1 = service.find("foo", 1, 10).test();
+    TestObserver<SearchResult> observer2 = service.find("foo", 1, 10).test();
+    response$.onNext(result);
+    response$.onComplete();
+
+    // then
+    observer1.assertResult(result);
+    observer2.assertResult(result);
+    verify(userService).find("foo", 1, 10);
+    verifyNoMoreInteractions(userService);
+    assertThat(service.getRequestCount()).isEqualTo(1);
+    assertThat(service.getCoalescedCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void find_differentPages_shouldNotCoalesce() {
+    // given
+    given(userService.find(eq("foo"), anyInt(), eq(10))).willReturn(Single.never());
+    CoalescingUserService service = new CoalescingUserService(userService);
+
+    // when
+    service.find("foo", 1, 10).test();
+    service.find("foo", 2, 10).test();
+
+    // then
+    verify(userService).find("foo", 1, 10);
+    verify(userService).find("foo", 2, 10);
+    verifyNoMoreInteractions(userService);
+    assertThat(service.getRequestCount()).isEqualTo(2);
+    assertThat(service.getCoalescedCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void find_callAfterPreviousRequestCompleted_shouldIssueNewRequest() {
+    // given
+    SearchResult result = mock(SearchResult.class);
+    given(userService.find("foo", 1, 10)).willReturn(Single.just(result));
+    CoalescingUserService service = new CoalescingUserService(userService);
+    service.find("foo", 1, 10).test().assertResult(result);
+
+    // when
+    service.find("foo", 1, 10).test().assertResult(result);
+
+    // then
+    verify(userService, times(2)).find("foo", 1, 10);
+    verifyNoMoreInteractions(userService);
+    assertThat(service.getCoalescedCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void dispose_oneOf2Subscribers_shouldKeepRequestRunning() {
+    // given
+    PublishSubject<SearchResult> response$ = PublishSubject.create();
+    given(userService.find("foo", 1, 10)).willReturn(response$.singleOrError());
+    CoalescingUserService service = new CoalescingUserService(userService);
+    TestObserver<SearchResult> observer1 = service.find("foo", 1, 10).test();
+    TestObserver<SearchResult> observer2 = service.find("foo", 1, 10).test();
+
+    // when
+    observer1.dispose();
+
+    // then
+    assertThat(response$.hasObservers()).isTrue();
+    observer2.assertEmpty();
+  }
+
+  @Test
+  public void dispose_allSubscribers_shouldCancelRequest() {
+    // given
+    PublishSubject<SearchResult> response$ = PublishSubject.create();
+    given(userService.find("foo", 1, 10)).willReturn(response$.singleOrError());
+    CoalescingUserService service = new CoalescingUserService(userService);
+    TestObserver<SearchResult> observer1 = service.find("foo", 1, 10).test();
+    TestObserver<SearchResult> observer2 = service.find("foo", 1, 10).test();
+
+    // when
+    observer1.dispose();
+    observer2.dispose();
+
+    // then
+    assertThat(response$.hasObservers()).isFalse();
+  }
+
+  @Test
+  public void find_errorInSharedRequest_shouldPropagateErrorToAllSubscribers() {
+    // given
+    PublishSubject<SearchResult> response$ = PublishSubject.create();
+    given(userService.find("foo", 1, 10)).willReturn(response$.singleOrError());
+    CoalescingUserService service = new CoalescingUserService(userService);
+    TestObserver<SearchResult> observer1 = service.find("foo", 1, 10).test();
+    TestObserver<SearchResult> observer2 = service.find("foo", 1, 10).test();
+
+    // when
+    response$.onError(new RuntimeException("bar"));
+
+    // then
+    observer1.assertErrorMessage("bar");
+    observer2.assertErrorMessage("bar");
+  }
+
+  @Test
+  public void findIfModified_cachedResult_shouldPassConditionalRequestToDelegate() {
+    // given
+    SearchResult cached = mock(SearchResult.class);
+    given(userService.findIfModified("foo", 1, 10, cached)).willReturn(Single.just(cached));
+    CoalescingUserService service = new CoalescingUserService(userService);
+
+    // when
+    TestObserver<SearchResult> observer = service.findIfModified("foo", 1, 10, cached).test();
+
+    // then
+    observer.assertResult(cached);
+    verify(userService).findIfModified("foo", 1, 10, cached);
+    verifyNoMoreInteractions(userService);
+    assertThat(service.getRequestCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void findStream_concurrentStreamedAndWholeCalls_shouldShareOneStreamedRequest() {
+    // given
+    StreamingUserService streamingUserService = mock(StreamingUserService.class);
+    PublishProcessor<User> users$ = PublishProcessor.create();
+    given(streamingUserService.findStream("foo", 1, 10))
+        .willReturn(Single.just(new SearchResultStream(2, false, users$)));
+    CoalescingUserService service = new CoalescingUserService(streamingUserService);
+    User user1 = mock(User.class);
+    User user2 = mock(User.class);
+
+    // when
+    TestSubscriber<User> stream1 = service.findStream("foo", 1, 10).blockingGet().getItems().test();
+    users$.onNext(user1);
+    TestSubscriber<User> stream2 = service.findStream("foo", 1, 10).blockingGet().getItems().test();
+    TestObserver<SearchResult> whole = service.find("foo", 1, 10).test();
+    users$.onNext(user2);
+    users$.onComplete();
+
+    // then
+    stream1.assertResult(user1, user2);
+    stream2.assertResult(user1, user2);
+    whole.assertValue(result -> result.getItems().equals(Arrays.asList(user1, user2)));
+    verify(streamingUserService).findStream("foo", 1, 10);
+    verifyNoMoreInteractions(streamingUserService);
+    assertThat(service.getCoalescedCount()).isEqualTo(2);
+  }
+
+}
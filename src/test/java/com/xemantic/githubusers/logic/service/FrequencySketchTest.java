@@ -0,0 +1,111 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.service;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test of the {@link FrequencySketch}.
+ *
+ * @author morisil
+ */
+public class FrequencySketchTest {
+
+  @Test
+  public void frequency_keyNeverIncremented_shouldBeZero() {
+    // given
+    FrequencySketch sketch = new FrequencySketch(64);
+
+    // when
+    int frequency = sketch.frequency("foo");
+
+    // then
+    assertThat(frequency).isZero();
+  }
+
+  @Test
+  public void frequency_keyIncrementedSeveralTimes_shouldCountIncrements() {
+    // given
+    FrequencySketch sketch = new FrequencySketch(64);
+
+    // when
+    for (int i = 0; i < 5; i++) {
+      sketch.increment("foo");
+    }
+    sketch.increment("bar");
+
+    // then
+    assertThat(sketch.frequency("foo")).isEqualTo(5);
+    assertThat(sketch.frequency("bar")).isEqualTo(1);
+  }
+
+  @Test
+  public void frequency_keyIncrementedManyTimes_shouldSaturate() {
+    // given
+    FrequencySketch sketch = new FrequencySketch(64);
+
+    // when
+    for (int i = 0; i < 100; i++) {
+      sketch.increment("foo");
+    }
+
+    // then
+    assertThat(sketch.frequency("foo")).isEqualTo(FrequencySketch.MAX_COUNT);
+  }
+
+  @Test
+  public void frequency_customMaxCount_shouldSaturateAtMaxCount() {
+    // given
+    FrequencySketch sketch = new FrequencySketch(64, 1000);
+
+    // when
+    for (int i = 0; i < 100; i++) {
+      sketch.increment("foo");
+    }
+
+    // then
+    assertThat(sketch.frequency("foo")).isEqualTo(100);
+  }
+
+  @Test
+  public void frequency_afterSampleOfIncrements_shouldBeHalved() {
+    // given
+    FrequencySketch sketch = new FrequencySketch(16);
+    for (int i = 0; i < 8; i++) {
+      sketch.increment("foo");
+    }
+    int increments = 0;
+
+    // when
+    while ((sketch.frequency("foo") >= 8) && (increments < 1000)) {
+      sketch.increment("bar" + increments++);
+    }
+
+    // then
+    assertThat(increments).isLessThanOrEqualTo(10 * 16); // the sample size
+    assertThat(sketch.frequency("foo")).isLessThan(8);
+  }
+
+}
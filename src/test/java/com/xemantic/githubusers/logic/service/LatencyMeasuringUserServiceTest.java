@@ -0,0 +1,119 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.service;
+
+import com.xemantic.ankh.test.RecordingMetrics;
+import com.xemantic.githubusers.logic.model.SearchResult;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.schedulers.TestScheduler;
+import io.reactivex.subjects.PublishSubject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.mockito.quality.Strictness;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Test of the {@link LatencyMeasuringUserService}.
+ *
+ * @author morisil
+ */
+public class LatencyMeasuringUserServiceTest {
+
+  @Rule
+  public MockitoRule mockitoRule = MockitoJUnit.rule().strictness(Strictness.STRICT_STUBS);
+
+  @Mock
+  private UserService userService;
+
+  private final TestScheduler scheduler = new TestScheduler();
+
+  private final UserServiceLatency latency = new UserServiceLatency();
+
+  private final RecordingMetrics metrics = new RecordingMetrics();
+
+  @Test
+  public void find_successfulRequest_shouldRecordLatency() {
+    // given
+    PublishSubject<SearchResult> response$ = PublishSubject.create();
+    given(userService.find("foo", 1, 10)).willReturn(response$.singleOrError());
+    LatencyMeasuringUserService service = new LatencyMeasuringUserService(userService, latency, metrics, scheduler);
+    SearchResult result = mock(SearchResult.class);
+    TestObserver<SearchResult> observer = service.find("foo", 1, 10).test();
+
+    // when
+    scheduler.advanceTimeBy(400, TimeUnit.MILLISECONDS);
+    response$.onNext(result);
+    response$.onComplete();
+
+    // then
+    observer.assertResult(result);
+    assertThat(latency.getAverageMillis()).isEqualTo(400);
+    assertThat(metrics.getCount("userService.request")).isEqualTo(1);
+    assertThat(metrics.getCount("userService.success")).isEqualTo(1);
+    assertThat(metrics.getCount("userService.failure")).isEqualTo(0);
+    assertThat(metrics.getValues("userService.latency")).containsExactly(400L);
+    assertThat(metrics.getGaugeValue("userService.averageLatency")).isEqualTo(400);
+  }
+
+  @Test
+  public void find_failedRequest_shouldNotRecordLatency() {
+    // given
+    PublishSubject<SearchResult> response$ = PublishSubject.create();
+    given(userService.find("foo", 1, 10)).willReturn(response$.singleOrError());
+    LatencyMeasuringUserService service = new LatencyMeasuringUserService(userService, latency, metrics, scheduler);
+    TestObserver<SearchResult> observer = service.find("foo", 1, 10).test();
+
+    // when
+    scheduler.advanceTimeBy(400, TimeUnit.MILLISECONDS);
+    response$.onError(new RuntimeException("bar"));
+
+    // then
+    observer.assertErrorMessage("bar");
+    assertThat(latency.getAverageMillis()).isEqualTo(0);
+    assertThat(metrics.getCount("userService.request")).isEqualTo(1);
+    assertThat(metrics.getCount("userService.success")).isEqualTo(0);
+    assertThat(metrics.getCount("userService.failure")).isEqualTo(1);
+    assertThat(metrics.getValues("userService.latency")).isEmpty();
+  }
+
+  @Test
+  public void record_severalSamples_shouldFavorRecentSamples() {
+    // given
+    latency.record(100);
+
+    // when
+    latency.record(600);
+
+    // then
+    assertThat(latency.getAverageMillis()).isEqualTo(200);
+  }
+
+}
@@ -0,0 +1,211 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.service;
+
+import com.google.common.base.Ticker;
+import com.xemantic.githubusers.logic.model.SearchResult;
+import com.xemantic.githubusers.logic.model.SimpleSearchResult;
+import com.xemantic.githubusers.logic.model.User;
+import io.reactivex.Single;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.mockito.quality.Strictness;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test of the {@link NegativeCachingUserService}.
+ *
+ * @author morisil
+ */
+public class NegativeCachingUserServiceTest {
+
+  @Rule
+  public MockitoRule mockitoRule = MockitoJUnit.rule().strictness(Strictness.STRICT_STUBS);
+
+  @Mock
+  private UserService userService;
+
+  private final AtomicLong nanos = new AtomicLong();
+
+  private final Ticker ticker = new Ticker() {
+    @Override
+    public long read() {
+      return nanos.get();
+    }
+  };
+
+  @Test
+  public void find_emptyQueryRequestedAgain_shouldAnswerEmptyResultWithoutDelegate() {
+    // given
+    given(userService.find("fooo", 1, 10)).willReturn(Single.just(result(0, false)));
+    NegativeCachingUserService service = service();
+    service.find("fooo", 1, 10).test().assertValue(result -> result.getTotalCount() == 0);
+
+    // when
+    SearchResult result = service.find("fooo", 1, 10).blockingGet();
+
+    // then
+    assertThat(result.getTotalCount()).isZero();
+    assertThat(result.getItems()).isEmpty();
+    assertThat(result.isIncompleteResult()).isFalse();
+    verify(userService).find("fooo", 1, 10);
+    verifyNoMoreInteractions(userService);
+    assertThat(service.getHitCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void find_equivalentQueries_shouldShareNegativeResult() {
+    // given
+    given(userService.find("Fooo Bar", 1, 10)).willReturn(Single.just(result(0, false)));
+    NegativeCachingUserService service = service();
+    service.find("Fooo Bar", 1, 10).blockingGet();
+
+    // when
+    service.find(" fooo  bar ", 1, 10).blockingGet();
+    service.find("fooo bar", 2, 20).blockingGet();
+
+    // then
+    verify(userService).find("Fooo Bar", 1, 10);
+    verifyNoMoreInteractions(userService);
+    assertThat(service.getHitCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void find_nonEmptyResult_shouldAlwaysCallDelegate() {
+    // given
+    given(userService.find("foo", 1, 10)).willReturn(Single.just(result(1, false)));
+    NegativeCachingUserService service = service();
+
+    // when
+    service.find("foo", 1, 10).blockingGet();
+    service.find("foo", 1, 10).blockingGet();
+
+    // then
+    verify(userService, times(2)).find("foo", 1, 10);
+    verifyNoMoreInteractions(userService);
+  }
+
+  @Test
+  public void find_incompleteEmptyResult_shouldNotRememberQuery() {
+    // given
+    given(userService.find("foo", 1, 10)).willReturn(Single.just(result(0, true)));
+    NegativeCachingUserService service = service();
+
+    // when
+    service.find("foo", 1, 10).blockingGet();
+    service.find("foo", 1, 10).blockingGet();
+
+    // then
+    verify(userService, times(2)).find("foo", 1, 10);
+    verifyNoMoreInteractions(userService);
+  }
+
+  @Test
+  public void find_errorFromDelegate_shouldNotRememberQuery() {
+    // given
+    given(userService.find("foo", 1, 10))
+        .willReturn(Single.error(new RuntimeException("bar")))
+        .willReturn(Single.just(result(1, false)));
+    NegativeCachingUserService service = service();
+    service.find("foo", 1, 10).test().assertErrorMessage("bar");
+
+    // when
+    service.find("foo", 1, 10).test().assertValue(result -> result.getTotalCount() == 1);
+
+    // then
+    verify(userService, times(2)).find("foo", 1, 10);
+    verifyNoMoreInteractions(userService);
+  }
+
+  @Test
+  public void find_afterTtl_shouldCallDelegateAgain() {
+    // given
+    given(userService.find("fooo", 1, 10)).willReturn(Single.just(result(0, false)));
+    NegativeCachingUserService service = service();
+    service.find("fooo", 1, 10).blockingGet();
+
+    // when
+    nanos.addAndGet(TimeUnit.MINUTES.toNanos(2));
+    service.find("fooo", 1, 10).blockingGet();
+
+    // then
+    verify(userService, times(2)).find("fooo", 1, 10);
+    verifyNoMoreInteractions(userService);
+  }
+
+  @Test
+  public void findIfModified_knownEmptyQuery_shouldAnswerEmptyResultWithoutDelegate() {
+    // given
+    SearchResult cached = result(0, false);
+    given(userService.find("fooo", 1, 10)).willReturn(Single.just(cached));
+    NegativeCachingUserService service = service();
+    service.find("fooo", 1, 10).blockingGet();
+
+    // when
+    SearchResult result = service.findIfModified("fooo", 1, 10, cached).blockingGet();
+
+    // then
+    assertThat(result.getTotalCount()).isZero();
+    verify(userService).find("fooo", 1, 10);
+    verifyNoMoreInteractions(userService);
+  }
+
+  @Test
+  public void invalidateAll_knownEmptyQuery_shouldCallDelegateAgain() {
+    // given
+    given(userService.find("fooo", 1, 10)).willReturn(Single.just(result(0, false)));
+    NegativeCachingUserService service = service();
+    service.find("fooo", 1, 10).blockingGet();
+
+    // when
+    service.invalidateAll();
+    service.find("fooo", 1, 10).blockingGet();
+
+    // then
+    verify(userService, times(2)).find("fooo", 1, 10);
+    verifyNoMoreInteractions(userService);
+  }
+
+  private NegativeCachingUserService service() {
+    return new NegativeCachingUserService(userService, 100, 0.001, 1, TimeUnit.MINUTES, ticker);
+  }
+
+  private static SearchResult result(int totalCount, boolean incomplete) {
+    return new SimpleSearchResult(
+        totalCount,
+        incomplete,
+        Collections.nCopies(totalCount, mock(User.class))
+    );
+  }
+
+}
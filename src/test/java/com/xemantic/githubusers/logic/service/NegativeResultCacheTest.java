@@ -0,0 +1,160 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.service;
+
+import com.google.common.base.Ticker;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test of the {@link NegativeResultCache}.
+ *
+ * @author morisil
+ */
+public class NegativeResultCacheTest {
+
+  private final AtomicLong nanos = new AtomicLong();
+
+  private final Ticker ticker = new Ticker() {
+    @Override
+    public long read() {
+      return nanos.get();
+    }
+  };
+
+  @Test
+  public void contains_queryNotAdded_shouldReturnFalse() {
+    // given
+    NegativeResultCache cache = cache(100);
+
+    // when
+    boolean contains = cache.contains("foo");
+
+    // then
+    assertThat(contains).isFalse();
+  }
+
+  @Test
+  public void contains_queryAdded_shouldReturnTrue() {
+    // given
+    NegativeResultCache cache = cache(100);
+
+    // when
+    cache.add("foo");
+
+    // then
+    assertThat(cache.contains("foo")).isTrue();
+    assertThat(cache.contains("bar")).isFalse();
+  }
+
+  @Test
+  public void contains_afterHalfOfTtl_shouldStillReturnTrue() {
+    // given
+    NegativeResultCache cache = cache(100);
+    cache.add("foo");
+
+    // when
+    nanos.addAndGet(TimeUnit.SECONDS.toNanos(45));
+
+    // then
+    assertThat(cache.contains("foo")).isTrue();
+  }
+
+  @Test
+  public void contains_afterTtl_shouldReturnFalse() {
+    // given
+    NegativeResultCache cache = cache(100);
+    cache.add("foo");
+    nanos.addAndGet(TimeUnit.SECONDS.toNanos(45));
+    cache.add("bar");
+
+    // when
+    nanos.addAndGet(TimeUnit.SECONDS.toNanos(45));
+
+    // then
+    assertThat(cache.contains("foo")).isFalse();
+    assertThat(cache.contains("bar")).isTrue();
+  }
+
+  @Test
+  public void contains_afterClear_shouldReturnFalse() {
+    // given
+    NegativeResultCache cache = cache(100);
+    cache.add("foo");
+
+    // when
+    cache.clear();
+
+    // then
+    assertThat(cache.contains("foo")).isFalse();
+  }
+
+  @Test
+  public void contains_capacityReached_shouldKeepQueriesOfPreviousGeneration() {
+    // given
+    NegativeResultCache cache = cache(10);
+    for (int i = 0; i < 10; i++) {
+      cache.add("foo" + i);
+    }
+
+    // when
+    cache.add("bar");
+
+    // then
+    for (int i = 0; i < 10; i++) {
+      assertThat(cache.contains("foo" + i)).isTrue();
+    }
+    assertThat(cache.contains("bar")).isTrue();
+  }
+
+  @Test
+  public void contains_capacityOfQueriesAdded_shouldKeepFalsePositiveProbability() {
+    // given
+    NegativeResultCache cache = cache(1000);
+    for (int i = 0; i < 1000; i++) {
+      cache.add("foo" + i);
+    }
+
+    // when
+    int falsePositives = 0;
+    for (int i = 0; i < 100000; i++) {
+      if (cache.contains("bar" + i)) {
+        falsePositives++;
+      }
+    }
+
+    // then
+    assertThat(falsePositives).isLessThan(300); // 0.1% expected, with margin
+    assertThat(cache.getHashCount()).isEqualTo(10);
+    assertThat(cache.getBitCount()).isEqualTo(14400);
+  }
+
+  private NegativeResultCache cache(int capacity) {
+    return new NegativeResultCache(capacity, 0.001, TimeUnit.SECONDS.toNanos(60), ticker);
+  }
+
+}
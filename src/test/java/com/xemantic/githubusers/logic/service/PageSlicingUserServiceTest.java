@@ -0,0 +1,254 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.service;
+
+import com.google.common.base.Ticker;
+import com.xemantic.githubusers.logic.model.SearchResult;
+import com.xemantic.githubusers.logic.model.SimpleSearchResult;
+import com.xemantic.githubusers.logic.model.SimpleUser;
+import com.xemantic.githubusers.logic.model.User;
+import io.reactivex.Single;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.mockito.quality.Strictness;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test of the {@link PageSlicingUserService}.
+ *
+ * @author morisil
+ */
+public class PageSlicingUserServiceTest {
+
+  @Rule
+  public MockitoRule mockitoRule = MockitoJUnit.rule().strictness(Strictness.STRICT_STUBS);
+
+  @Mock
+  private UserService userService;
+
+  private final AtomicLong nanos = new AtomicLong();
+
+  private final Ticker ticker = new Ticker() {
+    @Override
+    public long read() {
+      return nanos.get();
+    }
+  };
+
+  @Test
+  public void find_4subsequentPagesOf25_shouldRequestOneUpstreamPageOf100() {
+    // given
+    given(userService.find("foo", 1, 100)).willReturn(Single.just(result(1000, 0, 100)));
+    PageSlicingUserService service = new PageSlicingUserService(
+        userService, 100, 1000, 2, 60, TimeUnit.SECONDS, ticker
+    );
+
+    // when
+    List<SearchResult> pages = IntStream.rangeClosed(1, 4)
+        .mapToObj(page -> service.find("foo", page, 25).blockingGet())
+        .collect(Collectors.toList());
+
+    // then
+    verify(userService).find("foo", 1, 100);
+    verifyNoMoreInteractions(userService);
+    assertThat(pages).allSatisfy(page -> {
+      assertThat(page.getTotalCount()).isEqualTo(1000);
+      assertThat(page.getItems()).hasSize(25);
+    });
+    assertThat(pages.get(0).getItems().get(0).getLogin()).isEqualTo("user0");
+    assertThat(pages.get(3).getItems().get(24).getLogin()).isEqualTo("user99");
+  }
+
+  @Test
+  public void find_pageFromSecondUpstreamPage_shouldRequestSecondUpstreamPage() {
+    // given
+    given(userService.find("foo", 2, 100)).willReturn(Single.just(result(1000, 100, 100)));
+    PageSlicingUserService service = new PageSlicingUserService(
+        userService, 100, 1000, 2, 60, TimeUnit.SECONDS, ticker
+    );
+
+    // when
+    SearchResult page = service.find("foo", 5, 25).blockingGet();
+
+    // then
+    assertThat(page.getItems())
+        .extracting(User::getLogin)
+        .startsWith("user100")
+        .hasSize(25);
+  }
+
+  @Test
+  public void find_pageSizeNotDividing100_shouldUseLargestMultiple() {
+    // given
+    given(userService.find("foo", 1, 90)).willReturn(Single.just(result(1000, 0, 90)));
+    PageSlicingUserService service = new PageSlicingUserService(
+        userService, 100, 1000, 2, 60, TimeUnit.SECONDS, ticker
+    );
+
+    // when
+    SearchResult page = service.find("foo", 3, 30).blockingGet();
+
+    // then
+    assertThat(page.getItems())
+        .extracting(User::getLogin)
+        .startsWith("user60")
+        .endsWith("user89");
+  }
+
+  @Test
+  public void find_upstreamPageBeyondSearchLimit_shouldRequestPageAsIs() {
+    // given
+    given(userService.find("foo", 34, 30)).willReturn(Single.just(result(5000, 990, 30)));
+    PageSlicingUserService service = new PageSlicingUserService(
+        userService, 100, 1000, 2, 60, TimeUnit.SECONDS, ticker
+    );
+
+    // when
+    service.find("foo", 34, 30).blockingGet();
+
+    // then
+    verify(userService).find("foo", 34, 30);
+    verifyNoMoreInteractions(userService);
+  }
+
+  @Test
+  public void find_lastShortUpstreamPage_shouldReturnRemainingUsers() {
+    // given
+    given(userService.find("foo", 1, 100)).willReturn(Single.just(result(30, 0, 30)));
+    PageSlicingUserService service = new PageSlicingUserService(
+        userService, 100, 1000, 2, 60, TimeUnit.SECONDS, ticker
+    );
+
+    // when
+    SearchResult page2 = service.find("foo", 2, 20).blockingGet();
+    SearchResult page3 = service.find("foo", 3, 20).blockingGet();
+
+    // then
+    assertThat(page2.getItems()).hasSize(10);
+    assertThat(page3.getItems()).isEmpty();
+  }
+
+  @Test
+  public void find_interleavedQueries_shouldKeepBufferedPagesOfBoth() {
+    // given
+    given(userService.find(anyString(), eq(1), eq(100))).willReturn(Single.just(result(100, 0, 100)));
+    PageSlicingUserService service = new PageSlicingUserService(
+        userService, 100, 1000, 2, 60, TimeUnit.SECONDS, ticker
+    );
+    service.find("foo", 1, 25).blockingGet();
+    service.find("bar", 1, 25).blockingGet();
+
+    // when
+    service.find("foo", 2, 25).blockingGet();
+    service.find("bar", 2, 25).blockingGet();
+
+    // then
+    verify(userService).find("foo", 1, 100);
+    verify(userService).find("bar", 1, 100);
+    verifyNoMoreInteractions(userService);
+  }
+
+  @Test
+  public void find_moreQueriesThanBufferedPages_shouldEvictLeastRecentlyUsedPage() {
+    // given
+    given(userService.find(anyString(), eq(1), eq(100))).willReturn(Single.just(result(100, 0, 100)));
+    PageSlicingUserService service = new PageSlicingUserService(
+        userService, 100, 1000, 2, 60, TimeUnit.SECONDS, ticker
+    );
+    service.find("foo", 1, 25).blockingGet();
+    service.find("bar", 1, 25).blockingGet();
+    service.find("foo", 2, 25).blockingGet();
+    service.find("baz", 1, 25).blockingGet();
+
+    // when
+    service.find("foo", 3, 25).blockingGet();
+    service.find("bar", 2, 25).blockingGet();
+
+    // then
+    verify(userService).find("foo", 1, 100);
+    verify(userService, times(2)).find("bar", 1, 100);
+    verify(userService).find("baz", 1, 100);
+    verifyNoMoreInteractions(userService);
+  }
+
+  @Test
+  public void find_bufferedPageExpired_shouldRequestUpstreamPageAgain() {
+    // given
+    given(userService.find("foo", 1, 100)).willReturn(Single.just(result(100, 0, 100)));
+    PageSlicingUserService service = new PageSlicingUserService(
+        userService, 100, 1000, 2, 60, TimeUnit.SECONDS, ticker
+    );
+    service.find("foo", 1, 25).blockingGet();
+    nanos.addAndGet(TimeUnit.SECONDS.toNanos(59));
+    service.find("foo", 2, 25).blockingGet();
+
+    // when
+    nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+    service.find("foo", 3, 25).blockingGet();
+
+    // then
+    verify(userService, times(2)).find("foo", 1, 100);
+    verifyNoMoreInteractions(userService);
+  }
+
+  @Test
+  public void find_errorFromDelegate_shouldNotBufferAnything() {
+    // given
+    given(userService.find("foo", 1, 100))
+        .willReturn(Single.error(new RuntimeException("bar")))
+        .willReturn(Single.just(result(100, 0, 100)));
+    PageSlicingUserService service = new PageSlicingUserService(
+        userService, 100, 1000, 2, 60, TimeUnit.SECONDS, ticker
+    );
+    service.find("foo", 1, 25).test().assertErrorMessage("bar");
+
+    // when
+    service.find("foo", 1, 25).test().assertValueCount(1);
+
+    // then
+    verify(userService, times(2)).find("foo", 1, 100);
+  }
+
+  private static SearchResult result(int totalCount, int first, int count) {
+    return new SimpleSearchResult(
+        totalCount,
+        false,
+        IntStream.range(first, first + count)
+            .mapToObj(i -> new SimpleUser("user" + i, "", ""))
+            .collect(Collectors.toList())
+    );
+  }
+
+}
@@ -0,0 +1,337 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.service;
+
+import com.xemantic.ankh.shared.driver.RecordLog;
+import com.xemantic.githubusers.logic.model.CacheValidator;
+import com.xemantic.githubusers.logic.model.SearchResult;
+import com.xemantic.githubusers.logic.model.SearchResultStream;
+import com.xemantic.githubusers.logic.model.SimpleSearchResult;
+import com.xemantic.githubusers.logic.model.SimpleUser;
+import com.xemantic.githubusers.logic.model.User;
+import io.reactivex.Single;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.schedulers.TestScheduler;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.mockito.quality.Strictness;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test of the {@link PersistentUserService}.
+ *
+ * @author morisil
+ */
+public class PersistentUserServiceTest {
+
+  @Rule
+  public MockitoRule mockitoRule = MockitoJUnit.rule().strictness(Strictness.STRICT_STUBS);
+
+  @Mock
+  private StreamingUserService userService;
+
+  private final TestScheduler scheduler = new TestScheduler();
+
+  private final InMemoryRecordLog log = new InMemoryRecordLog();
+
+  @Test
+  public void find_pageStoredByPreviousInstance_shouldServeItWithoutCallingDelegate() {
+    // given
+    given(userService.find("foo", 1, 10)).willReturn(Single.just(result("foo")));
+    get(newService().find("foo", 1, 10));
+    PersistentUserService restarted = newService();
+
+    // when
+    SearchResult result = get(restarted.find("foo", 1, 10));
+
+    // then
+    verify(userService).find("foo", 1, 10);
+    verifyNoMoreInteractions(userService);
+    assertThat(result.getTotalCount()).isEqualTo(1);
+    assertThat(result.getItems())
+        .extracting(User::getLogin)
+        .containsExactly("foo");
+    assertThat(restarted.getHitCount()).isEqualTo(1);
+    assertThat(restarted.getMissCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void findStream_pageNotStored_shouldStoreStreamedPage() {
+    // given
+    given(userService.findStream("foo", 1, 10))
+        .willReturn(Single.just(SearchResultStream.of(result("foo"))));
+    get(newService().findStream("foo", 1, 10)).getItems().test().assertValueCount(1);
+    PersistentUserService restarted = newService();
+
+    // when
+    SearchResult result = get(restarted.find("foo", 1, 10));
+
+    // then
+    verify(userService).findStream("foo", 1, 10);
+    verifyNoMoreInteractions(userService);
+    assertThat(result.getItems())
+        .extracting(User::getLogin)
+        .containsExactly("foo");
+    assertThat(restarted.getHitCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void find_equivalentQuery_shouldServeStoredPage() {
+    // given
+    given(userService.find("Foo", 1, 10)).willReturn(Single.just(result("foo")));
+    PersistentUserService service = newService();
+    get(service.find("Foo", 1, 10));
+
+    // when
+    get(service.find(" foo ", 1, 10));
+
+    // then
+    verify(userService).find("Foo", 1, 10);
+    verifyNoMoreInteractions(userService);
+  }
+
+  @Test
+  public void find_tornLastRecord_shouldSkipItAndCallDelegate() {
+    // given
+    given(userService.find(eq("foo"), anyInt(), eq(10))).willReturn(Single.just(result("foo")));
+    get(newService().find("foo", 1, 10));
+    get(newService().find("foo", 2, 10));
+    String last = log.records.remove(1);
+    log.records.add(last.substring(0, last.length() / 2)); // crashed while writing
+
+    // when
+    PersistentUserService restarted = newService();
+    get(restarted.find("foo", 1, 10));
+    get(restarted.find("foo", 2, 10));
+
+    // then
+    verify(userService).find("foo", 1, 10);
+    verify(userService, times(2)).find("foo", 2, 10);
+    verifyNoMoreInteractions(userService);
+  }
+
+  @Test
+  public void find_expiredPage_shouldCallDelegateAgain() {
+    // given
+    given(userService.find("foo", 1, 10)).willReturn(Single.just(result("foo")));
+    get(newService().find("foo", 1, 10));
+
+    // when
+    scheduler.advanceTimeBy(2, TimeUnit.HOURS);
+    get(newService().find("foo", 1, 10));
+
+    // then
+    verify(userService, times(2)).find("foo", 1, 10);
+    verifyNoMoreInteractions(userService);
+  }
+
+  @Test
+  public void find_expiredPageNotModified_shouldRevalidateAndServeStoredPage() {
+    // given
+    SearchResult stored = result("foo", "\"etag\"");
+    given(userService.find("foo", 1, 10)).willReturn(Single.just(stored));
+    get(newService().find("foo", 1, 10));
+    scheduler.advanceTimeBy(2, TimeUnit.HOURS);
+    PersistentUserService restarted = newService();
+    given(userService.findIfModified(eq("foo"), eq(1), eq(10), any()))
+        .willAnswer(invocation -> Single.just(invocation.getArgument(3)));
+
+    // when
+    SearchResult result = get(restarted.find("foo", 1, 10));
+
+    // then
+    assertThat(result.getItems()).extracting(User::getLogin).containsExactly("foo");
+    assertThat(result.getValidator().getETag()).isEqualTo("\"etag\"");
+    assertThat(result.getValidator().getFetchTime()).isEqualTo(scheduler.now(TimeUnit.MILLISECONDS));
+    assertThat(restarted.getNotModifiedCount()).isEqualTo(1);
+    get(restarted.find("foo", 1, 10)); // renewed
+    verify(userService).find("foo", 1, 10);
+    verify(userService).findIfModified(eq("foo"), eq(1), eq(10), any());
+    verifyNoMoreInteractions(userService);
+    assertThat(restarted.getHitCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void find_expiredPageModified_shouldStoreNewPage() {
+    // given
+    given(userService.find("foo", 1, 10)).willReturn(Single.just(result("foo", "\"etag1\"")));
+    PersistentUserService service = newService();
+    get(service.find("foo", 1, 10));
+    scheduler.advanceTimeBy(2, TimeUnit.HOURS);
+    SearchResult modified = result("bar", "\"etag2\"");
+    given(userService.findIfModified(eq("foo"), eq(1), eq(10), any()))
+        .willReturn(Single.just(modified));
+
+    // when
+    SearchResult result = get(service.find("foo", 1, 10));
+
+    // then
+    assertThat(result).isSameAs(modified);
+    assertThat(service.getNotModifiedCount()).isEqualTo(0);
+    SearchResult restored = get(newService().find("foo", 1, 10));
+    assertThat(restored.getItems()).extracting(User::getLogin).containsExactly("bar");
+    assertThat(restored.getValidator().getETag()).isEqualTo("\"etag2\"");
+  }
+
+  @Test
+  public void find_pageNotStored_shouldReadAndWriteLogOnScheduler() {
+    // given
+    given(userService.find("foo", 1, 10)).willReturn(Single.just(result("foo")));
+    PersistentUserService service = newService();
+
+    // when
+    TestObserver<SearchResult> result$ = service.find("foo", 1, 10).test();
+
+    // then
+    result$.assertNoValues();
+    verifyZeroInteractions(userService);
+    scheduler.triggerActions();
+    result$.assertValueCount(1);
+    assertThat(log.records).hasSize(1);
+  }
+
+  @Test
+  public void load_mostlyObsoleteRecords_shouldCompactLog() {
+    // given
+    for (int i = 0; i < 3; i++) { // each record supersedes previous one
+      log.append(new SearchResultRecord(new SearchRequest("foo", 1, 10), result("foo"), i).encode());
+    }
+
+    // when
+    get(newService().find("foo", 1, 10));
+
+    // then
+    verifyZeroInteractions(userService);
+    assertThat(log.records).hasSize(1);
+  }
+
+  @Test
+  public void find_morePagesThanIndexed_shouldEvictLeastRecentlyUsedPage() {
+    // given
+    given(userService.find(anyString(), eq(1), eq(10))).willAnswer(
+        invocation -> Single.just(result(invocation.getArgument(0)))
+    );
+    PersistentUserService service = newService(2);
+    get(service.find("foo", 1, 10));
+    get(service.find("bar", 1, 10));
+    get(service.find("foo", 1, 10));
+    get(service.find("baz", 1, 10));
+
+    // when
+    get(service.find("foo", 1, 10));
+    get(service.find("bar", 1, 10));
+
+    // then
+    verify(userService).find("foo", 1, 10);
+    verify(userService, times(2)).find("bar", 1, 10);
+    verify(userService).find("baz", 1, 10);
+    verifyNoMoreInteractions(userService);
+  }
+
+  @Test
+  public void find_logGrowingWithObsoleteRecords_shouldCompactLog() {
+    // given
+    given(userService.find("foo", 1, 10)).willReturn(Single.just(result("foo")));
+    PersistentUserService service = newService();
+    get(service.find("foo", 1, 10));
+
+    // when
+    for (int i = 0; i < 5; i++) {
+      scheduler.advanceTimeBy(2, TimeUnit.HOURS); // expired, stored again
+      get(service.find("foo", 1, 10));
+    }
+
+    // then
+    verify(userService, times(6)).find("foo", 1, 10);
+    assertThat(log.records.size()).isLessThanOrEqualTo(2);
+    assertThat(get(newService().find("foo", 1, 10)).getItems())
+        .extracting(User::getLogin)
+        .containsExactly("foo");
+  }
+
+  private <T> T get(Single<T> single) {
+    TestObserver<T> observer = single.test();
+    scheduler.triggerActions(); // read and written on the scheduler
+    return observer.assertComplete().values().get(0);
+  }
+
+  private PersistentUserService newService() {
+    return newService(100);
+  }
+
+  private PersistentUserService newService(int maxPages) {
+    return new PersistentUserService(userService, log, maxPages, 1, TimeUnit.HOURS, scheduler);
+  }
+
+  private static SearchResult result(String login) {
+    return result(login, null);
+  }
+
+  private static SearchResult result(String login, String eTag) {
+    return new SimpleSearchResult(
+        1,
+        false,
+        Collections.singletonList(new SimpleUser(
+            login,
+            "https://avatars.githubusercontent.com/u/1?v=4",
+            "https://github.com/" + login
+        )),
+        null,
+        (eTag != null) ? new CacheValidator(eTag, null, 0) : null
+    );
+  }
+
+  private static class InMemoryRecordLog implements RecordLog {
+
+    private final List<String> records = new ArrayList<>();
+
+    @Override
+    public void append(String record) {
+      records.add(record);
+    }
+
+    @Override
+    public List<String> readAll() {
+      return new ArrayList<>(records);
+    }
+
+    @Override
+    public void replaceAll(List<String> records) {
+      this.records.clear();
+      this.records.addAll(records);
+    }
+
+  }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.service;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test of the {@link QueryHeavyHitters}.
+ *
+ * @author morisil
+ */
+public class QueryHeavyHittersTest {
+
+  @Test
+  public void getTopQueries_nothingRecorded_shouldReturnEmptyList() {
+    // given
+    QueryHeavyHitters heavyHitters = new QueryHeavyHitters(3);
+
+    // when
+    List<String> queries = heavyHitters.getTopQueries();
+
+    // then
+    assertThat(queries).isEmpty();
+  }
+
+  @Test
+  public void getTopQueries_queriesRecorded_shouldReturnMostFrequentFirst() {
+    // given
+    QueryHeavyHitters heavyHitters = new QueryHeavyHitters(3);
+    record(heavyHitters, "foo", 2);
+    record(heavyHitters, "bar", 5);
+    record(heavyHitters, "baz", 1);
+
+    // when
+    List<String> queries = heavyHitters.getTopQueries();
+
+    // then
+    assertThat(queries).containsExactly("bar", "foo", "baz");
+    assertThat(heavyHitters.estimate("bar")).isEqualTo(5);
+  }
+
+  @Test
+  public void getTopQueries_manyOneOffQueries_shouldKeepHeavyHitters() {
+    // given
+    QueryHeavyHitters heavyHitters = new QueryHeavyHitters(2);
+    record(heavyHitters, "foo", 10);
+    record(heavyHitters, "bar", 5);
+
+    // when
+    for (int i = 0; i < 1000; i++) {
+      heavyHitters.record("query" + i);
+    }
+
+    // then
+    assertThat(heavyHitters.getTopQueries()).containsExactly("foo", "bar");
+  }
+
+  @Test
+  public void getTopQueries_queryBecomingPopular_shouldReplaceLeastFrequent() {
+    // given
+    QueryHeavyHitters heavyHitters = new QueryHeavyHitters(2);
+    record(heavyHitters, "foo", 3);
+    record(heavyHitters, "bar", 2);
+
+    // when
+    record(heavyHitters, "baz", 4);
+
+    // then
+    assertThat(heavyHitters.getTopQueries()).containsExactly("baz", "foo");
+  }
+
+  private static void record(QueryHeavyHitters heavyHitters, String query, int times) {
+    for (int i = 0; i < times; i++) {
+      heavyHitters.record(query);
+    }
+  }
+
+}
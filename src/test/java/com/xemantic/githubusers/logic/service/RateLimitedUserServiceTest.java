@@ -0,0 +1,245 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.service;
+
+import com.xemantic.githubusers.logic.model.RateLimit;
+import com.xemantic.githubusers.logic.model.SearchResult;
+import io.reactivex.Single;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.schedulers.TestScheduler;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.mockito.quality.Strictness;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test of the {@link RateLimitedUserService}.
+ *
+ * @author morisil
+ */
+public class RateLimitedUserServiceTest {
+
+  @Rule
+  public MockitoRule mockitoRule = MockitoJUnit.rule().strictness(Strictness.STRICT_STUBS);
+
+  @Mock
+  private UserService userService;
+
+  private final TestScheduler scheduler = new TestScheduler();
+
+  @Test
+  public void find_withinRateLimit_shouldPassRequestsImmediately() {
+    // given
+    SearchResult result = mock(SearchResult.class);
+    given(userService.find(eq("foo"), anyInt(), eq(10))).willReturn(Single.just(result));
+    RateLimitedUserService service = new RateLimitedUserService(userService, 2, 1, TimeUnit.MINUTES, scheduler);
+
+    // when
+    TestObserver<SearchResult> observer1 = service.find("foo", 1, 10).test();
+    TestObserver<SearchResult> observer2 = service.find("foo", 2, 10).test();
+
+    // then
+    observer1.assertResult(result);
+    observer2.assertResult(result);
+    assertThat(service.getQueueSize()).isEqualTo(0);
+  }
+
+  @Test
+  public void find_resultDeliveredSynchronously_shouldNotHoldLockWhileDelivering() {
+    // given
+    SearchResult result = mock(SearchResult.class);
+    given(userService.find(eq("foo"), anyInt(), eq(10))).willReturn(Single.just(result));
+    RateLimitedUserService service = new RateLimitedUserService(userService, 2, 1, TimeUnit.MINUTES, scheduler);
+    List<Boolean> locked = new ArrayList<>();
+    service.quota$().subscribe(quota -> locked.add(Thread.holdsLock(service)));
+
+    // when
+    service.find("foo", 1, 10)
+        .doOnSuccess(found -> locked.add(Thread.holdsLock(service)))
+        .test();
+
+    // then
+    assertThat(locked).containsExactly(false, false, false);
+  }
+
+  @Test
+  public void find_rateLimitExhausted_shouldQueueRequestUntilReset() {
+    // given
+    SearchResult result = mock(SearchResult.class);
+    given(userService.find(eq("foo"), anyInt(), eq(10))).willReturn(Single.just(result));
+    RateLimitedUserService service = new RateLimitedUserService(userService, 1, 1, TimeUnit.MINUTES, scheduler);
+    service.find("foo", 1, 10).test();
+
+    // when
+    TestObserver<SearchResult> observer = service.find("foo", 2, 10).test();
+
+    // then
+    observer.assertEmpty();
+    verify(userService, never()).find("foo", 2, 10);
+    assertThat(service.getQueueSize()).isEqualTo(1);
+
+    scheduler.advanceTimeBy(1, TimeUnit.MINUTES);
+    observer.assertResult(result);
+    assertThat(service.getQueueSize()).isEqualTo(0);
+  }
+
+  @Test
+  public void find_queuedRequestsOfDifferentPriorities_shouldExecuteForegroundFirst() {
+    // given
+    SearchResult result = mock(SearchResult.class);
+    given(userService.find(anyString(), anyInt(), eq(10))).willReturn(Single.just(result));
+    RateLimitedUserService service = new RateLimitedUserService(userService, 1, 1, TimeUnit.MINUTES, scheduler);
+    service.find("foo", 1, 10).test(); // exhausts the limit
+    service.find("foo", 3, 10, RequestPriority.PREFETCH).test();
+    service.find("foo", 2, 10).test();
+    service.find("bar", 1, 10).test();
+
+    // when
+    scheduler.advanceTimeBy(3, TimeUnit.MINUTES);
+
+    // then
+    InOrder inOrder = inOrder(userService);
+    inOrder.verify(userService).find("foo", 1, 10);
+    inOrder.verify(userService).find("bar", 1, 10);
+    inOrder.verify(userService).find("foo", 2, 10);
+    inOrder.verify(userService).find("foo", 3, 10);
+    verifyNoMoreInteractions(userService);
+  }
+
+  @Test
+  public void dispose_queuedRequest_shouldNeverExecuteIt() {
+    // given
+    SearchResult result = mock(SearchResult.class);
+    given(userService.find("foo", 1, 10)).willReturn(Single.just(result));
+    RateLimitedUserService service = new RateLimitedUserService(userService, 1, 1, TimeUnit.MINUTES, scheduler);
+    service.find("foo", 1, 10).test();
+    TestObserver<SearchResult> observer = service.find("foo", 2, 10).test();
+
+    // when
+    observer.dispose();
+    scheduler.advanceTimeBy(1, TimeUnit.MINUTES);
+
+    // then
+    verify(userService).find("foo", 1, 10);
+    verifyNoMoreInteractions(userService);
+    assertThat(service.getQueueSize()).isEqualTo(0);
+  }
+
+  @Test
+  public void find_resultWithRateLimit_shouldUpdateQuota() {
+    // given
+    SearchResult result = mock(SearchResult.class);
+    given(result.getRateLimit()).willReturn(new RateLimit(30, 5, 42000));
+    given(userService.find("foo", 1, 10)).willReturn(Single.just(result));
+    RateLimitedUserService service = new RateLimitedUserService(userService, 10, 1, TimeUnit.MINUTES, scheduler);
+    TestObserver<RateLimit> quota$ = service.quota$().test();
+
+    // when
+    service.find("foo", 1, 10).test();
+
+    // then
+    quota$.assertValues(
+        new RateLimit(10, 10, 60000), // initial
+        new RateLimit(10, 9, 60000),  // request started
+        new RateLimit(30, 5, 42000)   // corrected by the response
+    );
+  }
+
+  @Test
+  public void find_rateLimitExceededException_shouldRequeueRequestUntilReset() {
+    // given
+    SearchResult result = mock(SearchResult.class);
+    given(userService.find("foo", 1, 10))
+        .willReturn(Single.error(new RateLimitExceededException(30000)))
+        .willReturn(Single.just(result));
+    RateLimitedUserService service = new RateLimitedUserService(userService, 10, 1, TimeUnit.MINUTES, scheduler);
+
+    // when
+    TestObserver<SearchResult> observer = service.find("foo", 1, 10).test();
+
+    // then
+    observer.assertEmpty();
+    assertThat(service.getQueueSize()).isEqualTo(1);
+    scheduler.advanceTimeBy(30, TimeUnit.SECONDS);
+    observer.assertResult(result);
+    verify(userService, times(2)).find("foo", 1, 10);
+  }
+
+  @Test
+  public void findIfModified_notModified_shouldGiveQuotaBack() {
+    // given
+    SearchResult cached = mock(SearchResult.class);
+    given(userService.findIfModified("foo", 1, 10, cached)).willReturn(Single.just(cached));
+    RateLimitedUserService service = new RateLimitedUserService(userService, 1, 1, TimeUnit.MINUTES, scheduler);
+
+    // when
+    TestObserver<SearchResult> observer = service.findIfModified("foo", 1, 10, cached).test();
+
+    // then
+    observer.assertResult(cached);
+    assertThat(service.quota$().blockingFirst().getRemaining()).isEqualTo(1);
+    verify(cached, never()).getRateLimit();
+  }
+
+  @Test
+  public void findIfModified_modified_shouldConsumeQuota() {
+    // given
+    SearchResult cached = mock(SearchResult.class);
+    SearchResult result = mock(SearchResult.class);
+    given(userService.findIfModified("foo", 1, 10, cached)).willReturn(Single.just(result));
+    RateLimitedUserService service = new RateLimitedUserService(userService, 1, 1, TimeUnit.MINUTES, scheduler);
+
+    // when
+    TestObserver<SearchResult> observer = service.findIfModified("foo", 1, 10, cached).test();
+
+    // then
+    observer.assertResult(result);
+    assertThat(service.quota$().blockingFirst().getRemaining()).isEqualTo(0);
+  }
+
+  @Test
+  public void find_otherError_shouldPropagateError() {
+    // given
+    given(userService.find("foo", 1, 10)).willReturn(Single.error(new RuntimeException("bar")));
+    RateLimitedUserService service = new RateLimitedUserService(userService, 10, 1, TimeUnit.MINUTES, scheduler);
+
+    // when
+    TestObserver<SearchResult> observer = service.find("foo", 1, 10).test();
+
+    // then
+    observer.assertErrorMessage("bar");
+    assertThat(service.getQueueSize()).isEqualTo(0);
+  }
+
+}
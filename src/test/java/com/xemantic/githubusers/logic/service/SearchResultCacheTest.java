@@ -0,0 +1,170 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.service;
+
+import com.google.common.base.Ticker;
+import com.xemantic.githubusers.logic.model.SearchResult;
+import com.xemantic.githubusers.logic.model.SimpleSearchResult;
+import com.xemantic.githubusers.logic.model.User;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Test of the {@link SearchResultCache}.
+ *
+ * @author morisil
+ */
+public class SearchResultCacheTest {
+
+  private static final SearchResult PAGE = new SimpleSearchResult(
+      100, false, Collections.nCopies(9, mock(User.class))
+  );
+
+  @Test
+  public void get_pageNeverPut_shouldReturnNullAndCountMiss() {
+    // given
+    SearchResultCache cache = new SearchResultCache(100, Long.MAX_VALUE, Ticker.systemTicker(), 4);
+
+    // when
+    SearchResult result = cache.get(new SearchRequest("foo", 1, 10));
+
+    // then
+    assertThat(result).isNull();
+    assertThat(cache.getStats().missCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void get_pagePut_shouldReturnPageAndCountHit() {
+    // given
+    SearchResultCache cache = new SearchResultCache(100, Long.MAX_VALUE, Ticker.systemTicker(), 4);
+    cache.put(new SearchRequest("foo", 1, 10), PAGE);
+
+    // when
+    SearchResult result = cache.get(new SearchRequest("foo", 1, 10));
+
+    // then
+    assertThat(result).isSameAs(PAGE);
+    assertThat(cache.getStats().hitCount()).isEqualTo(1);
+    assertThat(cache.getWeightedSize()).isEqualTo(10);
+  }
+
+  @Test
+  public void get_stripeCountNotPowerOf2_shouldRoundDownToKeepPageWithinStripe() {
+    // given
+    SearchResult page = new SimpleSearchResult(100, false, Collections.nCopies(100, mock(User.class)));
+    SearchResultCache cache = new SearchResultCache(303, Long.MAX_VALUE, Ticker.systemTicker(), 3);
+    cache.put(new SearchRequest("foo", 1, 100), page);
+
+    // when
+    SearchResult result = cache.get(new SearchRequest("foo", 1, 100));
+
+    // then
+    assertThat(result).isSameAs(page);
+    assertThat(cache.getStats().evictionCount()).isZero();
+  }
+
+  @Test
+  public void put_samePageTwice_shouldReplacePage() {
+    // given
+    SearchResultCache cache = new SearchResultCache(100, Long.MAX_VALUE, Ticker.systemTicker(), 1);
+    SearchResult otherPage = new SimpleSearchResult(100, false, Collections.emptyList());
+    cache.put(new SearchRequest("foo", 1, 10), PAGE);
+
+    // when
+    cache.put(new SearchRequest("foo", 1, 10), otherPage);
+
+    // then
+    assertThat(cache.get(new SearchRequest("foo", 1, 10))).isSameAs(otherPage);
+    assertThat(cache.getWeightedSize()).isEqualTo(1);
+  }
+
+  @Test
+  public void invalidateAll_pagesPut_shouldRemoveAllPages() {
+    // given
+    SearchResultCache cache = new SearchResultCache(100, Long.MAX_VALUE, Ticker.systemTicker(), 4);
+    cache.put(new SearchRequest("foo", 1, 10), PAGE);
+    cache.put(new SearchRequest("bar", 1, 10), PAGE);
+
+    // when
+    cache.invalidateAll();
+
+    // then
+    assertThat(cache.get(new SearchRequest("foo", 1, 10))).isNull();
+    assertThat(cache.get(new SearchRequest("bar", 1, 10))).isNull();
+    assertThat(cache.getWeightedSize()).isZero();
+  }
+
+  @Test
+  public void getAndPut_concurrentSkewedAccess_shouldStayWithinMaxWeightAndKeepHotPages() throws Exception {
+    // given
+    int maxWeight = 1000; // 100 pages
+    SearchResultCache cache = new SearchResultCache(maxWeight, Long.MAX_VALUE, Ticker.systemTicker(), 8);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    List<Future<?>> futures = new ArrayList<>();
+
+    // when
+    for (int t = 0; t < 4; t++) {
+      long seed = t;
+      futures.add(executor.submit(() -> {
+        Random random = new Random(seed);
+        for (int i = 0; i < 50000; i++) {
+          // every other request is for 1 of 20 hot queries, the rest is one-off
+          String query = random.nextBoolean()
+              ? "hot" + random.nextInt(20)
+              : "cold" + random.nextInt(Integer.MAX_VALUE);
+          SearchRequest request = new SearchRequest(query, 1, 10);
+          if (cache.get(request) == null) {
+            cache.put(request, PAGE);
+          }
+        }
+      }));
+    }
+    for (Future<?> future : futures) {
+      future.get(30, TimeUnit.SECONDS);
+    }
+    executor.shutdown();
+
+    // then
+    assertThat(cache.getWeightedSize()).isLessThanOrEqualTo(maxWeight + 8); // rounded up per stripe
+    int hotCached = 0;
+    for (int i = 0; i < 20; i++) {
+      if (cache.get(new SearchRequest("hot" + i, 1, 10)) != null) {
+        hotCached++;
+      }
+    }
+    assertThat(hotCached).isEqualTo(20);
+    assertThat(cache.getStats().hitRate()).isGreaterThan(0.45);
+  }
+
+}
@@ -0,0 +1,159 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.service;
+
+import com.xemantic.githubusers.logic.model.CacheValidator;
+import com.xemantic.githubusers.logic.model.SimpleSearchResult;
+import com.xemantic.githubusers.logic.model.SimpleUser;
+import com.xemantic.githubusers.logic.model.User;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Test of the {@link SearchResultRecord}.
+ *
+ * @author morisil
+ */
+public class SearchResultRecordTest {
+
+  @Test
+  public void decode_encodedRecord_shouldRestoreAllTheFields() {
+    // given
+    SearchResultRecord record = new SearchResultRecord(
+        new SearchRequest("foo:bar#", 2, 10),
+        new SimpleSearchResult(1001, true, Arrays.asList(
+            new SimpleUser("foo", "https://avatars/1", "https://github.com/foo"),
+            new SimpleUser("bar", "https://avatars/2", "https://example.com/bar")
+        )),
+        42
+    );
+
+    // when
+    SearchResultRecord decoded = SearchResultRecord.decode(record.encode());
+
+    // then
+    assertThat(decoded).isNotNull();
+    assertThat(decoded.getRequest()).isEqualTo(record.getRequest());
+    assertThat(decoded.getFetchTime()).isEqualTo(42);
+    assertThat(decoded.getResult().getTotalCount()).isEqualTo(1001);
+    assertThat(decoded.getResult().isIncompleteResult()).isTrue();
+    assertThat(decoded.getResult().getItems())
+        .extracting(User::getLogin, User::getAvatarUrl, User::getHtmlUrl)
+        .containsExactly(
+            tuple("foo", "https://avatars/1", "https://github.com/foo"),
+            tuple("bar", "https://avatars/2", "https://example.com/bar")
+        );
+  }
+
+  @Test
+  public void encode_derivableHtmlUrl_shouldOmitIt() {
+    // given
+    SearchResultRecord record = new SearchResultRecord(
+        new SearchRequest("foo", 1, 10),
+        new SimpleSearchResult(1, false, Arrays.asList(
+            new SimpleUser("foo", "a", "https://github.com/foo")
+        )),
+        0
+    );
+
+    // when
+    String encoded = record.encode();
+
+    // then
+    assertThat(encoded).doesNotContain("github.com");
+  }
+
+  @Test
+  public void decode_recordWithValidator_shouldRestoreValidatorWithFetchTime() {
+    // given
+    SearchResultRecord record = new SearchResultRecord(
+        new SearchRequest("foo", 1, 10),
+        new SimpleSearchResult(
+            0,
+            false,
+            Arrays.asList(),
+            null,
+            new CacheValidator("W/\"1:2#3\"", "Mon, 01 Jan 2018 00:00:00 GMT", 0)
+        ),
+        42
+    );
+
+    // when
+    SearchResultRecord decoded = SearchResultRecord.decode(record.encode());
+
+    // then
+    assertThat(decoded.getResult().getValidator()).isEqualTo(
+        new CacheValidator("W/\"1:2#3\"", "Mon, 01 Jan 2018 00:00:00 GMT", 42)
+    );
+  }
+
+  @Test
+  public void decode_recordWithoutValidator_shouldRestoreNoValidator() {
+    // given
+    SearchResultRecord record = new SearchResultRecord(
+        new SearchRequest("foo", 1, 10),
+        new SimpleSearchResult(0, false, Arrays.asList()),
+        42
+    );
+
+    // when
+    SearchResultRecord decoded = SearchResultRecord.decode(record.encode());
+
+    // then
+    assertThat(decoded.getResult().getValidator()).isNull();
+  }
+
+  @Test
+  public void decode_unknownVersionRecord_shouldReturnNull() {
+    // given
+    String body = "1:93:foo1:12:102:420:0:1:71:01:13:bar1:a0:";
+    String encoded = body + '#' + Integer.toHexString(body.hashCode());
+
+    // when
+    SearchResultRecord decoded = SearchResultRecord.decode(encoded);
+
+    // then
+    assertThat(decoded).isNull();
+  }
+
+  @Test
+  public void decode_corruptedRecord_shouldReturnNull() {
+    // given
+    String encoded = new SearchResultRecord(
+        new SearchRequest("foo", 1, 10),
+        new SimpleSearchResult(0, false, Arrays.asList()),
+        0
+    ).encode();
+
+    // when
+    SearchResultRecord decoded = SearchResultRecord.decode(encoded.replace("foo", "fob"));
+
+    // then
+    assertThat(decoded).isNull();
+  }
+
+}
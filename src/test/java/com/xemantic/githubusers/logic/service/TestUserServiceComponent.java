@@ -0,0 +1,124 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.service;
+
+import com.xemantic.ankh.shared.driver.RecordLog;
+import com.xemantic.ankh.shared.metrics.MetricsModule;
+import com.xemantic.ankh.test.MemoryRecordLog;
+import dagger.BindsInstance;
+import dagger.Component;
+import dagger.Module;
+import dagger.Provides;
+import io.reactivex.Scheduler;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+/**
+ * Component exposing the chain of decorators defined by the
+ * {@link UserServiceModule}, in front of the test double of the GitHub service.
+ *
+ * @author morisil
+ */
+@Singleton
+@Component(modules = {
+    UserServiceModule.class,
+    MetricsModule.class,
+    TestUserServiceComponent.TestUserServiceModule.class
+})
+interface TestUserServiceComponent {
+
+  int RATE_LIMIT = 30;
+
+  int CACHE_TTL_SECONDS = 60;
+
+  int PAGE_SIZE = 30;
+
+  UserService userService();
+
+  QueryHeavyHitters queryHeavyHitters();
+
+  CachePreWarmer cachePreWarmer();
+
+  @Component.Builder
+  interface Builder {
+
+    @BindsInstance
+    Builder gitHubUserService(@Named("gitHubUserService") UserService userService);
+
+    @BindsInstance
+    Builder scheduler(@Named("userServiceScheduler") Scheduler scheduler);
+
+    TestUserServiceComponent build();
+
+  }
+
+  @Module
+  abstract class TestUserServiceModule {
+
+    @Provides
+    @Singleton
+    @Named("userSearchLog")
+    static RecordLog userSearchLog() {
+      return new MemoryRecordLog();
+    }
+
+    @Provides
+    @Named("gitHubSearchRateLimit")
+    static int gitHubSearchRateLimit() {
+      return RATE_LIMIT;
+    }
+
+    @Provides
+    @Named("userServiceStoreMaxAgeSeconds")
+    static int userServiceStoreMaxAgeSeconds() {
+      return 3600;
+    }
+
+    @Provides
+    @Named("userServiceCacheMaxUsers")
+    static int userServiceCacheMaxUsers() {
+      return 1000;
+    }
+
+    @Provides
+    @Named("userServiceCacheTtlSeconds")
+    static int userServiceCacheTtlSeconds() {
+      return CACHE_TTL_SECONDS;
+    }
+
+    @Provides
+    @Named("userListPageSize")
+    static int userListPageSize() {
+      return PAGE_SIZE;
+    }
+
+    @Provides
+    @Named("gitHubUserSearchLimit")
+    static int gitHubUserSearchLimit() {
+      return 1000;
+    }
+
+  }
+
+}
@@ -0,0 +1,176 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.service;
+
+import com.xemantic.githubusers.logic.model.SearchResult;
+import com.xemantic.githubusers.logic.model.SearchResultStream;
+import com.xemantic.githubusers.logic.model.SimpleSearchResult;
+import com.xemantic.githubusers.logic.model.SimpleUser;
+import com.xemantic.githubusers.logic.model.User;
+import io.reactivex.Single;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.processors.PublishProcessor;
+import io.reactivex.schedulers.TestScheduler;
+import io.reactivex.subscribers.TestSubscriber;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.mockito.quality.Strictness;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+/**
+ * Test of the {@link UserService} chain defined by the {@link UserServiceModule}.
+ *
+ * @author morisil
+ */
+public class UserServiceModuleTest {
+
+  @Rule
+  public MockitoRule mockitoRule = MockitoJUnit.rule().strictness(Strictness.STRICT_STUBS);
+
+  @Mock
+  private StreamingUserService gitHubUserService;
+
+  private final TestScheduler scheduler = new TestScheduler();
+
+  @Test
+  public void find_streamingGitHubService_shouldRequestWholePagesThroughTheChain() {
+    // given
+    given(gitHubUserService.find("foo", 1, 100)).willReturn(Single.just(result(100)));
+    UserService userService = component().userService();
+
+    // when
+    List<SearchResult> results = new ArrayList<>();
+    for (int page = 1; page <= 5; page++) {
+      userService.find("foo", page, 20).subscribe(result -> results.add(result));
+      scheduler.triggerActions();
+    }
+
+    // then
+    assertThat(results).hasSize(5);
+    assertThat(results.get(4).getItems().get(0).getLogin()).isEqualTo("foo80");
+    verify(gitHubUserService).find("foo", 1, 100); // never findStream
+    verifyNoMoreInteractions(gitHubUserService);
+  }
+
+  @Test
+  public void findStream_missingPage_shouldStreamUsersAndKeepWholePage() {
+    // given
+    PublishProcessor<User> users$ = PublishProcessor.create();
+    given(gitHubUserService.findStream("foo", 1, 100))
+        .willReturn(Single.just(new SearchResultStream(1000, false, users$)));
+    UserService userService = component().userService();
+    assertThat(userService).isInstanceOf(StreamingUserService.class);
+    TestObserver<SearchResultStream> stream$ =
+        ((StreamingUserService) userService).findStream("foo", 1, 20).test();
+    scheduler.triggerActions();
+    TestSubscriber<User> page$ = stream$.values().get(0).getItems().test();
+
+    // when
+    users$.onNext(new SimpleUser("foo0", "", ""));
+
+    // then
+    page$.assertValueCount(1).assertNotComplete(); // before the page is received
+    for (User user : result(100).getItems().subList(1, 100)) {
+      users$.onNext(user);
+    }
+    users$.onComplete();
+    page$.assertValueCount(20).assertComplete();
+    userService.find("foo", 2, 20).test()
+        .assertValue(page -> page.getItems().get(0).getLogin().equals("foo20"));
+    verify(gitHubUserService).findStream("foo", 1, 100); // the rest from the cache
+    verifyNoMoreInteractions(gitHubUserService);
+  }
+
+  @Test
+  public void find_firstPageOfPreWarmedQuery_shouldBeServedFromCache() {
+    // given
+    SearchResult result = result(90); // the biggest multiple of the page size
+    given(gitHubUserService.find("foo", 1, 90)).willReturn(Single.just(result));
+    TestUserServiceComponent component = component();
+    component.queryHeavyHitters().record("foo");
+    component.cachePreWarmer().start();
+    scheduler.advanceTimeBy(TestUserServiceComponent.CACHE_TTL_SECONDS / 2, TimeUnit.SECONDS);
+
+    // when
+    TestObserver<SearchResult> page$ = component.userService()
+        .find("foo", 1, TestUserServiceComponent.PAGE_SIZE)
+        .test();
+
+    // then
+    page$.assertValue(page -> page.getItems().size() == TestUserServiceComponent.PAGE_SIZE);
+    verify(gitHubUserService).find("foo", 1, 90); // only by the pre-warmer
+    verifyNoMoreInteractions(gitHubUserService);
+  }
+
+  @Test
+  public void find_prefetchQueuedUnderDepletedRateLimit_shouldYieldToForegroundRequest() {
+    // given
+    given(gitHubUserService.find(anyString(), eq(1), eq(100))).willReturn(Single.just(result(100)));
+    UserService userService = component().userService();
+    for (int i = 0; i < TestUserServiceComponent.RATE_LIMIT; i++) {
+      userService.find("query" + i, 1, 20).subscribe();
+    }
+    scheduler.triggerActions();
+    userService.find("foo", 2, 20, RequestPriority.PREFETCH).subscribe();
+    userService.find("bar", 1, 20).subscribe();
+
+    // when
+    scheduler.advanceTimeBy(1, TimeUnit.MINUTES);
+
+    // then
+    InOrder inOrder = inOrder(gitHubUserService);
+    inOrder.verify(gitHubUserService).find("bar", 1, 100);
+    inOrder.verify(gitHubUserService).find("foo", 1, 100);
+  }
+
+  private TestUserServiceComponent component() {
+    return DaggerTestUserServiceComponent.builder()
+        .gitHubUserService(gitHubUserService)
+        .scheduler(scheduler)
+        .build();
+  }
+
+  private static SearchResult result(int size) {
+    List<User> users = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      users.add(new SimpleUser("foo" + i, "", ""));
+    }
+    return new SimpleSearchResult(1000, false, users);
+  }
+
+}
@@ -23,13 +23,26 @@
 package com.xemantic.githubusers.logic.user;
 
 import com.xemantic.ankh.shared.event.Trigger;
+import com.xemantic.ankh.shared.retry.BackoffRetryPolicy;
 import com.xemantic.githubusers.logic.event.UserQueryEvent;
 import com.xemantic.githubusers.logic.model.SearchResult;
+import com.xemantic.githubusers.logic.model.SearchResultStream;
+import com.xemantic.githubusers.logic.model.SimpleSearchResult;
+import com.xemantic.githubusers.logic.model.SimpleUser;
 import com.xemantic.githubusers.logic.model.User;
+import com.xemantic.githubusers.logic.service.RequestPriority;
+import com.xemantic.githubusers.logic.service.StreamingUserService;
 import com.xemantic.githubusers.logic.service.UserService;
 import com.xemantic.ankh.test.ExpectedUncaughtException;
+import com.xemantic.ankh.test.RecordingMetrics;
+import com.xemantic.ankh.test.RecordingTracer;
+import io.reactivex.Flowable;
 import io.reactivex.Single;
+import io.reactivex.processors.PublishProcessor;
+import io.reactivex.schedulers.Schedulers;
+import io.reactivex.schedulers.TestScheduler;
 import io.reactivex.subjects.PublishSubject;
+import io.reactivex.subjects.SingleSubject;
 import org.junit.Rule;
 import org.junit.Test;
 import org.mockito.InOrder;
@@ -38,13 +51,24 @@ import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 import org.mockito.quality.Strictness;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.IntStream;
 
 import static com.xemantic.ankh.shared.event.Trigger.fire;
 import static com.xemantic.ankh.shared.event.Trigger.noTriggers;
+import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willReturn;
 import static org.mockito.Mockito.*;
 
 /**
@@ -64,12 +88,18 @@ public class UserListPresenterTest {
 
   private static final int DEFAULT_USER_SEARCH_LIMIT = 1000; // max for GitHub API
 
+  private static final int DEFAULT_PREFETCH_DISTANCE = 20;
+
+  private static final int DEFAULT_MAX_PAGES = 0; // unbounded
+
   @Mock
   private UserListView view;
 
   @Mock
   private UserService userService;
 
+  private final TestScheduler scheduler = new TestScheduler();
+
   private InOrder inOrder;
 
   @Test
@@ -82,7 +112,10 @@ public class UserListPresenterTest {
         userService,
         mock(UserPresenterFactory.class),
         DEFAULT_PAGE_SIZE,
-        DEFAULT_USER_SEARCH_LIMIT
+        DEFAULT_USER_SEARCH_LIMIT,
+        DEFAULT_PREFETCH_DISTANCE,
+        DEFAULT_MAX_PAGES,
+        scheduler
     );
 
     // when
@@ -102,7 +135,10 @@ public class UserListPresenterTest {
         userService,
         mock(UserPresenterFactory.class),
         DEFAULT_PAGE_SIZE,
-        DEFAULT_USER_SEARCH_LIMIT
+        DEFAULT_USER_SEARCH_LIMIT,
+        DEFAULT_PREFETCH_DISTANCE,
+        DEFAULT_MAX_PAGES,
+        scheduler
     );
     presenter.start();
     UserQueryEvent event = new UserQueryEvent(" "); // empty string
@@ -141,7 +177,10 @@ public class UserListPresenterTest {
         userService,
         userPresenterFactory,
         DEFAULT_PAGE_SIZE,
-        DEFAULT_USER_SEARCH_LIMIT
+        DEFAULT_USER_SEARCH_LIMIT,
+        DEFAULT_PREFETCH_DISTANCE,
+        DEFAULT_MAX_PAGES,
+        scheduler
     );
     presenter.start();
 
@@ -157,7 +196,7 @@ public class UserListPresenterTest {
     $(view).loadingFirstPage(false);
     $(view).clear();
     $(userPresenter).start();
-    $(view).add(userView);
+    $(view).addAll(singletonList(userView));
     $(view).loadMoreIntent$();
     // load more stays disabled as it's the last page of results.
     verifyNoMoreInteractions(view, userService, userPresenter);
@@ -191,7 +230,10 @@ public class UserListPresenterTest {
         userService,
         userPresenterFactory,
         pageSize,
-        DEFAULT_USER_SEARCH_LIMIT
+        DEFAULT_USER_SEARCH_LIMIT,
+        DEFAULT_PREFETCH_DISTANCE,
+        DEFAULT_MAX_PAGES,
+        scheduler
     );
     presenter.start();
 
@@ -208,7 +250,7 @@ public class UserListPresenterTest {
     $(view).loadingFirstPage(false);
     $(view).clear();
     $(userPresenter).start();
-    $(view).add(userView);
+    $(view).addAll(singletonList(userView));
     $(view).loadMoreIntent$();
     verifyNoMoreInteractions(view, userService, userPresenter);
     inOrder.verifyNoMoreInteractions();
@@ -252,7 +294,10 @@ public class UserListPresenterTest {
         userService,
         userPresenterFactory,
         pageSize,
-        DEFAULT_USER_SEARCH_LIMIT
+        DEFAULT_USER_SEARCH_LIMIT,
+        DEFAULT_PREFETCH_DISTANCE,
+        DEFAULT_MAX_PAGES,
+        scheduler
     );
     presenter.start();
     userQuery$.onNext(new UserQueryEvent("foo"));
@@ -275,11 +320,11 @@ public class UserListPresenterTest {
     $(view).loadingFirstPage(false);
     $(view).clear();
     $(userPresenter1).start();
-    $(view).add(userView1);
+    $(view).addAll(singletonList(userView1));
     $(view).enableLoadMore(false);
     $(userService).find("foo", 2, 1);
     $(userPresenter2).start();
-    $(view).add(userView2);
+    $(view).addAll(singletonList(userView2));
     $(view).loadMoreIntent$();
     verifyNoMoreInteractions(
         view,
@@ -313,7 +358,10 @@ public class UserListPresenterTest {
         userService,
         mockUserPresenterFactory(user, userView),
         DEFAULT_PAGE_SIZE,
-        DEFAULT_USER_SEARCH_LIMIT
+        DEFAULT_USER_SEARCH_LIMIT,
+        DEFAULT_PREFETCH_DISTANCE,
+        DEFAULT_MAX_PAGES,
+        scheduler
     );
     presenter.start();
 
@@ -327,7 +375,7 @@ public class UserListPresenterTest {
     verify(view, times(11)).loadMoreIntent$();
     verify(view).clear();
     verify(userService, times(10)).find(eq("foo"), anyInt(), eq(DEFAULT_PAGE_SIZE));
-    verify(view, times(1000)).add(userView);
+    verify(view, times(10)).addAll(Collections.nCopies(100, userView));
     verify(view, times(10)).enableLoadMore(false);
     verify(view, times(9)).enableLoadMore(true);
 
@@ -367,7 +415,10 @@ public class UserListPresenterTest {
         userService,
         mockUserPresenterFactory(user, userView),
         DEFAULT_PAGE_SIZE,
-        DEFAULT_USER_SEARCH_LIMIT
+        DEFAULT_USER_SEARCH_LIMIT,
+        DEFAULT_PREFETCH_DISTANCE,
+        DEFAULT_MAX_PAGES,
+        scheduler
     );
 
     // intermediate state check
@@ -416,14 +467,14 @@ public class UserListPresenterTest {
     $(userService).find("bar", 1, DEFAULT_PAGE_SIZE);
     $(view).loadingFirstPage(false);
     $(view).clear();
-    $(view).add(userView);
+    $(view).addAll(singletonList(userView));
     $(view).loadMoreIntent$();
     verifyNoMoreInteractions(view, userService);
     inOrder.verifyNoMoreInteractions();
   }
 
   @Test
-  public void onUserQueryEvent_whenPageOfAnotherQueryIsDisplayed_shouldClearOldUserViewsAndStopAssociatedPresenters() {
+  public void onUserQueryEvent_whenPageOfAnotherQueryIsDisplayed_shouldClearOldUserViewsAndReuseAssociatedPresenters() {
     // given
     int totalCount = 1;
     UserQueryEvent event1 = new UserQueryEvent("foo");
@@ -447,12 +498,9 @@ public class UserListPresenterTest {
 
     UserView userView1 = mock(UserView.class);
     UserPresenter userPresenter1 = mock(UserPresenter.class);
-    UserView userView2 = mock(UserView.class);
-    UserPresenter userPresenter2 = mock(UserPresenter.class);
     given(userPresenter1.getView()).willReturn(userView1);
-    given(userPresenter2.getView()).willReturn(userView2);
     UserPresenterFactory userPresenterFactory = mock(UserPresenterFactory.class);
-    given(userPresenterFactory.create(any())).willReturn(userPresenter1, userPresenter2);
+    given(userPresenterFactory.create(any())).willReturn(userPresenter1);
 
     UserListPresenter presenter = new UserListPresenter(
         view,
@@ -460,7 +508,10 @@ public class UserListPresenterTest {
         userService,
         userPresenterFactory,
         DEFAULT_PAGE_SIZE,
-        DEFAULT_USER_SEARCH_LIMIT
+        DEFAULT_USER_SEARCH_LIMIT,
+        DEFAULT_PREFETCH_DISTANCE,
+        DEFAULT_MAX_PAGES,
+        scheduler
     );
     presenter.start();
     userQuery$.onNext(event1);
@@ -469,25 +520,27 @@ public class UserListPresenterTest {
     userQuery$.onNext(event2);
 
     // then
-    inOrder = inOrder(view, userService, userPresenter1, userPresenter2);
+    inOrder = inOrder(view, userService, userPresenterFactory, userPresenter1);
     $(view).loadMoreIntent$();
     $(view).enableLoadMore(false);
     $(view).loadingFirstPage(true);
     $(userService).find("foo", 1, DEFAULT_PAGE_SIZE);
     $(view).loadingFirstPage(false);
     $(view).clear();
+    $(userPresenterFactory).create(user1);
     $(userPresenter1).start();
-    $(view).add(userView1);
+    $(userPresenter1).getView();
+    $(view).addAll(singletonList(userView1));
     $(view).enableLoadMore(false);
     $(view).loadingFirstPage(true);
     $(userService).find("bar", 1, DEFAULT_PAGE_SIZE);
     $(view).loadingFirstPage(false);
     $(view).clear();
-    $(userPresenter1).stop(); // stops the first presenter
-    $(userPresenter2).start();
-    $(view).add(userView2);
+    $(userPresenter1).bind(user2); // reuses the first presenter
+    $(userPresenter1).getView();
+    $(view).addAll(singletonList(userView1));
     $(view).loadMoreIntent$();
-    verifyNoMoreInteractions(view, userService, userPresenter1, userPresenter2);
+    verifyNoMoreInteractions(view, userService, userPresenterFactory, userPresenter1);
     inOrder.verifyNoMoreInteractions();
   }
 
@@ -521,7 +574,10 @@ public class UserListPresenterTest {
         userService,
         mockUserPresenterFactory(user, userView),
         pageSize,
-        DEFAULT_USER_SEARCH_LIMIT
+        DEFAULT_USER_SEARCH_LIMIT,
+        DEFAULT_PREFETCH_DISTANCE,
+        DEFAULT_MAX_PAGES,
+        scheduler
     );
     presenter.start();
     userQuery$.onNext(new UserQueryEvent("foo")); // will generate error in request
@@ -535,15 +591,15 @@ public class UserListPresenterTest {
     $(view).enableLoadMore(false);
     $(view).loadingFirstPage(true);
     $(userService).find("foo", 1, pageSize);
-    $(view).enableLoadMore(true);
     $(view).loadingFirstPage(false);
     $(view).clear();
+    $(view).enableLoadMore(true);
     $(view).enableLoadMore(false);
     $(view).loadingFirstPage(true);
     $(userService).find("foo", 1, pageSize);
     $(view).loadingFirstPage(false);
     $(view).clear();
-    $(view).add(userView);
+    $(view).addAll(singletonList(userView));
     $(view).loadMoreIntent$();
     verifyNoMoreInteractions(view, userService);
     inOrder.verifyNoMoreInteractions();
@@ -592,7 +648,10 @@ public class UserListPresenterTest {
         userService,
         userPresenterFactory,
         pageSize,
-        DEFAULT_USER_SEARCH_LIMIT
+        DEFAULT_USER_SEARCH_LIMIT,
+        DEFAULT_PREFETCH_DISTANCE,
+        DEFAULT_MAX_PAGES,
+        scheduler
     );
     presenter.start();
     userQuery$.onNext(new UserQueryEvent("foo")); // will generate error in request
@@ -610,14 +669,14 @@ public class UserListPresenterTest {
     $(view).enableLoadMore(true);
     $(view).loadingFirstPage(false);
     $(view).clear();
-    $(view).add(userView);
+    $(view).addAll(singletonList(userView));
     $(view).enableLoadMore(false);
     $(userService).find("foo", 2, pageSize);
     $(view).enableLoadMore(true);
     $(view).enableLoadMore(false);
     $(userService).find("foo", 2, pageSize);
     $(view).enableLoadMore(true); // still 3rd page to be shown
-    $(view).add(userView);
+    $(view).addAll(singletonList(userView));
     $(view).loadMoreIntent$();
     verifyNoMoreInteractions(view, userService);
     inOrder.verifyNoMoreInteractions();
@@ -644,7 +703,10 @@ public class UserListPresenterTest {
         userService,
         mock(UserPresenterFactory.class),
         DEFAULT_PAGE_SIZE,
-        DEFAULT_USER_SEARCH_LIMIT
+        DEFAULT_USER_SEARCH_LIMIT,
+        DEFAULT_PREFETCH_DISTANCE,
+        DEFAULT_MAX_PAGES,
+        scheduler
     );
     presenter.start();
     userQuery$.onNext(event);
@@ -702,7 +764,10 @@ public class UserListPresenterTest {
         userService,
         userPresenterFactory,
         pageSize,
-        DEFAULT_USER_SEARCH_LIMIT
+        DEFAULT_USER_SEARCH_LIMIT,
+        DEFAULT_PREFETCH_DISTANCE,
+        DEFAULT_MAX_PAGES,
+        scheduler
     );
     presenter.start();
     userQuery$.onNext(event);
@@ -725,7 +790,7 @@ public class UserListPresenterTest {
     $(view).loadingFirstPage(false);
     $(view).clear();
     $(userPresenter).start();
-    $(view).add(userView);
+    $(view).addAll(singletonList(userView));
     $(userPresenter).stop(); // essence of this test - child presenter is stopped as well
     verifyNoMoreInteractions(view, userService, userPresenter);
     inOrder.verifyNoMoreInteractions();
@@ -735,6 +800,741 @@ public class UserListPresenterTest {
     assertThat(request$.hasObservers()).isFalse();
   }
 
+  @Test
+  public void onUserQueryEvent_streamingUserService_shouldDisplayUsersAsTheyAreStreamed() {
+    // given
+    int pageSize = 2;
+    int totalCount = 2;
+    PublishSubject<UserQueryEvent> userQuery$ = PublishSubject.create();
+    PublishProcessor<User> users = PublishProcessor.create();
+    StreamingUserService streamingService = mock(StreamingUserService.class);
+    given(streamingService.findStream("foo", 1, pageSize))
+        .willReturn(Single.just(new SearchResultStream(totalCount, false, users)));
+
+    User user1 = mock(User.class);
+    User user2 = mock(User.class);
+    UserView userView1 = mock(UserView.class);
+    UserPresenter userPresenter1 = mock(UserPresenter.class);
+    UserView userView2 = mock(UserView.class);
+    UserPresenter userPresenter2 = mock(UserPresenter.class);
+    given(userPresenter1.getView()).willReturn(userView1);
+    given(userPresenter2.getView()).willReturn(userView2);
+    UserPresenterFactory userPresenterFactory = mock(UserPresenterFactory.class);
+    given(userPresenterFactory.create(any())).willReturn(userPresenter1, userPresenter2);
+
+    given(view.loadMoreIntent$()).willReturn(noTriggers());
+
+    UserListPresenter presenter = new UserListPresenter(
+        view,
+        userQuery$,
+        streamingService,
+        userPresenterFactory,
+        pageSize,
+        DEFAULT_USER_SEARCH_LIMIT,
+        DEFAULT_PREFETCH_DISTANCE,
+        DEFAULT_MAX_PAGES,
+        scheduler
+    );
+    presenter.start();
+    userQuery$.onNext(new UserQueryEvent("foo"));
+
+    // when
+    users.onNext(user1);
+    scheduler.advanceTimeBy(16, TimeUnit.MILLISECONDS); // one frame
+
+    // then
+    verify(view).addAll(singletonList(userView1));
+    verify(view, never()).addAll(singletonList(userView2));
+
+    users.onNext(user2);
+    users.onComplete();
+    inOrder = inOrder(view, streamingService);
+    $(view).loadMoreIntent$();
+    $(view).enableLoadMore(false);
+    $(view).loadingFirstPage(true);
+    $(streamingService).findStream("foo", 1, pageSize);
+    $(view).loadingFirstPage(false);
+    $(view).clear();
+    $(view).addAll(singletonList(userView1));
+    $(view).addAll(singletonList(userView2));
+    $(view).loadMoreIntent$();
+    verifyNoMoreInteractions(view, streamingService);
+    inOrder.verifyNoMoreInteractions();
+  }
+
+  @Test
+  public void onUserQueryEvent_streamedChunkClosedByTimeSlice_shouldBeDisplayedOnUserListScheduler()
+      throws Exception {
+    // given
+    int pageSize = 2;
+    PublishSubject<UserQueryEvent> userQuery$ = PublishSubject.create();
+    PublishProcessor<User> users = PublishProcessor.create();
+    StreamingUserService streamingService = mock(StreamingUserService.class);
+    given(streamingService.findStream("foo", 1, pageSize))
+        .willReturn(Single.just(new SearchResultStream(2, false, users)));
+    UserPresenter userPresenter = mock(UserPresenter.class);
+    given(userPresenter.getView()).willReturn(mock(UserView.class));
+    UserPresenterFactory userPresenterFactory = mock(UserPresenterFactory.class);
+    given(userPresenterFactory.create(any())).willReturn(userPresenter);
+    given(view.loadMoreIntent$()).willReturn(noTriggers());
+    List<String> addAllThreads = new CopyOnWriteArrayList<>();
+    willAnswer(invocation -> addAllThreads.add(Thread.currentThread().getName()))
+        .given(view).addAll(any());
+    ExecutorService uiThread = Executors.newSingleThreadExecutor(task -> new Thread(task, "ui"));
+
+    UserListPresenter presenter = new UserListPresenter(
+        view,
+        userQuery$,
+        streamingService,
+        userPresenterFactory,
+        pageSize,
+        DEFAULT_USER_SEARCH_LIMIT,
+        DEFAULT_PREFETCH_DISTANCE,
+        DEFAULT_MAX_PAGES,
+        Schedulers.from(uiThread)
+    );
+    presenter.start();
+    userQuery$.onNext(new UserQueryEvent("foo"));
+
+    // when
+    users.onNext(mock(User.class)); // the chunk is closed by the time slice
+
+    // then
+    verify(view, timeout(1000)).addAll(any());
+    assertThat(addAllThreads).containsExactly("ui");
+    uiThread.submit(presenter::stop).get(); // no more time slices scheduled
+    uiThread.shutdown();
+  }
+
+  @Test
+  public void onLoadMore_errorInTheMiddleOfStreamedPage_shouldNotDisplayAlreadyDisplayedUsersAgain() {
+    // given
+    @SuppressWarnings("ThrowableNotThrown")
+    RuntimeException error = new RuntimeException("connection reset");
+    int pageSize = 2;
+    int totalCount = 4;
+    PublishSubject<UserQueryEvent> userQuery$ = PublishSubject.create();
+    User user1 = mock(User.class);
+    User user2 = mock(User.class);
+    User user3 = mock(User.class);
+    User user4 = mock(User.class);
+    PublishProcessor<User> failingPage = PublishProcessor.create();
+    StreamingUserService streamingService = mock(StreamingUserService.class);
+    given(streamingService.findStream(eq("foo"), anyInt(), eq(pageSize)))
+        .willReturn(Single.just(new SearchResultStream(
+            totalCount, false, Flowable.just(user1, user2)
+        )))
+        .willReturn(Single.just(new SearchResultStream(
+            totalCount, false, failingPage
+        )))
+        .willReturn(Single.just(new SearchResultStream(
+            totalCount, false, Flowable.just(user3, user4)
+        )));
+
+    UserView userView = mock(UserView.class);
+    UserPresenter userPresenter = mock(UserPresenter.class);
+    given(userPresenter.getView()).willReturn(userView);
+    UserPresenterFactory userPresenterFactory = mock(UserPresenterFactory.class);
+    given(userPresenterFactory.create(any())).willReturn(userPresenter);
+
+    PublishSubject<Trigger> loadMoreIntent = PublishSubject.create();
+    given(view.loadMoreIntent$()).willReturn(loadMoreIntent);
+
+    UserListPresenter presenter = new UserListPresenter(
+        view,
+        userQuery$,
+        streamingService,
+        userPresenterFactory,
+        pageSize,
+        DEFAULT_USER_SEARCH_LIMIT,
+        DEFAULT_PREFETCH_DISTANCE,
+        DEFAULT_MAX_PAGES,
+        scheduler
+    );
+    presenter.start();
+    userQuery$.onNext(new UserQueryEvent("foo"));
+    fire(loadMoreIntent);
+    failingPage.onNext(user3);
+    scheduler.advanceTimeBy(16, TimeUnit.MILLISECONDS); // user3 displayed
+    failingPage.onError(error);
+
+    // when
+    fire(loadMoreIntent); // page 2 again
+
+    // then
+    InOrder factoryOrder = inOrder(userPresenterFactory);
+    factoryOrder.verify(userPresenterFactory).create(user1);
+    factoryOrder.verify(userPresenterFactory).create(user2);
+    factoryOrder.verify(userPresenterFactory).create(user3);
+    factoryOrder.verify(userPresenterFactory).create(user4);
+    verifyNoMoreInteractions(userPresenterFactory);
+    verify(streamingService).findStream("foo", 1, pageSize);
+    verify(streamingService, times(2)).findStream("foo", 2, pageSize);
+    verify(view).addAll(Arrays.asList(userView, userView)); // page 1
+    verify(view, times(2)).addAll(singletonList(userView)); // user3 and user4
+
+    uncaughtThrown.expect(RuntimeException.class);
+    uncaughtThrown.expectMessage("connection reset");
+  }
+
+  @Test
+  public void onUserQueryEvent_windowedView_shouldBindUsersWithinWindowAndRecycleThemWhenScrolledAway() {
+    // given
+    int pageSize = 2;
+    int totalCount = 2;
+    PublishSubject<UserQueryEvent> userQuery$ = PublishSubject.create();
+    PublishSubject<IndexRange> visibleRange$ = PublishSubject.create();
+    WindowedUserListView windowedView = mock(WindowedUserListView.class);
+    given(windowedView.loadMoreIntent$()).willReturn(noTriggers());
+    given(windowedView.visibleRange$()).willReturn(visibleRange$);
+
+    User user1 = mock(User.class);
+    User user2 = mock(User.class);
+    SearchResult result = mock(SearchResult.class);
+    given(result.getTotalCount()).willReturn(totalCount);
+    given(result.getItems()).willReturn(Arrays.asList(user1, user2));
+    given(userService.find("foo", 1, pageSize)).willReturn(Single.just(result));
+
+    UserView userView1 = mock(UserView.class);
+    UserPresenter userPresenter1 = mock(UserPresenter.class);
+    UserView userView2 = mock(UserView.class);
+    UserPresenter userPresenter2 = mock(UserPresenter.class);
+    given(userPresenter1.getView()).willReturn(userView1);
+    given(userPresenter2.getView()).willReturn(userView2);
+    UserPresenterFactory userPresenterFactory = mock(UserPresenterFactory.class);
+    given(userPresenterFactory.create(any())).willReturn(userPresenter1, userPresenter2);
+
+    UserListPresenter presenter = new UserListPresenter(
+        windowedView,
+        userQuery$,
+        userService,
+        userPresenterFactory,
+        pageSize,
+        DEFAULT_USER_SEARCH_LIMIT,
+        DEFAULT_PREFETCH_DISTANCE,
+        DEFAULT_MAX_PAGES,
+        scheduler
+    );
+    presenter.start();
+    userQuery$.onNext(new UserQueryEvent("foo"));
+
+    // when
+    visibleRange$.onNext(new IndexRange(10, 20));
+
+    // then
+    verify(windowedView).setUserCount(2); // whole page at once
+    verify(windowedView).bind(0, userView1);
+    verify(windowedView).bind(1, userView2);
+    verify(windowedView).unbind(0);
+    verify(windowedView).unbind(1);
+    verify(windowedView, never()).add(any());
+    verify(windowedView, never()).addAll(any());
+    verify(userPresenter1, never()).stop(); // pooled
+    presenter.stop();
+    verify(userPresenter1).stop();
+    verify(userPresenter2).stop();
+    verify(userPresenterFactory).create(user1);
+    verify(userPresenterFactory).create(user2);
+  }
+
+  @Test
+  public void onScrollNearTheEnd_scrollingView_shouldPrefetchNextPageAndDisplayItOnLoadMore() {
+    // given
+    int pageSize = 2;
+    int totalCount = 4;
+    int prefetchDistance = 0; // prefetch when the last user is visible
+    PublishSubject<UserQueryEvent> userQuery$ = PublishSubject.create();
+    PublishSubject<IndexRange> visibleRange$ = PublishSubject.create();
+    PublishSubject<Trigger> loadMoreIntent = PublishSubject.create();
+    ScrollingUserListView scrollingView = mock(ScrollingUserListView.class);
+    given(scrollingView.loadMoreIntent$()).willReturn(loadMoreIntent);
+    given(scrollingView.visibleRange$()).willReturn(visibleRange$);
+
+    User user1 = mock(User.class);
+    User user2 = mock(User.class);
+    SearchResult result1 = mock(SearchResult.class);
+    given(result1.getTotalCount()).willReturn(totalCount);
+    given(result1.getItems()).willReturn(Arrays.asList(user1, user1));
+    SearchResult result2 = mock(SearchResult.class);
+    given(result2.getTotalCount()).willReturn(totalCount);
+    given(result2.getItems()).willReturn(Arrays.asList(user2, user2));
+    SingleSubject<SearchResult> request2 = SingleSubject.create();
+    given(userService.find("foo", 1, pageSize)).willReturn(Single.just(result1));
+    willReturn(request2).given(userService).find("foo", 2, pageSize, RequestPriority.PREFETCH);
+
+    UserView userView = mock(UserView.class);
+    UserPresenterFactory userPresenterFactory = mockUserPresenterFactory(userView);
+
+    UserListPresenter presenter = new UserListPresenter(
+        scrollingView,
+        userQuery$,
+        userService,
+        userPresenterFactory,
+        pageSize,
+        DEFAULT_USER_SEARCH_LIMIT,
+        prefetchDistance,
+        DEFAULT_MAX_PAGES,
+        scheduler
+    );
+    presenter.start();
+    userQuery$.onNext(new UserQueryEvent("foo"));
+    visibleRange$.onNext(new IndexRange(0, 0));
+    verify(userService, never()).find("foo", 2, pageSize, RequestPriority.PREFETCH);
+
+    // when
+    visibleRange$.onNext(new IndexRange(0, 1));
+
+    // then
+    verify(userService).find("foo", 2, pageSize, RequestPriority.PREFETCH);
+    request2.onSuccess(result2);
+    verify(scrollingView, times(1)).addAll(any());
+    verify(scrollingView, times(1)).enableLoadMore(false);
+    assertThat(presenter.getPrefetchedPageCount()).isEqualTo(1);
+
+    // when
+    fire(loadMoreIntent);
+
+    // then
+    verify(scrollingView, times(2)).addAll(Arrays.asList(userView, userView));
+    verify(scrollingView, times(2)).enableLoadMore(false);
+    verify(userService).find("foo", 1, pageSize);
+    verifyNoMoreInteractions(userService);
+    assertThat(presenter.getPrefetchedPageCount()).isEqualTo(1);
+    assertThat(presenter.getUnusedPrefetchedPageCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void onUserQueryEvent_whenNextPageIsPrefetched_shouldCountItAsUnused() {
+    // given
+    int pageSize = 1;
+    int totalCount = 2;
+    int prefetchDistance = 0;
+    PublishSubject<UserQueryEvent> userQuery$ = PublishSubject.create();
+    PublishSubject<IndexRange> visibleRange$ = PublishSubject.create();
+    ScrollingUserListView scrollingView = mock(ScrollingUserListView.class);
+    given(scrollingView.loadMoreIntent$()).willReturn(noTriggers());
+    given(scrollingView.visibleRange$()).willReturn(visibleRange$);
+
+    User user = mock(User.class);
+    SearchResult result = mock(SearchResult.class);
+    given(result.getTotalCount()).willReturn(totalCount);
+    given(result.getItems()).willReturn(Collections.singletonList(user));
+    given(userService.find(anyString(), anyInt(), anyInt())).willReturn(Single.just(result));
+    willReturn(Single.just(result)).given(userService)
+        .find("foo", 2, pageSize, RequestPriority.PREFETCH);
+
+    UserView userView = mock(UserView.class);
+    UserPresenterFactory userPresenterFactory = mockUserPresenterFactory(userView);
+
+    UserListPresenter presenter = new UserListPresenter(
+        scrollingView,
+        userQuery$,
+        userService,
+        userPresenterFactory,
+        pageSize,
+        DEFAULT_USER_SEARCH_LIMIT,
+        prefetchDistance,
+        DEFAULT_MAX_PAGES,
+        scheduler
+    );
+    presenter.start();
+    userQuery$.onNext(new UserQueryEvent("foo"));
+    visibleRange$.onNext(new IndexRange(0, 0));
+
+    // when
+    userQuery$.onNext(new UserQueryEvent("bar"));
+
+    // then
+    verify(userService).find("foo", 1, pageSize);
+    verify(userService).find("foo", 2, pageSize, RequestPriority.PREFETCH);
+    verify(userService).find("bar", 1, pageSize);
+    assertThat(presenter.getPrefetchedPageCount()).isEqualTo(1);
+    assertThat(presenter.getUnusedPrefetchedPageCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void onScrollNearTheEnd_whenThereIsNoNextPage_shouldNotPrefetch() {
+    // given
+    int pageSize = 1;
+    int totalCount = 1;
+    int prefetchDistance = 0;
+    PublishSubject<UserQueryEvent> userQuery$ = PublishSubject.create();
+    PublishSubject<IndexRange> visibleRange$ = PublishSubject.create();
+    ScrollingUserListView scrollingView = mock(ScrollingUserListView.class);
+    given(scrollingView.loadMoreIntent$()).willReturn(noTriggers());
+    given(scrollingView.visibleRange$()).willReturn(visibleRange$);
+
+    User user = mock(User.class);
+    SearchResult result = mock(SearchResult.class);
+    given(result.getTotalCount()).willReturn(totalCount);
+    given(result.getItems()).willReturn(Collections.singletonList(user));
+    given(userService.find("foo", 1, pageSize)).willReturn(Single.just(result));
+
+    UserView userView = mock(UserView.class);
+    UserPresenterFactory userPresenterFactory = mockUserPresenterFactory(userView);
+
+    UserListPresenter presenter = new UserListPresenter(
+        scrollingView,
+        userQuery$,
+        userService,
+        userPresenterFactory,
+        pageSize,
+        DEFAULT_USER_SEARCH_LIMIT,
+        prefetchDistance,
+        DEFAULT_MAX_PAGES,
+        scheduler
+    );
+    presenter.start();
+    userQuery$.onNext(new UserQueryEvent("foo"));
+
+    // when
+    visibleRange$.onNext(new IndexRange(0, 0));
+
+    // then
+    verify(userService).find("foo", 1, pageSize);
+    verifyNoMoreInteractions(userService);
+    assertThat(presenter.getPrefetchedPageCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void onUserQueryEvent_updatableViewAndOverlappingResults_shouldKeepRowsOfUsersFoundAgain() {
+    // given
+    PublishSubject<UserQueryEvent> userQuery$ = PublishSubject.create();
+    UpdatableUserListView updatableView = mock(UpdatableUserListView.class);
+    given(updatableView.loadMoreIntent$()).willReturn(noTriggers());
+    User torvald = new SimpleUser("torvald", "", "");
+    User torvalds = new SimpleUser("torvalds", "", "");
+    User linus = new SimpleUser("linus", "", "");
+    willReturn(Single.just(new SimpleSearchResult(2, false, Arrays.asList(torvald, torvalds))))
+        .given(userService).find("torvald", 1, DEFAULT_PAGE_SIZE);
+    willReturn(Single.just(new SimpleSearchResult(2, false, Arrays.asList(torvalds, linus))))
+        .given(userService).find("torvalds", 1, DEFAULT_PAGE_SIZE);
+
+    UserPresenterFactory userPresenterFactory = mock(UserPresenterFactory.class);
+    given(userPresenterFactory.create(any())).willAnswer(invocation -> {
+      UserView userView = mock(UserView.class);
+      given(userView.userSelection$()).willReturn(noTriggers());
+      return new UserPresenter(userView, event -> {}, invocation.getArgument(0));
+    });
+
+    UserListPresenter presenter = new UserListPresenter(
+        updatableView,
+        userQuery$,
+        userService,
+        userPresenterFactory,
+        DEFAULT_PAGE_SIZE,
+        DEFAULT_USER_SEARCH_LIMIT,
+        DEFAULT_PREFETCH_DISTANCE,
+        DEFAULT_MAX_PAGES,
+        scheduler
+    );
+    presenter.start();
+    userQuery$.onNext(new UserQueryEvent("torvald"));
+
+    // when
+    userQuery$.onNext(new UserQueryEvent("torvalds"));
+
+    // then
+    verify(updatableView).clear(); // nothing displayed yet on the first query
+    verify(updatableView).addAll(any());
+    verify(updatableView).remove(0, 1);
+    verify(updatableView).insert(eq(1), any());
+    verify(updatableView, never()).move(anyInt(), anyInt());
+    verify(userPresenterFactory, times(2)).create(any()); // removed one is reused for insertion
+  }
+
+  @Test
+  public void onUserQueryEvent_metricsSet_shouldCountQueryAndRecordTimeToFirstUser() {
+    // given
+    PublishSubject<UserQueryEvent> userQuery$ = PublishSubject.create();
+    User user = mock(User.class);
+    SearchResult result = mock(SearchResult.class);
+    given(result.getTotalCount()).willReturn(1);
+    given(result.getItems()).willReturn(singletonList(user));
+    given(userService.find("foo", 1, DEFAULT_PAGE_SIZE))
+        .willReturn(Single.just(result).delay(300, TimeUnit.MILLISECONDS, scheduler));
+    given(view.loadMoreIntent$()).willReturn(noTriggers());
+    UserListPresenter presenter = new UserListPresenter(
+        view,
+        userQuery$,
+        userService,
+        mockUserPresenterFactory(user, mock(UserView.class)),
+        DEFAULT_PAGE_SIZE,
+        DEFAULT_USER_SEARCH_LIMIT,
+        DEFAULT_PREFETCH_DISTANCE,
+        DEFAULT_MAX_PAGES,
+        scheduler
+    );
+    RecordingMetrics metrics = new RecordingMetrics();
+    presenter.setMetrics(metrics);
+    presenter.start();
+
+    // when
+    userQuery$.onNext(new UserQueryEvent("foo"));
+    scheduler.advanceTimeBy(300, TimeUnit.MILLISECONDS);
+
+    // then
+    assertThat(metrics.getCount("userList.query")).isEqualTo(1);
+    assertThat(metrics.getValues("userList.timeToFirstUser")).containsExactly(300L);
+    assertThat(metrics.getValues("userList.pageRender")).containsExactly(0L);
+    assertThat(metrics.getCount("presenter.start")).isEqualTo(1);
+  }
+
+  @Test
+  public void onUserQueryEvent_tracerSet_shouldTraceRequestAndRenderedPage() {
+    // given
+    PublishSubject<UserQueryEvent> userQuery$ = PublishSubject.create();
+    User user = mock(User.class);
+    SearchResult result = mock(SearchResult.class);
+    given(result.getTotalCount()).willReturn(1);
+    given(result.getItems()).willReturn(singletonList(user));
+    given(userService.find("foo", 1, DEFAULT_PAGE_SIZE)).willReturn(Single.just(result));
+    given(view.loadMoreIntent$()).willReturn(noTriggers());
+    UserListPresenter presenter = new UserListPresenter(
+        view,
+        userQuery$,
+        userService,
+        mockUserPresenterFactory(user, mock(UserView.class)),
+        DEFAULT_PAGE_SIZE,
+        DEFAULT_USER_SEARCH_LIMIT,
+        DEFAULT_PREFETCH_DISTANCE,
+        DEFAULT_MAX_PAGES,
+        scheduler
+    );
+    RecordingTracer tracer = new RecordingTracer();
+    presenter.setTracer(tracer);
+    presenter.start();
+
+    // when
+    userQuery$.onNext(new UserQueryEvent("foo"));
+
+    // then
+    assertThat(tracer.getSpans("userService.request"))
+        .extracting(RecordingTracer.RecordedSpan::getAttributes)
+        .extracting("query", "page", "size", "outcome")
+        .containsExactly(tuple("foo", 1L, (long) DEFAULT_PAGE_SIZE, "success"));
+    assertThat(tracer.getSpans("userList.pageRendered"))
+        .extracting(RecordingTracer.RecordedSpan::getAttributes)
+        .extracting("query", "page", "users")
+        .containsExactly(tuple("foo", 1L, 1L));
+  }
+
+  @Test
+  public void onUserQueryEvent_queryExtendingDisplayedOneWhileRequestInFlight_shouldDisplayProvisionalUsersUntilResultArrives() {
+    // given
+    PublishSubject<UserQueryEvent> userQuery$ = PublishSubject.create();
+    User linus = new SimpleUser("linus", "", "");
+    User linux = new SimpleUser("linux", "", "");
+    willReturn(Single.just(new SimpleSearchResult(2, false, Arrays.asList(linus, linux))))
+        .given(userService).find("linu", 1, DEFAULT_PAGE_SIZE);
+    SingleSubject<SearchResult> request = SingleSubject.create();
+    willReturn(request).given(userService).find("linus", 1, DEFAULT_PAGE_SIZE);
+    given(view.loadMoreIntent$()).willReturn(noTriggers());
+    UserView userView = mock(UserView.class);
+    UserListPresenter presenter = new UserListPresenter(
+        view,
+        userQuery$,
+        userService,
+        mockUserPresenterFactory(userView),
+        DEFAULT_PAGE_SIZE,
+        DEFAULT_USER_SEARCH_LIMIT,
+        DEFAULT_PREFETCH_DISTANCE,
+        DEFAULT_MAX_PAGES,
+        scheduler
+    );
+    RecordingMetrics metrics = new RecordingMetrics();
+    presenter.setMetrics(metrics);
+    presenter.start();
+    userQuery$.onNext(new UserQueryEvent("linu"));
+    scheduler.triggerActions();
+
+    // when
+    userQuery$.onNext(new UserQueryEvent("linus"));
+
+    // then
+    inOrder = inOrder(view);
+    $(view).addAll(Arrays.asList(userView, userView));
+    $(view).loadingFirstPage(true);
+    $(view).clear();
+    $(view).addAll(singletonList(userView)); // provisional
+    $(view).loadingFirstPage(true);
+    inOrder.verifyNoMoreInteractions();
+    assertThat(metrics.getCount("userList.provisionalRender")).isEqualTo(1);
+
+    // when
+    request.onSuccess(new SimpleSearchResult(1, false, singletonList(linus)));
+    scheduler.triggerActions();
+
+    // then
+    $(view).loadingFirstPage(false);
+    $(view).clear();
+    $(view).addAll(singletonList(userView)); // actual
+    $(view).loadMoreIntent$(); // the next page
+    inOrder.verifyNoMoreInteractions();
+  }
+
+  @Test
+  public void onUserQueryEvent_queryExtendingDisplayedOneAndResultReceivedAtOnce_shouldNotDisplayProvisionalUsers() {
+    // given
+    PublishSubject<UserQueryEvent> userQuery$ = PublishSubject.create();
+    User linus = new SimpleUser("linus", "", "");
+    willReturn(Single.just(new SimpleSearchResult(1, false, singletonList(linus))))
+        .given(userService).find("linu", 1, DEFAULT_PAGE_SIZE);
+    willReturn(Single.just(new SimpleSearchResult(0, false, Collections.emptyList())))
+        .given(userService).find("linus", 1, DEFAULT_PAGE_SIZE);
+    given(view.loadMoreIntent$()).willReturn(noTriggers());
+    UserListPresenter presenter = new UserListPresenter(
+        view,
+        userQuery$,
+        userService,
+        mockUserPresenterFactory(linus, mock(UserView.class)),
+        DEFAULT_PAGE_SIZE,
+        DEFAULT_USER_SEARCH_LIMIT,
+        DEFAULT_PREFETCH_DISTANCE,
+        DEFAULT_MAX_PAGES,
+        scheduler
+    );
+    RecordingMetrics metrics = new RecordingMetrics();
+    presenter.setMetrics(metrics);
+    presenter.start();
+    userQuery$.onNext(new UserQueryEvent("linu"));
+    scheduler.triggerActions();
+
+    // when
+    userQuery$.onNext(new UserQueryEvent("linus"));
+    scheduler.triggerActions();
+
+    // then
+    verify(view, times(1)).addAll(any());
+    verify(view, times(2)).clear();
+    assertThat(metrics.getCount("userList.provisionalRender")).isZero();
+  }
+
+  @Test
+  public void onUserQueryEvent_queryExtendingDisplayedOneFailsAndIsRetried_shouldDisplayProvisionalUsersOnlyOnce() {
+    // given
+    @SuppressWarnings("ThrowableNotThrown")
+    RuntimeException error = new RuntimeException("bar");
+    PublishSubject<UserQueryEvent> userQuery$ = PublishSubject.create();
+    User linus = new SimpleUser("linus", "", "");
+    User linux = new SimpleUser("linux", "", "");
+    willReturn(Single.just(new SimpleSearchResult(2, false, Arrays.asList(linus, linux))))
+        .given(userService).find("linu", 1, DEFAULT_PAGE_SIZE);
+    SingleSubject<SearchResult> request = SingleSubject.create();
+    SingleSubject<SearchResult> retriedRequest = SingleSubject.create();
+    willReturn(request, retriedRequest).given(userService).find("linus", 1, DEFAULT_PAGE_SIZE);
+    PublishSubject<Trigger> loadMoreIntent = PublishSubject.create();
+    given(view.loadMoreIntent$()).willReturn(loadMoreIntent);
+    UserView userView = mock(UserView.class);
+    UserListPresenter presenter = new UserListPresenter(
+        view,
+        userQuery$,
+        userService,
+        mockUserPresenterFactory(userView),
+        DEFAULT_PAGE_SIZE,
+        DEFAULT_USER_SEARCH_LIMIT,
+        DEFAULT_PREFETCH_DISTANCE,
+        DEFAULT_MAX_PAGES,
+        scheduler
+    );
+    RecordingMetrics metrics = new RecordingMetrics();
+    presenter.setMetrics(metrics);
+    presenter.start();
+    userQuery$.onNext(new UserQueryEvent("linu"));
+    scheduler.triggerActions();
+    userQuery$.onNext(new UserQueryEvent("linus"));
+    request.onError(error);
+
+    // when
+    fire(loadMoreIntent);
+
+    // then
+    verify(userService, times(2)).find("linus", 1, DEFAULT_PAGE_SIZE);
+    verify(view, times(1)).addAll(Arrays.asList(userView, userView));
+    verify(view, times(1)).addAll(singletonList(userView)); // provisional
+    verify(view, times(3)).clear(); // the previous query, provisional users, the error
+    assertThat(metrics.getCount("userList.provisionalRender")).isEqualTo(1);
+
+    // when
+    retriedRequest.onSuccess(new SimpleSearchResult(1, false, singletonList(linus)));
+    scheduler.triggerActions();
+
+    // then
+    verify(view, times(2)).addAll(singletonList(userView)); // provisional and actual
+    assertThat(metrics.getCount("userList.provisionalRender")).isEqualTo(1);
+
+    uncaughtThrown.expect(RuntimeException.class);
+    uncaughtThrown.expectMessage("bar");
+  }
+
+  @Test
+  public void onUserQueryEvent_queryExtendingDisplayedOneFailsTerminally_shouldClearProvisionalUsers() {
+    // given
+    @SuppressWarnings("ThrowableNotThrown")
+    RuntimeException error = new RuntimeException("bar");
+    PublishSubject<UserQueryEvent> userQuery$ = PublishSubject.create();
+    User linus = new SimpleUser("linus", "", "");
+    User linux = new SimpleUser("linux", "", "");
+    willReturn(Single.just(new SimpleSearchResult(2, false, Arrays.asList(linus, linux))))
+        .given(userService).find("linu", 1, DEFAULT_PAGE_SIZE);
+    SingleSubject<SearchResult> request = SingleSubject.create();
+    SingleSubject<SearchResult> retriedRequest = SingleSubject.create();
+    willReturn(request, retriedRequest).given(userService).find("linus", 1, DEFAULT_PAGE_SIZE);
+    PublishSubject<Trigger> loadMoreIntent = PublishSubject.create();
+    given(view.loadMoreIntent$()).willReturn(loadMoreIntent);
+    UserView userView = mock(UserView.class);
+    UserListPresenter presenter = new UserListPresenter(
+        view,
+        userQuery$,
+        userService,
+        mockUserPresenterFactory(userView),
+        DEFAULT_PAGE_SIZE,
+        DEFAULT_USER_SEARCH_LIMIT,
+        DEFAULT_PREFETCH_DISTANCE,
+        DEFAULT_MAX_PAGES,
+        scheduler
+    );
+    presenter.setRetryPolicy(new BackoffRetryPolicy(1000, 1000, 0, 1, new Random(), scheduler));
+    RecordingMetrics metrics = new RecordingMetrics();
+    presenter.setMetrics(metrics);
+    presenter.start();
+    userQuery$.onNext(new UserQueryEvent("linu"));
+    scheduler.triggerActions();
+    userQuery$.onNext(new UserQueryEvent("linus"));
+    request.onError(error);
+    scheduler.advanceTimeBy(1000, TimeUnit.MILLISECONDS);
+    fire(loadMoreIntent);
+
+    // when
+    retriedRequest.onError(error); // the policy gives up
+
+    // then
+    inOrder = inOrder(view);
+    $(view).addAll(singletonList(userView)); // provisional
+    $(view).loadingFirstPage(true);
+    $(view).loadingFirstPage(false);
+    $(view).clear();
+    $(view).enableLoadMore(true);
+    $(view).enableLoadMore(false);
+    $(view).loadingFirstPage(true);
+    $(view).loadingFirstPage(false);
+    $(view).clear();
+    inOrder.verifyNoMoreInteractions();
+    verify(view, times(1)).addAll(singletonList(userView));
+    assertThat(metrics.getCount("userList.provisionalRender")).isEqualTo(1);
+
+    uncaughtThrown.expect(RuntimeException.class);
+    uncaughtThrown.expectMessage("bar");
+  }
+
+  private UserPresenterFactory mockUserPresenterFactory(UserView userView) {
+    UserPresenter userPresenter = mock(UserPresenter.class);
+    given(userPresenter.getView()).willReturn(userView);
+    UserPresenterFactory userPresenterFactory = mock(UserPresenterFactory.class);
+    given(userPresenterFactory.create(any())).willReturn(userPresenter);
+    return userPresenterFactory;
+  }
+
   private UserPresenterFactory mockUserPresenterFactory(User user, UserView userView) {
     UserPresenter userPresenter = mock(UserPresenter.class);
     given(userPresenter.getView()).willReturn(userView);
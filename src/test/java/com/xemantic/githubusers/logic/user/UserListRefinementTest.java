@@ -0,0 +1,161 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.user;
+
+import com.xemantic.githubusers.logic.model.SimpleUser;
+import com.xemantic.githubusers.logic.model.User;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test of the {@link UserListRefinement}.
+ *
+ * @author morisil
+ */
+public class UserListRefinementTest {
+
+  private final User linus = new SimpleUser("linus", "", "");
+
+  private final User linux = new SimpleUser("Linux", "", "");
+
+  private final User torvalds = new SimpleUser("torvalds", "", "");
+
+  @Test
+  public void refine_nothingRemembered_shouldNotRefine() {
+    // given
+    UserListRefinement refinement = new UserListRefinement(10);
+
+    // when
+    List<User> users = refinement.refine("linus");
+
+    // then
+    assertThat(users).isNull();
+  }
+
+  @Test
+  public void refine_queryExtendingRememberedOne_shouldReturnUsersWithMatchingLogin() {
+    // given
+    UserListRefinement refinement = new UserListRefinement(10);
+    refinement.remember("linu", Arrays.asList(linus, linux, torvalds));
+
+    // when
+    List<User> users = refinement.refine("linus");
+
+    // then
+    assertThat(users).containsExactly(linus);
+  }
+
+  @Test
+  public void refine_queryDifferingInCaseAndWhitespace_shouldMatchNormalisedLogins() {
+    // given
+    UserListRefinement refinement = new UserListRefinement(10);
+    refinement.remember(" LIN", Arrays.asList(linus, linux, torvalds));
+
+    // when
+    List<User> users = refinement.refine("Linu");
+
+    // then
+    assertThat(users).containsExactly(linus, linux);
+  }
+
+  @Test
+  public void refine_queryWithAdditionalTerm_shouldRequireAllTermsInLogin() {
+    // given
+    UserListRefinement refinement = new UserListRefinement(10);
+    refinement.remember("lin", Arrays.asList(linus, linux, torvalds));
+
+    // when
+    List<User> users = refinement.refine("lin us");
+
+    // then
+    assertThat(users).containsExactly(linus);
+  }
+
+  @Test
+  public void refine_queryNotExtendingRememberedOne_shouldNotRefine() {
+    // given
+    UserListRefinement refinement = new UserListRefinement(10);
+    refinement.remember("linus", Arrays.asList(linus, linux, torvalds));
+
+    // then
+    assertThat(refinement.refine("linus")).isNull();
+    assertThat(refinement.refine("linu")).isNull();
+    assertThat(refinement.refine("torvalds")).isNull();
+  }
+
+  @Test
+  public void refine_queryWithQualifierOrPhrase_shouldNotRefine() {
+    // given
+    UserListRefinement refinement = new UserListRefinement(10);
+    refinement.remember("linus", Arrays.asList(linus, linux, torvalds));
+
+    // then
+    assertThat(refinement.refine("linus location:finland")).isNull();
+    assertThat(refinement.refine("linus \"torvalds\"")).isNull();
+  }
+
+  @Test
+  public void remember_subsequentPagesOfTheSameQuery_shouldRememberUpToMaxUsers() {
+    // given
+    UserListRefinement refinement = new UserListRefinement(2);
+    refinement.remember("lin", Arrays.asList(linus));
+
+    // when
+    refinement.remember("lin", Arrays.asList(linux, torvalds));
+
+    // then
+    assertThat(refinement.refine("linu")).containsExactly(linus, linux);
+  }
+
+  @Test
+  public void remember_anotherQuery_shouldForgetUsersOfPreviousQuery() {
+    // given
+    UserListRefinement refinement = new UserListRefinement(10);
+    refinement.remember("lin", Arrays.asList(linus, linux));
+
+    // when
+    refinement.remember("tor", Arrays.asList(torvalds));
+
+    // then
+    assertThat(refinement.refine("linu")).isNull();
+    assertThat(refinement.refine("torv")).containsExactly(torvalds);
+  }
+
+  @Test
+  public void clear_usersRemembered_shouldNotRefine() {
+    // given
+    UserListRefinement refinement = new UserListRefinement(10);
+    refinement.remember("lin", Arrays.asList(linus, linux));
+
+    // when
+    refinement.clear();
+
+    // then
+    assertThat(refinement.refine("linu")).isNull();
+  }
+
+}
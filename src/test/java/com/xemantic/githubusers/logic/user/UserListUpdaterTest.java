@@ -0,0 +1,281 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.user;
+
+import com.xemantic.ankh.shared.event.Sink;
+import com.xemantic.ankh.shared.event.Trigger;
+import com.xemantic.githubusers.logic.event.UserSelectedEvent;
+import com.xemantic.githubusers.logic.model.SimpleUser;
+import com.xemantic.githubusers.logic.model.User;
+import io.reactivex.Observable;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.mockito.quality.Strictness;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static com.xemantic.ankh.shared.event.Trigger.noTriggers;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Test of the {@link UserListUpdater}.
+ *
+ * @author morisil
+ */
+public class UserListUpdaterTest {
+
+  @Rule
+  public MockitoRule mockitoRule = MockitoJUnit.rule().strictness(Strictness.STRICT_STUBS);
+
+  @Mock
+  private UserPresenterFactory userPresenterFactory;
+
+  @Mock
+  private Sink<UserSelectedEvent> userSelectedSink;
+
+  private final TestUserListView view = new TestUserListView();
+
+  private final List<UserPresenter> rows = new ArrayList<>();
+
+  @Test
+  public void update_overlappingUsers_shouldKeepSurvivingRowsAndRemoveOrInsertTheRest() {
+    // given
+    UserListUpdater updater = newUpdater();
+    updater.update(rows, users("a", "b", "c", "d"));
+    UserPresenter b = rows.get(1);
+    UserPresenter c = rows.get(2);
+    view.operations.clear();
+
+    // when
+    updater.update(rows, users("b", "c", "e"));
+
+    // then
+    assertDisplayed("b", "c", "e");
+    assertThat(rows.subList(0, 2)).containsExactly(b, c);
+    assertThat(view.operations).containsExactly("remove 3 1", "remove 0 1", "insert 2");
+  }
+
+  @Test
+  public void update_contiguousUsersGone_shouldRemoveTheirRowsAtOnce() {
+    // given
+    UserListUpdater updater = newUpdater();
+    updater.update(rows, users("a", "b", "c", "d", "e", "f"));
+    view.operations.clear();
+
+    // when
+    updater.update(rows, users("a", "e"));
+
+    // then
+    assertDisplayed("a", "e");
+    assertThat(view.operations).containsExactly("remove 5 1", "remove 1 3");
+  }
+
+  @Test
+  public void update_reorderedUsers_shouldMoveOnlyTheUserOutOfOrder() {
+    // given
+    UserListUpdater updater = newUpdater();
+    updater.update(rows, users("a", "b", "c", "d"));
+    List<UserPresenter> presenters = new ArrayList<>(rows);
+    view.operations.clear();
+
+    // when
+    updater.update(rows, users("d", "a", "b", "c"));
+
+    // then
+    assertDisplayed("d", "a", "b", "c");
+    assertThat(rows).containsOnlyElementsOf(presenters);
+    assertThat(view.operations).containsExactly("move 3 0");
+  }
+
+  @Test
+  public void update_noCommonUsers_shouldClearTheViewAndAddAllTheUsersAtOnce() {
+    // given
+    UserListUpdater updater = newUpdater();
+    updater.update(rows, users("a", "b"));
+    view.operations.clear();
+
+    // when
+    updater.update(rows, users("c", "d", "e"));
+
+    // then
+    assertDisplayed("c", "d", "e");
+    assertThat(view.operations).containsExactly("clear", "addAll 3");
+  }
+
+  @Test
+  public void update_duplicatedLogins_shouldDisplayEachUserInOrder() {
+    // given
+    UserListUpdater updater = newUpdater();
+    updater.update(rows, users("a", "a", "b"));
+
+    // when
+    updater.update(rows, users("b", "a", "b"));
+
+    // then
+    assertDisplayed("b", "a", "b");
+  }
+
+  @Test
+  public void update_randomLists_shouldAlwaysDisplayNewUsersKeepingTheSurvivingRows() {
+    // given
+    UserListUpdater updater = newUpdater();
+    Random random = new Random(42);
+    String[] logins = randomLogins(random, 30);
+    updater.update(rows, Arrays.asList(toUsers(logins)));
+
+    for (int i = 0; i < 200; i++) {
+      String[] next = randomLogins(random, random.nextInt(30));
+      List<UserPresenter> previous = new ArrayList<>(rows);
+      view.operations.clear();
+
+      // when
+      updater.update(rows, Arrays.asList(toUsers(next)));
+
+      // then
+      assertDisplayed(next);
+      int survivors = 0;
+      for (UserPresenter presenter : rows) {
+        if (previous.contains(presenter)) survivors++;
+      }
+      if (survivors > 0) {
+        long removals = view.operations.stream()
+            .filter(op -> op.startsWith("remove"))
+            .mapToInt(op -> Integer.parseInt(op.substring(op.lastIndexOf(' ') + 1)))
+            .sum();
+        long insertions = view.operations.stream().filter(op -> op.startsWith("insert")).count();
+        assertThat(removals).isEqualTo(previous.size() - survivors);
+        assertThat(insertions).isEqualTo(next.length - survivors);
+      }
+    }
+  }
+
+  private UserListUpdater newUpdater() {
+    given(userPresenterFactory.create(any())).willAnswer(invocation -> {
+      UserView userView = mock(UserView.class);
+      given(userView.userSelection$()).willReturn(noTriggers());
+      UserPresenter presenter = new UserPresenter(
+          userView, userSelectedSink, invocation.getArgument(0)
+      );
+      presenter.start();
+      return presenter;
+    });
+    return new UserListUpdater(view, new UserPresenterPool(userPresenterFactory, 0));
+  }
+
+  private void assertDisplayed(String... logins) {
+    List<UserView> expectedViews = new ArrayList<>();
+    List<String> displayedLogins = new ArrayList<>();
+    for (UserPresenter presenter : rows) {
+      expectedViews.add(presenter.getView());
+      displayedLogins.add(presenter.getUser().getLogin());
+    }
+    assertThat(displayedLogins).containsExactly(logins);
+    assertThat(view.userViews).isEqualTo(expectedViews);
+  }
+
+  private static String[] randomLogins(Random random, int count) {
+    List<String> logins = new ArrayList<>();
+    for (int i = 0; i < 40; i++) {
+      logins.add("user" + i);
+    }
+    Collections.shuffle(logins, random);
+    return logins.subList(0, count).toArray(new String[count]);
+  }
+
+  private static List<User> users(String... logins) {
+    return Arrays.asList(toUsers(logins));
+  }
+
+  private static User[] toUsers(String[] logins) {
+    User[] users = new User[logins.length];
+    for (int i = 0; i < logins.length; i++) {
+      users[i] = new SimpleUser(logins[i], "", "");
+    }
+    return users;
+  }
+
+  private static class TestUserListView implements UpdatableUserListView {
+
+    private final List<UserView> userViews = new ArrayList<>();
+
+    private final List<String> operations = new ArrayList<>();
+
+    @Override
+    public void insert(int index, UserView userView) {
+      userViews.add(index, userView);
+      operations.add("insert " + index);
+    }
+
+    @Override
+    public void remove(int index, int count) {
+      userViews.subList(index, index + count).clear();
+      operations.add("remove " + index + " " + count);
+    }
+
+    @Override
+    public void move(int from, int to) {
+      userViews.add(to, userViews.remove(from));
+      operations.add("move " + from + " " + to);
+    }
+
+    @Override
+    public void add(UserView userView) {
+      userViews.add(userView);
+    }
+
+    @Override
+    public void addAll(List<UserView> userViews) {
+      this.userViews.addAll(userViews);
+      operations.add("addAll " + userViews.size());
+    }
+
+    @Override
+    public void clear() {
+      userViews.clear();
+      operations.add("clear");
+    }
+
+    @Override
+    public Observable<Trigger> loadMoreIntent$() {
+      return noTriggers();
+    }
+
+    @Override
+    public void enableLoadMore(boolean enabled) {}
+
+    @Override
+    public void loadingFirstPage(boolean loading) {}
+
+  }
+
+}
@@ -0,0 +1,57 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.user;
+
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import java.util.Arrays;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Test of the {@link UserListView} default methods.
+ *
+ * @author morisil
+ */
+public class UserListViewTest {
+
+  @Test
+  public void addAll_viewSupportingOnlySingleAdds_shouldAddViewsOneByOne() {
+    // given
+    UserListView view = mock(UserListView.class, CALLS_REAL_METHODS);
+    UserView userView1 = mock(UserView.class);
+    UserView userView2 = mock(UserView.class);
+
+    // when
+    view.addAll(Arrays.asList(userView1, userView2));
+
+    // then
+    InOrder inOrder = inOrder(view);
+    inOrder.verify(view).addAll(Arrays.asList(userView1, userView2));
+    inOrder.verify(view).add(userView1);
+    inOrder.verify(view).add(userView2);
+    verifyNoMoreInteractions(view);
+  }
+
+}
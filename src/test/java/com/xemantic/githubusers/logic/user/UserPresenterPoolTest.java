@@ -0,0 +1,119 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.user;
+
+import com.xemantic.githubusers.logic.model.User;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.mockito.quality.Strictness;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test of the {@link UserPresenterPool}.
+ *
+ * @author morisil
+ */
+public class UserPresenterPoolTest {
+
+  @Rule
+  public MockitoRule mockitoRule = MockitoJUnit.rule().strictness(Strictness.STRICT_STUBS);
+
+  @Mock
+  private UserPresenterFactory userPresenterFactory;
+
+  @Mock
+  private UserPresenter presenter;
+
+  @Test
+  public void acquire_emptyPool_shouldCreateAndStartPresenter() {
+    // given
+    User user = mock(User.class);
+    given(userPresenterFactory.create(user)).willReturn(presenter);
+    UserPresenterPool pool = new UserPresenterPool(userPresenterFactory, 1);
+
+    // when
+    UserPresenter acquired = pool.acquire(user);
+
+    // then
+    assertThat(acquired).isSameAs(presenter);
+    verify(presenter).start();
+    assertThat(pool.getCreatedCount()).isEqualTo(1);
+    assertThat(pool.getReusedCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void acquire_releasedPresenter_shouldRebindItToAnotherUser() {
+    // given
+    User user1 = mock(User.class);
+    User user2 = mock(User.class);
+    given(userPresenterFactory.create(user1)).willReturn(presenter);
+    UserPresenterPool pool = new UserPresenterPool(userPresenterFactory, 1);
+    pool.release(pool.acquire(user1));
+
+    // when
+    UserPresenter acquired = pool.acquire(user2);
+
+    // then
+    assertThat(acquired).isSameAs(presenter);
+    verify(presenter).start();
+    verify(presenter).bind(user2);
+    verify(presenter, never()).stop();
+    verifyNoMoreInteractions(userPresenterFactory);
+    assertThat(pool.getReusedCount()).isEqualTo(1);
+    assertThat(pool.getIdleCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void release_fullPool_shouldStopPresenter() {
+    // given
+    UserPresenterPool pool = new UserPresenterPool(userPresenterFactory, 0);
+
+    // when
+    pool.release(presenter);
+
+    // then
+    verify(presenter).stop();
+    assertThat(pool.getIdleCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void clear_idlePresenters_shouldStopThem() {
+    // given
+    UserPresenterPool pool = new UserPresenterPool(userPresenterFactory, 1);
+    pool.release(presenter);
+
+    // when
+    pool.clear();
+
+    // then
+    verify(presenter).stop();
+    assertThat(pool.getIdleCount()).isEqualTo(0);
+  }
+
+}
@@ -94,4 +94,26 @@ public class UserPresenterTest {
     assertThat(event.getUser().getLogin()).isEqualTo("foo");
   }
 
+  @Test
+  public void bind_anotherUser_shouldDisplayItAndPostItsSelection() {
+    // given
+    TestObserver<UserSelectedEvent> userSelected$ = TestObserver.create();
+    User user1 = mock(User.class);
+    User user2 = mock(User.class);
+    PublishSubject<Trigger> userSelectionIntent = PublishSubject.create();
+    given(view.userSelection$()).willReturn(userSelectionIntent);
+    UserPresenter presenter = new UserPresenter(view, Sink.of(userSelected$), user1);
+    presenter.start();
+
+    // when
+    presenter.bind(user2);
+
+    // then
+    then(view).should().displayUser(user1);
+    then(view).should().displayUser(user2);
+    fire(userSelectionIntent);
+    assertThat(userSelected$.values().get(0).getUser()).isSameAs(user2);
+    assertThat(userSelectionIntent.hasObservers()).isTrue(); // same subscription
+  }
+
 }
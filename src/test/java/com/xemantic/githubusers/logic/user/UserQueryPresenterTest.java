@@ -23,9 +23,13 @@
 package com.xemantic.githubusers.logic.user;
 
 import com.xemantic.ankh.shared.event.Sink;
+import com.xemantic.ankh.test.RecordingTracer;
 import com.xemantic.githubusers.logic.event.UserQueryEvent;
+import com.xemantic.githubusers.logic.service.QueryHeavyHitters;
+import com.xemantic.githubusers.logic.service.UserServiceLatency;
 import io.reactivex.Observable;
 import io.reactivex.observers.TestObserver;
+import io.reactivex.schedulers.Schedulers;
 import io.reactivex.subjects.PublishSubject;
 import org.junit.Rule;
 import org.junit.Test;
@@ -54,12 +58,20 @@ public class UserQueryPresenterTest {
   @Mock
   private UserQueryView view;
 
+  private final UserQueryShaper queryShaper = new UserQueryShaper(
+      new UserServiceLatency(),
+      new QueryHeavyHitters(10),
+      Schedulers.trampoline(),
+      0,
+      0 // no debouncing
+  );
+
   @Test
   public void start_shouldOnlyBindToView() {
     // given
     TestObserver<UserQueryEvent> userQuery$ = TestObserver.create();
     given(view.queryInput$()).willReturn(Observable.empty());
-    UserQueryPresenter presenter = new UserQueryPresenter(view, Sink.of(userQuery$));
+    UserQueryPresenter presenter = new UserQueryPresenter(view, Sink.of(userQuery$), queryShaper);
 
     // when
     presenter.start();
@@ -76,7 +88,7 @@ public class UserQueryPresenterTest {
     TestObserver<UserQueryEvent> userQuery$ = TestObserver.create();
     PublishSubject<String> userQueryIntent = PublishSubject.create();
     given(view.queryInput$()).willReturn(userQueryIntent);
-    UserQueryPresenter presenter = new UserQueryPresenter(view, Sink.of(userQuery$));
+    UserQueryPresenter presenter = new UserQueryPresenter(view, Sink.of(userQuery$), queryShaper);
     presenter.start();
 
     // when
@@ -95,7 +107,7 @@ public class UserQueryPresenterTest {
     TestObserver<UserQueryEvent> userQuery$ = TestObserver.create();
     PublishSubject<String> userQueryIntents = PublishSubject.create();
     given(view.queryInput$()).willReturn(userQueryIntents);
-    UserQueryPresenter presenter = new UserQueryPresenter(view, Sink.of(userQuery$));
+    UserQueryPresenter presenter = new UserQueryPresenter(view, Sink.of(userQuery$), queryShaper);
     presenter.start();
 
     // when
@@ -110,4 +122,45 @@ public class UserQueryPresenterTest {
         .containsExactly("foo", "bar");
   }
 
+  @Test
+  public void onUserQuery_sameQueryWithExtraWhitespace_shouldPostOnlyOneNormalizedEvent() {
+    // given
+    TestObserver<UserQueryEvent> userQuery$ = TestObserver.create();
+    PublishSubject<String> userQueryIntents = PublishSubject.create();
+    given(view.queryInput$()).willReturn(userQueryIntents);
+    UserQueryPresenter presenter = new UserQueryPresenter(view, Sink.of(userQuery$), queryShaper);
+    presenter.start();
+
+    // when
+    userQueryIntents.onNext("foo  bar");
+    userQueryIntents.onNext(" foo bar ");
+
+    // then
+    userQuery$.assertValueCount(1);
+    assertThat(userQuery$.values())
+        .extracting(UserQueryEvent::getQuery)
+        .containsExactly("foo bar");
+    assertThat(queryShaper.getRequestsAvoided()).isEqualTo(1);
+  }
+
+  @Test
+  public void onUserQuery_tracerSet_shouldTraceQuery() {
+    // given
+    TestObserver<UserQueryEvent> userQuery$ = TestObserver.create();
+    PublishSubject<String> userQueryIntent = PublishSubject.create();
+    given(view.queryInput$()).willReturn(userQueryIntent);
+    UserQueryPresenter presenter = new UserQueryPresenter(view, Sink.of(userQuery$), queryShaper);
+    RecordingTracer tracer = new RecordingTracer();
+    presenter.setTracer(tracer);
+    presenter.start();
+
+    // when
+    userQueryIntent.onNext("foo");
+
+    // then
+    assertThat(tracer.getSpans("userQuery"))
+        .extracting(span -> span.getAttributes().get("query"))
+        .containsExactly("foo");
+  }
+
 }
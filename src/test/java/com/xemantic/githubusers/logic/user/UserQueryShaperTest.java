@@ -0,0 +1,143 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.user;
+
+import com.xemantic.githubusers.logic.service.QueryHeavyHitters;
+import com.xemantic.githubusers.logic.service.UserServiceLatency;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.schedulers.TestScheduler;
+import io.reactivex.subjects.PublishSubject;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test of the {@link UserQueryShaper}.
+ *
+ * @author morisil
+ */
+public class UserQueryShaperTest {
+
+  private final TestScheduler scheduler = new TestScheduler();
+
+  private final UserServiceLatency latency = new UserServiceLatency();
+
+  private final QueryHeavyHitters heavyHitters = new QueryHeavyHitters(10);
+
+  @Test
+  public void apply_keystrokesWithinDebounceWindow_shouldEmitOnlyLastQuery() {
+    // given
+    PublishSubject<String> queryInput$ = PublishSubject.create();
+    UserQueryShaper shaper = new UserQueryShaper(latency, heavyHitters, scheduler, 300, 1000);
+    TestObserver<String> query$ = queryInput$.compose(shaper).test();
+
+    // when
+    queryInput$.onNext("f");
+    queryInput$.onNext("fo");
+    scheduler.advanceTimeBy(200, TimeUnit.MILLISECONDS);
+    queryInput$.onNext("foo");
+    scheduler.advanceTimeBy(300, TimeUnit.MILLISECONDS);
+
+    // then
+    query$.assertValues("foo");
+    assertThat(shaper.getRequestsAvoided()).isEqualTo(2);
+  }
+
+  @Test
+  public void apply_queryChangedAndRestoredWithinWindow_shouldNotEmitSameQueryAgain() {
+    // given
+    PublishSubject<String> queryInput$ = PublishSubject.create();
+    UserQueryShaper shaper = new UserQueryShaper(latency, heavyHitters, scheduler, 300, 1000);
+    TestObserver<String> query$ = queryInput$.compose(shaper).test();
+    queryInput$.onNext("foo");
+    scheduler.advanceTimeBy(300, TimeUnit.MILLISECONDS);
+
+    // when
+    queryInput$.onNext("foob");
+    queryInput$.onNext("foo ");
+    scheduler.advanceTimeBy(300, TimeUnit.MILLISECONDS);
+
+    // then
+    query$.assertValues("foo");
+    assertThat(shaper.getRequestsAvoided()).isEqualTo(2);
+  }
+
+  @Test
+  public void apply_queriesPublished_shouldRecordOnlyPublishedQueries() {
+    // given
+    PublishSubject<String> queryInput$ = PublishSubject.create();
+    UserQueryShaper shaper = new UserQueryShaper(latency, heavyHitters, scheduler, 300, 1000);
+    queryInput$.compose(shaper).test();
+
+    // when
+    queryInput$.onNext("f");
+    queryInput$.onNext("foo");
+    scheduler.advanceTimeBy(300, TimeUnit.MILLISECONDS);
+    queryInput$.onNext(" ");
+    scheduler.advanceTimeBy(300, TimeUnit.MILLISECONDS);
+
+    // then
+    assertThat(heavyHitters.getTopQueries()).containsExactly("foo");
+  }
+
+  @Test
+  public void getDebounceWindowMillis_noLatencyMeasured_shouldReturnMinWindow() {
+    // given
+    UserQueryShaper shaper = new UserQueryShaper(latency, heavyHitters, scheduler, 300, 1000);
+
+    // when
+    long window = shaper.getDebounceWindowMillis();
+
+    // then
+    assertThat(window).isEqualTo(300);
+  }
+
+  @Test
+  public void getDebounceWindowMillis_slowService_shouldAdaptWindowToLatency() {
+    // given
+    UserQueryShaper shaper = new UserQueryShaper(latency, heavyHitters, scheduler, 300, 1000);
+    latency.record(1600);
+
+    // when
+    long window = shaper.getDebounceWindowMillis();
+
+    // then
+    assertThat(window).isEqualTo(800);
+  }
+
+  @Test
+  public void getDebounceWindowMillis_verySlowService_shouldLimitWindowToMax() {
+    // given
+    UserQueryShaper shaper = new UserQueryShaper(latency, heavyHitters, scheduler, 300, 1000);
+    latency.record(10000);
+
+    // when
+    long window = shaper.getDebounceWindowMillis();
+
+    // then
+    assertThat(window).isEqualTo(1000);
+  }
+
+}
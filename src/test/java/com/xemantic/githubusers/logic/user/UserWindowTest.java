@@ -0,0 +1,276 @@
+/*
+ * github-users - lists GitHub users. Minimal app demonstrating
+ * cross-platform app development (Web, Android, iOS) where core
+ * logic is shared and transpiled from Java to JavaScript and
+ * Objective-C. This project delivers core application logic.
+ *
+ * Copyright (C) 2017  Kazimierz Pogoda
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.xemantic.githubusers.logic.user;
+
+import com.xemantic.githubusers.logic.model.User;
+import io.reactivex.Single;
+import io.reactivex.subjects.SingleSubject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.mockito.quality.Strictness;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test of the {@link UserWindow}.
+ *
+ * @author morisil
+ */
+public class UserWindowTest {
+
+  @Rule
+  public MockitoRule mockitoRule = MockitoJUnit.rule().strictness(Strictness.STRICT_STUBS);
+
+  private static final int PAGE_SIZE = 10;
+
+  @Mock
+  private WindowedUserListView view;
+
+  @Mock
+  private UserPresenterFactory userPresenterFactory;
+
+  private final List<UserPresenter> createdPresenters = new ArrayList<>();
+
+  @Test
+  public void add_usersBeyondInitialWindow_shouldCreatePresentersOnlyWithinWindow() {
+    // given
+    UserWindow window = newWindow(2);
+
+    // when
+    addUsers(window, 10);
+
+    // then
+    assertThat(window.getActivePresenterCount()).isEqualTo(3); // index 0 + margin 2
+    verify(userPresenterFactory, times(3)).create(any());
+    verify(view).bind(0, createdPresenters.get(0).getView());
+    verify(view).bind(1, createdPresenters.get(1).getView());
+    verify(view).bind(2, createdPresenters.get(2).getView());
+    verify(view).setUserCount(10);
+    verify(createdPresenters.get(0)).start();
+  }
+
+  @Test
+  public void setVisibleRange_scrolledDown_shouldReleasePresentersLeavingWindowAndCreateEnteringOnes() {
+    // given
+    UserWindow window = newWindow(1);
+    addUsers(window, 10);
+    UserPresenter first = createdPresenters.get(0);
+    UserPresenter second = createdPresenters.get(1);
+
+    // when
+    window.setVisibleRange(new IndexRange(3, 4));
+
+    // then
+    assertThat(window.getActivePresenterCount()).isEqualTo(4); // 2..5
+    verify(first).stop();
+    verify(view).unbind(0);
+    verify(second).stop();
+    verify(view).unbind(1);
+    verify(view, never()).unbind(2);
+    verify(view).bind(eq(3), any());
+    verify(view).bind(eq(4), any());
+    verify(view).bind(eq(5), any());
+    verify(view, never()).bind(eq(6), any());
+  }
+
+  @Test
+  public void setVisibleRange_scrollingThrough1000Users_shouldKeepPresenterCountFlat() {
+    // given
+    UserWindow window = newWindow(10);
+    addUsers(window, 1000);
+
+    // when
+    for (int first = 0; first < 990; first += 5) {
+      window.setVisibleRange(new IndexRange(first, first + 9));
+    }
+
+    // then
+    assertThat(window.getActivePresenterCount()).isLessThanOrEqualTo(30);
+    long alive = createdPresenters.size() - createdPresenters.stream()
+        .filter(presenter -> mockingDetails(presenter).getInvocations().stream()
+            .anyMatch(invocation -> invocation.getMethod().getName().equals("stop")))
+        .count();
+    assertThat(alive).isEqualTo(window.getActivePresenterCount());
+  }
+
+  @Test
+  public void add_userWithinScrolledWindow_shouldCreatePresenter() {
+    // given
+    UserWindow window = newWindow(0);
+    window.setVisibleRange(new IndexRange(1, 1));
+
+    // when
+    addUsers(window, 3);
+
+    // then
+    assertThat(window.getActivePresenterCount()).isEqualTo(1);
+    verify(view).bind(eq(1), any());
+  }
+
+  @Test
+  public void clear_activePresentersAndFullPool_shouldStopThemAndForgetUsers() {
+    // given
+    UserWindow window = newWindow(1);
+    addUsers(window, 3);
+
+    // when
+    window.clear();
+
+    // then
+    assertThat(window.getActivePresenterCount()).isEqualTo(0);
+    verify(createdPresenters.get(0)).stop();
+    verify(createdPresenters.get(1)).stop();
+    window.setVisibleRange(new IndexRange(0, 5));
+    assertThat(window.getActivePresenterCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void setVisibleRange_scrolledWithPool_shouldReusePresentersLeavingWindow() {
+    // given
+    stubPresenterCreation();
+    UserPresenterPool pool = new UserPresenterPool(userPresenterFactory, 10);
+    UserWindow window = new UserWindow(view, pool, 1, PAGE_SIZE, 0, null);
+    addUsers(window, 100);
+
+    // when
+    for (int first = 0; first < 90; first++) {
+      window.setVisibleRange(new IndexRange(first, first + 4));
+    }
+
+    // then
+    assertThat(createdPresenters).hasSize(7); // the window size
+    assertThat(pool.getReusedCount()).isEqualTo(88); // each scroll after window reached its size
+    verify(createdPresenters.get(0), never()).stop();
+  }
+
+  @Test
+  public void addAll_moreThanMaxPages_shouldEvictPagesMostDistantFromWindowButNotTheLastOne() {
+    // given
+    stubPresenterCreation();
+    UserWindow window = new UserWindow(
+        view, new UserPresenterPool(userPresenterFactory, 0), 0, PAGE_SIZE, 2, page -> Single.never()
+    );
+
+    // when
+    addUsers(window, 5 * PAGE_SIZE);
+
+    // then
+    assertThat(window.getLoadedPageCount()).isEqualTo(2); // the first one in the window and the last one
+    verify(view).setUserCount(5 * PAGE_SIZE);
+    assertThat(window.getActivePresenterCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void setVisibleRange_scrolledToEvictedPage_shouldLoadItAgainAndBindItsUsers() {
+    // given
+    stubPresenterCreation();
+    List<Integer> loadedPages = new ArrayList<>();
+    SingleSubject<List<User>> reload = SingleSubject.create();
+    UserWindow window = new UserWindow(
+        view, new UserPresenterPool(userPresenterFactory, 0), 0, PAGE_SIZE, 2, page -> {
+          loadedPages.add(page);
+          return reload;
+        }
+    );
+    addUsers(window, 5 * PAGE_SIZE);
+
+    // when
+    window.setVisibleRange(new IndexRange(25, 26));
+
+    // then
+    assertThat(loadedPages).containsExactly(3);
+    verify(view, never()).bind(eq(25), any());
+    window.setVisibleRange(new IndexRange(26, 27)); // still loading
+    assertThat(loadedPages).containsExactly(3);
+    reload.onSuccess(newUsers(PAGE_SIZE));
+    verify(view, never()).bind(eq(25), any()); // not visible anymore
+    verify(view).bind(eq(26), any());
+    verify(view).bind(eq(27), any());
+    assertThat(window.getReloadedPageCount()).isEqualTo(1);
+    assertThat(window.getLoadedPageCount()).isEqualTo(2); // the first page evicted in turn
+  }
+
+  @Test
+  public void setVisibleRange_evictedPageLoadedAgainShorter_shouldBindOnlyLoadedUsers() {
+    // given
+    stubPresenterCreation();
+    UserWindow window = new UserWindow(
+        view, new UserPresenterPool(userPresenterFactory, 0), 0, PAGE_SIZE, 2,
+        page -> Single.just(newUsers(3)) // results changed in the meantime
+    );
+    addUsers(window, 5 * PAGE_SIZE);
+
+    // when
+    window.setVisibleRange(new IndexRange(21, 26));
+
+    // then
+    verify(view).bind(eq(21), any());
+    verify(view).bind(eq(22), any());
+    verify(view, never()).bind(eq(23), any());
+    verify(view, never()).bind(eq(26), any());
+
+    // when
+    window.setVisibleRange(new IndexRange(24, 28));
+
+    // then
+    verify(view, never()).bind(eq(24), any());
+    verify(view, never()).bind(eq(28), any());
+    assertThat(window.getReloadedPageCount()).isEqualTo(1);
+  }
+
+  private UserWindow newWindow(int margin) {
+    stubPresenterCreation();
+    return new UserWindow(view, new UserPresenterPool(userPresenterFactory, 0), margin, PAGE_SIZE, 0, null);
+  }
+
+  private void stubPresenterCreation() {
+    given(userPresenterFactory.create(any())).willAnswer(invocation -> {
+      UserPresenter presenter = mock(UserPresenter.class);
+      UserView userView = mock(UserView.class);
+      given(presenter.getView()).willReturn(userView);
+      createdPresenters.add(presenter);
+      return presenter;
+    });
+  }
+
+  private static void addUsers(UserWindow window, int count) {
+    window.addAll(newUsers(count));
+  }
+
+  private static List<User> newUsers(int count) {
+    List<User> users = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      users.add(mock(User.class));
+    }
+    return users;
+  }
+
+}